@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.alarm;
+
+import android.test.AndroidTestCase;
+
+import com.daskiworks.ghwatch.Utils;
+
+/**
+ * Unit test for {@link PollingScheduler}
+ */
+public class PollingSchedulerTest extends AndroidTestCase {
+
+  private static final long MAX = 30 * Utils.MILLIS_MINUTE;
+
+  public void test_computeNextCheckDelay_quiet() {
+    // no arrivals - user period used
+    assertEquals(MAX, PollingScheduler.computeNextCheckDelay(MAX, 0, 0f, 0, true));
+    assertEquals(MAX, PollingScheduler.computeNextCheckDelay(MAX, 0, 0f, 10, false));
+  }
+
+  public void test_computeNextCheckDelay_burst() {
+    // 12 notifications per hour - check every 2.5 minutes
+    assertEquals(150 * Utils.MILLIS_SECOND, PollingScheduler.computeNextCheckDelay(MAX, 0, 12f, 0, true));
+    // back off with not modified responses
+    assertEquals(300 * Utils.MILLIS_SECOND, PollingScheduler.computeNextCheckDelay(MAX, 0, 12f, 1, true));
+    assertEquals(600 * Utils.MILLIS_SECOND, PollingScheduler.computeNextCheckDelay(MAX, 0, 12f, 2, true));
+    // mobile data
+    assertEquals(225 * Utils.MILLIS_SECOND, PollingScheduler.computeNextCheckDelay(MAX, 0, 12f, 0, false));
+    // upper bound
+    assertEquals(MAX, PollingScheduler.computeNextCheckDelay(MAX, 0, 12f, 100, true));
+  }
+
+  public void test_computeNextCheckDelay_serverPollInterval() {
+    // big arrival rate, min delay used
+    assertEquals(PollingScheduler.MIN_DELAY, PollingScheduler.computeNextCheckDelay(MAX, 0, 1000f, 0, true));
+    assertEquals(5 * Utils.MILLIS_MINUTE, PollingScheduler.computeNextCheckDelay(MAX, 5 * Utils.MILLIS_MINUTE, 1000f, 0, true));
+    // server interval has precedence over user period
+    assertEquals(60 * Utils.MILLIS_MINUTE, PollingScheduler.computeNextCheckDelay(MAX, 60 * Utils.MILLIS_MINUTE, 0f, 0, true));
+  }
+
+  public void test_computeArrivalRate() {
+    float r = PollingScheduler.computeArrivalRate(0f, 5, 30 * Utils.MILLIS_MINUTE);
+    assertEquals(3f, r, 0.001f);
+    r = PollingScheduler.computeArrivalRate(r, 0, 30 * Utils.MILLIS_MINUTE);
+    assertEquals(2.1f, r, 0.001f);
+  }
+
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Minimal in-process HTTP server standing in for GitHub API in tests. Use {@link #getUrlBase()} with {@link GHConstants#setUrlBase(String)}.
+ * <p/>
+ * Serves synthetic data of configurable size:
+ * <ul>
+ * <li><code>GET /notifications</code> and <code>GET /repos/{owner}/{repo}/notifications</code>
+ * <li><code>GET /user/subscriptions</code> and <code>GET /user</code>
+ * <li><code>GET /repos/{owner}/{repo}/issues/{number}</code> and <code>/pulls/{number}</code> subject details
+ * <li>mark read, mute and unwatch calls, which are accepted but do not change data
+ * </ul>
+ * List responses are paged over <code>page</code> and <code>per_page</code> params with <code>Link</code> header. <code>Last-Modified</code>,
+ * <code>ETag</code>, rate limit and poll interval headers are sent, conditional requests get <code>304 Not Modified</code>, content is gzipped
+ * if requested. Latency can be injected into each response.
+ */
+public class LocalGitHubServer {
+
+  private static final Pattern REPO_NOTIFICATIONS = Pattern.compile("/repos/([^/]+/[^/]+)/notifications");
+  private static final Pattern SUBJECT = Pattern.compile("/repos/([^/]+/[^/]+)/(issues|pulls)/(\\d+)");
+
+  private static final int DEFAULT_PER_PAGE = 30;
+  private static final int MAX_PER_PAGE = 100;
+
+  private ServerSocket serverSocket;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  private volatile int notificationCount = 100;
+  private volatile int repositoryCount = 10;
+  private volatile long latencyMillis = 0;
+  private volatile boolean gzipEnabled = true;
+  private volatile int rateLimit = 5000;
+  private volatile long dataTimestamp = System.currentTimeMillis() / 1000 * 1000;
+
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final AtomicInteger notModifiedCount = new AtomicInteger();
+  private final AtomicLong bytesSent = new AtomicLong();
+  private final AtomicInteger rateLimitRemaining = new AtomicInteger(rateLimit);
+
+  /**
+   * Start server on random free port of loopback interface.
+   *
+   * @throws IOException if server socket can't be opened
+   */
+  public void start() throws IOException {
+    serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        while (!serverSocket.isClosed()) {
+          try {
+            final Socket s = serverSocket.accept();
+            executor.execute(new Runnable() {
+              @Override
+              public void run() {
+                handleConnection(s);
+              }
+            });
+          } catch (IOException e) {
+            // server socket closed
+          }
+        }
+      }
+    });
+  }
+
+  public void stop() {
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      // nothing to do
+    }
+    executor.shutdownNow();
+  }
+
+  /**
+   * @return base url of this server to be used instead of GitHub API one
+   */
+  public String getUrlBase() {
+    return "http://127.0.0.1:" + serverSocket.getLocalPort();
+  }
+
+  /**
+   * Set number of unread notifications served. Data are changed, so <code>Last-Modified</code> changes also.
+   *
+   * @param notificationCount to serve
+   */
+  public void setNotificationCount(int notificationCount) {
+    this.notificationCount = notificationCount;
+    touch();
+  }
+
+  /**
+   * Set number of distinct repositories notifications are spread over, and number of watched repositories. Data are changed, so
+   * <code>Last-Modified</code> changes also.
+   *
+   * @param repositoryCount to serve
+   */
+  public void setRepositoryCount(int repositoryCount) {
+    this.repositoryCount = Math.max(1, repositoryCount);
+    touch();
+  }
+
+  /**
+   * Mark data as changed, so conditional requests get full response again.
+   */
+  public void touch() {
+    // Last-Modified has second resolution
+    dataTimestamp = Math.max(dataTimestamp + 1000, System.currentTimeMillis() / 1000 * 1000);
+  }
+
+  public void setLatencyMillis(long latencyMillis) {
+    this.latencyMillis = latencyMillis;
+  }
+
+  public void setGzipEnabled(boolean gzipEnabled) {
+    this.gzipEnabled = gzipEnabled;
+  }
+
+  public void setRateLimit(int rateLimit) {
+    this.rateLimit = rateLimit;
+    rateLimitRemaining.set(rateLimit);
+  }
+
+  public int getRequestCount() {
+    return requestCount.get();
+  }
+
+  public int getNotModifiedCount() {
+    return notModifiedCount.get();
+  }
+
+  /**
+   * @return number of bytes of response bodies sent (after compression)
+   */
+  public long getBytesSent() {
+    return bytesSent.get();
+  }
+
+  public void resetStatistics() {
+    requestCount.set(0);
+    notModifiedCount.set(0);
+    bytesSent.set(0);
+  }
+
+  private void handleConnection(Socket s) {
+    try {
+      InputStream in = new BufferedInputStream(s.getInputStream());
+      OutputStream out = s.getOutputStream();
+      boolean keepAlive = true;
+      while (keepAlive) {
+        String requestLine = readLine(in);
+        if (requestLine == null || requestLine.isEmpty())
+          break;
+        Map<String, String> headers = new HashMap<String, String>();
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+          int i = line.indexOf(':');
+          if (i > 0)
+            headers.put(line.substring(0, i).trim().toLowerCase(Locale.US), line.substring(i + 1).trim());
+        }
+        String cl = headers.get("content-length");
+        if (cl != null) {
+          for (long toSkip = Long.parseLong(cl); toSkip > 0 && in.read() >= 0; toSkip--)
+            ;
+        }
+        keepAlive = !"close".equalsIgnoreCase(headers.get("connection"));
+        String[] rl = requestLine.split(" ");
+        handleRequest(rl[0], rl[1], headers, out);
+        out.flush();
+      }
+    } catch (SocketException e) {
+      // client closed connection
+    } catch (Exception e) {
+      e.printStackTrace();
+    } finally {
+      try {
+        s.close();
+      } catch (IOException e) {
+        // nothing to do
+      }
+    }
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    int c;
+    while ((c = in.read()) >= 0) {
+      if (c == '\n')
+        return sb.toString();
+      if (c != '\r')
+        sb.append((char) c);
+    }
+    return sb.length() > 0 ? sb.toString() : null;
+  }
+
+  private void handleRequest(String method, String pathAndQuery, Map<String, String> headers, OutputStream out) throws IOException,
+          InterruptedException {
+    requestCount.incrementAndGet();
+    if (latencyMillis > 0)
+      Thread.sleep(latencyMillis);
+
+    String path = pathAndQuery;
+    Map<String, String> params = new HashMap<String, String>();
+    int q = pathAndQuery.indexOf('?');
+    if (q > -1) {
+      path = pathAndQuery.substring(0, q);
+      for (String p : pathAndQuery.substring(q + 1).split("&")) {
+        int e = p.indexOf('=');
+        if (e > 0)
+          params.put(p.substring(0, e), p.substring(e + 1));
+      }
+    }
+
+    if (!"GET".equals(method)) {
+      // mark read, mute, unwatch - accepted, data not changed
+      sendResponse(out, "DELETE".equals(method) ? 204 : 205, null, null, headers);
+      return;
+    }
+
+    Matcher m;
+    if ("/notifications".equals(path)) {
+      sendList(out, path, params, headers, null, notificationCount, true);
+    } else if ((m = REPO_NOTIFICATIONS.matcher(path)).matches()) {
+      String repo = m.group(1);
+      int repoIdx = parseRepoIndex(repo);
+      int count = repoIdx < 0 ? 0 : (notificationCount - repoIdx + repositoryCount - 1) / repositoryCount;
+      sendList(out, path, params, headers, repo, Math.max(0, count), true);
+    } else if ("/user/subscriptions".equals(path)) {
+      sendList(out, path, params, headers, null, repositoryCount, false);
+    } else if ("/user".equals(path)) {
+      sendResponse(out, 200, null, "{\"login\":\"tester\",\"id\":1,\"name\":\"Tester\",\"avatar_url\":\"" + getUrlBase()
+              + "/avatars/tester\",\"html_url\":\"" + getUrlBase() + "/tester\"}", headers);
+    } else if ((m = SUBJECT.matcher(path)).matches()) {
+      boolean pull = "pulls".equals(m.group(2));
+      String htmlUrl = getUrlBase() + "/html/" + m.group(1) + "/" + (pull ? "pull" : "issues") + "/" + m.group(3);
+      sendResponse(out, 200, null, "{\"number\":" + m.group(3) + ",\"html_url\":\"" + htmlUrl + "\",\"state\":\"open\",\"merged\":false,"
+              + "\"labels\":[{\"name\":\"bug\",\"color\":\"fc2929\"}]}", headers);
+    } else {
+      sendResponse(out, 404, null, "{\"message\":\"Not Found\"}", headers);
+    }
+  }
+
+  private static int parseRepoIndex(String repo) {
+    try {
+      return Integer.parseInt(repo.substring(repo.lastIndexOf("repo") + 4));
+    } catch (RuntimeException e) {
+      return -1;
+    }
+  }
+
+  private void sendList(OutputStream out, String path, Map<String, String> params, Map<String, String> requestHeaders, String repo, int count,
+                        boolean notifications) throws IOException {
+    int perPage = DEFAULT_PER_PAGE;
+    int page = 1;
+    if (params.containsKey("per_page"))
+      perPage = Math.max(1, Math.min(MAX_PER_PAGE, Integer.parseInt(params.get("per_page"))));
+    if (params.containsKey("page"))
+      page = Math.max(1, Integer.parseInt(params.get("page")));
+    int lastPage = Math.max(1, (count + perPage - 1) / perPage);
+
+    Map<String, String> headers = new HashMap<String, String>();
+    headers.put("Last-Modified", formatHttpDate(dataTimestamp));
+    headers.put("ETag", "\"" + dataTimestamp + "-" + (path + page + "/" + perPage).hashCode() + "\"");
+    if (notifications)
+      headers.put("X-Poll-Interval", "60");
+    if (page < lastPage) {
+      String base = getUrlBase() + path + "?per_page=" + perPage + "&page=";
+      headers.put("Link", "<" + base + (page + 1) + ">; rel=\"next\", <" + base + lastPage + ">; rel=\"last\"");
+    }
+
+    if (headers.get("Last-Modified").equals(requestHeaders.get("if-modified-since")) || headers.get("ETag").equals(requestHeaders.get("if-none-match"))) {
+      notModifiedCount.incrementAndGet();
+      sendResponse(out, 304, headers, null, requestHeaders);
+      return;
+    }
+
+    StringBuilder sb = new StringBuilder(perPage * 700);
+    sb.append('[');
+    int first = (page - 1) * perPage;
+    for (int i = first; i < Math.min(count, first + perPage); i++) {
+      if (i > first)
+        sb.append(',');
+      if (notifications) {
+        // notifications of repository are every repositoryCount-th item of all notifications
+        appendNotification(sb, repo != null ? i * repositoryCount + parseRepoIndex(repo) : i);
+      } else {
+        appendRepositoryObject(sb, i);
+      }
+    }
+    sb.append(']');
+    sendResponse(out, 200, headers, sb.toString(), requestHeaders);
+  }
+
+  private void appendNotification(StringBuilder sb, int i) {
+    String repo = "owner" + (i % repositoryCount) + "/repo" + (i % repositoryCount);
+    String subjectType = i % 3 == 0 ? "PullRequest" : "Issue";
+    String subjectUrl = getUrlBase() + "/repos/" + repo + (i % 3 == 0 ? "/pulls/" : "/issues/") + i;
+    sb.append("{\"id\":\"").append(i + 1).append("\",\"unread\":true,\"reason\":\"").append(i % 2 == 0 ? "mention" : "subscribed")
+            .append("\",\"updated_at\":\"").append(formatIsoDate(dataTimestamp - i * 60000L)).append("\",\"last_read_at\":null")
+            .append(",\"subject\":{\"title\":\"Synthetic notification number ").append(i).append("\",\"url\":\"").append(subjectUrl)
+            .append("\",\"latest_comment_url\":\"").append(subjectUrl).append("\",\"type\":\"").append(subjectType).append("\"}");
+    sb.append(",\"repository\":");
+    appendRepositoryObject(sb, i % repositoryCount);
+    sb.append(",\"url\":\"").append(getUrlBase()).append("/notifications/threads/").append(i + 1).append("\",\"subscription_url\":\"")
+            .append(getUrlBase()).append("/notifications/threads/").append(i + 1).append("/subscription\"}");
+  }
+
+  private void appendRepositoryObject(StringBuilder sb, int r) {
+    String fullName = "owner" + r + "/repo" + r;
+    sb.append("{\"id\":").append(r + 1000).append(",\"name\":\"repo").append(r).append("\",\"full_name\":\"").append(fullName)
+            .append("\",\"private\":false,\"owner\":{\"login\":\"owner").append(r).append("\",\"id\":").append(r + 100).append(",\"avatar_url\":\"")
+            .append(getUrlBase()).append("/avatars/owner").append(r).append("\"},\"html_url\":\"").append(getUrlBase()).append("/html/")
+            .append(fullName).append("\",\"url\":\"").append(getUrlBase()).append("/repos/").append(fullName).append("\"}");
+  }
+
+  private void sendResponse(OutputStream out, int code, Map<String, String> headers, String body, Map<String, String> requestHeaders)
+          throws IOException {
+    byte[] content = body != null ? body.getBytes("UTF-8") : new byte[0];
+    boolean gzip = gzipEnabled && body != null && requestHeaders.containsKey("accept-encoding") && requestHeaders.get("accept-encoding").contains("gzip");
+    if (gzip) {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream(content.length / 4 + 64);
+      GZIPOutputStream gos = new GZIPOutputStream(bos);
+      gos.write(content);
+      gos.close();
+      content = bos.toByteArray();
+    }
+    bytesSent.addAndGet(content.length);
+
+    StringBuilder sb = new StringBuilder();
+    sb.append("HTTP/1.1 ").append(code).append(code == 200 ? " OK" : code == 304 ? " Not Modified" : code == 404 ? " Not Found" : " Status").append("\r\n");
+    sb.append("Content-Type: application/json; charset=utf-8\r\n");
+    sb.append("Content-Length: ").append(content.length).append("\r\n");
+    if (gzip)
+      sb.append("Content-Encoding: gzip\r\n");
+    // not modified responses are not counted against rate limit on GitHub
+    int remaining = code == 304 ? rateLimitRemaining.get() : Math.max(0, rateLimitRemaining.decrementAndGet());
+    sb.append("X-RateLimit-Limit: ").append(rateLimit).append("\r\n");
+    sb.append("X-RateLimit-Remaining: ").append(remaining).append("\r\n");
+    sb.append("X-RateLimit-Reset: ").append(System.currentTimeMillis() / 1000 + 3600).append("\r\n");
+    if (headers != null) {
+      for (Map.Entry<String, String> h : headers.entrySet()) {
+        sb.append(h.getKey()).append(": ").append(h.getValue()).append("\r\n");
+      }
+    }
+    sb.append("\r\n");
+    out.write(sb.toString().getBytes("UTF-8"));
+    out.write(content);
+  }
+
+  private static String formatHttpDate(long timestamp) {
+    SimpleDateFormat df = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+    df.setTimeZone(TimeZone.getTimeZone("GMT"));
+    return df.format(new Date(timestamp));
+  }
+
+  private static final ThreadLocal<SimpleDateFormat> isoDateFormat = new ThreadLocal<SimpleDateFormat>() {
+    @Override
+    protected SimpleDateFormat initialValue() {
+      SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+      df.setTimeZone(TimeZone.getTimeZone("UTC"));
+      return df;
+    }
+  };
+
+  private static String formatIsoDate(long timestamp) {
+    return isoDateFormat.get().format(new Date(timestamp));
+  }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.test.AndroidTestCase;
+
+import com.daskiworks.ghwatch.model.Notification;
+import com.daskiworks.ghwatch.model.TestNotifications;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit test for {@link NotificationDetailBatchLoader}
+ */
+public class NotificationDetailBatchLoaderTest extends AndroidTestCase {
+
+  public void test_parseSubjectUrl() {
+    String[] r = NotificationDetailBatchLoader.parseSubjectUrl("https://api.github.com/repos/owner/repo.js/pulls/123");
+    assertEquals("owner", r[0]);
+    assertEquals("repo.js", r[1]);
+    assertEquals("pulls", r[2]);
+    assertEquals("123", r[3]);
+    assertNotNull(NotificationDetailBatchLoader.parseSubjectUrl("https://api.github.com/repos/owner/repo/issues/1"));
+    assertNull(NotificationDetailBatchLoader.parseSubjectUrl("https://api.github.com/repos/owner/repo/commits/abcdef"));
+    assertNull(NotificationDetailBatchLoader.parseSubjectUrl(null));
+  }
+
+  public void test_buildQuery_processResponse() throws Exception {
+    List<Notification> nl = new ArrayList<Notification>();
+    nl.add(TestNotifications.createWithSubjectUrl(1, "https://api.github.com/repos/owner/repo/issues/10"));
+    nl.add(TestNotifications.createWithSubjectUrl(2, "https://api.github.com/repos/owner/repo/pulls/11"));
+    nl.add(TestNotifications.createWithSubjectUrl(3, "https://api.github.com/repos/owner/repo/pulls/12"));
+    nl.add(TestNotifications.createWithSubjectUrl(4, "https://api.github.com/repos/owner/gone/issues/13"));
+
+    Map<String, Notification> byAlias = new HashMap<String, Notification>();
+    String query = NotificationDetailBatchLoader.buildQuery(nl, byAlias, false);
+    assertEquals(4, byAlias.size());
+    assertTrue(query.contains("n0: repository(owner: \"owner\", name: \"repo\") { issueOrPullRequest(number: 10)"));
+    assertTrue(query.contains("n3: repository(owner: \"owner\", name: \"gone\") { issueOrPullRequest(number: 13)"));
+
+    String response = "{\"data\":{"
+            + "\"n0\":{\"issueOrPullRequest\":{\"url\":\"https://github.com/owner/repo/issues/10\",\"state\":\"OPEN\",\"labels\":{\"nodes\":[{\"name\":\"bug\",\"color\":\"fc2929\"}]}}},"
+            + "\"n1\":{\"issueOrPullRequest\":{\"url\":\"https://github.com/owner/repo/pull/11\",\"state\":\"MERGED\",\"merged\":true}},"
+            + "\"n2\":{\"issueOrPullRequest\":{\"url\":\"https://github.com/owner/repo/pull/12\",\"state\":\"CLOSED\",\"merged\":false}},"
+            + "\"n3\":null},"
+            + "\"errors\":[{\"type\":\"NOT_FOUND\",\"path\":[\"n3\"]}]}";
+    List<Notification> loaded = NotificationDetailBatchLoader.processResponse(new JSONObject(response), byAlias);
+    assertEquals(3, loaded.size());
+
+    Notification n = nl.get(0);
+    assertTrue(n.isDetailLoaded());
+    assertEquals("https://github.com/owner/repo/issues/10", n.getSubjectDetailHtmlUrl());
+    assertEquals("open", n.getSubjectStatus());
+    assertEquals(1, n.getSubjectLabels().size());
+    assertEquals("bug", n.getSubjectLabels().get(0).getName());
+    assertEquals("merged", nl.get(1).getSubjectStatus());
+    assertEquals("closed", nl.get(2).getSubjectStatus());
+    assertFalse(nl.get(3).isDetailLoaded());
+  }
+
+  public void test_processResponse_noData() throws Exception {
+    try {
+      NotificationDetailBatchLoader.processResponse(new JSONObject("{\"errors\":[{\"message\":\"Bad credentials\"}]}"),
+              new HashMap<String, Notification>());
+      fail("JSONException expected");
+    } catch (org.json.JSONException e) {
+      // OK
+    }
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.test.AndroidTestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit test for {@link NotificationFetchPlanner}
+ */
+public class NotificationFetchPlannerTest extends AndroidTestCase {
+
+  public void test_createPlan_singleRepository() {
+    // #80 behavior kept regardless of costs
+    NotificationFetchPlanner.Plan p = NotificationFetchPlanner.createPlan(Arrays.asList("a/b"), 5, new HashMap<String, Integer>(), 1, true, 50);
+    assertTrue(p.isPerRepository());
+    assertEquals(Arrays.asList("a/b"), p.repositories);
+  }
+
+  public void test_createPlan_fewVisibleRepositories() {
+    Map<String, Integer> counts = new HashMap<String, Integer>();
+    counts.put("a/b", 3);
+    counts.put("a/c", 60);
+    // global stream has 10 pages
+    NotificationFetchPlanner.Plan p = NotificationFetchPlanner.createPlan(Arrays.asList("a/c", "a/b", "a/d"), 200, counts, 10, false, 50);
+    assertTrue(p.isPerRepository());
+    assertEquals(Arrays.asList("a/b", "a/c", "a/d"), p.repositories);
+    assertEquals(4 * 25 + 63d, p.perRepositoryCost);
+    assertEquals(10 * 25 + 475d, p.globalCost);
+
+    // notifications from unwatched repositories would be lost
+    assertFalse(NotificationFetchPlanner.createPlan(Arrays.asList("a/c", "a/b", "a/d"), 200, counts, 10, true, 50).isPerRepository());
+    // global stream is small so one request is cheaper
+    assertFalse(NotificationFetchPlanner.createPlan(Arrays.asList("a/c", "a/b", "a/d"), 200, counts, 1, false, 50).isPerRepository());
+    // all watched repositories are visible
+    assertFalse(NotificationFetchPlanner.createPlan(Arrays.asList("a/c", "a/b", "a/d"), 3, counts, 10, false, 50).isPerRepository());
+  }
+
+  public void test_createPlan_unknownGlobalStream() {
+    Map<String, Integer> counts = new HashMap<String, Integer>();
+    counts.put("a/b", 10);
+    counts.put("a/c", 10);
+    // estimated 100 notifications in 2 pages for global stream
+    NotificationFetchPlanner.Plan p = NotificationFetchPlanner.createPlan(Arrays.asList("a/b", "a/c"), 10, counts, -1, false, 50);
+    assertEquals(2 * 25 + 100d, p.globalCost);
+    assertEquals(2 * 25 + 20d, p.perRepositoryCost);
+    assertTrue(p.isPerRepository());
+  }
+
+  public void test_createPlan_tooManyRepositories() {
+    List<String> repos = new ArrayList<String>();
+    for (int i = 0; i <= NotificationFetchPlanner.MAX_REPOSITORIES; i++) {
+      repos.add("a/r" + i);
+    }
+    assertFalse(NotificationFetchPlanner.createPlan(repos, 1000, new HashMap<String, Integer>(), 100, false, 50).isPerRepository());
+    repos.remove(0);
+    assertTrue(NotificationFetchPlanner.createPlan(repos, 1000, new HashMap<String, Integer>(), 100, false, 50).isPerRepository());
+  }
+
+  public void test_applyParticipatingFilter_perRepository() {
+    NotificationFetchPlanner.Plan plan = NotificationFetchPlanner.createPlan(Arrays.asList("a/b", "a/c"), 10, new HashMap<String, Integer>(), 10, false, 50);
+    assertTrue(plan.isPerRepository());
+
+    Set<String> participatingOnly = new HashSet<String>(Arrays.asList("a/c", "a/x"));
+    NotificationFetchPlanner.Plan p = NotificationFetchPlanner.applyParticipatingFilter(plan, Arrays.asList("a/b", "a/c"), participatingOnly, true);
+    assertTrue(p.isPerRepository());
+    assertTrue(p.isParticipating());
+    assertEquals(Arrays.asList("a/b", "a/c"), p.repositories);
+    assertEquals(Collections.singleton("a/c"), p.participatingRepositories);
+
+    // no visible repository with participating filter
+    assertSame(plan, NotificationFetchPlanner.applyParticipatingFilter(plan, Arrays.asList("a/b", "a/c"), Collections.<String>emptySet(), true));
+  }
+
+  public void test_applyParticipatingFilter_global() {
+    NotificationFetchPlanner.Plan plan = NotificationFetchPlanner.createGlobalPlan();
+    List<String> visible = Arrays.asList("a/d", "a/b", "a/c");
+    Set<String> participatingOnly = new HashSet<String>(Arrays.asList("a/c"));
+
+    // default filter is not participating only, so notifications from unwatched repos would be lost
+    assertSame(plan, NotificationFetchPlanner.applyParticipatingFilter(plan, visible, participatingOnly, false));
+
+    // mixed filters - participating from global endpoint, other repos fully from their endpoints
+    NotificationFetchPlanner.Plan p = NotificationFetchPlanner.applyParticipatingFilter(plan, visible, participatingOnly, true);
+    assertTrue(p.global);
+    assertTrue(p.globalParticipating);
+    assertTrue(p.isParticipating());
+    assertEquals(Arrays.asList("a/b", "a/d"), p.repositories);
+    assertTrue(p.participatingRepositories.isEmpty());
+
+    // all participating
+    p = NotificationFetchPlanner.applyParticipatingFilter(plan, visible, new HashSet<String>(visible), true);
+    assertTrue(p.globalParticipating);
+    assertTrue(p.repositories.isEmpty());
+
+    // too many repositories to load them fully one by one
+    List<String> repos = new ArrayList<String>();
+    for (int i = 0; i <= NotificationFetchPlanner.MAX_REPOSITORIES; i++) {
+      repos.add("a/r" + i);
+    }
+    assertSame(plan, NotificationFetchPlanner.applyParticipatingFilter(plan, repos, participatingOnly, true));
+  }
+
+}
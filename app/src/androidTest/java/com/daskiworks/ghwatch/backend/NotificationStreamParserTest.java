@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.model.Notification;
+import com.daskiworks.ghwatch.model.NotificationStream;
+import com.daskiworks.ghwatch.model.StringPool;
+
+import org.json.JSONArray;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InvalidObjectException;
+import java.io.Reader;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Unit test for {@link NotificationStreamParser}. Compares streaming parser with JSON object tree based one.
+ */
+public class NotificationStreamParserTest extends AndroidTestCase {
+
+  private static final String TAG = "NotificationStreamParserTest";
+
+  private static final NotificationStreamParser.IRepoVisibilityAdapter ALL_VISIBLE = new NotificationStreamParser.IRepoVisibilityAdapter() {
+    @Override
+    public boolean isRepoVisibile(String repoFullName) {
+      return true;
+    }
+  };
+
+  private static final NotificationStreamParser.IRepoVisibilityAdapter EVEN_VISIBLE = new NotificationStreamParser.IRepoVisibilityAdapter() {
+    @Override
+    public boolean isRepoVisibile(String repoFullName) {
+      return repoFullName.endsWith("0") || repoFullName.endsWith("2") || repoFullName.endsWith("4") || repoFullName.endsWith("6")
+              || repoFullName.endsWith("8");
+    }
+  };
+
+  /**
+   * Create JSON with notifications in the same format as returned from GitHub API.
+   *
+   * @param count of notifications
+   * @return JSON string
+   */
+  public static String createNotificationsJson(int count) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0)
+        sb.append(",");
+      String repo = "owner" + (i % 7) + "/repo" + (i % 10);
+      sb.append("{\"id\":\"").append(1000 + i).append("\",\"unread\":true,\"reason\":\"").append(i % 3 == 0 ? "subscribed" : "mention")
+              .append("\",\"updated_at\":\"2014-05-12T08:01:0").append(i % 10).append("Z\",\"last_read_at\":null,");
+      sb.append("\"subject\":{\"title\":\"Notification title ").append(i).append("\",\"url\":\"https://api.github.com/repos/").append(repo)
+              .append("/issues/").append(i).append("\",\"latest_comment_url\":").append(i % 2 == 0 ? "null" : "\"https://api.github.com/repos/" + repo + "/issues/comments/" + i + "\"")
+              .append(",\"type\":\"Issue\"},");
+      sb.append("\"repository\":{\"id\":").append(i % 10).append(",\"full_name\":\"").append(repo).append("\",\"private\":false,\"owner\":{\"login\":\"owner")
+              .append(i % 7).append("\",\"avatar_url\":\"https://avatars.githubusercontent.com/u/").append(i % 7).append("?v=3\",\"type\":\"User\"},")
+              .append("\"description\":\"Repository description which is not used by the app at all\",\"fork\":false},");
+      sb.append("\"url\":\"https://api.github.com/notifications/threads/").append(1000 + i).append("\",\"subscription_url\":\"https://api.github.com/notifications/threads/")
+              .append(1000 + i).append("/subscription\"}");
+    }
+    sb.append("]");
+    return sb.toString();
+  }
+
+  private static byte[] gzip(String data) throws Exception {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    GZIPOutputStream gos = new GZIPOutputStream(bos);
+    gos.write(data.getBytes("UTF-8"));
+    gos.close();
+    return bos.toByteArray();
+  }
+
+  public void test_parseNotificationStream_streamSameAsJSONArray() throws Exception {
+    String json = createNotificationsJson(100);
+
+    NotificationStream expected = NotificationStreamParser.parseNotificationStream(null, new JSONArray(json), ALL_VISIBLE);
+    NotificationStream tested = NotificationStreamParser.parseNotificationStream(null, new ByteArrayInputStream(json.getBytes("UTF-8")), ALL_VISIBLE);
+
+    assertEquals(100, expected.size());
+    assertEquals(expected.size(), tested.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Notification e = expected.get(i);
+      Notification t = tested.get(i);
+      assertEquals(e.getId(), t.getId());
+      assertEquals(e.getUrl(), t.getUrl());
+      assertEquals(e.getSubjectTitle(), t.getSubjectTitle());
+      assertEquals(e.getSubjectType(), t.getSubjectType());
+      assertEquals(e.getSubjectUrl(), t.getSubjectUrl());
+      assertEquals(e.getSubjectLatestCommentUrl(), t.getSubjectLatestCommentUrl());
+      assertEquals(e.getRepositoryFullName(), t.getRepositoryFullName());
+      assertEquals(e.getRepositoryAvatarUrl(), t.getRepositoryAvatarUrl());
+      assertEquals(e.getUpdatedAt(), t.getUpdatedAt());
+      assertEquals(e.getReason(), t.getReason());
+    }
+  }
+
+  public void test_parseNotificationStream_invisibleReposSkipped() throws Exception {
+    String json = createNotificationsJson(100);
+
+    NotificationStream tested = NotificationStreamParser.parseNotificationStream(null, new ByteArrayInputStream(json.getBytes("UTF-8")), EVEN_VISIBLE);
+    assertEquals(50, tested.size());
+    for (Notification n : tested) {
+      assertTrue(EVEN_VISIBLE.isRepoVisibile(n.getRepositoryFullName()));
+    }
+  }
+
+  public void test_parseNotificationStream_appendToExisting() throws Exception {
+    NotificationStream tested = NotificationStreamParser.parseNotificationStream(null, new ByteArrayInputStream(createNotificationsJson(10).getBytes("UTF-8")),
+            ALL_VISIBLE);
+    NotificationStreamParser.parseNotificationStream(tested, new ByteArrayInputStream(createNotificationsJson(20).getBytes("UTF-8")), ALL_VISIBLE);
+    assertEquals(20, tested.size());
+  }
+
+  public void test_parseNotificationStream_invalidJson() throws Exception {
+    try {
+      NotificationStreamParser.parseNotificationStream(null, new ByteArrayInputStream("{\"message\":\"Not Found\"}".getBytes("UTF-8")), ALL_VISIBLE);
+      fail("InvalidObjectException expected");
+    } catch (InvalidObjectException e) {
+      // OK
+    }
+  }
+
+  /**
+   * Compare time and allocated memory of both parsing paths for one gzipped page of notifications as read from server. Results are written to log.
+   */
+  public void test_parseNotificationStream_performance() throws Exception {
+    byte[] page = gzip(createNotificationsJson(1000));
+
+    // warm up
+    parseOverString(page);
+    parseOverStream(page);
+
+    Runtime rt = Runtime.getRuntime();
+    System.gc();
+    long m0 = rt.totalMemory() - rt.freeMemory();
+    long t0 = System.nanoTime();
+    Object s1 = parseOverString(page);
+    long t1 = System.nanoTime();
+    long m1 = rt.totalMemory() - rt.freeMemory();
+
+    System.gc();
+    long m2 = rt.totalMemory() - rt.freeMemory();
+    long t2 = System.nanoTime();
+    Object s2 = parseOverStream(page);
+    long t3 = System.nanoTime();
+    long m3 = rt.totalMemory() - rt.freeMemory();
+
+    Log.i(TAG, "String+JSONArray parsing: " + (t1 - t0) / 1000000 + "ms, heap grow " + (m1 - m0) / 1024 + "kB");
+    Log.i(TAG, "Streaming parsing: " + (t3 - t2) / 1000000 + "ms, heap grow " + (m3 - m2) / 1024 + "kB");
+    assertNotNull(s1);
+    assertNotNull(s2);
+  }
+
+  public void test_parseNotificationStream_stringPool() throws Exception {
+    StringPool pool = new StringPool();
+    NotificationStream tested = NotificationStreamParser.parseNotificationStream(null, new ByteArrayInputStream(createNotificationsJson(10).getBytes("UTF-8")),
+            ALL_VISIBLE, pool);
+    // second page parsed with the same pool shares strings with the first one
+    NotificationStreamParser.parseNotificationStream(tested, new ByteArrayInputStream(createNotificationsJson(20).getBytes("UTF-8")), ALL_VISIBLE, pool);
+    assertEquals(20, tested.size());
+    // notifications 1010 - 1019 come from second page
+    assertSame(pool.get("owner3/repo0"), tested.getNotificationById(1010).getRepositoryFullName());
+    assertSame(tested.getNotificationById(1000).getReason(), tested.getNotificationById(1012).getReason());
+    assertSame(tested.getNotificationById(1000).getSubjectType(), tested.getNotificationById(1019).getSubjectType());
+    assertSame(tested.getNotificationById(1001).getRepositoryAvatarUrl(), tested.getNotificationById(1015).getRepositoryAvatarUrl());
+  }
+
+  private static long usedHeap() {
+    Runtime rt = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      System.runFinalization();
+    }
+    return rt.totalMemory() - rt.freeMemory();
+  }
+
+  /**
+   * Heap retained by synthetic stream of 10k notifications parsed page by page without and with shared string pool. Results are written to log.
+   */
+  public void test_parseNotificationStream_stringPool_heap() throws Exception {
+    int pageCount = 100;
+    byte[][] pages = new byte[pageCount][];
+    for (int i = 0; i < pageCount; i++) {
+      // different ids on every page, the same repositories
+      pages[i] = createNotificationsJson(100).replace("\"id\":\"1", "\"id\":\"" + (i + 1) + "0").getBytes("UTF-8");
+    }
+
+    // pool which does not canonicalize anything, as it was before pooling
+    StringPool noPool = new StringPool() {
+      @Override
+      public String get(String s) {
+        return s;
+      }
+    };
+
+    long m0 = usedHeap();
+    NotificationStream withoutPool = null;
+    for (byte[] page : pages) {
+      withoutPool = NotificationStreamParser.parseNotificationStream(withoutPool, new ByteArrayInputStream(page), ALL_VISIBLE, noPool);
+    }
+    long m1 = usedHeap();
+
+    StringPool pool = new StringPool();
+    NotificationStream withPool = null;
+    for (byte[] page : pages) {
+      withPool = NotificationStreamParser.parseNotificationStream(withPool, new ByteArrayInputStream(page), ALL_VISIBLE, pool);
+    }
+    long m2 = usedHeap();
+
+    assertEquals(withoutPool.size(), withPool.size());
+    assertEquals(10000, withPool.size());
+    Log.i(TAG, withPool.size() + " notifications retained heap without string pool: " + (m1 - m0) / 1024 + "kB, with string pool: " + (m2 - m1) / 1024
+            + "kB, " + pool.size() + " pooled strings");
+  }
+
+  private NotificationStream parseOverString(byte[] page) throws Exception {
+    Reader r = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(page)), "UTF-8");
+    StringBuilder sb = new StringBuilder();
+    char[] buffer = new char[4096];
+    int c;
+    while ((c = r.read(buffer)) != -1) {
+      sb.append(buffer, 0, c);
+    }
+    return NotificationStreamParser.parseNotificationStream(null, new JSONArray(sb.toString()), ALL_VISIBLE);
+  }
+
+  private NotificationStream parseOverStream(byte[] page) throws Exception {
+    InputStream is = new GZIPInputStream(new ByteArrayInputStream(page));
+    return NotificationStreamParser.parseNotificationStream(null, is, ALL_VISIBLE);
+  }
+
+}
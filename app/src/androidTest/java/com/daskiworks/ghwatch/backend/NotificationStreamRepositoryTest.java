@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.test.AndroidTestCase;
+
+import com.daskiworks.ghwatch.model.Label;
+import com.daskiworks.ghwatch.model.Notification;
+import com.daskiworks.ghwatch.model.NotificationStream;
+import com.daskiworks.ghwatch.model.TestNotifications;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit test for journal records of {@link NotificationStreamRepository}.
+ */
+public class NotificationStreamRepositoryTest extends AndroidTestCase {
+
+  private static NotificationStream createStream() {
+    NotificationStream ns = new NotificationStream();
+    ns.addNotification(TestNotifications.create(1));
+    ns.addNotification(TestNotifications.create(2));
+    ns.addNotification(TestNotifications.create(3));
+    return ns;
+  }
+
+  public void test_removedRecord() {
+    NotificationStream ns = createStream();
+    NotificationStreamRepository.applyRecord(ns, NotificationStreamRepository.createRemovedRecord(Arrays.asList(1L, 3L, 5L)));
+    assertEquals(1, ns.size());
+    assertNotNull(ns.getNotificationById(2));
+  }
+
+  public void test_detailAndLabelsRecords() {
+    Notification loaded = TestNotifications.create(2);
+    loaded.setDetailLoaded(true);
+    loaded.setSubjectDetailHtmlUrl("https://github.com/a/b/issues/2");
+    loaded.setSubjectStatus("closed");
+    loaded.addSubjectLabel(new Label("bug", "fc2929"));
+    Notification unknown = TestNotifications.create(10);
+    unknown.setDetailLoaded(true);
+
+    NotificationStream ns = createStream();
+    ns.getNotificationById(3).addSubjectLabel(new Label("old", "000000"));
+    NotificationStreamRepository.applyRecord(ns, NotificationStreamRepository.createDetailRecord(Arrays.asList(unknown, loaded)));
+    NotificationStreamRepository.applyRecord(ns, NotificationStreamRepository.createLabelsRecord(Arrays.asList(unknown, loaded)));
+    NotificationStreamRepository.applyRecord(ns, NotificationStreamRepository.createLabelsRecord(Collections.singletonList(TestNotifications.create(3))));
+
+    Notification n = ns.getNotificationById(2);
+    assertTrue(n.isDetailLoaded());
+    assertEquals("https://github.com/a/b/issues/2", n.getSubjectDetailHtmlUrl());
+    assertEquals("closed", n.getSubjectStatus());
+    assertEquals(1, n.getSubjectLabels().size());
+    assertEquals("bug", n.getSubjectLabels().get(0).getName());
+    assertEquals("fc2929", n.getSubjectLabels().get(0).getColor());
+
+    // labels removed
+    assertNull(ns.getNotificationById(3).getSubjectLabels());
+    assertFalse(ns.getNotificationById(1).isDetailLoaded());
+    assertEquals(3, ns.size());
+  }
+
+  public void test_malformedRecordIgnored() {
+    NotificationStream ns = createStream();
+    NotificationStreamRepository.applyRecord(ns, new byte[]{1, 0});
+    NotificationStreamRepository.applyRecord(ns, new byte[]{99, 0, 0, 0, 0});
+    assertEquals(3, ns.size());
+  }
+
+}
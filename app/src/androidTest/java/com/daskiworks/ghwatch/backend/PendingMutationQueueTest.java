@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.test.AndroidTestCase;
+
+import com.daskiworks.ghwatch.model.NotificationStream;
+import com.daskiworks.ghwatch.model.TestNotifications;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Unit test for {@link PendingMutationQueue}
+ */
+public class PendingMutationQueueTest extends AndroidTestCase {
+
+  public void test_addCollapsed_threads() {
+    List<PendingMutationQueue.Mutation> q = new ArrayList<PendingMutationQueue.Mutation>();
+    assertTrue(PendingMutationQueue.addCollapsed(q, PendingMutationQueue.markRead(1, "a/b")));
+    // duplicate
+    assertFalse(PendingMutationQueue.addCollapsed(q, PendingMutationQueue.markRead(1, "a/b")));
+    // mute replaces mark read of the same thread
+    assertTrue(PendingMutationQueue.addCollapsed(q, PendingMutationQueue.mute(1, "a/b")));
+    assertEquals(1, q.size());
+    assertEquals(PendingMutationQueue.Type.MUTE, q.get(0).getType());
+    // mark read of muted thread is not necessary
+    assertFalse(PendingMutationQueue.addCollapsed(q, PendingMutationQueue.markRead(1, "a/b")));
+    assertFalse(PendingMutationQueue.addCollapsed(q, PendingMutationQueue.mute(1, "a/b")));
+    assertTrue(PendingMutationQueue.addCollapsed(q, PendingMutationQueue.markRead(2, "a/b")));
+    assertEquals(2, q.size());
+  }
+
+  public void test_addCollapsed_markAllRead() {
+    List<PendingMutationQueue.Mutation> q = new ArrayList<PendingMutationQueue.Mutation>();
+    PendingMutationQueue.addCollapsed(q, PendingMutationQueue.markRead(1, "a/b"));
+    PendingMutationQueue.addCollapsed(q, PendingMutationQueue.markRead(2, "a/c"));
+    PendingMutationQueue.addCollapsed(q, PendingMutationQueue.mute(3, "a/b"));
+    PendingMutationQueue.addCollapsed(q, PendingMutationQueue.unwatch(10, "a/b"));
+
+    assertTrue(PendingMutationQueue.addCollapsed(q, PendingMutationQueue.markAllRead("a/b")));
+    assertEquals(4, q.size());
+    assertEquals(2, q.get(0).getId());
+    assertEquals(PendingMutationQueue.Type.MUTE, q.get(1).getType());
+    assertEquals(PendingMutationQueue.Type.UNWATCH, q.get(2).getType());
+    assertEquals(PendingMutationQueue.Type.MARK_ALL_READ, q.get(3).getType());
+
+    // mark all for all repositories supersedes all mark read ones
+    assertTrue(PendingMutationQueue.addCollapsed(q, PendingMutationQueue.markAllRead(null)));
+    assertEquals(3, q.size());
+    assertEquals(PendingMutationQueue.Type.MUTE, q.get(0).getType());
+    assertEquals(PendingMutationQueue.Type.UNWATCH, q.get(1).getType());
+    assertEquals(PendingMutationQueue.Type.MARK_ALL_READ, q.get(2).getType());
+    assertNull(q.get(2).getRepositoryFullName());
+
+    assertFalse(PendingMutationQueue.addCollapsed(q, PendingMutationQueue.unwatch(10, "a/b")));
+  }
+
+  public void test_applyTo_NotificationStream() {
+    List<PendingMutationQueue.Mutation> q = new ArrayList<PendingMutationQueue.Mutation>();
+    assertFalse(PendingMutationQueue.applyTo(q, null));
+
+    NotificationStream ns = new NotificationStream();
+    long now = System.currentTimeMillis();
+    ns.addNotification(TestNotifications.create(1, "a/b", "mention", now - 10000));
+    ns.addNotification(TestNotifications.create(2, "a/b", "mention", now - 10000));
+    ns.addNotification(TestNotifications.create(3, "a/c", "mention", now - 10000));
+    ns.addNotification(TestNotifications.create(4, "a/c", "mention", now + 60000));
+    ns.addNotification(TestNotifications.create(5, "a/d", "mention", now - 10000));
+    assertFalse(PendingMutationQueue.applyTo(q, ns));
+
+    q.add(PendingMutationQueue.markRead(1, "a/b"));
+    q.add(PendingMutationQueue.mute(5, "a/d"));
+    q.add(PendingMutationQueue.markAllRead("a/c"));
+    assertTrue(PendingMutationQueue.applyTo(q, ns));
+    assertEquals(2, ns.size());
+    assertNotNull(ns.getNotificationById(2));
+    // updated after mark all read action
+    assertNotNull(ns.getNotificationById(4));
+    assertFalse(PendingMutationQueue.applyTo(q, ns));
+  }
+
+  public void test_applyTo_NotificationStream_threadUpdatedAfterAction() {
+    List<PendingMutationQueue.Mutation> q = new ArrayList<PendingMutationQueue.Mutation>();
+    q.add(PendingMutationQueue.markRead(1, "a/b"));
+    q.add(PendingMutationQueue.mute(2, "a/b"));
+    long timestamp = q.get(0).getTimestamp();
+
+    NotificationStream ns = new NotificationStream();
+    // new activity in threads after user action, eg. while offline
+    ns.addNotification(TestNotifications.create(1, "a/b", "mention", timestamp + 60000));
+    ns.addNotification(TestNotifications.create(2, "a/b", "mention", timestamp + 60000));
+    assertFalse(PendingMutationQueue.applyTo(q, ns));
+    assertEquals(2, ns.size());
+
+    assertTrue(PendingMutationQueue.isUpdatedAfter(new Date(timestamp + 1), timestamp));
+    assertFalse(PendingMutationQueue.isUpdatedAfter(new Date(timestamp), timestamp));
+    assertFalse(PendingMutationQueue.isUpdatedAfter(null, timestamp));
+  }
+
+  public void test_computeRetryDelay() {
+    assertEquals(PendingMutationQueue.RETRY_DELAY_MIN, PendingMutationQueue.computeRetryDelay(1));
+    assertEquals(PendingMutationQueue.RETRY_DELAY_MIN * 2, PendingMutationQueue.computeRetryDelay(2));
+    assertEquals(PendingMutationQueue.RETRY_DELAY_MIN * 8, PendingMutationQueue.computeRetryDelay(4));
+    assertEquals(PendingMutationQueue.RETRY_DELAY_MAX, PendingMutationQueue.computeRetryDelay(15));
+    assertEquals(PendingMutationQueue.RETRY_DELAY_MAX, PendingMutationQueue.computeRetryDelay(PendingMutationQueue.MAX_ATTEMPTS));
+  }
+
+  public void test_applyReplayResult() {
+    PendingMutationQueue.Mutation done = PendingMutationQueue.markRead(1, "a/b");
+    PendingMutationQueue.Mutation failed = PendingMutationQueue.markRead(2, "a/b");
+    PendingMutationQueue.Mutation notSent = PendingMutationQueue.markRead(3, "a/b");
+    List<PendingMutationQueue.Mutation> q = new ArrayList<PendingMutationQueue.Mutation>();
+    q.add(done);
+    q.add(failed);
+    q.add(notSent);
+    long now = 1000000L;
+    long retryAt = now + PendingMutationQueue.RETRY_DELAY_MAX;
+
+    List<PendingMutationQueue.Mutation> postponed = new ArrayList<PendingMutationQueue.Mutation>();
+    postponed.add(notSent);
+    PendingMutationQueue.applyReplayResult(q, Collections.singletonList(done), Collections.singletonList(failed), postponed, retryAt, now);
+    assertEquals(2, q.size());
+    assertEquals(1, failed.getAttempts());
+    assertEquals(retryAt, failed.getNextAttemptTimestamp());
+    // mutation not sent is postponed without counting attempt
+    assertEquals(0, notSent.getAttempts());
+    assertEquals(retryAt, notSent.getNextAttemptTimestamp());
+
+    // postponed mutations (eg. due to authentication problem) are never dropped
+    List<PendingMutationQueue.Mutation> none = Collections.emptyList();
+    for (int i = 0; i < PendingMutationQueue.MAX_ATTEMPTS * 2; i++) {
+      PendingMutationQueue.applyReplayResult(q, none, none, q, 0, now);
+    }
+    assertEquals(2, q.size());
+    assertEquals(0, notSent.getAttempts());
+    assertEquals(now + PendingMutationQueue.computeRetryDelay(1), notSent.getNextAttemptTimestamp());
+
+    // failed ones are dropped after max attempts
+    for (int i = 1; i < PendingMutationQueue.MAX_ATTEMPTS; i++) {
+      PendingMutationQueue.applyReplayResult(q, none, Collections.singletonList(failed), none, 0, now);
+    }
+    assertEquals(1, q.size());
+    assertSame(notSent, q.get(0));
+  }
+
+}
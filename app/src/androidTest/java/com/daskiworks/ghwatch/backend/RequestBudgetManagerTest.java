@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.test.AndroidTestCase;
+
+import com.daskiworks.ghwatch.backend.RemoteSystemClient.Response;
+
+/**
+ * Unit test for {@link RequestBudgetManager}
+ */
+public class RequestBudgetManagerTest extends AndroidTestCase {
+
+  private static Response<Object> createResponse(String resource, int limit, int remaining) {
+    Response<Object> r = new Response<Object>();
+    r.rateLimitResource = resource;
+    r.rateLimit = limit + "";
+    r.rateLimitRemaining = remaining + "";
+    r.rateLimitReset = System.currentTimeMillis() + 3600000L;
+    return r;
+  }
+
+  public void test_updateFromResponse_onlyCoreResource() {
+    RequestBudgetManager tested = new RequestBudgetManager();
+    tested.updateFromResponse(createResponse(RemoteSystemClient.RATE_LIMIT_RESOURCE_CORE, 5000, 100));
+    assertTrue(tested.isAllowed(RequestBudgetManager.Priority.INTERACTIVE));
+    assertFalse(tested.isAllowed(RequestBudgetManager.Priority.BACKGROUND));
+
+    // GraphQL points bucket must not unblock REST requests
+    tested.updateFromResponse(createResponse("graphql", 5000, 4990));
+    assertFalse(tested.isAllowed(RequestBudgetManager.Priority.BACKGROUND));
+
+    // response without resource header (older GitHub Enterprise) is REST one
+    tested.updateFromResponse(createResponse(null, 5000, 4990));
+    assertTrue(tested.isAllowed(RequestBudgetManager.Priority.PREFETCH));
+
+    // nor block them
+    tested.updateFromResponse(createResponse("graphql", 5000, 0));
+    assertTrue(tested.isAllowed(RequestBudgetManager.Priority.PREFETCH));
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.test.AndroidTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit test for {@link RequestCoalescer}
+ */
+public class RequestCoalescerTest extends AndroidTestCase {
+
+  private static final int THREADS = 5;
+
+  public void test_execute_concurrentCallsCoalesced() throws Exception {
+    final RequestCoalescer tested = RequestCoalescer.getInstance();
+    final AtomicInteger calls = new AtomicInteger();
+    final CountDownLatch release = new CountDownLatch(1);
+    final Object[] results = new Object[THREADS];
+    long dedup = tested.getDeduplicatedCount();
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < THREADS; i++) {
+      final int idx = i;
+      Thread t = new Thread() {
+        public void run() {
+          try {
+            results[idx] = tested.execute("key-concurrent", new RequestCoalescer.ICall<Object>() {
+              @Override
+              public Object call() throws Exception {
+                calls.incrementAndGet();
+                release.await();
+                return new Object();
+              }
+            });
+          } catch (Exception e) {
+            results[idx] = e;
+          }
+        }
+      };
+      threads.add(t);
+      t.start();
+    }
+    // wait until all threads joined the call in flight
+    while (tested.getDeduplicatedCount() - dedup < THREADS - 1)
+      Thread.sleep(5);
+    release.countDown();
+    for (Thread t : threads)
+      t.join();
+
+    assertEquals(1, calls.get());
+    for (int i = 1; i < THREADS; i++)
+      assertSame(results[0], results[i]);
+
+    // nothing cached after call finished
+    Object o = tested.execute("key-concurrent", new RequestCoalescer.ICall<Object>() {
+      @Override
+      public Object call() throws Exception {
+        return new Object();
+      }
+    });
+    assertNotSame(results[0], o);
+  }
+
+  public void test_execute_exceptionPropagated() throws Exception {
+    try {
+      RequestCoalescer.getInstance().execute("key-exception", new RequestCoalescer.ICall<Object>() {
+        @Override
+        public Object call() throws Exception {
+          throw new IOException("test");
+        }
+      });
+      fail("IOException expected");
+    } catch (IOException e) {
+      assertEquals("test", e.getMessage());
+    }
+  }
+
+}
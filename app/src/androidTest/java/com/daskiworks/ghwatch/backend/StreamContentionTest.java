@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.model.Notification;
+import com.daskiworks.ghwatch.model.NotificationStream;
+import com.daskiworks.ghwatch.model.NotificationStreamViewData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stress test of concurrent access to the notification stream while slow server sync runs against {@link LocalGitHubServer} with latency and
+ * writes into persistent store are stalled. Reports latency of readers and detail writers into log (tag <code>StreamContentionTest</code>) and
+ * checks they are blocked neither by server calls nor by disk writes.
+ */
+public class StreamContentionTest extends AndroidTestCase {
+
+  private static final String TAG = "StreamContentionTest";
+
+  private static final int NOTIFICATION_COUNT = 1000;
+  private static final long SERVER_LATENCY = 500;
+  private static final int SYNC_ROUNDS = 3;
+  private static final int READER_THREADS = 4;
+
+  private LocalGitHubServer server;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    server = new LocalGitHubServer();
+    server.start();
+    server.setRateLimit(100000);
+    server.setNotificationCount(NOTIFICATION_COUNT);
+    GHConstants.setUrlBase(server.getUrlBase());
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    GHConstants.setUrlBase(null);
+    server.stop();
+    new UnreadNotificationsService(getContext()).flushPersistentStore();
+    HttpValidatorCache.getInstance(getContext()).clear();
+    super.tearDown();
+  }
+
+  /**
+   * Latency statistics of one kind of operation.
+   */
+  private static class Latency {
+    int count;
+    long total;
+    long max;
+
+    synchronized void add(long time) {
+      count++;
+      total += time;
+      max = Math.max(max, time);
+    }
+
+    @Override
+    public synchronized String toString() {
+      return count + " calls, avg " + (count > 0 ? total / count : 0) + "ms, max " + max + "ms";
+    }
+  }
+
+  /**
+   * Runs operation in loop and measures its latency until stopped.
+   */
+  private abstract static class LoopThread extends Thread {
+    final Latency latency = new Latency();
+    final AtomicReference<Throwable> error;
+    volatile boolean running = true;
+
+    LoopThread(AtomicReference<Throwable> error) {
+      this.error = error;
+    }
+
+    abstract void operation();
+
+    @Override
+    public void run() {
+      try {
+        while (running) {
+          long start = System.currentTimeMillis();
+          operation();
+          latency.add(System.currentTimeMillis() - start);
+        }
+      } catch (Throwable e) {
+        error.compareAndSet(null, e);
+      }
+    }
+  }
+
+  public void test_readersNotBlockedBySlowSync() throws Exception {
+    final UnreadNotificationsService service = new UnreadNotificationsService(getContext());
+    final NotificationStreamRepository repository = NotificationStreamRepository.getInstance(getContext());
+    service.flushPersistentStore();
+    HttpValidatorCache.getInstance(getContext()).clear();
+    assertEquals(NOTIFICATION_COUNT, service.getNotificationStreamForView(ViewDataReloadStrategy.ALWAYS).notificationStream.size());
+    server.setLatencyMillis(SERVER_LATENCY);
+
+    // disk is stalled for the whole test, persist thread waits until end
+    final CountDownLatch diskStall = new CountDownLatch(1);
+    repository.flush();
+    repository.runInPersistThread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          diskStall.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+
+    final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+    List<LoopThread> readers = new ArrayList<LoopThread>();
+    for (int i = 0; i < READER_THREADS; i++) {
+      readers.add(new LoopThread(error) {
+        @Override
+        void operation() {
+          NotificationStreamViewData nswd = service.getNotificationStreamForView(ViewDataReloadStrategy.NEVER);
+          // iterate the whole stream, concurrent publishing must not break it
+          int c = 0;
+          for (Notification n : nswd.notificationStream) {
+            c++;
+          }
+          assertEquals(nswd.notificationStream.size(), c);
+          nswd.notificationStream.getRepositoriesInfo();
+        }
+      });
+    }
+    LoopThread widget = new LoopThread(error) {
+      @Override
+      void operation() {
+        repository.getSummary();
+      }
+    };
+    LoopThread detailWriter = new LoopThread(error) {
+      @Override
+      void operation() {
+        NotificationStream ns = repository.get();
+        Notification n = ns.get((int) (latency.count % ns.size()));
+        Notification loaded = new Notification(n.getId(), null, null, null, null, null, null, null, null, null);
+        loaded.setSubjectStatus("open");
+        repository.updateDetails(Collections.singletonList(loaded));
+      }
+    };
+
+    List<LoopThread> all = new ArrayList<LoopThread>(readers);
+    all.add(widget);
+    all.add(detailWriter);
+    for (LoopThread t : all) {
+      t.start();
+    }
+
+    long start = System.currentTimeMillis();
+    long syncTime;
+    try {
+      for (int i = 0; i < SYNC_ROUNDS; i++) {
+        server.touch();
+        service.newNotificationCheckImpl();
+        service.getNotificationStreamForView(ViewDataReloadStrategy.ALWAYS);
+      }
+      syncTime = System.currentTimeMillis() - start;
+
+      for (LoopThread t : all) {
+        t.running = false;
+        t.join();
+      }
+    } finally {
+      diskStall.countDown();
+    }
+    start = System.currentTimeMillis();
+    repository.flush();
+    long flushTime = System.currentTimeMillis() - start;
+    if (error.get() != null)
+      throw new AssertionError(error.get());
+
+    Latency readLatency = new Latency();
+    for (LoopThread t : readers) {
+      readLatency.count += t.latency.count;
+      readLatency.total += t.latency.total;
+      readLatency.max = Math.max(readLatency.max, t.latency.max);
+    }
+    Log.i(TAG, SYNC_ROUNDS + " slow syncs took " + syncTime + "ms with server latency " + SERVER_LATENCY + "ms");
+    Log.i(TAG, "View readers: " + readLatency);
+    Log.i(TAG, "Widget summary reader: " + widget.latency);
+    Log.i(TAG, "Detail writer: " + detailWriter.latency);
+    Log.i(TAG, "Pending writes into persistent store flushed in " + flushTime + "ms");
+
+    // no one waits for server call nor for stalled disk
+    assertTrue(readLatency.max < SERVER_LATENCY);
+    assertTrue(widget.latency.max < SERVER_LATENCY);
+    assertTrue(detailWriter.latency.max < SERVER_LATENCY);
+    assertEquals(NOTIFICATION_COUNT, repository.get().size());
+    assertEquals(NOTIFICATION_COUNT, repository.getSummary().getUnreadCount());
+  }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.model.NotificationStreamViewData;
+import com.daskiworks.ghwatch.model.WatchedRepositoriesViewData;
+
+/**
+ * Load test of synchronization against {@link LocalGitHubServer}. Reports wall time, number of requests, bytes transferred and peak heap of full
+ * and incremental reloads for distinct sizes of data into log (tag <code>SyncLoadTest</code>).
+ */
+public class SyncLoadTest extends AndroidTestCase {
+
+  private static final String TAG = "SyncLoadTest";
+
+  private static final int[] NOTIFICATION_COUNTS = {10, 100, 1000, 10000};
+
+  private LocalGitHubServer server;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    server = new LocalGitHubServer();
+    server.start();
+    server.setRateLimit(100000);
+    GHConstants.setUrlBase(server.getUrlBase());
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    GHConstants.setUrlBase(null);
+    server.stop();
+    new UnreadNotificationsService(getContext()).flushPersistentStore();
+    new WatchedRepositoriesService(getContext()).flushPersistentStore();
+    HttpValidatorCache.getInstance(getContext()).clear();
+    super.tearDown();
+  }
+
+  /**
+   * Result of one measured sync.
+   */
+  private static class Measurement {
+    long wallTime;
+    int requests;
+    int notModified;
+    long bytes;
+    long peakHeap;
+
+    @Override
+    public String toString() {
+      return wallTime + "ms, " + requests + " requests (" + notModified + " not modified), " + bytes / 1024 + " kB, peak heap " + peakHeap / 1024
+              + " kB";
+    }
+  }
+
+  /**
+   * Samples used heap while measured code runs.
+   */
+  private static class HeapSampler extends Thread {
+    volatile boolean running = true;
+    volatile long peak = 0;
+
+    HeapSampler() {
+      setDaemon(true);
+    }
+
+    void sample() {
+      Runtime r = Runtime.getRuntime();
+      peak = Math.max(peak, r.totalMemory() - r.freeMemory());
+    }
+
+    @Override
+    public void run() {
+      while (running) {
+        sample();
+        try {
+          Thread.sleep(2);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }
+  }
+
+  private Measurement measure(Runnable sync) throws InterruptedException {
+    System.gc();
+    server.resetStatistics();
+    HeapSampler hs = new HeapSampler();
+    hs.start();
+    Measurement m = new Measurement();
+    long start = System.currentTimeMillis();
+    sync.run();
+    m.wallTime = System.currentTimeMillis() - start;
+    hs.sample();
+    hs.running = false;
+    hs.join();
+    m.peakHeap = hs.peak;
+    m.requests = server.getRequestCount();
+    m.notModified = server.getNotModifiedCount();
+    m.bytes = server.getBytesSent();
+    return m;
+  }
+
+  public void test_notificationsSync() throws Exception {
+    final UnreadNotificationsService service = new UnreadNotificationsService(getContext());
+    for (int count : NOTIFICATION_COUNTS) {
+      server.setNotificationCount(count);
+      service.flushPersistentStore();
+      HttpValidatorCache.getInstance(getContext()).clear();
+
+      final NotificationStreamViewData[] result = new NotificationStreamViewData[1];
+      Runnable fullReload = new Runnable() {
+        @Override
+        public void run() {
+          result[0] = service.getNotificationStreamForView(ViewDataReloadStrategy.ALWAYS);
+        }
+      };
+
+      Measurement full = measure(fullReload);
+      assertEquals(count, result[0].notificationStream.size());
+      Log.i(TAG, count + " notifications, full reload: " + full);
+
+      // warm connection pool and code paths
+      Measurement fullRepeated = measure(fullReload);
+      assertEquals(count, result[0].notificationStream.size());
+      Log.i(TAG, count + " notifications, full reload repeated: " + fullRepeated);
+
+      Measurement incremental = measure(new Runnable() {
+        @Override
+        public void run() {
+          service.newNotificationCheckImpl();
+        }
+      });
+      // nothing changed on server since full reload, so only the first page is requested with If-Modified-Since
+      assertEquals(1, incremental.requests);
+      assertEquals(1, incremental.notModified);
+      assertEquals(count, service.getNotificationStreamForView(ViewDataReloadStrategy.NEVER).notificationStream.size());
+      Log.i(TAG, count + " notifications, incremental reload: " + incremental);
+    }
+  }
+
+  public void test_notificationsSyncWithLatency() throws Exception {
+    final UnreadNotificationsService service = new UnreadNotificationsService(getContext());
+    server.setNotificationCount(1000);
+    server.setLatencyMillis(200);
+    service.flushPersistentStore();
+    HttpValidatorCache.getInstance(getContext()).clear();
+
+    final NotificationStreamViewData[] result = new NotificationStreamViewData[1];
+    Measurement full = measure(new Runnable() {
+      @Override
+      public void run() {
+        result[0] = service.getNotificationStreamForView(ViewDataReloadStrategy.ALWAYS);
+      }
+    });
+    assertEquals(1000, result[0].notificationStream.size());
+    Log.i(TAG, "1000 notifications with 200ms latency, full reload: " + full);
+  }
+
+  public void test_watchedRepositoriesSync() throws Exception {
+    final WatchedRepositoriesService service = new WatchedRepositoriesService(getContext());
+    server.setRepositoryCount(30);
+    service.flushPersistentStore();
+
+    final WatchedRepositoriesViewData[] result = new WatchedRepositoriesViewData[1];
+    Measurement full = measure(new Runnable() {
+      @Override
+      public void run() {
+        result[0] = service.getWatchedRepositoriesForView(ViewDataReloadStrategy.ALWAYS);
+      }
+    });
+    assertEquals(30, result[0].repositories.size());
+    Log.i(TAG, "30 watched repositories, full reload: " + full);
+  }
+
+}
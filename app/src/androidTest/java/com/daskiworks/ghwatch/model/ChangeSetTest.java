@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.model;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+/**
+ * Unit test for {@link ChangeSet}. Benchmark comparing it with previous multi-pass comparison of streams reports into log (tag
+ * <code>ChangeSetTest</code>).
+ */
+public class ChangeSetTest extends AndroidTestCase {
+
+  private static final String TAG = "ChangeSetTest";
+
+  private static final int BENCHMARK_COUNT = 5000;
+
+  private static final int BENCHMARK_ROUNDS = 20;
+
+  public void test_compute() {
+    NotificationStream oldStream = new NotificationStream();
+    Notification o1 = TestNotifications.create(1, TestNotifications.REPOSITORY, "subscribed", 100);
+    o1.setSubjectStatus("open");
+    oldStream.addNotification(o1);
+    oldStream.addNotification(TestNotifications.create(2, TestNotifications.REPOSITORY, "subscribed", 100));
+    oldStream.addNotification(TestNotifications.create(3, TestNotifications.REPOSITORY, "subscribed", 100));
+
+    NotificationStream newStream = new NotificationStream();
+    newStream.addNotification(TestNotifications.create(4, TestNotifications.REPOSITORY, "subscribed", 300));
+    newStream.addNotification(TestNotifications.create(2, TestNotifications.REPOSITORY, "subscribed", 200));
+    Notification n1 = TestNotifications.create(1, TestNotifications.REPOSITORY, "subscribed", 100);
+    newStream.addNotification(n1);
+
+    ChangeSet cs = ChangeSet.compute(oldStream, newStream);
+    assertEquals(1, cs.getAdded().size());
+    assertEquals(4, cs.getAdded().get(0).getId());
+    assertEquals(1, cs.getUpdated().size());
+    assertEquals(2, cs.getUpdated().get(0).getId());
+    assertEquals(1, cs.getUnchanged().size());
+    assertEquals(1, cs.getRemoved().size());
+    assertEquals(3, cs.getRemoved().get(0).getId());
+    assertTrue(cs.hasNew());
+
+    assertNull(n1.getSubjectStatus());
+    cs.carryOverDetails();
+    assertEquals("open", n1.getSubjectStatus());
+  }
+
+  public void test_compute_nullStreams() {
+    NotificationStream ns = new NotificationStream();
+    ns.addNotification(TestNotifications.create(1, TestNotifications.REPOSITORY, "subscribed", 100));
+
+    ChangeSet cs = ChangeSet.compute(null, ns);
+    assertEquals(1, cs.getAdded().size());
+    assertTrue(cs.hasNew());
+
+    cs = ChangeSet.compute(ns, null);
+    assertEquals(1, cs.getRemoved().size());
+    assertFalse(cs.hasNew());
+
+    cs = ChangeSet.compute(ns, ns);
+    assertEquals(1, cs.getUnchanged().size());
+    assertTrue(cs.getRemoved().isEmpty());
+    assertFalse(cs.hasNew());
+
+    assertFalse(ChangeSet.compute(null, null).hasNew());
+  }
+
+  /**
+   * Previous way of the sync result processing - every consumer walked the streams again.
+   */
+  private static int legacyProcessing(NotificationStream oldStream, NotificationStream newStream) {
+    int newCount = 0;
+    // count of new notifications for polling scheduler
+    for (Notification n : newStream) {
+      if (oldStream.getNotificationById(n.getId()) == null)
+        newCount++;
+    }
+    // detail data carry-over
+    for (Notification n : newStream) {
+      Notification o = oldStream.getNotificationById(n.getId());
+      if (o != null) {
+        n.setSubjectStatus(o.getSubjectStatus());
+        n.setSubjectDetailHtmlUrl(o.getSubjectDetailHtmlUrl());
+        n.setSubjectLabels(o.getSubjectLabels());
+      }
+    }
+    // Android notification and widget highlight
+    for (int i = 0; i < 2; i++) {
+      for (Notification n : newStream) {
+        Notification o = oldStream.getNotificationById(n.getId());
+        if (o == null || !n.getUpdatedAt().equals(o.getUpdatedAt())) {
+          newCount++;
+          break;
+        }
+      }
+    }
+    return newCount;
+  }
+
+  private static NotificationStream[] createBenchmarkStreams() {
+    NotificationStream oldStream = new NotificationStream();
+    NotificationStream newStream = new NotificationStream();
+    // typical sync result - few new and updated notifications at the begin, the rest unchanged
+    for (int i = 0; i < BENCHMARK_COUNT; i++) {
+      long id = BENCHMARK_COUNT - i;
+      newStream.addNotification(TestNotifications.create(id + 10, "owner/repo" + ((id + 10) % 20), "subscribed", i < 20 ? 2000 : 1000));
+      oldStream.addNotification(TestNotifications.create(id, "owner/repo" + (id % 20), "subscribed", 1000));
+    }
+    return new NotificationStream[]{oldStream, newStream};
+  }
+
+  public void test_benchmark() {
+    NotificationStream[] streams = createBenchmarkStreams();
+    ChangeSet cs = ChangeSet.compute(streams[0], streams[1]);
+    assertEquals(10, cs.getAdded().size());
+    assertEquals(10, cs.getUpdated().size());
+    assertEquals(BENCHMARK_COUNT - 20, cs.getUnchanged().size());
+    assertEquals(10, cs.getRemoved().size());
+
+    // warm up
+    for (int i = 0; i < BENCHMARK_ROUNDS; i++) {
+      legacyProcessing(streams[0], streams[1]);
+      ChangeSet.compute(streams[0], streams[1]).carryOverDetails();
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < BENCHMARK_ROUNDS; i++) {
+      legacyProcessing(streams[0], streams[1]);
+    }
+    long legacyTime = (System.nanoTime() - start) / BENCHMARK_ROUNDS;
+
+    start = System.nanoTime();
+    for (int i = 0; i < BENCHMARK_ROUNDS; i++) {
+      ChangeSet changes = ChangeSet.compute(streams[0], streams[1]);
+      changes.carryOverDetails();
+      changes.getAdded().size();
+      changes.hasNew();
+    }
+    long changeSetTime = (System.nanoTime() - start) / BENCHMARK_ROUNDS;
+
+    Log.i(TAG, BENCHMARK_COUNT + " notifications, multi-pass processing: " + legacyTime / 1000 + "us, change set: " + changeSetTime / 1000 + "us");
+  }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.model;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Unit test for {@link LongObjectMap}. Benchmark comparing it with {@link LinkedHashMap} reports into log (tag <code>LongObjectMapTest</code>).
+ */
+public class LongObjectMapTest extends AndroidTestCase {
+
+  private static final String TAG = "LongObjectMapTest";
+
+  private static final int BENCHMARK_COUNT = 10000;
+
+  private static final int BENCHMARK_ROUNDS = 20;
+
+  // notification ids are big numbers, so boxing never hits Long cache
+  private static final long ID_BASE = 1000000000L;
+
+  private static String iterationOrder(LongObjectMap<String> map) {
+    StringBuilder sb = new StringBuilder();
+    for (String v : map) {
+      sb.append(v);
+    }
+    return sb.toString();
+  }
+
+  public void test_put_get_remove() {
+    LongObjectMap<String> tested = new LongObjectMap<String>();
+    assertTrue(tested.isEmpty());
+    assertNull(tested.get(1));
+    assertNull(tested.remove(1));
+
+    assertNull(tested.put(3, "a"));
+    assertNull(tested.put(-1, "b"));
+    assertNull(tested.put(ID_BASE, "c"));
+    assertEquals(3, tested.size());
+    assertFalse(tested.isEmpty());
+    assertEquals("a", tested.get(3));
+    assertEquals("b", tested.get(-1));
+    assertEquals("c", tested.get(ID_BASE));
+    assertTrue(tested.containsKey(ID_BASE));
+    assertFalse(tested.containsKey(4));
+
+    // replace keeps position
+    assertEquals("a", tested.put(3, "d"));
+    assertEquals(3, tested.size());
+    assertEquals("dbc", iterationOrder(tested));
+
+    assertEquals("b", tested.remove(-1));
+    assertNull(tested.remove(-1));
+    assertFalse(tested.containsKey(-1));
+    assertEquals(2, tested.size());
+    assertEquals("dc", iterationOrder(tested));
+
+    // re-added goes to the end
+    tested.put(-1, "e");
+    assertEquals("dce", iterationOrder(tested));
+
+    tested.remove(3);
+    tested.remove(-1);
+    tested.remove(ID_BASE);
+    assertTrue(tested.isEmpty());
+    assertEquals("", iterationOrder(tested));
+
+    try {
+      tested.put(1, null);
+      fail("IllegalArgumentException expected");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
+  }
+
+  public void test_growAndCompact() {
+    LongObjectMap<String> tested = new LongObjectMap<String>();
+    Map<Long, String> expected = new LinkedHashMap<Long, String>();
+    // mix of adds and removes over many resizes, compared with LinkedHashMap
+    for (int i = 0; i < 5000; i++) {
+      long id = ID_BASE + i * 31;
+      tested.put(id, "v" + i);
+      expected.put(id, "v" + i);
+      if (i % 3 == 0) {
+        long rid = ID_BASE + (i / 2) * 31;
+        assertEquals(expected.remove(rid), tested.remove(rid));
+      }
+    }
+    assertEquals(expected.size(), tested.size());
+    Iterator<String> it = tested.iterator();
+    for (Map.Entry<Long, String> e : expected.entrySet()) {
+      assertEquals(e.getValue(), it.next());
+      assertEquals(e.getValue(), tested.get(e.getKey()));
+    }
+    assertFalse(it.hasNext());
+    assertEquals(expected.size(), tested.values().size());
+
+    LongObjectMap<String> copy = new LongObjectMap<String>();
+    copy.putAll(tested);
+    assertEquals(tested.size(), copy.size());
+    assertEquals(iterationOrder(tested), iterationOrder(copy));
+  }
+
+  public void test_iterator_concurrentModification() {
+    LongObjectMap<String> tested = new LongObjectMap<String>();
+    tested.put(1, "a");
+    tested.put(2, "b");
+    Iterator<String> it = tested.iterator();
+    it.next();
+    tested.remove(2);
+    try {
+      it.next();
+      fail("ConcurrentModificationException expected");
+    } catch (ConcurrentModificationException e) {
+      // OK
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public void test_serialization() throws Exception {
+    LongObjectMap<String> tested = new LongObjectMap<String>();
+    tested.put(5, "a");
+    tested.put(ID_BASE, "b");
+    tested.put(7, "c");
+    tested.remove(ID_BASE);
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    ObjectOutputStream oos = new ObjectOutputStream(bos);
+    oos.writeObject(tested);
+    oos.close();
+    LongObjectMap<String> read = (LongObjectMap<String>) new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray())).readObject();
+
+    assertEquals(2, read.size());
+    assertEquals("ac", iterationOrder(read));
+    assertEquals("c", read.get(7));
+    assertNull(read.get(ID_BASE));
+  }
+
+  private static long usedHeap() {
+    Runtime r = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      System.runFinalization();
+    }
+    return r.totalMemory() - r.freeMemory();
+  }
+
+  public void test_benchmark() {
+    Notification[] notifications = new Notification[BENCHMARK_COUNT];
+    for (int i = 0; i < BENCHMARK_COUNT; i++) {
+      notifications[i] = new Notification(ID_BASE + i, "owner/repo");
+    }
+
+    // footprint of filled maps
+    long start = usedHeap();
+    LinkedHashMap<Long, Notification> lhm = new LinkedHashMap<Long, Notification>();
+    for (Notification n : notifications) {
+      lhm.put(n.getId(), n);
+    }
+    long lhmFootprint = usedHeap() - start;
+
+    start = usedHeap();
+    LongObjectMap<Notification> lom = new LongObjectMap<Notification>();
+    for (Notification n : notifications) {
+      lom.put(n.getId(), n);
+    }
+    long lomFootprint = usedHeap() - start;
+
+    // allocation and time of lookups, as done during stream merges
+    int found = 0;
+    start = usedHeap();
+    long time = System.nanoTime();
+    for (int r = 0; r < BENCHMARK_ROUNDS; r++) {
+      for (int i = 0; i < BENCHMARK_COUNT; i++) {
+        if (lhm.get(ID_BASE + i) != null)
+          found++;
+      }
+    }
+    long lhmTime = (System.nanoTime() - time) / BENCHMARK_ROUNDS;
+    Runtime rt = Runtime.getRuntime();
+    long lhmAllocated = rt.totalMemory() - rt.freeMemory() - start;
+
+    start = usedHeap();
+    time = System.nanoTime();
+    for (int r = 0; r < BENCHMARK_ROUNDS; r++) {
+      for (int i = 0; i < BENCHMARK_COUNT; i++) {
+        if (lom.get(ID_BASE + i) != null)
+          found++;
+      }
+    }
+    long lomTime = (System.nanoTime() - time) / BENCHMARK_ROUNDS;
+    long lomAllocated = rt.totalMemory() - rt.freeMemory() - start;
+
+    assertEquals(2 * BENCHMARK_ROUNDS * BENCHMARK_COUNT, found);
+    assertEquals(lhm.size(), lom.size());
+
+    Log.i(TAG, BENCHMARK_COUNT + " entries footprint, LinkedHashMap: " + lhmFootprint / 1024 + "kB, LongObjectMap: " + lomFootprint / 1024 + "kB");
+    Log.i(TAG, BENCHMARK_ROUNDS + "x" + BENCHMARK_COUNT + " lookups allocated, LinkedHashMap: " + lhmAllocated / 1024 + "kB, LongObjectMap: "
+            + lomAllocated / 1024 + "kB");
+    Log.i(TAG, BENCHMARK_COUNT + " lookups, LinkedHashMap: " + lhmTime / 1000 + "us, LongObjectMap: " + lomTime / 1000 + "us");
+  }
+
+}
@@ -20,6 +20,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import android.test.AndroidTestCase;
+import android.util.Log;
 
 /**
  * Unit test for {@link NotificationStream}
@@ -28,6 +29,8 @@ import android.test.AndroidTestCase;
  */
 public class NotificationStreamTest extends AndroidTestCase {
 
+  private static final String TAG = "NotificationStreamTest";
+
   public void test_addNotification_get_getNotificationById_size_isEmpty() {
     NotificationStream tested = new NotificationStream();
     assertEquals(0, tested.size());
@@ -85,6 +88,28 @@ public class NotificationStreamTest extends AndroidTestCase {
     assertNull(tested.get(2));
   }
 
+  public void test_copy() {
+    NotificationStream tested = new NotificationStream();
+    tested.setLastModified("lm");
+    tested.setLastFullUpdateTimestamp(10);
+    Notification on10 = new Notification(10);
+    tested.addNotification(on10);
+    tested.addNotification(new Notification(20));
+
+    NotificationStream copy = tested.copy();
+    assertEquals("lm", copy.getLastModified());
+    assertEquals(10, copy.getLastFullUpdateTimestamp());
+    assertEquals(2, copy.size());
+    assertSame(on10, copy.get(0));
+
+    // changes of original stream do not affect copy
+    tested.removeNotificationById(10);
+    tested.addNotification(new Notification(30));
+    assertEquals(2, copy.size());
+    assertSame(on10, copy.getNotificationById(10));
+    assertNull(copy.getNotificationById(30));
+  }
+
   public void test_contains() {
     NotificationStream tested = new NotificationStream();
 
@@ -221,6 +246,206 @@ public class NotificationStreamTest extends AndroidTestCase {
     assertNotifCount(l.get(2), "atest/test1", 1);
   }
 
+  public void test_getRepositoriesInfo_updatedOnRemove() {
+    NotificationStream tested = new NotificationStream();
+    tested.addNotification(new Notification(20, "test/test1"));
+    tested.addNotification(new Notification(30, "test/test2"));
+    tested.addNotification(new Notification(40, "test/test1"));
+    tested.addNotification(new Notification(50, "test/test2"));
+    tested.addNotification(new Notification(60, "test/test2"));
+    tested.addNotification(new Notification(70, "atest/test1"));
+    List<NotifCount> l = tested.getRepositoriesInfo();
+    assertNotifCount(l.get(0), "test/test2", 3);
+    assertNotifCount(l.get(1), "test/test1", 2);
+    assertEquals(1, tested.getRepositoryInfoPosition("test/test1"));
+    assertEquals(-1, tested.getRepositoryInfoPosition("unknown/repo"));
+
+    NotificationStream copy = tested.copy();
+
+    tested.removeNotificationById(30);
+    tested.removeNotificationById(50);
+    l = tested.getRepositoriesInfo();
+    assertEquals(3, l.size());
+    assertNotifCount(l.get(0), "test/test1", 2);
+    assertNotifCount(l.get(1), "test/test2", 1);
+    assertNotifCount(l.get(2), "atest/test1", 1);
+
+    tested.removeNotificationById(70);
+    tested.removeNotificationById(70);
+    assertEquals(2, l.size());
+    assertEquals(-1, tested.getRepositoryInfoPosition("atest/test1"));
+
+    tested.removeNotificationById(20);
+    tested.removeNotificationById(40);
+    assertEquals(1, l.size());
+    assertTrue(tested.allNotificationsFromSameRepository());
+
+    // copy is not affected
+    l = copy.getRepositoriesInfo();
+    assertEquals(3, l.size());
+    assertNotifCount(l.get(0), "test/test2", 3);
+    // same count, repository with the first notification goes first
+    copy.addNotification(new Notification(80, "test/test1"));
+    assertNotifCount(l.get(0), "test/test1", 3);
+    assertNotifCount(l.get(1), "test/test2", 3);
+  }
+
+  public void test_indexes() {
+    NotificationStream tested = new NotificationStream();
+    List<Notification> repo1 = tested.getNotificationsForRepository("test/test1");
+    List<Notification> mention = tested.getNotificationsForReason("mention");
+    List<Notification> issues = tested.getNotificationsForSubjectType("Issue");
+    List<Notification> participating = tested.getParticipatingNotifications();
+    List<Notification> all = tested.asList();
+    assertTrue(repo1.isEmpty());
+    assertTrue(participating.isEmpty());
+
+    tested.addNotification(TestNotifications.create(10, "test/test1", "Issue", "subscribed"));
+    tested.addNotification(TestNotifications.create(20, "test/test2", "PullRequest", "mention"));
+    tested.addNotification(TestNotifications.create(30, "test/test1", "PullRequest", "author"));
+    tested.addNotification(TestNotifications.create(40, "test/test1", "Issue", "mention"));
+
+    // views are live
+    assertEquals(3, repo1.size());
+    assertEquals(10, repo1.get(0).getId());
+    assertEquals(30, repo1.get(1).getId());
+    assertEquals(40, repo1.get(2).getId());
+    assertEquals(2, mention.size());
+    assertEquals(2, issues.size());
+    assertEquals(3, participating.size());
+    assertEquals(20, participating.get(0).getId());
+    assertEquals(4, all.size());
+    assertEquals(30, all.get(2).getId());
+
+    tested.removeNotificationById(30);
+    assertEquals(2, repo1.size());
+    assertEquals(40, repo1.get(1).getId());
+    assertEquals(2, participating.size());
+    assertEquals(1, tested.getNotificationsForSubjectType("PullRequest").size());
+    assertEquals(3, all.size());
+
+    // copy has own indexes
+    NotificationStream copy = tested.copy();
+    tested.removeNotificationById(10);
+    tested.removeNotificationById(40);
+    assertTrue(repo1.isEmpty());
+    assertTrue(issues.isEmpty());
+    assertEquals(2, copy.getNotificationsForRepository("test/test1").size());
+    assertEquals(2, copy.getNotificationsForSubjectType("Issue").size());
+
+    try {
+      repo1.add(TestNotifications.create(50, "test/test1", "Issue", "mention"));
+      fail("view must be read-only");
+    } catch (UnsupportedOperationException e) {
+      // OK
+    }
+  }
+
+  public void test_indexes_bulkRemove() {
+    NotificationStream tested = new NotificationStream();
+    for (int i = 0; i < 5000; i++) {
+      tested.addNotification(TestNotifications.create(i, "test/test1", "Issue", "mention"));
+    }
+    List<Notification> repo1 = tested.getNotificationsForRepository("test/test1");
+    assertEquals(4999, repo1.get(4999).getId());
+
+    // remove every other one, order is kept and positional access reflects removals
+    for (int i = 0; i < 5000; i += 2) {
+      tested.removeNotificationById(i);
+    }
+    assertEquals(2500, repo1.size());
+    assertEquals(1, repo1.get(0).getId());
+    assertEquals(4999, repo1.get(2499).getId());
+    long last = -1;
+    int count = 0;
+    for (Notification n : repo1) {
+      assertTrue(n.getId() > last);
+      last = n.getId();
+      count++;
+    }
+    assertEquals(2500, count);
+    try {
+      repo1.get(2500);
+      fail("IndexOutOfBoundsException expected");
+    } catch (IndexOutOfBoundsException e) {
+      // OK
+    }
+  }
+
+  public void test_replaceNotification() {
+    NotificationStream original = new NotificationStream();
+    original.addNotification(TestNotifications.create(10, "test/test1", "Issue", "mention"));
+    original.addNotification(TestNotifications.create(20, "test/test2", "Issue", "mention"));
+    original.addNotification(TestNotifications.create(30, "test/test1", "Issue", "mention"));
+    Notification n20 = original.getNotificationById(20);
+
+    NotificationStream tested = original.copy();
+    Notification changed = n20.copy();
+    changed.setSubjectStatus("closed");
+    changed.setDetailLoaded(true);
+    assertTrue(tested.replaceNotification(changed));
+    assertFalse(tested.replaceNotification(TestNotifications.create(40, "test/test1", "Issue", "mention")));
+
+    // position in stream and in index is kept
+    assertEquals(3, tested.size());
+    assertSame(changed, tested.get(1));
+    assertSame(changed, tested.getNotificationsForReason("mention").get(1));
+    assertSame(changed, tested.getNotificationsForRepository("test/test2").get(0));
+    assertNotifCount(tested.getRepositoriesInfo().get(0), "test/test1", 2);
+
+    // original stream and its notification is not changed
+    assertSame(n20, original.getNotificationById(20));
+    assertSame(n20, original.getNotificationsForReason("mention").get(1));
+    assertFalse(n20.isDetailLoaded());
+    assertNull(n20.getSubjectStatus());
+
+    // notification moved to other index bucket
+    changed = TestNotifications.create(20, "test/test2", "PullRequest", "subscribed");
+    assertTrue(tested.replaceNotification(changed));
+    assertSame(changed, tested.get(1));
+    assertSame(changed, tested.getNotificationsForSubjectType("PullRequest").get(0));
+    assertEquals(2, tested.getNotificationsForSubjectType("Issue").size());
+    assertEquals(2, tested.getParticipatingNotifications().size());
+  }
+
+  /**
+   * Measures cost of copy of stream with removal of one notification, as done for each swiped notification, reports it into log.
+   */
+  public void test_copyAndRemove_benchmark() {
+    final int count = 10000;
+    final int rounds = 50;
+    NotificationStream tested = new NotificationStream();
+    for (int i = 0; i < count; i++) {
+      tested.addNotification(TestNotifications.create(i, "test/test" + (i % 50), i % 3 == 0 ? "Issue" : "PullRequest", i % 2 == 0 ? "mention" : "subscribed"));
+    }
+
+    long time = System.nanoTime();
+    NotificationStream current = tested;
+    for (int r = 0; r < rounds; r++) {
+      current = current.copy();
+      current.removeNotificationById(r);
+    }
+    long copyTime = (System.nanoTime() - time) / rounds;
+
+    time = System.nanoTime();
+    for (int r = 0; r < rounds; r++) {
+      NotificationStream rebuilt = new NotificationStream();
+      for (Notification n : tested) {
+        rebuilt.addNotification(n);
+      }
+    }
+    long rebuildTime = (System.nanoTime() - time) / rounds;
+
+    // copies do not affect each other
+    assertEquals(count, tested.size());
+    assertEquals(count / 50, tested.getNotificationsForRepository("test/test0").size());
+    assertEquals(count - rounds, current.size());
+    assertEquals(count / 50 - 1, current.getNotificationsForRepository("test/test0").size());
+    assertEquals(count / 2 - rounds / 2, current.getParticipatingNotifications().size());
+
+    Log.i(TAG, count + " notifications, copy with removal: " + copyTime / 1000 + "us, full rebuild: " + rebuildTime / 1000 + "us");
+  }
+
   private void assertNotifCount(NotifCount notifCount, String expectedTitle, int expectedCount) {
     assertEquals(expectedTitle, notifCount.title);
     assertEquals(expectedCount, notifCount.count);
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.model;
+
+import android.test.AndroidTestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * Unit test of Java serialization compatibility of {@link NotificationStream} and {@link WatchedRepositories} with data stored by older versions
+ * of application, where items were kept in <code>LinkedHashMap&lt;Long, ...&gt;</code>.
+ */
+public class SerializationCompatibilityTest extends AndroidTestCase {
+
+  // serialized by older version: stream with notifications 20 (a/b, Issue, mention) and 10 (c/d, PullRequest, subscribed, label "bug")
+  private static final String LEGACY_NOTIFICATION_STREAM = "aced00057372002f636f6d2e6461736b69776f726b732e676877617463682e6d6f64656c2e4e6f74696669636174696f6e53747265616d0000000000"
+          + "0000040200034a00176c61737446756c6c55706461746554696d657374616d704c000c6c6173744d6f6469666965647400124c6a6176612f6c616e67"
+          + "2f537472696e673b4c000d6e6f74696669636174696f6e737400194c6a6176612f7574696c2f4c696e6b6564486173684d61703b7870000000000000"
+          + "03e874001d5468752c203235204f637420323031322031353a31363a323720474d54737200176a6176612e7574696c2e4c696e6b6564486173684d61"
+          + "7034c04e5c106cc0fb0200015a000b6163636573734f72646572787200116a6176612e7574696c2e486173684d61700507dac1c31660d10300024600"
+          + "0a6c6f6164466163746f724900097468726573686f6c6478703f4000000000000c770800000010000000027372000e6a6176612e6c616e672e4c6f6e"
+          + "673b8be490cc8f23df0200014a000576616c7565787200106a6176612e6c616e672e4e756d62657286ac951d0b94e08b020000787000000000000000"
+          + "1473720029636f6d2e6461736b69776f726b732e676877617463682e6d6f64656c2e4e6f74696669636174696f6e000000000000000302000e5a000c"
+          + "64657461696c4c6f616465644a000269644c0006726561736f6e71007e00014c00137265706f7369746f727941766174617255726c71007e00014c00"
+          + "127265706f7369746f727946756c6c4e616d6571007e00014c00147375626a65637444657461696c48746d6c55726c71007e00014c000d7375626a65"
+          + "63744c6162656c737400104c6a6176612f7574696c2f4c6973743b4c00177375626a6563744c6174657374436f6d6d656e7455726c71007e00014c00"
+          + "0d7375626a65637453746174757371007e00014c000c7375626a6563745469746c6571007e00014c000b7375626a6563745479706571007e00014c00"
+          + "0a7375626a65637455726c71007e00014c00097570646174656441747400104c6a6176612f7574696c2f446174653b4c000375726c71007e00017870"
+          + "0000000000000000147400076d656e74696f6e740006617661746172740003612f62707070707400077469746c653230740005497373756570737200"
+          + "0e6a6176612e7574696c2e44617465686a81014b5974190300007870770800000000000493e07874000575726c32307371007e000800000000000000"
+          + "0a7371007e000b01000000000000000a74000a7375627363726962656471007e0010740003632f6470737200136a6176612e7574696c2e4172726179"
+          + "4c6973747881d21d99c7619d03000149000473697a6578700000000177040000000173720022636f6d2e6461736b69776f726b732e67687761746368"
+          + "2e6d6f64656c2e4c6162656c00000000000000010200024c0005636f6c6f7271007e00014c00046e616d6571007e0001787074000666633239323974"
+          + "000362756778707400046f70656e7400077469746c65313074000b50756c6c52657175657374707371007e001477080000000000030d407874000575"
+          + "726c31307800";
+
+  // serialized by older version: repositories 5 (a/b) and 3 (c/d)
+  private static final String LEGACY_WATCHED_REPOSITORIES = "aced000573720030636f6d2e6461736b69776f726b732e676877617463682e6d6f64656c2e576174636865645265706f7369746f7269657300000000"
+          + "000000040200024a00176c61737446756c6c55706461746554696d657374616d704c000c7265706f7369746f726965737400194c6a6176612f757469"
+          + "6c2f4c696e6b6564486173684d61703b787000000000000007d0737200176a6176612e7574696c2e4c696e6b6564486173684d617034c04e5c106cc0"
+          + "fb0200015a000b6163636573734f72646572787200116a6176612e7574696c2e486173684d61700507dac1c31660d103000246000a6c6f6164466163"
+          + "746f724900097468726573686f6c6478703f4000000000000c770800000010000000027372000e6a6176612e6c616e672e4c6f6e673b8be490cc8f23"
+          + "df0200014a000576616c7565787200106a6176612e6c616e672e4e756d62657286ac951d0b94e08b0200007870000000000000000573720027636f6d"
+          + "2e6461736b69776f726b732e676877617463682e6d6f64656c2e5265706f7369746f727900000000000000020200054a000269644c000768746d6c55"
+          + "726c7400124c6a6176612f6c616e672f537472696e673b4c00137265706f7369746f727941766174617255726c71007e000a4c00127265706f736974"
+          + "6f727946756c6c4e616d6571007e000a4c000375726c71007e000a7870000000000000000574000568746d6c35740006617661746172740003612f62"
+          + "74000475726c357371007e000600000000000000037371007e0009000000000000000374000568746d6c3371007e000d740003632f6474000475726c"
+          + "337800";
+
+  private static Object deserialize(byte[] data) throws Exception {
+    ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data));
+    try {
+      return ois.readObject();
+    } finally {
+      ois.close();
+    }
+  }
+
+  private static byte[] serialize(Object o) throws Exception {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    ObjectOutputStream oos = new ObjectOutputStream(bos);
+    oos.writeObject(o);
+    oos.close();
+    return bos.toByteArray();
+  }
+
+  private static byte[] fromHex(String hex) {
+    byte[] ret = new byte[hex.length() / 2];
+    for (int i = 0; i < ret.length; i++) {
+      ret[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+    }
+    return ret;
+  }
+
+  private static void assertLegacyStream(NotificationStream ns) {
+    assertEquals(2, ns.size());
+    assertEquals("Thu, 25 Oct 2012 15:16:27 GMT", ns.getLastModified());
+    assertEquals(1000, ns.getLastFullUpdateTimestamp());
+    assertEquals(20, ns.get(0).getId());
+    assertEquals(10, ns.get(1).getId());
+    Notification n = ns.getNotificationById(10);
+    assertEquals("title10", n.getSubjectTitle());
+    assertEquals("open", n.getSubjectStatus());
+    assertEquals("bug", n.getSubjectLabels().get(0).getName());
+    // transient indexes and counters are rebuilt
+    assertEquals(1, ns.getNotificationsForRepository("a/b").size());
+    assertEquals(1, ns.getParticipatingNotifications().size());
+    assertEquals(2, ns.getRepositoriesInfo().size());
+  }
+
+  public void test_notificationStream_legacyFormat() throws Exception {
+    NotificationStream ns = (NotificationStream) deserialize(fromHex(LEGACY_NOTIFICATION_STREAM));
+    assertLegacyStream(ns);
+
+    // stored again in current format
+    ns = (NotificationStream) deserialize(serialize(ns));
+    assertLegacyStream(ns);
+  }
+
+  private static void assertLegacyRepositories(WatchedRepositories wr) {
+    assertEquals(2, wr.size());
+    assertEquals(2000, wr.getLastFullUpdateTimestamp());
+    assertEquals("a/b", wr.getRepositoryById(5).getRepositoryFullName());
+    assertEquals("c/d", wr.getRepositoryById(3).getRepositoryFullName());
+  }
+
+  public void test_watchedRepositories_legacyFormat() throws Exception {
+    WatchedRepositories wr = (WatchedRepositories) deserialize(fromHex(LEGACY_WATCHED_REPOSITORIES));
+    assertLegacyRepositories(wr);
+
+    wr = (WatchedRepositories) deserialize(serialize(wr));
+    assertLegacyRepositories(wr);
+  }
+
+}
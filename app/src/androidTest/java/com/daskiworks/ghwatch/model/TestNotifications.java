@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.model;
+
+import java.util.Date;
+
+/**
+ * {@link Notification} factory shared by unit tests. Fields not given to factory method are filled with dummy values.
+ */
+public class TestNotifications {
+
+  public static final String REPOSITORY = "owner/repo";
+  public static final String AVATAR_URL = "https://avatars.githubusercontent.com/u/1";
+
+  /**
+   * @param id of notification
+   * @return issue notification from {@link #REPOSITORY} with reason <code>subscribed</code> and without update time
+   */
+  public static Notification create(long id) {
+    return create(id, REPOSITORY, "Issue", NotificationStream.REASON_SUBSCRIBED, null, null);
+  }
+
+  /**
+   * @param id         of notification
+   * @param repository full name of repository
+   * @param reason     of notification
+   * @param updatedAt  update time in millis
+   * @return issue notification
+   */
+  public static Notification create(long id, String repository, String reason, long updatedAt) {
+    return create(id, repository, "Issue", reason, new Date(updatedAt), null);
+  }
+
+  /**
+   * @param id          of notification
+   * @param repository  full name of repository
+   * @param subjectType type of subject, eg. <code>Issue</code> or <code>PullRequest</code>
+   * @param reason      of notification
+   * @return notification updated now
+   */
+  public static Notification create(long id, String repository, String subjectType, String reason) {
+    return create(id, repository, subjectType, reason, new Date(), null);
+  }
+
+  /**
+   * @param id         of notification
+   * @param subjectUrl API url of subject detail
+   * @return issue notification from {@link #REPOSITORY} with reason <code>mention</code> and without update time
+   */
+  public static Notification createWithSubjectUrl(long id, String subjectUrl) {
+    return create(id, REPOSITORY, "Issue", "mention", null, subjectUrl);
+  }
+
+  /**
+   * @param id          of notification
+   * @param repository  full name of repository
+   * @param subjectType type of subject
+   * @param reason      of notification
+   * @param updatedAt   update time, may be null
+   * @param subjectUrl  API url of subject detail, may be null
+   * @return notification
+   */
+  public static Notification create(long id, String repository, String subjectType, String reason, Date updatedAt, String subjectUrl) {
+    return new Notification(id, "https://api.github.com/notifications/threads/" + id, "title" + id, subjectType, subjectUrl, null, repository,
+        AVATAR_URL, updatedAt, reason);
+  }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.store;
+
+import android.test.AndroidTestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+/**
+ * Unit test for {@link AtomicFileStore} and {@link StoreJournal}.
+ */
+public class AtomicFileStoreTest extends AndroidTestCase {
+
+  private static final String TAG = "AtomicFileStoreTest";
+
+  private File file;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    file = new File(System.getProperty("java.io.tmpdir"), "AtomicFileStoreTest.td");
+    AtomicFileStore.delete(file);
+    new StoreJournal(TAG, file).delete();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    AtomicFileStore.delete(file);
+    new StoreJournal(TAG, file).delete();
+    super.tearDown();
+  }
+
+  private void corrupt(File f) throws IOException {
+    FileOutputStream fos = new FileOutputStream(f);
+    fos.write(new byte[]{1, 2, 3});
+    fos.close();
+  }
+
+  public void test_write_read() {
+    assertNull(AtomicFileStore.read(TAG, file));
+
+    assertTrue(AtomicFileStore.write(TAG, file, "first"));
+    assertEquals("first", AtomicFileStore.read(TAG, file));
+    assertFalse(AtomicFileStore.getTmpFile(file).exists());
+
+    assertTrue(AtomicFileStore.write(TAG, file, "second"));
+    assertEquals("second", AtomicFileStore.read(TAG, file));
+    assertTrue(AtomicFileStore.getPrevFile(file).exists());
+  }
+
+  public void test_read_previousGeneration() throws IOException {
+    AtomicFileStore.write(TAG, file, "first");
+    AtomicFileStore.write(TAG, file, "second");
+
+    // case - truncated current file
+    corrupt(file);
+    assertEquals("first", AtomicFileStore.read(TAG, file));
+
+    // case - killed between renames so current file is missing
+    file.delete();
+    assertEquals("first", AtomicFileStore.read(TAG, file));
+  }
+
+  public void test_delete() {
+    AtomicFileStore.write(TAG, file, "first");
+    AtomicFileStore.write(TAG, file, "second");
+    assertTrue(AtomicFileStore.delete(file));
+    assertFalse(file.exists());
+    assertFalse(AtomicFileStore.getPrevFile(file).exists());
+    assertNull(AtomicFileStore.read(TAG, file));
+  }
+
+  public void test_journal() throws IOException {
+    StoreJournal journal = new StoreJournal(TAG, file);
+    // not started yet
+    assertFalse(journal.append(new byte[]{1}));
+
+    AtomicFileStore.write(TAG, file, "data");
+    long token = StoreJournal.getBaseToken(file);
+    assertTrue(journal.start(token));
+    assertTrue(journal.isEmpty());
+    assertTrue(journal.append(new byte[]{1, 2}));
+    assertTrue(journal.append(new byte[]{3}));
+    assertFalse(journal.isEmpty());
+
+    List<byte[]> records = journal.read(token);
+    assertEquals(2, records.size());
+    assertEquals(2, records.get(0).length);
+    assertEquals(3, records.get(1)[0]);
+
+    // other generation of store file
+    assertNull(journal.read(token + 1));
+
+    // record truncated by process kill is ignored and cut off, so next records are readable
+    File jf = new File(file.getParentFile(), file.getName() + ".journal");
+    RandomAccessFile raf = new RandomAccessFile(jf, "rw");
+    raf.setLength(raf.length() - 1);
+    raf.close();
+    assertEquals(1, journal.read(token).size());
+    assertTrue(journal.append(new byte[]{4}, new byte[]{5}));
+    records = journal.read(token);
+    assertEquals(3, records.size());
+    assertEquals(5, records.get(2)[0]);
+
+    // new generation throws old records away
+    assertTrue(journal.start(token + 1));
+    assertTrue(journal.read(token + 1).isEmpty());
+  }
+
+}
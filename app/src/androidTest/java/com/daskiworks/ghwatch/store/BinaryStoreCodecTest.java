@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.store;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.model.AccountType;
+import com.daskiworks.ghwatch.model.GHUserInfo;
+import com.daskiworks.ghwatch.model.GHUserLoginInfo;
+import com.daskiworks.ghwatch.model.Label;
+import com.daskiworks.ghwatch.model.Notification;
+import com.daskiworks.ghwatch.model.NotificationStream;
+import com.daskiworks.ghwatch.model.Repository;
+import com.daskiworks.ghwatch.model.StringPool;
+import com.daskiworks.ghwatch.model.UnreadSummary;
+import com.daskiworks.ghwatch.model.WatchedRepositories;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Date;
+
+/**
+ * Unit test for {@link BinaryStoreCodec}. Benchmark comparing it with Java serialization reports into log (tag <code>BinaryStoreCodecTest</code>).
+ */
+public class BinaryStoreCodecTest extends AndroidTestCase {
+
+  private static final String TAG = "BinaryStoreCodecTest";
+
+  private static final int[] NOTIFICATION_COUNTS = {100, 1000, 10000};
+
+  private static final int BENCHMARK_ROUNDS = 5;
+
+  private static NotificationStream createNotificationStream(int count) {
+    NotificationStream ns = new NotificationStream();
+    ns.setLastModified("Thu, 25 Oct 2012 15:16:27 GMT");
+    ns.setLastFullUpdateTimestamp(1351178187000L);
+    for (int i = 0; i < count; i++) {
+      String repo = "owner" + (i % 20) + "/repo" + (i % 20);
+      String url = "https://api.github.com/repos/" + repo;
+      Notification n = new Notification(1000000000L + i, "https://api.github.com/notifications/threads/" + i, "Subject title číslo " + i,
+              i % 3 == 0 ? "PullRequest" : "Issue", url + "/issues/" + i, i % 2 == 0 ? url + "/issues/comments/" + (i * 7) : null, repo,
+              "https://avatars.githubusercontent.com/u/" + (i % 20) + "?v=4", new Date(1351178187000L - i * 1000L), i % 4 == 0 ? "mention" : "subscribed");
+      if (i % 5 == 0) {
+        n.setDetailLoaded(true);
+        n.setSubjectDetailHtmlUrl("https://github.com/" + repo + "/issues/" + i);
+        n.setSubjectStatus("open");
+        n.addSubjectLabel(new Label("bug", "fc2929"));
+        n.addSubjectLabel(new Label("help wanted", "159818"));
+      }
+      ns.addNotification(n);
+    }
+    return ns;
+  }
+
+  private static byte[] write(Object data) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    BinaryStoreCodec.write(bos, data);
+    return bos.toByteArray();
+  }
+
+  private static Object read(byte[] data) throws IOException {
+    BufferedInputStream is = new BufferedInputStream(new ByteArrayInputStream(data));
+    assertTrue(BinaryStoreCodec.isBinaryFormat(is));
+    return BinaryStoreCodec.read(is);
+  }
+
+  public void test_isSupported() {
+    assertTrue(BinaryStoreCodec.isSupported(new NotificationStream()));
+    assertTrue(BinaryStoreCodec.isSupported(new WatchedRepositories()));
+    assertTrue(BinaryStoreCodec.isSupported(new GHUserInfo()));
+    assertFalse(BinaryStoreCodec.isSupported("text"));
+    assertFalse(BinaryStoreCodec.isSupported(null));
+  }
+
+  public void test_notificationStream() throws IOException {
+    NotificationStream ns = createNotificationStream(30);
+    ns.addNotification(new Notification(5, null, null, null, null, null, null, null, null, null));
+
+    NotificationStream read = (NotificationStream) read(write(ns));
+    assertEquals(ns.getLastModified(), read.getLastModified());
+    assertEquals(ns.getLastFullUpdateTimestamp(), read.getLastFullUpdateTimestamp());
+    assertEquals(ns.size(), read.size());
+    for (int i = 0; i < ns.size(); i++) {
+      Notification e = ns.get(i);
+      Notification a = read.get(i);
+      assertEquals(e.getId(), a.getId());
+      assertEquals(e.getUrl(), a.getUrl());
+      assertEquals(e.getSubjectTitle(), a.getSubjectTitle());
+      assertEquals(e.getSubjectType(), a.getSubjectType());
+      assertEquals(e.getSubjectUrl(), a.getSubjectUrl());
+      assertEquals(e.getSubjectLatestCommentUrl(), a.getSubjectLatestCommentUrl());
+      assertEquals(e.getRepositoryFullName(), a.getRepositoryFullName());
+      assertEquals(e.getRepositoryAvatarUrl(), a.getRepositoryAvatarUrl());
+      assertEquals(e.getReason(), a.getReason());
+      assertEquals(e.getUpdatedAt(), a.getUpdatedAt());
+      assertEquals(e.isDetailLoaded(), a.isDetailLoaded());
+      assertEquals(e.getSubjectDetailHtmlUrl(), a.getSubjectDetailHtmlUrl());
+      assertEquals(e.getSubjectStatus(), a.getSubjectStatus());
+      assertEquals(String.valueOf(e.getSubjectLabels()), String.valueOf(a.getSubjectLabels()));
+    }
+  }
+
+  public void test_notificationStream_stringPool() throws IOException {
+    StringPool pool = new StringPool();
+    String repo = pool.get("owner3/repo3");
+    byte[] data = write(createNotificationStream(30));
+    NotificationStream read = (NotificationStream) BinaryStoreCodec.read(new BufferedInputStream(new ByteArrayInputStream(data)), pool);
+    // strings are shared with pool given by caller
+    assertSame(repo, read.getNotificationById(1000000003L).getRepositoryFullName());
+    assertSame(repo, read.getNotificationById(1000000023L).getRepositoryFullName());
+    assertSame(pool.get("bug"), read.getNotificationById(1000000005L).getSubjectLabels().get(0).getName());
+    assertSame(pool.get("mention"), read.getNotificationById(1000000004L).getReason());
+  }
+
+  public void test_watchedRepositories() throws IOException {
+    WatchedRepositories wr = new WatchedRepositories();
+    wr.setLastFullUpdateTimestamp(123);
+    wr.addRepository(new Repository(2, "https://api.github.com/repos/a/b", "a/b", "https://avatars.githubusercontent.com/u/1", "https://github.com/a/b"));
+    wr.addRepository(new Repository(1, null, "a/a", "https://avatars.githubusercontent.com/u/1", null));
+
+    WatchedRepositories read = (WatchedRepositories) read(write(wr));
+    assertEquals(123, read.getLastFullUpdateTimestamp());
+    assertEquals(2, read.size());
+    Repository r = read.getRepositoryById(2);
+    assertEquals("https://api.github.com/repos/a/b", r.getUrl());
+    assertEquals("a/b", r.getRepositoryFullName());
+    assertEquals("https://avatars.githubusercontent.com/u/1", r.getRepositoryAvatarUrl());
+    assertEquals("https://github.com/a/b", r.getHtmlUrl());
+    r = read.getRepositoryById(1);
+    assertNull(r.getUrl());
+    assertEquals("https://avatars.githubusercontent.com/u/1", r.getRepositoryAvatarUrl());
+  }
+
+  public void test_userInfo() throws IOException {
+    GHUserInfo ui = (GHUserInfo) read(write(new GHUserInfo("user", null, "https://avatar", "https://github.com/user", 456)));
+    assertEquals("user", ui.getUsername());
+    assertNull(ui.getName());
+    assertEquals("https://avatar", ui.getAvatarUrl());
+    assertEquals("https://github.com/user", ui.getHtmlUrl());
+    assertEquals(456, ui.getUpdateTimestamp());
+
+    GHUserLoginInfo uli = (GHUserLoginInfo) read(write(new GHUserLoginInfo(AccountType.LOCAL, "user", "token", 789)));
+    assertEquals(AccountType.LOCAL, uli.getAccountType());
+    assertEquals("user", uli.getUsername());
+    assertEquals("token", uli.getT());
+    assertEquals(789, uli.getLoginDate());
+  }
+
+  public void test_unreadSummary() throws IOException {
+    UnreadSummary us = (UnreadSummary) read(write(new UnreadSummary(createNotificationStream(50), true, 7)));
+    assertEquals(50, us.getUnreadCount());
+    assertTrue(us.isHighlight());
+    assertEquals(7, us.getBadgeCount());
+    assertTrue(us.getLastUpdateTimestamp() > 0);
+    assertEquals(20, us.getRepositoryCounts().size());
+    assertEquals("owner0/repo0", us.getRepositoryCounts().get(0).title);
+    assertEquals(3, us.getRepositoryCounts().get(0).count);
+
+    // stream not available
+    UnreadSummary empty = (UnreadSummary) read(write(new UnreadSummary(null, false, 0)));
+    assertEquals(-1, empty.getUnreadCount());
+    assertTrue(empty.getRepositoryCounts().isEmpty());
+
+    assertFalse(us.isSameForWidget(empty));
+    assertFalse(us.isSameForWidget(null));
+    UnreadSummary other = new UnreadSummary(createNotificationStream(50), true, 0);
+    assertTrue(us.isSameForWidget(other));
+    other.setHighlight(false);
+    assertFalse(us.isSameForWidget(other));
+  }
+
+  public void test_isBinaryFormat_javaSerialization() throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    ObjectOutputStream oos = new ObjectOutputStream(bos);
+    oos.writeObject(new NotificationStream());
+    oos.close();
+    BufferedInputStream is = new BufferedInputStream(new ByteArrayInputStream(bos.toByteArray()));
+    assertFalse(BinaryStoreCodec.isBinaryFormat(is));
+    // stream position is not changed
+    assertEquals(0xAC, is.read());
+
+    assertFalse(BinaryStoreCodec.isBinaryFormat(new BufferedInputStream(new ByteArrayInputStream(new byte[]{0x47}))));
+  }
+
+  public void test_read_newerVersion() throws IOException {
+    byte[] data = write(new GHUserInfo());
+    // format version byte follows magic
+    data[4] = (byte) (BinaryStoreCodec.FORMAT_VERSION + 1);
+    try {
+      read(data);
+      fail("InvalidClassException expected");
+    } catch (InvalidClassException e) {
+      // OK
+    }
+  }
+
+  public void test_benchmark() throws Exception {
+    for (int count : NOTIFICATION_COUNTS) {
+      NotificationStream ns = createNotificationStream(count);
+
+      long javaWrite = 0, javaRead = 0, binaryWrite = 0, binaryRead = 0;
+      byte[] javaData = null, binaryData = null;
+      for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(ns);
+        oos.close();
+        javaData = bos.toByteArray();
+        javaWrite += System.nanoTime() - start;
+
+        start = System.nanoTime();
+        NotificationStream read = (NotificationStream) new ObjectInputStream(new ByteArrayInputStream(javaData)).readObject();
+        javaRead += System.nanoTime() - start;
+        assertEquals(count, read.size());
+
+        start = System.nanoTime();
+        binaryData = write(ns);
+        binaryWrite += System.nanoTime() - start;
+
+        start = System.nanoTime();
+        read = (NotificationStream) read(binaryData);
+        binaryRead += System.nanoTime() - start;
+        assertEquals(count, read.size());
+      }
+      assertTrue(binaryData.length < javaData.length);
+      Log.i(TAG, count + " notifications, Java serialization: write " + javaWrite / BENCHMARK_ROUNDS / 1000 + "us, read " + javaRead / BENCHMARK_ROUNDS
+              / 1000 + "us, " + javaData.length + " bytes");
+      Log.i(TAG, count + " notifications, binary codec: write " + binaryWrite / BENCHMARK_ROUNDS / 1000 + "us, read " + binaryRead / BENCHMARK_ROUNDS
+              / 1000 + "us, " + binaryData.length + " bytes");
+    }
+  }
+
+}
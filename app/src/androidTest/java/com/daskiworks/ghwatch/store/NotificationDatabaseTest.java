@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.store;
+
+import android.test.AndroidTestCase;
+
+import com.daskiworks.ghwatch.model.Label;
+import com.daskiworks.ghwatch.model.NotifCount;
+import com.daskiworks.ghwatch.model.Notification;
+import com.daskiworks.ghwatch.model.NotificationStream;
+import com.daskiworks.ghwatch.model.TestNotifications;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit test for {@link NotificationDatabase}. Needs device because of SQLite.
+ */
+public class NotificationDatabaseTest extends AndroidTestCase {
+
+  private NotificationDatabase db;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    db = NotificationDatabase.getInstance(getContext());
+    db.clear();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    db.clear();
+    super.tearDown();
+  }
+
+  private static NotificationStream createStream() {
+    NotificationStream ns = new NotificationStream();
+    ns.setLastModified("Thu, 25 Oct 2012 15:16:27 GMT");
+    ns.setLastFullUpdateTimestamp(1000);
+    ns.addNotification(TestNotifications.create(1, "a/b", "subscribed", 100));
+    ns.addNotification(TestNotifications.create(2, "c/d", "mention", 300));
+    Notification n = TestNotifications.create(3, "a/b", "mention", 200);
+    n.setDetailLoaded(true);
+    n.setSubjectStatus("open");
+    n.addSubjectLabel(new Label("bug", "fc2929"));
+    n.addSubjectLabel(new Label("ui", "000000"));
+    ns.addNotification(n);
+    return ns;
+  }
+
+  public void test_saveStream_loadStream() {
+    assertNull(db.loadStream());
+    assertEquals(-1, db.getCount());
+
+    db.saveStream(createStream());
+    NotificationStream ns = db.loadStream();
+    assertEquals("Thu, 25 Oct 2012 15:16:27 GMT", ns.getLastModified());
+    assertEquals(1000, ns.getLastFullUpdateTimestamp());
+    assertEquals(3, ns.size());
+    assertEquals(1, ns.get(0).getId());
+    assertEquals(3, ns.get(2).getId());
+    Notification n = ns.get(2);
+    assertEquals("a/b", n.getRepositoryFullName());
+    assertEquals(TestNotifications.AVATAR_URL, n.getRepositoryAvatarUrl());
+    assertEquals(200, n.getUpdatedAt().getTime());
+    assertTrue(n.isDetailLoaded());
+    assertEquals("open", n.getSubjectStatus());
+    assertEquals(2, n.getSubjectLabels().size());
+    assertEquals("ui", n.getSubjectLabels().get(1).getName());
+    assertNull(ns.get(0).getSubjectLabels());
+  }
+
+  public void test_queries() {
+    db.saveStream(createStream());
+    assertEquals(3, db.getCount());
+
+    List<Notification> l = db.getNotificationsForRepository("a/b");
+    assertEquals(2, l.size());
+    assertEquals(1, l.get(0).getId());
+    assertEquals(2, l.get(1).getSubjectLabels().size());
+
+    assertEquals(2, db.getNotificationsForReason("mention").size());
+
+    List<NotifCount> counts = db.getCountsPerRepository();
+    assertEquals(2, counts.size());
+    assertEquals("a/b", counts.get(0).title);
+    assertEquals(2, counts.get(0).count);
+
+    l = db.getNotificationsPage(0, 2);
+    assertEquals(2, l.size());
+    assertEquals(2, l.get(0).getId());
+    assertEquals(3, l.get(1).getId());
+    assertNull(l.get(0).getSubjectLabels());
+    assertEquals(2, l.get(1).getSubjectLabels().size());
+    l = db.getNotificationsPage(2, 2);
+    assertEquals(1, l.size());
+    assertNull(l.get(0).getSubjectLabels());
+  }
+
+  public void test_removeNotifications_updateDetails() {
+    db.saveStream(createStream());
+    db.removeNotifications(Arrays.asList(3L, 5L));
+    assertEquals(2, db.getCount());
+
+    Notification n = TestNotifications.create(1, "a/b", "subscribed", 100);
+    n.setDetailLoaded(true);
+    n.setSubjectStatus("closed");
+    n.addSubjectLabel(new Label("bug", "fc2929"));
+    db.updateDetails(Collections.singletonList(n));
+
+    n = db.loadStream().getNotificationById(1);
+    assertTrue(n.isDetailLoaded());
+    assertEquals("closed", n.getSubjectStatus());
+    assertEquals(1, n.getSubjectLabels().size());
+  }
+
+}
@@ -16,7 +16,10 @@
 package com.daskiworks.ghwatch;
 
 import android.app.Application;
+import android.net.ConnectivityManager;
+import android.net.Network;
 
+import com.daskiworks.ghwatch.backend.PendingMutationQueue;
 import com.daskiworks.ghwatch.backend.PreferencesUtils;
 import com.daskiworks.ghwatch.image.ImageLoader;
 
@@ -29,6 +32,27 @@ public class GhWatchApplication extends Application {
   public void onCreate() {
     super.onCreate();
     PreferencesUtils.setAppNightMode(this);
+    registerPendingMutationReplay();
+  }
+
+  /**
+   * Replay user actions performed while offline as soon as connectivity returns.
+   */
+  private void registerPendingMutationReplay() {
+    Utils.getConnectivityManager(this).registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+      @Override
+      public void onAvailable(Network network) {
+        final PendingMutationQueue queue = PendingMutationQueue.getInstance(GhWatchApplication.this);
+        if (!queue.isEmpty()) {
+          Thread t = new Thread() {
+            public void run() {
+              queue.replay(true);
+            }
+          };
+          t.start();
+        }
+      }
+    });
   }
 
   @Override
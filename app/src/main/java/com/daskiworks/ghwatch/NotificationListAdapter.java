@@ -19,6 +19,8 @@ import android.content.Context;
 import android.content.res.ColorStateList;
 import android.graphics.Color;
 import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.MenuInflater;
@@ -33,20 +35,21 @@ import android.widget.PopupMenu;
 import android.widget.TextView;
 
 import com.daskiworks.ghwatch.backend.PreferencesUtils;
+import com.daskiworks.ghwatch.backend.RequestBudgetManager;
 import com.daskiworks.ghwatch.backend.UnreadNotificationsService;
 import com.daskiworks.ghwatch.image.ImageLoader;
 import com.daskiworks.ghwatch.model.Label;
-import com.daskiworks.ghwatch.model.LoadingStatus;
 import com.daskiworks.ghwatch.model.Notification;
 import com.daskiworks.ghwatch.model.NotificationStream;
-import com.daskiworks.ghwatch.model.NotificationViewData;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.RejectedExecutionException;
 
 import androidx.core.content.ContextCompat;
@@ -72,8 +75,28 @@ public class NotificationListAdapter extends BaseAdapter {
 
   private List<Notification> filteredNotifications = null;
 
-  private Map<View, DetailedDataLoaderTask> detailLoadersByView = new HashMap<View, DetailedDataLoaderTask>();
-  private Map<Notification, DetailedDataLoaderTask> detailLoadersByNotification = new HashMap<Notification, DetailedDataLoaderTask>();
+  /**
+   * Delay used to collect notifications shown in list before their details are loaded in one batch [millis].
+   */
+  private static final long DETAIL_LOADING_BATCH_DELAY = 200;
+
+  /**
+   * Notifications waiting for detail loading.
+   */
+  private Set<Notification> detailLoadingQueue = new LinkedHashSet<Notification>();
+  private Set<Notification> detailLoadingInProgress = new HashSet<Notification>();
+  /**
+   * Ids of notifications detail loading failed for, they are not loaded again until the stream is refreshed.
+   */
+  private Set<Long> detailLoadingFailed = new HashSet<Long>();
+  private Set<DetailedDataLoaderTask> detailLoaders = new HashSet<DetailedDataLoaderTask>();
+  private Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable detailLoadingStarter = new Runnable() {
+    @Override
+    public void run() {
+      startDetailLoading();
+    }
+  };
 
   public NotificationListAdapter(Context activity, final NotificationStream notificationStream, ImageLoader imageLoader,
                                  UnreadNotificationsService unreadNotificationsService) {
@@ -87,17 +110,18 @@ public class NotificationListAdapter extends BaseAdapter {
   public void setNotificationStream(NotificationStream notificationStream) {
     this.notificationStream = notificationStream;
     filteredNotifications = null;
+    detailLoadingFailed.clear();
   }
 
   private List<Notification> getFilteredNotifications() {
     if (filteredNotifications == null) {
-      filteredNotifications = new ArrayList<Notification>();
-      if (notificationStream != null) {
-        for (Notification n : notificationStream) {
-          if (filterByRepository == null || filterByRepository.equals(n.getRepositoryFullName())) {
-            filteredNotifications.add(n);
-          }
-        }
+      // live views of stream, so they are not rebuilt after notification removal
+      if (notificationStream == null) {
+        filteredNotifications = Collections.emptyList();
+      } else if (filterByRepository == null) {
+        filteredNotifications = notificationStream.asList();
+      } else {
+        filteredNotifications = notificationStream.getNotificationsForRepository(filterByRepository);
       }
     }
     return filteredNotifications;
@@ -110,12 +134,10 @@ public class NotificationListAdapter extends BaseAdapter {
       //patch sporadic bug #99
       Log.w(TAG, e.getMessage());
     }
-    filteredNotifications = null;
   }
 
   public void removeNotificationById(long id) {
     notificationStream.removeNotificationById(id);
-    filteredNotifications = null;
   }
 
   @Override
@@ -200,13 +222,6 @@ public class NotificationListAdapter extends BaseAdapter {
     if (convertView == null) {
       listItem = layoutInflater.inflate(R.layout.list_notifications, parent, false);
     } else {
-
-      //#100 patch - try to cancel old loader not to be executed if user quickly scrolls over many notifications
-      DetailedDataLoaderTask olddl = detailLoadersByView.get(convertView);
-      if (olddl != null) {
-        olddl.cancel(true);
-      }
-
       // we can't reuse view due to problems with item height (list item is not resized correctly if data from new notification require another size)
       //listItem = convertView;
       listItem = layoutInflater.inflate(R.layout.list_notifications, parent, false);
@@ -229,20 +244,11 @@ public class NotificationListAdapter extends BaseAdapter {
     tvStatus.setBackgroundColor(Color.TRANSPARENT);
     if (PreferencesUtils.getBoolean(context, PreferencesUtils.PREF_SERVER_DETAIL_LOADING) && PreferencesUtils.readDonationTimestamp(context) != null) {
       updateNotificationDetails(listItem, notification);
-      if (notification.isDetailLoaded()) {
-        detailLoadersByView.remove(listItem);
-      } else {
-        DetailedDataLoaderTask loader = detailLoadersByNotification.get(notification);
-        if (loader == null || loader.isCancelled()) {
-          try {
-            new DetailedDataLoaderTask(listItem, notification).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
-          } catch (RejectedExecutionException e) {
-            //#100 bug patch
-            Log.w(TAG, "Rejected to add new notification detail loader task: " + e.getMessage());
-          }
-        } else {
-          loader.setView(listItem);
-        }
+      if (!notification.isDetailLoaded() && !detailLoadingInProgress.contains(notification) && !detailLoadingFailed.contains(notification.getId())) {
+        // collect notifications shown during scrolling and load their details in one batch
+        detailLoadingQueue.add(notification);
+        handler.removeCallbacks(detailLoadingStarter);
+        handler.postDelayed(detailLoadingStarter, DETAIL_LOADING_BATCH_DELAY);
       }
     }
 
@@ -280,53 +286,67 @@ public class NotificationListAdapter extends BaseAdapter {
     return listItem;
   }
 
-  private final class DetailedDataLoaderTask extends AsyncTask<Object, Integer, NotificationViewData> {
-
-    private View listItem;
-    private Notification notification;
-
-    public DetailedDataLoaderTask(View listItem, Notification notification) {
-      this.listItem = listItem;
-      this.notification = notification;
-      detailLoadersByView.put(listItem, this);
-      detailLoadersByNotification.put(notification, this);
+  private void startDetailLoading() {
+    if (detailLoadingQueue.isEmpty())
+      return;
+    List<Notification> batch = new ArrayList<Notification>(detailLoadingQueue);
+    detailLoadingQueue.clear();
+    try {
+      new DetailedDataLoaderTask(batch).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+    } catch (RejectedExecutionException e) {
+      //#100 bug patch
+      Log.w(TAG, "Rejected to add new notification detail loader task: " + e.getMessage());
     }
+  }
 
-    public void setView(View view) {
-      if (listItem != null)
-        detailLoadersByView.remove(listItem);
-      listItem = view;
-      detailLoadersByView.put(listItem, this);
-    }
+  private final class DetailedDataLoaderTask extends AsyncTask<Object, Integer, List<Notification>> {
 
-    @Override
-    protected void onPreExecute() {
+    private List<Notification> notifications;
+
+    public DetailedDataLoaderTask(List<Notification> notifications) {
+      this.notifications = notifications;
+      detailLoadingInProgress.addAll(notifications);
+      detailLoaders.add(this);
     }
 
     @Override
-    protected NotificationViewData doInBackground(Object... params) {
+    protected List<Notification> doInBackground(Object... params) {
       if (!isCancelled())
-        return unreadNotificationsService.getNotificationDetailForView(notification);
+        return unreadNotificationsService.getNotificationDetailsForView(notifications, RequestBudgetManager.Priority.PREFETCH);
       else
         return null;
     }
 
     @Override
-    protected void onPostExecute(NotificationViewData result) {
-      detailLoadersByNotification.remove(notification);
-      if (listItem != null && detailLoadersByView.get(listItem) == this) {
-        detailLoadersByView.remove(listItem);
-        if (result.loadingStatus == LoadingStatus.OK && result.notification != null) {
-          updateNotificationDetails(listItem, result.notification);
+    protected void onPostExecute(List<Notification> result) {
+      detailLoaders.remove(this);
+      detailLoadingInProgress.removeAll(notifications);
+      // failed ones are remembered so rows re-rendered below do not queue them again, they are loaded after next stream refresh
+      Set<Long> loadedIds = new HashSet<Long>();
+      if (result != null) {
+        for (Notification n : result) {
+          loadedIds.add(n.getId());
+        }
+      }
+      for (Notification n : notifications) {
+        if (!loadedIds.contains(n.getId()))
+          detailLoadingFailed.add(n.getId());
+      }
+      if (result != null && !result.isEmpty()) {
+        // loaded copies replace notifications shown in list
+        if (notificationStream != null) {
+          for (Notification n : result) {
+            notificationStream.replaceNotification(n);
+          }
         }
+        notifyDataSetChanged();
       }
     }
 
     @Override
-    protected void onCancelled(NotificationViewData result) {
-      if (listItem != null)
-        detailLoadersByView.remove(listItem);
-      detailLoadersByNotification.remove(notification);
+    protected void onCancelled(List<Notification> result) {
+      detailLoaders.remove(this);
+      detailLoadingInProgress.removeAll(notifications);
       Log.i(TAG, "Cancelled notification detail loading " + (result != null ? "with result already loaded" : "without result loaded"));
     }
   }
@@ -358,7 +378,6 @@ public class NotificationListAdapter extends BaseAdapter {
   @Override
   public void notifyDataSetChanged() {
     filteredNotifications = null;
-    detailLoadersByView.clear();
     super.notifyDataSetChanged();
   }
 
@@ -366,7 +385,9 @@ public class NotificationListAdapter extends BaseAdapter {
    * Cancel all data loading threads.
    */
   public void cancel() {
-    for (DetailedDataLoaderTask loader : detailLoadersByNotification.values()) {
+    handler.removeCallbacks(detailLoadingStarter);
+    detailLoadingQueue.clear();
+    for (DetailedDataLoaderTask loader : new ArrayList<DetailedDataLoaderTask>(detailLoaders)) {
       loader.cancel(true);
     }
   }
@@ -93,13 +93,10 @@ public class NotificationRepositoriesListAdapter extends BaseAdapter {
    */
   public boolean setSelectionForFilter(ListView repositoriesListView, String filterByRepository) {
     if (filterByRepository != null) {
-      int i = 0;
-      for (NotifCount nc : notificationStream.getRepositoriesInfo()) {
-        if (filterByRepository.equals(nc.title)) {
-          repositoriesListView.setItemChecked(i, true);
-          return true;
-        }
-        i++;
+      int i = notificationStream.getRepositoryInfoPosition(filterByRepository);
+      if (i >= 0) {
+        repositoriesListView.setItemChecked(i, true);
+        return true;
       }
     }
     repositoriesListView.setItemChecked(-1, true);
@@ -34,6 +34,7 @@ import android.view.MenuItem;
 
 import com.daskiworks.ghwatch.alarm.AlarmBroadcastReceiver;
 import com.daskiworks.ghwatch.auth.AuthenticationManager;
+import com.daskiworks.ghwatch.backend.NotificationStreamRepository;
 import com.daskiworks.ghwatch.backend.PreferencesUtils;
 import com.daskiworks.ghwatch.backend.RemoteSystemClient;
 import com.daskiworks.ghwatch.model.GHUserLoginInfo;
@@ -115,6 +116,15 @@ public class SettingsActivity extends ActivityBase implements OnSharedPreference
       ActivityTracker.sendEvent(this, ActivityTracker.CAT_PREF, "notif_filter", notifFilterPref.getEntry().toString(), 0L);
     } else if (key.equals(PreferencesUtils.PREF_SERVER_DETAIL_LOADING) || key.equals(PreferencesUtils.PREF_SERVER_LABELS_LOADING)) {
       ActivityTracker.sendEvent(this, ActivityTracker.CAT_PREF, key, "" + sharedPreferences.getBoolean(key, false), 0L);
+    } else if (key.equals(PreferencesUtils.PREF_STORE_DATABASE)) {
+      ActivityTracker.sendEvent(this, ActivityTracker.CAT_PREF, key, "" + sharedPreferences.getBoolean(key, false), 0L);
+      final NotificationStreamRepository repository = NotificationStreamRepository.getInstance(this);
+      Thread t = new Thread() {
+        public void run() {
+          repository.storeTypeChanged();
+        }
+      };
+      t.start();
     } else if (key.equals(PreferencesUtils.PREF_MARK_READ_ON_SHOW)) {
       ListPreference notifFilterPref = (ListPreference) sf.findPreference(PreferencesUtils.PREF_MARK_READ_ON_SHOW);
       notifFilterPref.setSummary(notifFilterPref.getEntry());
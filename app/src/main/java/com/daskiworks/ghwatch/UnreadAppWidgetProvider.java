@@ -26,11 +26,9 @@ import android.util.Log;
 import android.widget.RemoteViews;
 
 import com.daskiworks.ghwatch.alarm.AlarmBroadcastReceiver;
+import com.daskiworks.ghwatch.backend.NotificationStreamRepository;
 import com.daskiworks.ghwatch.backend.PreferencesUtils;
-import com.daskiworks.ghwatch.backend.UnreadNotificationsService;
-import com.daskiworks.ghwatch.backend.ViewDataReloadStrategy;
-import com.daskiworks.ghwatch.model.LoadingStatus;
-import com.daskiworks.ghwatch.model.NotificationStreamViewData;
+import com.daskiworks.ghwatch.model.UnreadSummary;
 
 /**
  * Number of unread notifications widget.
@@ -60,7 +58,7 @@ public class UnreadAppWidgetProvider extends AppWidgetProvider {
     ActivityTracker.sendEvent(context, ActivityTracker.CAT_UI, "widget_disabled", "unread_count", null);
   }
 
-  private final class DataLoaderTask extends AsyncTask<String, String, NotificationStreamViewData> {
+  private final class DataLoaderTask extends AsyncTask<String, String, UnreadSummary> {
 
     Context context;
     AppWidgetManager appWidgetManager;
@@ -79,25 +77,24 @@ public class UnreadAppWidgetProvider extends AppWidgetProvider {
     }
 
     @Override
-    protected NotificationStreamViewData doInBackground(String... args) {
-      UnreadNotificationsService unreadNotificationsService = new UnreadNotificationsService(context);
-      return unreadNotificationsService.getNotificationStreamForView(ViewDataReloadStrategy.NEVER);
+    protected UnreadSummary doInBackground(String... args) {
+      return NotificationStreamRepository.getInstance(context).getSummary();
     }
 
     @Override
-    protected void onPostExecute(final NotificationStreamViewData viewData) {
+    protected void onPostExecute(final UnreadSummary summary) {
       if (isCancelled())
         return;
 
       String val = "-";
       int valInt = 0;
 
-      if (viewData != null && viewData.loadingStatus == LoadingStatus.OK && viewData.notificationStream != null) {
-        valInt = viewData.notificationStream.size();
+      if (summary != null && summary.getUnreadCount() >= 0) {
+        valInt = summary.getUnreadCount();
         val = valInt + "";
       }
 
-      boolean highlight = PreferencesUtils.getBoolean(context, PreferencesUtils.PREF_WIDGET_UNREAD_HIGHLIGHT, false);
+      boolean highlight = summary != null && summary.isHighlight();
 
       for (int wid : appWidgetIds) {
 
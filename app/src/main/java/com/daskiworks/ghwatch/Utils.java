@@ -17,13 +17,8 @@ package com.daskiworks.ghwatch;
 
 import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InvalidClassException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.Date;
@@ -38,6 +33,10 @@ import android.os.Vibrator;
 import android.text.format.DateFormat;
 import android.util.Log;
 
+import com.daskiworks.ghwatch.model.StringPool;
+import com.daskiworks.ghwatch.store.AtomicFileStore;
+import com.daskiworks.ghwatch.store.BinaryStoreCodec;
+
 /**
  * Utilities.
  *
@@ -134,11 +133,11 @@ public class Utils {
    * @return true if really deleted
    */
   public static boolean deleteFromStore(Context context, File file) {
-    return context.deleteFile(file.getName());
+    return AtomicFileStore.delete(file);
   }
 
   /**
-   * Write notification to the persistent store.
+   * Write data to the persistent store. File is replaced atomically, see {@link AtomicFileStore}.
    *
    * @param TAG     for logging
    * @param context
@@ -147,50 +146,34 @@ public class Utils {
    * @return true if persisting is OK, false if failed.
    */
   public static boolean writeToStore(String TAG, Context context, File file, Serializable data) {
-    FileOutputStream fos = null;
-    ObjectOutputStream oos = null;
-
-    try {
-      fos = context.openFileOutput(file.getName(), Context.MODE_PRIVATE);
-      oos = new ObjectOutputStream(fos);
-      oos.writeObject(data);
-      oos.flush();
-      return true;
-    } catch (Exception e) {
-      Log.w(TAG, "File write to persistens store failed: " + e.getMessage(), e);
-      return false;
-    } finally {
-      closeStream(oos);
-    }
+    return AtomicFileStore.write(TAG, file, data);
   }
 
   /**
+   * Read data from the persistent store. Both binary format of {@link BinaryStoreCodec} and Java serialization are supported, so data stored
+   * by older app versions are migrated by next write.
+   *
    * @param TAG     for logging
    * @param context
    * @param file    to read from
    * @return stream from store. <code>null</code> if not in store or load failed.
    */
-  @SuppressWarnings("unchecked")
   public static <T> T readFromStore(String TAG, Context context, File file) {
+    return AtomicFileStore.read(TAG, file);
+  }
 
-    if (file == null || !file.exists())
-      return null;
-
-    FileInputStream fis = null;
-    ObjectInputStream ois = null;
-
-    try {
-      fis = context.openFileInput(file.getName());
-      ois = new ObjectInputStream(fis);
-      return (T) ois.readObject();
-    } catch (InvalidClassException e) {
-      Log.w(TAG, "Class changed so we can't load data from store " + e.getMessage());
-    } catch (Exception e) {
-      Log.w(TAG, "File read from persistens store failed: " + e.getMessage(), e);
-    } finally {
-      closeStream(fis);
-    }
-    return null;
+  /**
+   * Read data from the persistent store, repeated strings of binary format are canonicalized over given pool.
+   *
+   * @param TAG        for logging
+   * @param context
+   * @param file       to read from
+   * @param stringPool used to canonicalize repeated strings
+   * @return stream from store. <code>null</code> if not in store or load failed.
+   * @see #readFromStore(String, Context, File)
+   */
+  public static <T> T readFromStore(String TAG, Context context, File file, StringPool stringPool) {
+    return AtomicFileStore.read(TAG, file, stringPool);
   }
 
   /**
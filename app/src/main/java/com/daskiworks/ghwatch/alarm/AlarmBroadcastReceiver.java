@@ -21,6 +21,7 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.net.ConnectivityManager;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.daskiworks.ghwatch.R;
@@ -48,7 +49,10 @@ public class AlarmBroadcastReceiver extends BroadcastReceiver {
       if (Utils.isInternetConnectionAvailable(cm)
               && AuthenticationManager.getInstance().getGhApiCredentials(context) != null && (!PreferencesUtils.getServerCheckWifiOnly(context) || Utils.isInternetConnectionAvailableWifi(cm))) {
         UnreadNotificationsService s = new UnreadNotificationsService(context);
+        // next check is scheduled at the end of this one so its result is taken into account
         s.newNotificationCheck();
+      } else {
+        scheduleNextServerCheck(context);
       }
     }
   }
@@ -61,21 +65,47 @@ public class AlarmBroadcastReceiver extends BroadcastReceiver {
    */
   public static void startServerPoolingIfEnabled(Context context) {
     if (UnreadNotificationsService.isUnreadNotificationsServerCheckNecessary(context)) {
-      String pv = PreferencesUtils.getString(context, PreferencesUtils.PREF_SERVER_CHECK_PERIOD, "" + R.string.pref_serverCheckPeriod_default);
-      int ipv = R.string.pref_serverCheckPeriod_default;
-      try {
-        ipv = Integer.parseInt(pv);
-      } catch (NumberFormatException e) {
-        Log.e(TAG, PreferencesUtils.PREF_SERVER_CHECK_PERIOD + " preference value is not number but: " + pv + ". Default value used: " + ipv);
-      }
-      startServerPooling(context, ipv);
+      startServerPooling(context, getServerCheckPeriod(context));
+    }
+  }
+
+  private static int getServerCheckPeriod(Context context) {
+    String pv = PreferencesUtils.getString(context, PreferencesUtils.PREF_SERVER_CHECK_PERIOD, "" + R.string.pref_serverCheckPeriod_default);
+    int ipv = R.string.pref_serverCheckPeriod_default;
+    try {
+      ipv = Integer.parseInt(pv);
+    } catch (NumberFormatException e) {
+      Log.e(TAG, PreferencesUtils.PREF_SERVER_CHECK_PERIOD + " preference value is not number but: " + pv + ". Default value used: " + ipv);
     }
+    return ipv;
   }
 
+  /**
+   * Start checking of new notifications. First check is performed after one minute, next ones are scheduled by {@link PollingScheduler} with
+   * given period as upper bound.
+   *
+   * @param context         to be used
+   * @param periodInMinutes max period of checks
+   */
   public static void startServerPooling(Context context, int periodInMinutes) {
-    Log.i(TAG, "starting alarm to check new notifications every " + periodInMinutes + " minutes");
-    Utils.getAlarmManager(context).setInexactRepeating(AlarmManager.ELAPSED_REALTIME_WAKEUP, Utils.MILLIS_MINUTE, periodInMinutes * Utils.MILLIS_MINUTE,
-            prepareAlarmIntent(context));
+    Log.i(TAG, "starting alarm to check new notifications at most every " + periodInMinutes + " minutes");
+    setAlarm(context, Utils.MILLIS_MINUTE);
+  }
+
+  /**
+   * Schedule next new notification check if it is enabled in preferences. Time is computed by {@link PollingScheduler}.
+   *
+   * @param context to be used
+   */
+  public static void scheduleNextServerCheck(Context context) {
+    if (UnreadNotificationsService.isUnreadNotificationsServerCheckNecessary(context)) {
+      setAlarm(context, PollingScheduler.getNextCheckDelay(context, getServerCheckPeriod(context) * Utils.MILLIS_MINUTE));
+    }
+  }
+
+  private static void setAlarm(Context context, long delay) {
+    // inexact one shot alarm, rescheduled after each check
+    Utils.getAlarmManager(context).set(AlarmManager.ELAPSED_REALTIME_WAKEUP, SystemClock.elapsedRealtime() + delay, prepareAlarmIntent(context));
   }
 
   public static void stopServerPoolingIfDisabled(Context context) {
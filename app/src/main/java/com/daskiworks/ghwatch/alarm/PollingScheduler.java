@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.alarm;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.Utils;
+
+/**
+ * Computes time of the next new notification check on server. Inputs are:
+ * <ul>
+ * <li>poll interval mandated by server in <code>X-Poll-Interval</code> header - we never check more often
+ * <li>recent new notifications arrival rate - we check more often after bursts
+ * <li>number of consecutive checks which returned nothing new (<code>304 Not Modified</code>) - we back off during quiet periods
+ * <li>Wi-Fi or mobile data connection - we check less often over mobile data
+ * </ul>
+ * Check period configured by user is used as upper bound.
+ */
+public class PollingScheduler {
+
+  private static final String TAG = PollingScheduler.class.getSimpleName();
+
+  /*
+   * Names of internal preferences used to store scheduler state.
+   */
+  private static final String INT_SERVER_POLL_INTERVAL = "pref_pollingScheduler_serverPollInterval";
+  private static final String INT_ARRIVAL_RATE = "pref_pollingScheduler_arrivalRate";
+  private static final String INT_NOT_MODIFIED_COUNT = "pref_pollingScheduler_notModifiedCount";
+  private static final String INT_LAST_CHECK_TIMESTAMP = "pref_pollingScheduler_lastCheckTimestamp";
+
+  /**
+   * Minimal delay between checks [millis], used if server do not send poll interval.
+   */
+  protected static final long MIN_DELAY = Utils.MILLIS_MINUTE;
+
+  /**
+   * Weight of the last check in exponentially weighted average of arrival rate.
+   */
+  protected static final float ARRIVAL_RATE_WEIGHT = 0.3f;
+
+  /**
+   * Max exponent of back off for consecutive not modified responses.
+   */
+  protected static final int MAX_BACKOFF_EXPONENT = 4;
+
+  /**
+   * Delay multiplier used on mobile data connection.
+   */
+  protected static final float MOBILE_DATA_FACTOR = 1.5f;
+
+  /**
+   * Store poll interval returned from server.
+   *
+   * @param context      to be used
+   * @param pollInterval value of <code>X-Poll-Interval</code> header [seconds], can be null
+   */
+  public static void recordServerPollInterval(Context context, Long pollInterval) {
+    if (pollInterval != null) {
+      SharedPreferences.Editor editor = PreferenceManager.getDefaultSharedPreferences(context).edit();
+      editor.putLong(INT_SERVER_POLL_INTERVAL, pollInterval * Utils.MILLIS_SECOND);
+      editor.apply();
+    }
+  }
+
+  /**
+   * Store result of the new notification check to be used for next check time computation.
+   *
+   * @param context                 to be used
+   * @param notModified             true if server returned nothing new
+   * @param newNotificationsCount   number of new notifications found by the check
+   */
+  public static void recordCheckResult(Context context, boolean notModified, int newNotificationsCount) {
+    SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
+    long now = System.currentTimeMillis();
+    long lastCheck = sp.getLong(INT_LAST_CHECK_TIMESTAMP, 0);
+    float rate = sp.getFloat(INT_ARRIVAL_RATE, 0f);
+    int notModifiedCount = sp.getInt(INT_NOT_MODIFIED_COUNT, 0);
+
+    if (lastCheck > 0 && now > lastCheck) {
+      rate = computeArrivalRate(rate, newNotificationsCount, now - lastCheck);
+    }
+    notModifiedCount = (notModified || newNotificationsCount == 0) ? notModifiedCount + 1 : 0;
+
+    SharedPreferences.Editor editor = sp.edit();
+    editor.putLong(INT_LAST_CHECK_TIMESTAMP, now);
+    editor.putFloat(INT_ARRIVAL_RATE, rate);
+    editor.putInt(INT_NOT_MODIFIED_COUNT, notModifiedCount);
+    editor.apply();
+    Log.d(TAG, "Check result recorded: new=" + newNotificationsCount + ", arrivalRate=" + rate + "/h, notModifiedCount=" + notModifiedCount);
+  }
+
+  /**
+   * Get delay of the next new notification check.
+   *
+   * @param context  to be used
+   * @param maxDelay check period configured by user [millis]
+   * @return delay [millis]
+   */
+  public static long getNextCheckDelay(Context context, long maxDelay) {
+    SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
+    boolean wifi = Utils.isInternetConnectionAvailableWifi(Utils.getConnectivityManager(context));
+    long d = computeNextCheckDelay(maxDelay, sp.getLong(INT_SERVER_POLL_INTERVAL, 0), sp.getFloat(INT_ARRIVAL_RATE, 0f),
+            sp.getInt(INT_NOT_MODIFIED_COUNT, 0), wifi);
+    Log.d(TAG, "Next check delay " + d / Utils.MILLIS_SECOND + "s");
+    return d;
+  }
+
+  /**
+   * Update exponentially weighted average of new notifications arrival rate.
+   *
+   * @param rate          previous arrival rate [notifications per hour]
+   * @param newCount      number of new notifications found by last check
+   * @param sinceLastCheck time since previous check [millis]
+   * @return new arrival rate [notifications per hour]
+   */
+  protected static float computeArrivalRate(float rate, int newCount, long sinceLastCheck) {
+    float sample = newCount * (float) Utils.MILLIS_HOUR / sinceLastCheck;
+    return ARRIVAL_RATE_WEIGHT * sample + (1 - ARRIVAL_RATE_WEIGHT) * rate;
+  }
+
+  /**
+   * Compute delay of the next check.
+   *
+   * @param maxDelay           check period configured by user [millis]
+   * @param serverPollInterval poll interval mandated by server [millis], 0 if unknown
+   * @param arrivalRate        new notifications arrival rate [notifications per hour]
+   * @param notModifiedCount   number of consecutive checks with nothing new
+   * @param wifi               true if Wi-Fi connection is used
+   * @return delay [millis]
+   */
+  protected static long computeNextCheckDelay(long maxDelay, long serverPollInterval, float arrivalRate, int notModifiedCount, boolean wifi) {
+    long minDelay = Math.max(MIN_DELAY, serverPollInterval);
+    // server mandated interval has precedence over user configured one
+    if (minDelay >= maxDelay)
+      return minDelay;
+
+    double delay = maxDelay;
+    if (arrivalRate > 0) {
+      // check about twice for every expected notification
+      delay = Math.min(maxDelay, Utils.MILLIS_HOUR / arrivalRate / 2);
+    }
+    delay = delay * (1 << Math.min(notModifiedCount, MAX_BACKOFF_EXPONENT));
+    if (!wifi)
+      delay = delay * MOBILE_DATA_FACTOR;
+
+    return Math.max(minDelay, Math.min(maxDelay, (long) delay));
+  }
+
+}
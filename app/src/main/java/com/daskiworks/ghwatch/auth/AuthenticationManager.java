@@ -40,7 +40,9 @@ import android.util.Log;
 import com.daskiworks.ghwatch.ActivityTracker;
 import com.daskiworks.ghwatch.Utils;
 import com.daskiworks.ghwatch.backend.GHConstants;
+import com.daskiworks.ghwatch.backend.HttpValidatorCache;
 import com.daskiworks.ghwatch.backend.OTPAuthenticationException;
+import com.daskiworks.ghwatch.backend.PendingMutationQueue;
 import com.daskiworks.ghwatch.backend.RemoteSystemClient;
 import com.daskiworks.ghwatch.backend.RemoteSystemClient.Response;
 import com.daskiworks.ghwatch.model.AccountType;
@@ -59,7 +61,6 @@ public class AuthenticationManager {
 
   private static final String TAG = "AuthenticationManager";
 
-  private static final String GH_USER_REQ_URL = GHConstants.URL_BASE + "/user";
 
   /**
    * Reload from server is forced automatically if data in persistent store are older than this timeout [millis]
@@ -140,8 +141,15 @@ public class AuthenticationManager {
 
 
   private void storeCurrentUserLogin(Context context, GHUserLoginInfo currentUserLoginInfo) {
+    GHUserLoginInfo previousUserLoginInfo = loadCurrentUser(context);
+    if (previousUserLoginInfo != null && currentUserLoginInfo != null && !currentUserLoginInfo.getUsername().equals(previousUserLoginInfo.getUsername())) {
+      // actions of previous user must not be replayed with credentials of the new one
+      PendingMutationQueue.getInstance(context).clear();
+    }
     Utils.writeToStore(TAG, context, getCuliFile(context), currentUserLoginInfo);
     if (currentUserInfo == null || (currentUserLoginInfo != null && !currentUserLoginInfo.getUsername().equals(currentUserInfo.getUsername()))) {
+      // do not serve cached responses of previous user
+      HttpValidatorCache.getInstance(context).clear();
       loadUserInfoFromServerAsync(context);
     }
     this.credentials = null;
@@ -193,7 +201,7 @@ public class AuthenticationManager {
 
   public GHUserInfo loadUserInfoFromServer(Context context, GHCredentials ghCredentials) {
     try {
-      Response<JSONObject> r = RemoteSystemClient.getJSONObjectFromUrl(context, ghCredentials, GH_USER_REQ_URL, null);
+      Response<JSONObject> r = RemoteSystemClient.getJSONObjectFromUrl(context, ghCredentials, GHConstants.getUrlBase() + "/user", null);
       if (r.data != null) {
         currentUserInfo = new GHUserInfo(r.data);
         Utils.writeToStore(TAG, context.getApplicationContext(), getCuFile(context), currentUserInfo);
@@ -24,6 +24,31 @@ public final class GHConstants {
 
   public static final boolean DEBUG = true;
 
-  public static final String URL_BASE = "https://api.github.com";
+  /**
+   * Base URL of GitHub API used if not changed by {@link #setUrlBase(String)}.
+   */
+  public static final String DEFAULT_URL_BASE = "https://api.github.com";
+
+  private static volatile String urlBase = DEFAULT_URL_BASE;
+
+  /**
+   * @return base URL of GitHub API all requests are sent to, without trailing slash
+   */
+  public static String getUrlBase() {
+    return urlBase;
+  }
+
+  /**
+   * Change base URL of GitHub API, eg. to local stand-in server in tests.
+   *
+   * @param url to use, without trailing slash. null to use {@link #DEFAULT_URL_BASE}
+   */
+  public static void setUrlBase(String url) {
+    urlBase = url != null ? url : DEFAULT_URL_BASE;
+  }
+
+  public static String getUrlGraphQL() {
+    return getUrlBase() + "/graphql";
+  }
 
 }
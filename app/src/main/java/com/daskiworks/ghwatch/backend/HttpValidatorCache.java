@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.Utils;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Persistent cache of HTTP validators (<code>ETag</code> and <code>Last-Modified</code> response headers) and last response body, keyed by URL.
+ * Used to perform conditional GET requests, server returns <code>304 Not Modified</code> without body if nothing changed and we serve body from
+ * this cache. GitHub do not count 304 responses against API rate limit.
+ * <p/>
+ * Cache size is bounded, least recently used entries are evicted. Persistence is done asynchronously.
+ */
+public class HttpValidatorCache {
+
+  private static final String TAG = "HttpValidatorCache";
+
+  /**
+   * Name of file where cache is persisted.
+   */
+  private static final String persistFileName = "HttpValidatorCache.td";
+
+  /**
+   * Max number of entries in the cache.
+   */
+  private static final int MAX_ENTRIES = 500;
+
+  /**
+   * Max size of all cached bodies [bytes]. String chars are counted as 2 bytes.
+   */
+  private static final long MAX_SIZE = 2 * 1024 * 1024;
+
+  /**
+   * One cached response.
+   */
+  public static class Entry implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final String etag;
+    public final String lastModified;
+    public final String body;
+
+    public Entry(String etag, String lastModified, String body) {
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.body = body;
+    }
+
+    long getSizeInBytes() {
+      return body != null ? body.length() * 2L : 0;
+    }
+
+    /**
+     * Add conditional request headers for this entry into map.
+     *
+     * @param headers to add into
+     */
+    public void addConditionalHeaders(Map<String, String> headers) {
+      if (etag != null)
+        headers.put("If-None-Match", etag);
+      if (lastModified != null)
+        headers.put("If-Modified-Since", lastModified);
+    }
+  }
+
+  private static HttpValidatorCache instance;
+
+  private final Context context;
+  private final File persistFile;
+  private LinkedHashMap<String, Entry> cache;
+  private long size = 0;
+
+  private final ExecutorService persistExecutor = Executors.newSingleThreadExecutor();
+  private boolean persistScheduled = false;
+
+  /**
+   * Get instance for use.
+   *
+   * @param context to be used
+   * @return cache instance
+   */
+  public static synchronized HttpValidatorCache getInstance(Context context) {
+    if (instance == null)
+      instance = new HttpValidatorCache(context);
+    return instance;
+  }
+
+  private HttpValidatorCache(Context context) {
+    this.context = context.getApplicationContext();
+    this.persistFile = this.context.getFileStreamPath(persistFileName);
+  }
+
+  private void init() {
+    if (cache == null) {
+      cache = new LinkedHashMap<String, Entry>(20, 0.75f, true);// Last argument true for LRU ordering
+      // stored copy keeps LRU order, so it is restored by insertion here
+      Map<String, Entry> stored = Utils.readFromStore(TAG, context, persistFile);
+      if (stored != null) {
+        for (Map.Entry<String, Entry> e : stored.entrySet()) {
+          cache.put(e.getKey(), e.getValue());
+          size += e.getValue().getSizeInBytes();
+        }
+        Log.d(TAG, "Loaded " + cache.size() + " entries from persistent store");
+      }
+    }
+  }
+
+  /**
+   * Get cached entry for url.
+   *
+   * @param url to get entry for
+   * @return entry or null if not cached
+   */
+  public synchronized Entry get(String url) {
+    init();
+    return cache.get(url);
+  }
+
+  /**
+   * Store response into cache. Nothing is stored if response do not contain any validator or is too big.
+   *
+   * @param url          of request
+   * @param etag         <code>ETag</code> response header value, can be null
+   * @param lastModified <code>Last-Modified</code> response header value, can be null
+   * @param body         of response
+   */
+  public synchronized void put(String url, String etag, String lastModified, String body) {
+    init();
+    Entry old;
+    Entry e = new Entry(etag, lastModified, body);
+    if ((etag == null && lastModified == null) || e.getSizeInBytes() > MAX_SIZE / 4) {
+      old = cache.remove(url);
+    } else {
+      old = cache.put(url, e);
+      size += e.getSizeInBytes();
+    }
+    if (old != null)
+      size -= old.getSizeInBytes();
+    checkSize();
+    schedulePersist();
+  }
+
+  /**
+   * Remove all entries from cache, including persistent store. Use on user logout to not mix data of distinct users.
+   */
+  public synchronized void clear() {
+    cache = new LinkedHashMap<String, Entry>(20, 0.75f, true);
+    size = 0;
+    schedulePersist();
+  }
+
+  private void checkSize() {
+    if (size > MAX_SIZE || cache.size() > MAX_ENTRIES) {
+      // least recently accessed item will be the first one iterated
+      Iterator<Map.Entry<String, Entry>> iter = cache.entrySet().iterator();
+      while (iter.hasNext() && (size > MAX_SIZE || cache.size() > MAX_ENTRIES)) {
+        size -= iter.next().getValue().getSizeInBytes();
+        iter.remove();
+      }
+      Log.d(TAG, "Cache cleaned. New size " + cache.size());
+    }
+  }
+
+  private void schedulePersist() {
+    if (persistScheduled)
+      return;
+    persistScheduled = true;
+    persistExecutor.submit(new Runnable() {
+      @Override
+      public void run() {
+        LinkedHashMap<String, Entry> copy;
+        synchronized (HttpValidatorCache.this) {
+          persistScheduled = false;
+          copy = new LinkedHashMap<String, Entry>(cache);
+        }
+        Utils.writeToStore(TAG, context, persistFile, copy);
+      }
+    });
+  }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.Utils;
+import com.daskiworks.ghwatch.auth.AuthenticationManager;
+import com.daskiworks.ghwatch.backend.RemoteSystemClient.Response;
+import com.daskiworks.ghwatch.model.GHCredentials;
+import com.daskiworks.ghwatch.model.Label;
+import com.daskiworks.ghwatch.model.Notification;
+import com.daskiworks.ghwatch.model.StringPool;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loader used to load details (html url, state, labels) of many notification subjects (issues and pull requests) by one GitHub GraphQL API
+ * call. Loaded data are written into notifications and into the notification stream persistent store at once.
+ * <p/>
+ * Notifications which can't be loaded by GraphQL (other subject types, batch failure, subject not found) are loaded by REST based
+ * {@link NotificationDetailLoader} one by one.
+ */
+public class NotificationDetailBatchLoader {
+
+  /**
+   * Max number of subjects loaded by one GraphQL query.
+   */
+  public static final int MAX_BATCH_SIZE = 50;
+
+  /**
+   * Max number of labels loaded for one subject.
+   */
+  private static final int MAX_LABELS = 20;
+
+  private static final Pattern SUBJECT_URL_PATTERN = Pattern.compile(".*/repos/([^/]+)/([^/]+)/(issues|pulls)/(\\d+)$");
+
+  private String TAG;
+  private Context context;
+  private AuthenticationManager authenticationManager;
+  private NotificationStreamRepository notificationStreamRepository;
+  private NotificationDetailLoader restLoader;
+
+  /**
+   * @param TAG                          for log and synchronization of notification stream persistence!
+   * @param context                      to be used
+   * @param authenticationManager        to be used for authenticating against remote system
+   * @param notificationStreamRepository used for notification stream persistence so we can write loaded data into.
+   */
+  public NotificationDetailBatchLoader(String TAG, Context context, AuthenticationManager authenticationManager, NotificationStreamRepository notificationStreamRepository) {
+    this.TAG = TAG;
+    this.context = context;
+    this.authenticationManager = authenticationManager;
+    this.notificationStreamRepository = notificationStreamRepository;
+  }
+
+  /**
+   * Load details of notifications. Notifications with details already loaded are skipped.
+   *
+   * @param notifications to load details for, loaded data are set into them
+   * @param priority      of requests for {@link RequestBudgetManager}
+   * @return list of notifications with details loaded successfully
+   */
+  public List<Notification> loadData(List<Notification> notifications, RequestBudgetManager.Priority priority) {
+    List<Notification> ret = new ArrayList<Notification>();
+    List<Notification> batch = new ArrayList<Notification>();
+    List<Notification> fallback = new ArrayList<Notification>();
+    for (Notification n : notifications) {
+      if (n.isDetailLoaded())
+        continue;
+      if (parseSubjectUrl(n.getSubjectUrl()) != null)
+        batch.add(n);
+      else
+        fallback.add(n);
+    }
+
+    for (int i = 0; i < batch.size(); i += MAX_BATCH_SIZE) {
+      List<Notification> part = batch.subList(i, Math.min(batch.size(), i + MAX_BATCH_SIZE));
+      try {
+        List<Notification> loaded = loadBatch(part, priority);
+        ret.addAll(loaded);
+        for (Notification n : part) {
+          if (!loaded.contains(n))
+            fallback.add(n);
+        }
+      } catch (RequestBudgetExceededException e) {
+        // REST fallback would be refused also
+        Log.d(TAG, "Notification detail batch loading refused due to low API rate limit");
+        return ret;
+      } catch (Exception e) {
+        Log.w(TAG, "Notification detail batch loading failed, REST fallback used: " + e.getMessage());
+        fallback.addAll(part);
+      }
+    }
+
+    if (!fallback.isEmpty()) {
+      if (restLoader == null)
+        restLoader = new NotificationDetailLoader(TAG, context, authenticationManager, notificationStreamRepository);
+      for (Notification n : fallback) {
+        if (restLoader.loadData(n.getSubjectUrl(), n, priority).notification != null)
+          ret.add(n);
+      }
+    }
+    return ret;
+  }
+
+  private List<Notification> loadBatch(List<Notification> part, RequestBudgetManager.Priority priority) throws Exception {
+    boolean loadPRLabels = PreferencesUtils.getBoolean(context, PreferencesUtils.PREF_SERVER_LABELS_LOADING);
+    Map<String, Notification> byAlias = new HashMap<String, Notification>();
+    String query = buildQuery(part, byAlias, loadPRLabels);
+
+    // authenticated by the same header as REST calls, set inside of RemoteSystemClient
+    GHCredentials credentials = authenticationManager.getGhApiCredentials(context);
+
+    Log.d(TAG, "Loading details of " + part.size() + " notifications by GraphQL");
+    JSONObject content = new JSONObject();
+    content.put("query", query);
+    Response<String> resp = RemoteSystemClient.postToURL(context, credentials, GHConstants.getUrlGraphQL(), null, content.toString(), priority);
+
+    List<Notification> loaded = processResponse(new JSONObject(resp.data), byAlias);
+    if (!loaded.isEmpty())
+      storeDetails(loaded);
+    return loaded;
+  }
+
+  /**
+   * Build GraphQL query for given notifications.
+   *
+   * @param notifications  to build query for, subject url must be parseable by {@link #parseSubjectUrl(String)}
+   * @param byAlias        map to fill notifications by query alias into
+   * @param loadPRLabels   if true then labels are loaded for pull requests also
+   * @return query
+   */
+  protected static String buildQuery(List<Notification> notifications, Map<String, Notification> byAlias, boolean loadPRLabels) {
+    String labels = " labels(first: " + MAX_LABELS + ") { nodes { name color } }";
+    StringBuilder sb = new StringBuilder();
+    sb.append("query {");
+    int i = 0;
+    for (Notification n : notifications) {
+      String[] s = parseSubjectUrl(n.getSubjectUrl());
+      String alias = "n" + i++;
+      byAlias.put(alias, n);
+      sb.append(" ").append(alias).append(": repository(owner: ").append(JSONObject.quote(s[0])).append(", name: ").append(JSONObject.quote(s[1]))
+              .append(") { issueOrPullRequest(number: ").append(s[3]).append(") {")
+              .append(" ... on Issue { url state").append(labels).append(" }")
+              .append(" ... on PullRequest { url state merged").append(loadPRLabels ? labels : "").append(" }")
+              .append(" } }");
+    }
+    sb.append(" }");
+    return sb.toString();
+  }
+
+  /**
+   * Process GraphQL response and set loaded data into notifications.
+   *
+   * @param response GraphQL response
+   * @param byAlias  notifications by query alias
+   * @return notifications loaded successfully
+   * @throws JSONException if response is invalid
+   */
+  protected static List<Notification> processResponse(JSONObject response, Map<String, Notification> byAlias) throws JSONException {
+    List<Notification> ret = new ArrayList<Notification>();
+    // labels and states repeat over notifications of one batch
+    StringPool stringPool = new StringPool();
+    // partial errors (eg. one repository not found) are returned together with data for other aliases
+    JSONObject data = response.optJSONObject("data");
+    if (data == null)
+      throw new JSONException("No data in GraphQL response: " + response.optJSONArray("errors"));
+    for (Map.Entry<String, Notification> e : byAlias.entrySet()) {
+      JSONObject repo = data.optJSONObject(e.getKey());
+      JSONObject subject = repo != null ? repo.optJSONObject("issueOrPullRequest") : null;
+      if (subject == null || !subject.has("url"))
+        continue;
+      Notification n = e.getValue();
+      n.setSubjectDetailHtmlUrl(Utils.trimToNull(subject.optString("url", null)));
+      if (subject.optBoolean("merged", false)) {
+        n.setSubjectStatus("merged");
+      } else {
+        String state = Utils.trimToNull(subject.optString("state", null));
+        n.setSubjectStatus(state != null ? stringPool.get(state.toLowerCase()) : null);
+      }
+      n.setSubjectLabels(null);
+      JSONObject labels = subject.optJSONObject("labels");
+      if (labels != null) {
+        JSONArray nodes = labels.getJSONArray("nodes");
+        for (int i = 0; i < nodes.length(); i++) {
+          JSONObject label = nodes.getJSONObject(i);
+          n.addSubjectLabel(new Label(stringPool.get(label.getString("name")), stringPool.get(label.getString("color"))));
+        }
+      }
+      n.setDetailLoaded(true);
+      ret.add(n);
+    }
+    return ret;
+  }
+
+  /**
+   * Parse subject url of issue or pull request.
+   *
+   * @param subjectUrl to parse
+   * @return array with owner, repository name, type (issues or pulls) and number. Null if url is not url of issue or pull request.
+   */
+  protected static String[] parseSubjectUrl(String subjectUrl) {
+    if (subjectUrl == null)
+      return null;
+    Matcher m = SUBJECT_URL_PATTERN.matcher(subjectUrl);
+    if (!m.matches())
+      return null;
+    return new String[]{m.group(1), m.group(2), m.group(3), m.group(4)};
+  }
+
+  private void storeDetails(List<Notification> loaded) {
+    notificationStreamRepository.updateDetails(loaded);
+  }
+
+}
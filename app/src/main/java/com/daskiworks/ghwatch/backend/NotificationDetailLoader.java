@@ -22,14 +22,14 @@ import com.daskiworks.ghwatch.Utils;
 import com.daskiworks.ghwatch.auth.AuthenticationManager;
 import com.daskiworks.ghwatch.model.Label;
 import com.daskiworks.ghwatch.model.Notification;
-import com.daskiworks.ghwatch.model.NotificationStream;
 import com.daskiworks.ghwatch.model.NotificationViewData;
 
+import java.util.Collections;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.File;
 
 /**
  * Loader used to load notification detail. It is stored back to the notification stream persistent store not to be loaded again!
@@ -38,17 +38,17 @@ import java.io.File;
  */
 public class NotificationDetailLoader extends RemoteJSONObjectGetTemplate<NotificationViewData, Notification> {
 
-  private File persistFile;
+  private NotificationStreamRepository notificationStreamRepository;
 
   /**
    * @param TAG for log and synchronization of notification stream persistence!
    * @param context
    * @param authenticationManager
-   * @param notificationsStreamPersistFile used for notification stream persistence so we can write loaded data into.
+   * @param notificationStreamRepository used for notification stream persistence so we can write loaded data into.
    */
-  public NotificationDetailLoader(String TAG, Context context, AuthenticationManager authenticationManager, File notificationsStreamPersistFile) {
+  public NotificationDetailLoader(String TAG, Context context, AuthenticationManager authenticationManager, NotificationStreamRepository notificationStreamRepository) {
     super(TAG, context, authenticationManager, "Notification detail");
-    this.persistFile = notificationsStreamPersistFile;
+    this.notificationStreamRepository = notificationStreamRepository;
   }
 
   @Override
@@ -77,24 +77,12 @@ public class NotificationDetailLoader extends RemoteJSONObjectGetTemplate<Notifi
         //#75 if pullrequest we have to load Labels from related issue (get URL of it from "issue_url" field) :-(
         String issueUrl = remoteResponse.getString("issue_url");
         NotificationDetailLabelLoader ndll = new NotificationDetailLabelLoader(TAG, context, authenticationManager);
-        //load labels, ignore possible errors (do not process returned object)
-        ndll.loadData(issueUrl, inputObject);
+        //load labels, ignore possible errors (do not process returned object). Labels are not important so they are not loaded if API rate limit is low
+        ndll.loadData(issueUrl, inputObject, RequestBudgetManager.Priority.PREFETCH);
       }
       inputObject.setDetailLoaded(true);
 
-      synchronized (TAG) {
-        NotificationStream ns = Utils.readFromStore(TAG, context, persistFile);
-        if (ns != null) {
-          Notification n = ns.getNotificationById(inputObject.getId());
-          if (n != null) {
-            n.setSubjectDetailHtmlUrl(inputObject.getSubjectDetailHtmlUrl());
-            n.setSubjectStatus(inputObject.getSubjectStatus());
-            n.setSubjectLabels(inputObject.getSubjectLabels());
-            n.setDetailLoaded(true);
-            Utils.writeToStore(TAG, context, persistFile, ns);
-          }
-        }
-      }
+      notificationStreamRepository.updateDetails(Collections.singletonList(inputObject));
       returnValue.notification = inputObject;
     }
   }
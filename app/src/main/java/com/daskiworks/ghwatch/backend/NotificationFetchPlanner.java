@@ -0,0 +1,266 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.model.NotifCount;
+import com.daskiworks.ghwatch.model.NotificationStream;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides how unread notifications are loaded from server - from global <code>/notifications</code> endpoint, where notifications from invisible
+ * repositories are thrown away during parsing, or from <code>/repos/{repo}/notifications</code> endpoint of each visible repository.
+ * <p/>
+ * Cost of both strategies is estimated from number of notifications per repository in the last stored stream and size of the global stream
+ * from the last global load. Cost is expressed in number of downloaded notifications, each request costs {@link #REQUEST_COST} on top of them.
+ * <p/>
+ * Background check may restrict the plan by {@link #applyParticipatingFilter(Context, Plan, Collection)} to load only notifications user
+ * participates in from repositories where other ones do not fire Android notification.
+ */
+public class NotificationFetchPlanner {
+
+  private static final String TAG = "NotificationFetchPlanner";
+
+  /**
+   * Name of internal preference with number of pages of global notification stream from the last global load.
+   */
+  private static final String INT_GLOBAL_STREAM_PAGES = "pref_fetchPlanner_globalStreamPages";
+
+  /**
+   * Overhead of one request expressed in number of downloaded notifications.
+   */
+  protected static final int REQUEST_COST = 25;
+
+  /**
+   * Max number of visible repositories loaded one by one, global endpoint is always used for more of them.
+   */
+  protected static final int MAX_REPOSITORIES = 20;
+
+  /**
+   * Plan of notifications loading.
+   */
+  public static class Plan {
+    /**
+     * True if global endpoint is loaded.
+     */
+    public final boolean global;
+    /**
+     * True if global endpoint is loaded with <code>participating=true</code> param, so only notifications user participates in are returned.
+     */
+    public final boolean globalParticipating;
+    /**
+     * Repositories to load notifications for one by one, empty if none.
+     */
+    public final List<String> repositories;
+    /**
+     * Subset of {@link #repositories} loaded with <code>participating=true</code> param.
+     */
+    public final Set<String> participatingRepositories;
+    public final double globalCost;
+    public final double perRepositoryCost;
+
+    protected Plan(boolean global, boolean globalParticipating, List<String> repositories, Set<String> participatingRepositories, double globalCost,
+                   double perRepositoryCost) {
+      this.global = global;
+      this.globalParticipating = globalParticipating;
+      this.repositories = repositories;
+      this.participatingRepositories = participatingRepositories;
+      this.globalCost = globalCost;
+      this.perRepositoryCost = perRepositoryCost;
+    }
+
+    /**
+     * @return true if global endpoint is not used at all
+     */
+    public boolean isPerRepository() {
+      return !global;
+    }
+
+    /**
+     * @return true if some notifications are not loaded because user do not participate in them
+     */
+    public boolean isParticipating() {
+      return globalParticipating || !participatingRepositories.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      if (global)
+        sb.append(globalParticipating ? "global participating" : "global");
+      if (!repositories.isEmpty())
+        sb.append(global ? " + " : "").append("per repository ").append(repositories);
+      if (!participatingRepositories.isEmpty())
+        sb.append(" participating ").append(participatingRepositories);
+      return sb.append(" (costs global=").append(globalCost).append(", per repository=").append(perRepositoryCost).append(")").toString();
+    }
+  }
+
+  /**
+   * Plan loading of all notifications from global endpoint.
+   *
+   * @return plan
+   */
+  public static Plan createGlobalPlan() {
+    return new Plan(true, false, Collections.<String>emptyList(), Collections.<String>emptySet(), 0, 0);
+  }
+
+  /**
+   * Create plan of notifications loading.
+   *
+   * @param context          to be used
+   * @param visibleRepos     full names of watched repositories visible in the app
+   * @param watchedRepoCount number of all watched repositories
+   * @param oldNs            last stored notification stream, can be null
+   * @param perPage          number of notifications per page
+   * @return plan
+   */
+  public static Plan createPlan(Context context, Collection<String> visibleRepos, int watchedRepoCount, NotificationStream oldNs, int perPage) {
+    Map<String, Integer> counts = new HashMap<String, Integer>();
+    if (oldNs != null) {
+      for (NotifCount nc : oldNs.getRepositoriesInfo()) {
+        counts.put(nc.title, nc.count);
+      }
+    }
+    // notifications from repositories not watched (eg. mention) are visible and available from global endpoint only
+    boolean unwatchedVisible = PreferencesUtils.PREF_REPO_VISIBILITY_VISIBLE.equals(PreferencesUtils.getRepoVisibility(context));
+    Plan p = createPlan(visibleRepos, watchedRepoCount, counts, PreferencesUtils.getInt(context, INT_GLOBAL_STREAM_PAGES, -1), unwatchedVisible,
+            perPage);
+    Log.d(TAG, "Notification loading plan: " + p);
+    return p;
+  }
+
+  /**
+   * Create plan of notifications loading.
+   *
+   * @param visibleRepos      full names of watched repositories visible in the app
+   * @param watchedRepoCount  number of all watched repositories
+   * @param counts            number of notifications per repository in the last stored stream
+   * @param globalStreamPages number of pages of global stream from the last global load, -1 if unknown
+   * @param unwatchedVisible  true if notifications from repositories which are not watched are visible
+   * @param perPage           number of notifications per page
+   * @return plan
+   */
+  protected static Plan createPlan(Collection<String> visibleRepos, int watchedRepoCount, Map<String, Integer> counts, int globalStreamPages,
+                                   boolean unwatchedVisible, int perPage) {
+    List<String> repos = new ArrayList<String>(visibleRepos);
+    Collections.sort(repos);
+
+    double perRepositoryCost = 0;
+    int visibleCount = 0;
+    for (String repo : repos) {
+      Integer c = counts.get(repo);
+      int count = c != null ? c : 0;
+      visibleCount += count;
+      perRepositoryCost += pages(count, perPage) * REQUEST_COST + count;
+    }
+
+    double globalCost;
+    if (globalStreamPages > 0) {
+      // last page is half full in average
+      globalCost = globalStreamPages * REQUEST_COST + Math.max(visibleCount, (globalStreamPages - 0.5) * perPage);
+    } else {
+      // unknown yet, we expect invisible repositories have same number of notifications as visible ones
+      double total = repos.isEmpty() ? visibleCount : (double) visibleCount * Math.max(watchedRepoCount, repos.size()) / repos.size();
+      globalCost = pages((int) Math.ceil(total), perPage) * REQUEST_COST + total;
+    }
+
+    // #80 only one repository visible is always loaded from its endpoint
+    if (repos.size() == 1 || (!unwatchedVisible && !repos.isEmpty() && repos.size() <= MAX_REPOSITORIES && repos.size() < watchedRepoCount
+            && perRepositoryCost < globalCost)) {
+      return new Plan(false, false, repos, Collections.<String>emptySet(), globalCost, perRepositoryCost);
+    }
+    return new Plan(true, false, Collections.<String>emptyList(), Collections.<String>emptySet(), globalCost, perRepositoryCost);
+  }
+
+  /**
+   * Change plan to load only notifications user participates in from repositories where Android notification is fired for them only (see
+   * {@link PreferencesUtils#PREF_NOTIFY_FILTER_PARTICIPATING}). Used by background check to download less data.
+   *
+   * @param context      to be used
+   * @param plan         to change
+   * @param visibleRepos full names of watched repositories visible in the app
+   * @return changed plan, or the same one if change is not possible
+   */
+  public static Plan applyParticipatingFilter(Context context, Plan plan, Collection<String> visibleRepos) {
+    Set<String> participatingOnlyRepos = new HashSet<String>();
+    for (String repo : visibleRepos) {
+      if (isParticipatingOnly(PreferencesUtils.getNotificationFilterForRepository(context, repo, true)))
+        participatingOnlyRepos.add(repo);
+    }
+    Plan p = applyParticipatingFilter(plan, visibleRepos, participatingOnlyRepos, isParticipatingOnly(PreferencesUtils.getNotificationFilter(context)));
+    if (p != plan)
+      Log.d(TAG, "Notification loading plan with participating filter: " + p);
+    return p;
+  }
+
+  /**
+   * @param plan                     to change
+   * @param visibleRepos             full names of watched repositories visible in the app
+   * @param participatingOnlyRepos   visible repositories where Android notification is fired only for notifications user participates in
+   * @param defaultParticipatingOnly true if Android notification is fired only for notifications user participates in by default, so for
+   *                                 repositories which are not watched also
+   * @return changed plan, or the same one if change is not possible
+   */
+  protected static Plan applyParticipatingFilter(Plan plan, Collection<String> visibleRepos, Set<String> participatingOnlyRepos,
+                                                 boolean defaultParticipatingOnly) {
+    if (plan.isPerRepository()) {
+      Set<String> pr = new HashSet<String>(plan.repositories);
+      pr.retainAll(participatingOnlyRepos);
+      if (pr.isEmpty())
+        return plan;
+      return new Plan(false, false, plan.repositories, pr, plan.globalCost, plan.perRepositoryCost);
+    }
+    if (plan.globalParticipating || !defaultParticipatingOnly)
+      return plan;
+    // repositories with other filter are loaded fully from their endpoints
+    List<String> fullRepos = new ArrayList<String>(visibleRepos);
+    fullRepos.removeAll(participatingOnlyRepos);
+    if (fullRepos.size() > MAX_REPOSITORIES)
+      return plan;
+    Collections.sort(fullRepos);
+    return new Plan(true, true, fullRepos, Collections.<String>emptySet(), plan.globalCost, plan.perRepositoryCost);
+  }
+
+  private static boolean isParticipatingOnly(String notificationFilter) {
+    return PreferencesUtils.PREF_NOTIFY_FILTER_PARTICIPATING.equals(notificationFilter) || PreferencesUtils.PREF_NOTIFY_FILTER_NOTHING.equals(notificationFilter);
+  }
+
+  private static int pages(int count, int perPage) {
+    return Math.max(1, (count + perPage - 1) / perPage);
+  }
+
+  /**
+   * Store size of global notification stream after it has been loaded.
+   *
+   * @param context to be used
+   * @param pages   number of pages of global stream
+   */
+  public static void recordGlobalStreamPages(Context context, int pages) {
+    PreferencesUtils.storeInt(context, INT_GLOBAL_STREAM_PAGES, pages);
+  }
+
+}
@@ -16,20 +16,25 @@
 package com.daskiworks.ghwatch.backend;
 
 import android.annotation.SuppressLint;
+import android.util.JsonReader;
+import android.util.JsonToken;
 import android.util.Log;
 
 import com.daskiworks.ghwatch.Utils;
 import com.daskiworks.ghwatch.model.Notification;
 import com.daskiworks.ghwatch.model.NotificationStream;
+import com.daskiworks.ghwatch.model.StringPool;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.InvalidObjectException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Set;
 
 /**
  * Helper class used to parse {@link NotificationStream} from JSON data read from server.
@@ -39,13 +44,31 @@ import java.util.Set;
 public class NotificationStreamParser {
 
   private static final String TAG = NotificationStreamParser.class.getSimpleName();
-  @SuppressLint("SimpleDateFormat")
-  private static SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssz");
+  /**
+   * {@link SimpleDateFormat} is not thread safe and pages of notifications are parsed in parallel, so we have one per thread.
+   */
+  private static final ThreadLocal<SimpleDateFormat> df = new ThreadLocal<SimpleDateFormat>() {
+    @SuppressLint("SimpleDateFormat")
+    @Override
+    protected SimpleDateFormat initialValue() {
+      return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssz");
+    }
+  };
 
   public static interface IRepoVisibilityAdapter {
     public boolean isRepoVisibile(String repoFullName);
   }
 
+  /**
+   * Parse notifications from JSON array already read from server.
+   *
+   * @param ret                   stream to add notifications into, new one is created if null
+   * @param json                  array of notifications
+   * @param repoVisibilityAdapter used to skip notifications from invisible repositories
+   * @return stream with parsed notifications
+   * @throws InvalidObjectException if JSON is invalid
+   * @see #parseNotificationStream(NotificationStream, InputStream, IRepoVisibilityAdapter) streaming alternative
+   */
   public static NotificationStream parseNotificationStream(NotificationStream ret, JSONArray json, IRepoVisibilityAdapter repoVisibilityAdapter) throws InvalidObjectException {
     if (ret == null)
       ret = new NotificationStream();
@@ -58,17 +81,7 @@ public class NotificationStreamParser {
         String repoFullName = Utils.trimToNull(repository.getString("full_name"));
         if (repoFullName == null || !repoVisibilityAdapter.isRepoVisibile(repoFullName))
           continue;
-        String updatedAtStr = Utils.trimToNull(notification.getString("updated_at"));
-        Date updatedAt = null;
-        try {
-          if (updatedAtStr != null) {
-            if (updatedAtStr.endsWith("Z"))
-              updatedAtStr = updatedAtStr.replace("Z", "GMT");
-            updatedAt = df.parse(updatedAtStr);
-          }
-        } catch (ParseException e) {
-          Log.w(TAG, "Invalid date format for value: " + updatedAtStr);
-        }
+        Date updatedAt = parseDate(Utils.trimToNull(notification.getString("updated_at")));
 
         ret.addNotification(new Notification(notification.getLong("id"), notification.getString("url"), subject.getString("title"), subject.getString("type"),
                 subject.getString("url"), subject.getString("latest_comment_url"), repoFullName, repository.getJSONObject("owner").getString(
@@ -80,4 +93,164 @@ public class NotificationStreamParser {
     }
     return ret;
   }
+
+  /**
+   * Parse notifications directly from the stream of JSON data read from server. No intermediate String or JSON object tree is created, and
+   * content of notifications from invisible repositories is skipped without processing.
+   *
+   * @param ret                   stream to add notifications into, new one is created if null
+   * @param is                    to read JSON array of notifications from. Not closed here.
+   * @param repoVisibilityAdapter used to skip notifications from invisible repositories
+   * @return stream with parsed notifications
+   * @throws InvalidObjectException if JSON is invalid
+   * @throws IOException            if stream reading fails
+   * @see #parseNotificationStream(NotificationStream, InputStream, IRepoVisibilityAdapter, StringPool) to share strings with other pages
+   */
+  public static NotificationStream parseNotificationStream(NotificationStream ret, InputStream is, IRepoVisibilityAdapter repoVisibilityAdapter) throws
+          IOException {
+    return parseNotificationStream(ret, is, repoVisibilityAdapter, new StringPool());
+  }
+
+  /**
+   * Parse notifications directly from the stream of JSON data read from server. Values repeated over notifications (repository name and avatar,
+   * reason, subject type) are canonicalized over given pool, so all notifications parsed with the same pool share them.
+   *
+   * @param ret                   stream to add notifications into, new one is created if null
+   * @param is                    to read JSON array of notifications from. Not closed here.
+   * @param repoVisibilityAdapter used to skip notifications from invisible repositories
+   * @param stringPool            pool used to canonicalize repeated values
+   * @return stream with parsed notifications
+   * @throws InvalidObjectException if JSON is invalid
+   * @throws IOException            if stream reading fails
+   */
+  public static NotificationStream parseNotificationStream(NotificationStream ret, InputStream is, IRepoVisibilityAdapter repoVisibilityAdapter,
+                                                           StringPool stringPool) throws IOException {
+    if (ret == null)
+      ret = new NotificationStream();
+    JsonReader reader = new JsonReader(new InputStreamReader(is, "UTF-8"));
+    try {
+      reader.beginArray();
+      while (reader.hasNext()) {
+        Notification n = readNotification(reader, repoVisibilityAdapter, stringPool);
+        if (n != null)
+          ret.addNotification(n);
+      }
+      reader.endArray();
+    } catch (InvalidObjectException e) {
+      throw e;
+    } catch (IllegalStateException | NumberFormatException e) {
+      throw new InvalidObjectException("JSON message is invalid: " + e.getMessage());
+    }
+    return ret;
+  }
+
+  private static Notification readNotification(JsonReader reader, IRepoVisibilityAdapter repoVisibilityAdapter, StringPool stringPool) throws
+          IOException {
+    Long id = null;
+    String url = null;
+    String reason = null;
+    String updatedAt = null;
+    String subjectTitle = null;
+    String subjectType = null;
+    String subjectUrl = null;
+    String subjectLatestCommentUrl = null;
+    String repoFullName = null;
+    String repoAvatarUrl = null;
+    boolean subjectRead = false;
+    boolean repositoryRead = false;
+    boolean skip = false;
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if (skip) {
+        reader.skipValue();
+      } else if ("id".equals(name)) {
+        id = reader.nextLong();
+      } else if ("url".equals(name)) {
+        url = nextStringOrNull(reader);
+      } else if ("reason".equals(name)) {
+        reason = nextStringOrNull(reader);
+      } else if ("updated_at".equals(name)) {
+        updatedAt = nextStringOrNull(reader);
+      } else if ("subject".equals(name)) {
+        subjectRead = true;
+        reader.beginObject();
+        while (reader.hasNext()) {
+          String sn = reader.nextName();
+          if ("title".equals(sn)) {
+            subjectTitle = nextStringOrNull(reader);
+          } else if ("type".equals(sn)) {
+            subjectType = nextStringOrNull(reader);
+          } else if ("url".equals(sn)) {
+            subjectUrl = nextStringOrNull(reader);
+          } else if ("latest_comment_url".equals(sn)) {
+            subjectLatestCommentUrl = nextStringOrNull(reader);
+          } else {
+            reader.skipValue();
+          }
+        }
+        reader.endObject();
+      } else if ("repository".equals(name)) {
+        repositoryRead = true;
+        reader.beginObject();
+        while (reader.hasNext()) {
+          String rn = reader.nextName();
+          if ("full_name".equals(rn)) {
+            repoFullName = Utils.trimToNull(nextStringOrNull(reader));
+            if (repoFullName == null || !repoVisibilityAdapter.isRepoVisibile(repoFullName)) {
+              skip = true;
+            }
+          } else if (!skip && "owner".equals(rn)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+              if ("avatar_url".equals(reader.nextName())) {
+                repoAvatarUrl = nextStringOrNull(reader);
+              } else {
+                reader.skipValue();
+              }
+            }
+            reader.endObject();
+          } else {
+            reader.skipValue();
+          }
+        }
+        reader.endObject();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    if (skip)
+      return null;
+    if (id == null || !subjectRead || !repositoryRead)
+      throw new InvalidObjectException("JSON message is invalid: notification without id, subject or repository");
+    if (repoFullName == null)
+      return null;
+
+    return new Notification(id, url, subjectTitle, stringPool.get(subjectType), subjectUrl, subjectLatestCommentUrl, stringPool.get(repoFullName),
+            stringPool.get(repoAvatarUrl), parseDate(Utils.trimToNull(updatedAt)), stringPool.get(reason));
+  }
+
+  private static String nextStringOrNull(JsonReader reader) throws IOException {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
+      return null;
+    }
+    return reader.nextString();
+  }
+
+  protected static Date parseDate(String updatedAtStr) {
+    try {
+      if (updatedAtStr != null) {
+        if (updatedAtStr.endsWith("Z"))
+          updatedAtStr = updatedAtStr.replace("Z", "GMT");
+        return df.get().parse(updatedAtStr);
+      }
+    } catch (ParseException e) {
+      Log.w(TAG, "Invalid date format for value: " + updatedAtStr);
+    }
+    return null;
+  }
 }
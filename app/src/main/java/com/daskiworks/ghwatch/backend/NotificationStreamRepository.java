@@ -0,0 +1,790 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteException;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.Utils;
+import com.daskiworks.ghwatch.model.ChangeSet;
+import com.daskiworks.ghwatch.model.Label;
+import com.daskiworks.ghwatch.model.Notification;
+import com.daskiworks.ghwatch.model.NotificationStream;
+import com.daskiworks.ghwatch.model.StringPool;
+import com.daskiworks.ghwatch.model.UnreadSummary;
+import com.daskiworks.ghwatch.store.NotificationDatabase;
+import com.daskiworks.ghwatch.store.StoreJournal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Process wide owner of the current {@link NotificationStream}. Stream is loaded from persistent store once, then all reads are served from memory
+ * and changes are written through into persistent store.
+ * <p/>
+ * Stream returned by {@link #get()} is published snapshot which is never changed in place, all changes publish new stream under short lock,
+ * so readers never wait for writers. Stream loaded from server is published by {@link #publish(NotificationStream, NotificationStream, boolean)} which
+ * merges changes done since loading started, so no lock is held during server calls. Use {@link #getCopy()} to pass stream to the view which
+ * may change it.
+ * <p/>
+ * Changes are written into persistent store by single background thread in order they have been done, so neither readers nor writers wait
+ * for disk. Use {@link #flush()} to wait for pending writes.
+ * <p/>
+ * Store consists of snapshot of whole stream and {@link StoreJournal} with small records of later changes - removed notifications, loaded
+ * details and labels - so frequent small changes do not rewrite whole snapshot. Journal is applied when stream is loaded and compacted into new
+ * snapshot in background when it grows over {@link #COMPACTION_THRESHOLD}.
+ * <p/>
+ * If {@link PreferencesUtils#PREF_STORE_DATABASE} is set then {@link NotificationDatabase} is used as persistent store instead. Views are
+ * served from in-memory stream and its indexes, so database is not queried for them.
+ * <p/>
+ * Small {@link UnreadSummary} is written beside the stream on every change, widget and launcher badge read only this one.
+ */
+public class NotificationStreamRepository {
+
+  private static final String TAG = "NotificationStreamRepository";
+
+  /**
+   * Name of file where data are persisted.
+   */
+  private static final String persistFileName = "NotificationsUnread.td";
+
+  /**
+   * Name of file where summary of stream is persisted.
+   */
+  private static final String summaryFileName = "NotificationsUnread.summary";
+
+  /**
+   * Size of journal in bytes when it is compacted into snapshot.
+   */
+  protected static final long COMPACTION_THRESHOLD = 64 * 1024;
+
+  /**
+   * Journal record type with ids of removed notifications.
+   */
+  private static final int RECORD_REMOVED = 1;
+  /**
+   * Journal record type with detail data (html url, status) of notifications.
+   */
+  private static final int RECORD_DETAIL = 2;
+  /**
+   * Journal record type with labels of notifications.
+   */
+  private static final int RECORD_LABELS = 3;
+
+  private static final ThreadPoolExecutor persistExecutor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>());
+
+  static {
+    persistExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  private static NotificationStreamRepository instance;
+
+  private final Context context;
+  private final File persistFile;
+  private final File summaryFile;
+  // used by persist thread only once stream is loaded
+  private final StoreJournal journal;
+
+  /**
+   * Guards changes of stream. Stream itself is published snapshot read without lock. Lock is never held during write into persistent store, so
+   * neither readers nor writers wait for disk.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private volatile boolean loaded = false;
+  private volatile NotificationStream stream;
+  // used by persist thread only once stream is loaded
+  private boolean databaseUsed = false;
+  private final AtomicBoolean snapshotScheduled = new AtomicBoolean(false);
+
+  /**
+   * Guards changes of summary. Summary itself is published snapshot read without lock, it is never changed once published.
+   */
+  private final Object summaryLock = new Object();
+  private volatile boolean summaryLoaded = false;
+  private volatile UnreadSummary summary;
+  private final AtomicBoolean summaryWriteScheduled = new AtomicBoolean(false);
+  /**
+   * Summary widgets have been updated for last time.
+   */
+  private UnreadSummary widgetSummary;
+
+  /**
+   * Get instance for use.
+   *
+   * @param context to be used
+   * @return instance
+   */
+  public static synchronized NotificationStreamRepository getInstance(Context context) {
+    if (instance == null)
+      instance = new NotificationStreamRepository(context.getApplicationContext());
+    return instance;
+  }
+
+  private NotificationStreamRepository(Context context) {
+    this.context = context;
+    this.persistFile = context.getFileStreamPath(persistFileName);
+    this.summaryFile = context.getFileStreamPath(summaryFileName);
+    this.journal = new StoreJournal(TAG, persistFile);
+  }
+
+  /**
+   * Get current stream. Returned stream is published snapshot which is never changed (except detail data of notifications), changes of stream
+   * publish new one, so it may be read without any lock.
+   *
+   * @return current stream, null if not available yet
+   */
+  public NotificationStream get() {
+    if (!loaded) {
+      lock.lock();
+      try {
+        if (!loaded)
+          load();
+      } finally {
+        lock.unlock();
+      }
+    }
+    return stream;
+  }
+
+  private void load() {
+    databaseUsed = isDatabaseConfigured();
+    if (databaseUsed) {
+      stream = loadFromDatabase();
+      if (stream == null) {
+        stream = loadFromFile();
+        if (stream != null) {
+          Log.i(TAG, "Notification stream migrated from file to database");
+          runInPersistThread(new Runnable() {
+            @Override
+            public void run() {
+              writeSnapshot();
+              deleteFile();
+            }
+          });
+        }
+      }
+    } else {
+      stream = loadFromFile();
+      if (stream == null && NotificationDatabase.exists(context)) {
+        stream = loadFromDatabase();
+        if (stream != null)
+          Log.i(TAG, "Notification stream migrated from database to file");
+        runInPersistThread(new Runnable() {
+          @Override
+          public void run() {
+            writeSnapshot();
+            clearDatabase();
+          }
+        });
+      } else if (stream != null) {
+        scheduleCompactionIfNecessary();
+      }
+    }
+    loaded = true;
+  }
+
+  private NotificationStream loadFromFile() {
+    // labels replayed from journal share strings with stored stream
+    StringPool stringPool = new StringPool();
+    NotificationStream ns = Utils.readFromStore(TAG, context, persistFile, stringPool);
+    if (ns != null) {
+      long token = StoreJournal.getBaseToken(persistFile);
+      List<byte[]> records = journal.read(token);
+      if (records != null) {
+        for (byte[] record : records) {
+          applyRecord(ns, record, stringPool);
+        }
+      } else {
+        journal.start(token);
+      }
+      Log.d(TAG, "Notification stream loaded from persistent store with " + ns.size() + " notifications and "
+              + (records != null ? records.size() : 0) + " journal records");
+    } else {
+      journal.delete();
+    }
+    return ns;
+  }
+
+  private NotificationStream loadFromDatabase() {
+    try {
+      NotificationStream ns = NotificationDatabase.getInstance(context).loadStream();
+      if (ns != null)
+        Log.d(TAG, "Notification stream loaded from database with " + ns.size() + " notifications");
+      return ns;
+    } catch (SQLiteException e) {
+      Log.e(TAG, "Notification stream loading from database failed: " + e.getMessage(), e);
+      return null;
+    }
+  }
+
+  private boolean isDatabaseConfigured() {
+    return PreferencesUtils.getBoolean(context, PreferencesUtils.PREF_STORE_DATABASE, false);
+  }
+
+  /**
+   * Move current stream into persistent store selected by {@link PreferencesUtils#PREF_STORE_DATABASE}. To be called when preference is changed.
+   */
+  public void storeTypeChanged() {
+    get();
+    runInPersistThread(new Runnable() {
+      @Override
+      public void run() {
+        boolean useDatabase = isDatabaseConfigured();
+        if (useDatabase == databaseUsed)
+          return;
+        databaseUsed = useDatabase;
+        writeSnapshot();
+        if (useDatabase) {
+          deleteFile();
+        } else {
+          clearDatabase();
+        }
+        Log.i(TAG, "Notification stream moved to " + (useDatabase ? "database" : "file"));
+      }
+    });
+  }
+
+  /**
+   * Get shallow copy of current stream, so it may be changed by the view. {@link Notification} objects are shared.
+   *
+   * @return copy of stream, null if not available yet
+   */
+  public NotificationStream getCopy() {
+    NotificationStream ns = get();
+    return ns != null ? ns.copy() : null;
+  }
+
+  /**
+   * Replace current stream and write it into persistent store.
+   *
+   * @param ns new stream, never null. Must not be changed after this call.
+   */
+  public void put(NotificationStream ns) {
+    lock.lock();
+    try {
+      stream = ns;
+      loaded = true;
+      updateSummary();
+    } finally {
+      lock.unlock();
+    }
+    persist();
+  }
+
+  /**
+   * Publish stream loaded from server as current one. Current stream may have been changed while new one was loaded, so notifications removed
+   * from it since <code>base</code> snapshot has been taken are removed from new stream too, and detail data of notifications are kept.
+   * <p/>
+   * Incremental stream contains only part of notifications (new ones or participating ones only), so notifications of current stream are added
+   * to it. It is done here under lock, not against <code>base</code>, so notifications added by other sync meanwhile are not lost.
+   *
+   * @param base        snapshot of stream loading from server started with, see {@link #get()}. May be null.
+   * @param ns          new stream, never null. Must not be changed after this call.
+   * @param incremental true if <code>ns</code> is incremental update which has to be merged with current stream
+   * @return changes of published stream against previous one
+   */
+  public ChangeSet publish(NotificationStream base, NotificationStream ns, boolean incremental) {
+    ChangeSet changes;
+    lock.lock();
+    try {
+      NotificationStream current = get();
+      if (current != null && base != null && current != base) {
+        for (Notification n : base) {
+          if (current.getNotificationById(n.getId()) == null)
+            ns.removeNotificationById(n.getId());
+        }
+      }
+      if (incremental) {
+        // notifications loaded from server are newer, so they are kept in the stream
+        if (current != null) {
+          for (Notification n : current) {
+            ns.addNotification(n);
+          }
+        }
+        ns.setLastFullUpdateTimestamp(current != null ? current.getLastFullUpdateTimestamp() : 0);
+      }
+      changes = ChangeSet.compute(current, ns);
+      changes.carryOverDetails();
+      stream = ns;
+      loaded = true;
+      updateSummary();
+    } finally {
+      lock.unlock();
+    }
+    persist();
+    return changes;
+  }
+
+  /**
+   * Schedule write of snapshot of current stream into persistent store. Called internally after each change, public to force rewrite of whole
+   * store. Write is done in background, see {@link #flush()}. Snapshot already scheduled is not scheduled again, as it writes stream current at
+   * the time it is executed.
+   */
+  public void persist() {
+    if (snapshotScheduled.compareAndSet(false, true)) {
+      runInPersistThread(new Runnable() {
+        @Override
+        public void run() {
+          snapshotScheduled.set(false);
+          writeSnapshot();
+        }
+      });
+    }
+  }
+
+  /**
+   * Wait until all changes done before this call are written into persistent store.
+   */
+  public void flush() {
+    try {
+      persistExecutor.submit(new Runnable() {
+        @Override
+        public void run() {
+        }
+      }).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      Log.e(TAG, "Persistent store flush failed: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Run task in the only thread writing into persistent store, after all writes scheduled before.
+   *
+   * @param task to run
+   */
+  protected void runInPersistThread(Runnable task) {
+    persistExecutor.execute(task);
+  }
+
+  /**
+   * Write snapshot of current stream into persistent store. Called in persist thread only.
+   */
+  private void writeSnapshot() {
+    NotificationStream ns = stream;
+    if (ns == null)
+      return;
+    if (databaseUsed) {
+      try {
+        NotificationDatabase.getInstance(context).saveStream(ns);
+      } catch (SQLiteException e) {
+        Log.e(TAG, "Notification stream write into database failed: " + e.getMessage(), e);
+      }
+    } else if (Utils.writeToStore(TAG, context, persistFile, ns)) {
+      journal.start(StoreJournal.getBaseToken(persistFile));
+    }
+  }
+
+  /**
+   * Remove notifications from current stream and persist this change. New stream without them is published.
+   *
+   * @param ids of notifications to remove
+   */
+  public void removeNotifications(Collection<Long> ids) {
+    final List<Long> removed = new ArrayList<Long>(ids);
+    lock.lock();
+    try {
+      NotificationStream ns = get();
+      if (ns == null || removed.isEmpty())
+        return;
+      ns = ns.copy();
+      for (Long id : removed) {
+        ns.removeNotificationById(id);
+      }
+      stream = ns;
+      updateSummary();
+    } finally {
+      lock.unlock();
+    }
+    runInPersistThread(new Runnable() {
+      @Override
+      public void run() {
+        if (databaseUsed) {
+          try {
+            NotificationDatabase.getInstance(context).removeNotifications(removed);
+          } catch (SQLiteException e) {
+            Log.e(TAG, "Notifications removal from database failed: " + e.getMessage(), e);
+            writeSnapshot();
+          }
+        } else {
+          append(createRemovedRecord(removed));
+        }
+      }
+    });
+  }
+
+  /**
+   * Copy detail data (html url, status, labels) loaded from server into notifications in current stream, mark them as detail loaded and persist
+   * this change. Notifications of published stream are never changed, as they are shared with copies for views and with persisting thread, so
+   * changed copies of them are published in new copy of stream.
+   *
+   * @param loaded notifications with detail data loaded
+   * @return true if some notification in stream has been changed
+   */
+  public boolean updateDetails(Collection<Notification> loaded) {
+    final List<Notification> changed = new ArrayList<Notification>();
+    lock.lock();
+    try {
+      NotificationStream ns = get();
+      if (ns == null)
+        return false;
+      for (Notification inputObject : loaded) {
+        Notification n = ns.getNotificationById(inputObject.getId());
+        if (n != null) {
+          n = n.copy();
+          n.setSubjectDetailHtmlUrl(inputObject.getSubjectDetailHtmlUrl());
+          n.setSubjectStatus(inputObject.getSubjectStatus());
+          n.setSubjectLabels(inputObject.getSubjectLabels() != null ? new ArrayList<Label>(inputObject.getSubjectLabels()) : null);
+          n.setDetailLoaded(true);
+          changed.add(n);
+        }
+      }
+      if (changed.isEmpty())
+        return false;
+      ns = ns.copy();
+      for (Notification n : changed) {
+        ns.replaceNotification(n);
+      }
+      stream = ns;
+    } finally {
+      lock.unlock();
+    }
+    runInPersistThread(new Runnable() {
+      @Override
+      public void run() {
+        if (databaseUsed) {
+          try {
+            NotificationDatabase.getInstance(context).updateDetails(changed);
+          } catch (SQLiteException e) {
+            Log.e(TAG, "Notification details write into database failed: " + e.getMessage(), e);
+            writeSnapshot();
+          }
+        } else {
+          append(createDetailRecord(changed), createLabelsRecord(changed));
+        }
+      }
+    });
+    return true;
+  }
+
+  /**
+   * Forget current stream and delete it from persistent store.
+   */
+  public void clear() {
+    lock.lock();
+    try {
+      stream = null;
+      loaded = true;
+      synchronized (summaryLock) {
+        summary = null;
+        summaryLoaded = true;
+      }
+    } finally {
+      lock.unlock();
+    }
+    runInPersistThread(new Runnable() {
+      @Override
+      public void run() {
+        deleteFile();
+        if (NotificationDatabase.exists(context))
+          clearDatabase();
+        Utils.deleteFromStore(context, summaryFile);
+        // stream put after clear may have been written by coalesced write scheduled before it
+        writeSnapshot();
+        writeSummary();
+      }
+    });
+  }
+
+  /**
+   * Get summary of current stream. Whole stream is not loaded if summary is available in persistent store.
+   *
+   * @return summary, null if stream is not available yet
+   */
+  public UnreadSummary getSummary() {
+    UnreadSummary s = summary;
+    if (s != null)
+      return s;
+    synchronized (summaryLock) {
+      loadSummary();
+      if (summary != null)
+        return summary;
+    }
+    if (get() == null)
+      return null;
+    lock.lock();
+    try {
+      // summary not created by older app version yet
+      if (summary == null && stream != null)
+        updateSummary();
+    } finally {
+      lock.unlock();
+    }
+    return summary;
+  }
+
+  /**
+   * Set flag if widget should be highlighted due to new notifications.
+   *
+   * @param highlight flag to set
+   */
+  public void setSummaryHighlight(boolean highlight) {
+    if (getSummary() == null)
+      return;
+    synchronized (summaryLock) {
+      UnreadSummary s = summary;
+      if (s == null || s.isHighlight() == highlight)
+        return;
+      summary = new UnreadSummary(s.getUnreadCount(), s.getRepositoryCounts(), highlight, s.getBadgeCount(), s.getLastUpdateTimestamp());
+    }
+    scheduleSummaryWrite();
+  }
+
+  /**
+   * Set number of notifications shown in launcher badge.
+   *
+   * @param badgeCount to set
+   */
+  public void setSummaryBadgeCount(int badgeCount) {
+    if (getSummary() == null)
+      return;
+    synchronized (summaryLock) {
+      UnreadSummary s = summary;
+      if (s == null || s.getBadgeCount() == badgeCount)
+        return;
+      summary = new UnreadSummary(s.getUnreadCount(), s.getRepositoryCounts(), s.isHighlight(), badgeCount, s.getLastUpdateTimestamp());
+    }
+    scheduleSummaryWrite();
+  }
+
+  /**
+   * Check if widgets show something else than current summary, so they have to be updated. Widgets are expected to be updated if true is
+   * returned.
+   *
+   * @return true if widgets have to be updated
+   */
+  public boolean isWidgetUpdateNecessary() {
+    UnreadSummary s = getSummary();
+    synchronized (summaryLock) {
+      if (s != null && s.isSameForWidget(widgetSummary))
+        return false;
+      widgetSummary = s;
+      return true;
+    }
+  }
+
+  private void loadSummary() {
+    if (!summaryLoaded) {
+      summary = Utils.readFromStore(TAG, context, summaryFile);
+      summaryLoaded = true;
+    }
+  }
+
+  /**
+   * Create summary of current stream. Called with {@link #lock} held, so summaries are created in order of changes of stream.
+   */
+  private void updateSummary() {
+    synchronized (summaryLock) {
+      loadSummary();
+      UnreadSummary s = summary;
+      summary = new UnreadSummary(stream, s != null && s.isHighlight(), s != null ? s.getBadgeCount() : 0);
+    }
+    scheduleSummaryWrite();
+  }
+
+  private void scheduleSummaryWrite() {
+    if (summaryWriteScheduled.compareAndSet(false, true)) {
+      runInPersistThread(new Runnable() {
+        @Override
+        public void run() {
+          summaryWriteScheduled.set(false);
+          writeSummary();
+        }
+      });
+    }
+  }
+
+  private void writeSummary() {
+    UnreadSummary s = summary;
+    if (s != null)
+      Utils.writeToStore(TAG, context, summaryFile, s);
+  }
+
+  private void deleteFile() {
+    journal.delete();
+    Utils.deleteFromStore(context, persistFile);
+  }
+
+  private void clearDatabase() {
+    try {
+      NotificationDatabase.getInstance(context).clear();
+    } catch (SQLiteException e) {
+      Log.e(TAG, "Notification database clear failed: " + e.getMessage(), e);
+    }
+  }
+
+  private void append(byte[]... records) {
+    if (journal.append(records)) {
+      scheduleCompactionIfNecessary();
+    } else {
+      writeSnapshot();
+    }
+  }
+
+  private void scheduleCompactionIfNecessary() {
+    if (journal.size() > COMPACTION_THRESHOLD) {
+      Log.d(TAG, "Compacting journal of " + journal.size() + " bytes");
+      persist();
+    }
+  }
+
+  protected static byte[] createRemovedRecord(Collection<Long> ids) {
+    try {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream(5 + ids.size() * 8);
+      DataOutputStream out = new DataOutputStream(bos);
+      out.writeByte(RECORD_REMOVED);
+      out.writeInt(ids.size());
+      for (Long id : ids) {
+        out.writeLong(id);
+      }
+      out.flush();
+      return bos.toByteArray();
+    } catch (IOException e) {
+      // never happens for memory stream
+      throw new RuntimeException(e);
+    }
+  }
+
+  protected static byte[] createDetailRecord(Collection<Notification> notifications) {
+    try {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bos);
+      out.writeByte(RECORD_DETAIL);
+      out.writeInt(notifications.size());
+      for (Notification n : notifications) {
+        out.writeLong(n.getId());
+        out.writeBoolean(n.isDetailLoaded());
+        writeString(out, n.getSubjectDetailHtmlUrl());
+        writeString(out, n.getSubjectStatus());
+      }
+      out.flush();
+      return bos.toByteArray();
+    } catch (IOException e) {
+      // never happens for memory stream
+      throw new RuntimeException(e);
+    }
+  }
+
+  protected static byte[] createLabelsRecord(Collection<Notification> notifications) {
+    try {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bos);
+      out.writeByte(RECORD_LABELS);
+      out.writeInt(notifications.size());
+      for (Notification n : notifications) {
+        out.writeLong(n.getId());
+        List<Label> labels = n.getSubjectLabels();
+        out.writeInt(labels != null ? labels.size() : -1);
+        if (labels != null) {
+          for (Label l : labels) {
+            writeString(out, l.getName());
+            writeString(out, l.getColor());
+          }
+        }
+      }
+      out.flush();
+      return bos.toByteArray();
+    } catch (IOException e) {
+      // never happens for memory stream
+      throw new RuntimeException(e);
+    }
+  }
+
+  protected static void applyRecord(NotificationStream ns, byte[] record) {
+    applyRecord(ns, record, new StringPool());
+  }
+
+  protected static void applyRecord(NotificationStream ns, byte[] record, StringPool stringPool) {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+      int type = in.readUnsignedByte();
+      int count = in.readInt();
+      if (type == RECORD_REMOVED) {
+        for (int i = 0; i < count; i++) {
+          ns.removeNotificationById(in.readLong());
+        }
+      } else if (type == RECORD_DETAIL) {
+        for (int i = 0; i < count; i++) {
+          Notification n = ns.getNotificationById(in.readLong());
+          boolean detailLoaded = in.readBoolean();
+          String htmlUrl = readString(in);
+          String status = readString(in);
+          if (n != null) {
+            n.setDetailLoaded(detailLoaded);
+            n.setSubjectDetailHtmlUrl(htmlUrl);
+            n.setSubjectStatus(status);
+          }
+        }
+      } else if (type == RECORD_LABELS) {
+        for (int i = 0; i < count; i++) {
+          Notification n = ns.getNotificationById(in.readLong());
+          int labelCount = in.readInt();
+          List<Label> labels = null;
+          if (labelCount >= 0) {
+            labels = new ArrayList<Label>(labelCount);
+            for (int j = 0; j < labelCount; j++) {
+              labels.add(new Label(stringPool.get(readString(in)), stringPool.get(readString(in))));
+            }
+          }
+          if (n != null)
+            n.setSubjectLabels(labels);
+        }
+      } else {
+        Log.w(TAG, "Unknown journal record type " + type + " ignored");
+      }
+    } catch (IOException e) {
+      Log.w(TAG, "Malformed journal record ignored: " + e.getMessage());
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    out.writeBoolean(s != null);
+    if (s != null)
+      out.writeUTF(s);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+}
@@ -0,0 +1,523 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.Utils;
+import com.daskiworks.ghwatch.auth.AuthenticationManager;
+import com.daskiworks.ghwatch.backend.RemoteSystemClient.Response;
+import com.daskiworks.ghwatch.model.GHCredentials;
+import com.daskiworks.ghwatch.model.LoadingStatus;
+import com.daskiworks.ghwatch.model.Notification;
+import com.daskiworks.ghwatch.model.NotificationStream;
+import com.daskiworks.ghwatch.model.WatchedRepositories;
+
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.net.NoRouteToHostException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import cz.msebera.android.httpclient.auth.AuthenticationException;
+
+/**
+ * Durable queue of user actions changing data on server (mark notification read, mute thread, mark all notifications read, unwatch
+ * repository). Services apply action to local data immediately and put it into this queue, queue then replays it to the server. Actions which
+ * fail due to connection problem are kept in the queue and replayed later with back off - when connectivity returns or during background check.
+ * <p/>
+ * Redundant actions are collapsed when added (eg. thread mute also marks it as read, mark all as read supersedes mark read of threads in the same
+ * repository). Data reloaded from server are filtered by {@link #applyTo(NotificationStream)} and {@link #applyTo(WatchedRepositories)} so
+ * actions not replayed yet do not reappear in the view. Actions are never applied to notifications updated after the user action, neither locally
+ * nor on server during replay, so new activity is not marked as read unseen.
+ */
+public class PendingMutationQueue {
+
+  private static final String TAG = "PendingMutationQueue";
+
+  /**
+   * Name of file where queue is persisted.
+   */
+  private static final String persistFileName = "PendingMutations.td";
+
+  /**
+   * Delay of the first retry of failed mutation [millis], doubled for each next attempt.
+   */
+  protected static final long RETRY_DELAY_MIN = 30 * Utils.MILLIS_SECOND;
+
+  /**
+   * Max delay of retry of failed mutation [millis].
+   */
+  protected static final long RETRY_DELAY_MAX = Utils.MILLIS_HOUR;
+
+  /**
+   * Mutation is dropped from queue after this number of failed attempts.
+   */
+  protected static final int MAX_ATTEMPTS = 20;
+
+  /**
+   * Type of mutation.
+   */
+  public enum Type {
+    MARK_READ, MUTE, MARK_ALL_READ, UNWATCH
+  }
+
+  /**
+   * One pending mutation.
+   */
+  public static class Mutation implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Type type;
+    private final long id;
+    private final String repositoryFullName;
+    private final long timestamp;
+    private int attempts = 0;
+    private long nextAttemptTimestamp = 0;
+
+    protected Mutation(Type type, long id, String repositoryFullName) {
+      this.type = type;
+      this.id = id;
+      this.repositoryFullName = repositoryFullName;
+      this.timestamp = System.currentTimeMillis();
+    }
+
+    public Type getType() {
+      return type;
+    }
+
+    /**
+     * @return id of notification thread or repository
+     */
+    public long getId() {
+      return id;
+    }
+
+    /**
+     * @return full name of repository, can be null for mark all notifications as read
+     */
+    public String getRepositoryFullName() {
+      return repositoryFullName;
+    }
+
+    /**
+     * @return timestamp when action has been performed by user
+     */
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    public int getAttempts() {
+      return attempts;
+    }
+
+    /**
+     * @return timestamp of the earliest next attempt to send mutation to server, 0 if not failed yet
+     */
+    public long getNextAttemptTimestamp() {
+      return nextAttemptTimestamp;
+    }
+
+    protected boolean isForThread(long threadId) {
+      return (type == Type.MARK_READ || type == Type.MUTE) && id == threadId;
+    }
+
+    protected boolean coversRepository(String repository) {
+      return type == Type.MARK_ALL_READ && (repositoryFullName == null || repositoryFullName.equals(repository));
+    }
+
+    @Override
+    public String toString() {
+      return type + "[" + (type == Type.MARK_ALL_READ ? repositoryFullName : id) + "]";
+    }
+  }
+
+  /**
+   * @param threadId           id of notification thread to mark as read
+   * @param repositoryFullName of notification, can be null
+   * @return mutation
+   */
+  public static Mutation markRead(long threadId, String repositoryFullName) {
+    return new Mutation(Type.MARK_READ, threadId, repositoryFullName);
+  }
+
+  /**
+   * @param threadId           id of notification thread to mute (and mark as read)
+   * @param repositoryFullName of notification, can be null
+   * @return mutation
+   */
+  public static Mutation mute(long threadId, String repositoryFullName) {
+    return new Mutation(Type.MUTE, threadId, repositoryFullName);
+  }
+
+  /**
+   * @param repositoryFullName to mark notifications as read for, null for all notifications
+   * @return mutation
+   */
+  public static Mutation markAllRead(String repositoryFullName) {
+    return new Mutation(Type.MARK_ALL_READ, 0, repositoryFullName);
+  }
+
+  /**
+   * @param repositoryId       id of repository to unwatch
+   * @param repositoryFullName of repository
+   * @return mutation
+   */
+  public static Mutation unwatch(long repositoryId, String repositoryFullName) {
+    return new Mutation(Type.UNWATCH, repositoryId, repositoryFullName);
+  }
+
+  private static PendingMutationQueue instance;
+
+  private final Context context;
+  private final File persistFile;
+  private ArrayList<Mutation> queue;
+
+  /**
+   * Only one replay runs at a time so mutations are not sent twice.
+   */
+  private final Object replayLock = new Object();
+
+  /**
+   * Get instance for use.
+   *
+   * @param context to be used
+   * @return instance
+   */
+  public static synchronized PendingMutationQueue getInstance(Context context) {
+    if (instance == null)
+      instance = new PendingMutationQueue(context.getApplicationContext());
+    return instance;
+  }
+
+  private PendingMutationQueue(Context context) {
+    this.context = context;
+    this.persistFile = context.getFileStreamPath(persistFileName);
+  }
+
+  private void init() {
+    if (queue == null) {
+      queue = Utils.readFromStore(TAG, context, persistFile);
+      if (queue == null)
+        queue = new ArrayList<Mutation>();
+      else
+        Log.d(TAG, "Loaded " + queue.size() + " pending mutations from persistent store");
+    }
+  }
+
+  private void persist() {
+    Utils.writeToStore(TAG, context, persistFile, queue);
+  }
+
+  /**
+   * Add mutation into queue. It is collapsed with mutations already waiting in queue. Call {@link #replay(boolean)} then to send it to the server.
+   *
+   * @param mutation to add
+   */
+  public synchronized void enqueue(Mutation mutation) {
+    init();
+    if (addCollapsed(queue, mutation)) {
+      persist();
+      Log.d(TAG, mutation + " enqueued, " + queue.size() + " mutations pending");
+    } else {
+      Log.d(TAG, mutation + " collapsed into pending mutation");
+    }
+  }
+
+  /**
+   * Add mutation into list and remove mutations superseded by it.
+   *
+   * @param queue    to add into
+   * @param mutation to add
+   * @return true if list has been changed
+   */
+  protected static boolean addCollapsed(List<Mutation> queue, Mutation mutation) {
+    boolean changed = false;
+    for (Iterator<Mutation> i = queue.iterator(); i.hasNext(); ) {
+      Mutation m = i.next();
+      switch (mutation.type) {
+        case MARK_READ:
+          // mute marks thread as read also
+          if (m.isForThread(mutation.id))
+            return changed;
+          break;
+        case MUTE:
+          if (m.type == Type.MUTE && m.id == mutation.id)
+            return changed;
+          if (m.type == Type.MARK_READ && m.id == mutation.id) {
+            i.remove();
+            changed = true;
+          }
+          break;
+        case MARK_ALL_READ:
+          // threads marked read before are covered by newer mark all, but we have to keep mutes
+          if ((m.type == Type.MARK_READ && mutation.coversRepository(m.repositoryFullName))
+                  || (m.type == Type.MARK_ALL_READ && mutation.coversRepository(m.repositoryFullName))) {
+            i.remove();
+            changed = true;
+          }
+          break;
+        case UNWATCH:
+          if (m.type == Type.UNWATCH && m.id == mutation.id)
+            return changed;
+          break;
+      }
+    }
+    queue.add(mutation);
+    return true;
+  }
+
+  /**
+   * @return true if there is no pending mutation
+   */
+  public synchronized boolean isEmpty() {
+    init();
+    return queue.isEmpty();
+  }
+
+  /**
+   * Remove all pending mutations, eg. when user changes.
+   */
+  public synchronized void clear() {
+    queue = new ArrayList<Mutation>();
+    Utils.deleteFromStore(context, persistFile);
+  }
+
+  /**
+   * Apply pending mutations to notification stream, eg. reloaded from server.
+   *
+   * @param ns to apply mutations to, can be null
+   * @return true if stream has been changed
+   */
+  public synchronized boolean applyTo(NotificationStream ns) {
+    init();
+    return applyTo(queue, ns);
+  }
+
+  protected static boolean applyTo(List<Mutation> queue, NotificationStream ns) {
+    if (ns == null || queue.isEmpty())
+      return false;
+    List<Long> toRemove = new ArrayList<Long>();
+    for (Notification n : ns) {
+      for (Mutation m : queue) {
+        // notifications with new activity since user action must stay
+        if ((m.isForThread(n.getId()) || m.coversRepository(n.getRepositoryFullName())) && !isUpdatedAfter(n.getUpdatedAt(), m.timestamp)) {
+          toRemove.add(n.getId());
+          break;
+        }
+      }
+    }
+    for (Long id : toRemove) {
+      ns.removeNotificationById(id);
+    }
+    return !toRemove.isEmpty();
+  }
+
+  /**
+   * @param updatedAt of notification thread, can be null
+   * @param timestamp of user action
+   * @return true if thread has been updated after user action, so action must not be applied to it
+   */
+  protected static boolean isUpdatedAfter(Date updatedAt, long timestamp) {
+    return updatedAt != null && updatedAt.getTime() > timestamp;
+  }
+
+  /**
+   * Apply pending mutations to watched repositories, eg. reloaded from server.
+   *
+   * @param wr to apply mutations to, can be null
+   * @return true if list has been changed
+   */
+  public synchronized boolean applyTo(WatchedRepositories wr) {
+    init();
+    if (wr == null || queue.isEmpty())
+      return false;
+    boolean changed = false;
+    for (Mutation m : queue) {
+      if (m.type == Type.UNWATCH && wr.removeRepositoryById(m.id) != null)
+        changed = true;
+    }
+    return changed;
+  }
+
+  /**
+   * Send pending mutations to the server. Mutations waiting for retry after failure are skipped unless <code>force</code> is true. Network calls
+   * are performed in the calling thread, so do not call it from GUI thread!
+   *
+   * @param force if true then mutations waiting for retry are sent also, eg. when connectivity returns
+   * @return {@link LoadingStatus#OK} if all mutations has been sent or kept for retry due to connection problem, error status if user action is
+   * necessary to replay them (eg. authentication problem)
+   */
+  public LoadingStatus replay(boolean force) {
+    synchronized (replayLock) {
+      List<Mutation> toSend = new ArrayList<Mutation>();
+      long now = System.currentTimeMillis();
+      synchronized (this) {
+        init();
+        for (Mutation m : queue) {
+          if (force || m.nextAttemptTimestamp <= now)
+            toSend.add(m);
+        }
+      }
+      if (toSend.isEmpty())
+        return LoadingStatus.OK;
+
+      Log.d(TAG, "Replaying " + toSend.size() + " pending mutations");
+      GHCredentials credentials = AuthenticationManager.getInstance().getGhApiCredentials(context);
+      LoadingStatus ret = LoadingStatus.OK;
+      List<Mutation> done = new ArrayList<Mutation>();
+      // sent to server and failed, counted as attempt
+      List<Mutation> failed = new ArrayList<Mutation>();
+      // not sent or refused due to authentication, kept for later without counting attempt
+      List<Mutation> postponed = new ArrayList<Mutation>();
+      long retryAt = 0;
+      for (Mutation m : toSend) {
+        try {
+          send(credentials, m);
+          done.add(m);
+        } catch (NoRouteToHostException e) {
+          Log.d(TAG, "Replay stopped, connection not available");
+          break;
+        } catch (RequestBudgetExceededException e) {
+          Log.d(TAG, "Replay stopped due to API rate limit");
+          retryAt = e.getResetTimestamp();
+          postponed.addAll(toSend.subList(toSend.indexOf(m), toSend.size()));
+          break;
+        } catch (AuthenticationException e) {
+          // user actions are never dropped due to authentication, they wait for new login (queue is cleared if user changes)
+          Log.d(TAG, "Replay stopped due to authentication problem: " + e.getMessage());
+          ret = LoadingStatus.AUTH_ERROR;
+          postponed.addAll(toSend.subList(toSend.indexOf(m), toSend.size()));
+          break;
+        } catch (InvalidObjectException e) {
+          // thread or repository does not exist anymore, nothing to replay
+          Log.w(TAG, m + " dropped: " + e.getMessage());
+          done.add(m);
+        } catch (IOException e) {
+          Log.w(TAG, m + " failed due to connection problem: " + e.getMessage());
+          failed.add(m);
+        } catch (Exception e) {
+          Log.e(TAG, m + " failed due to: " + e.getMessage(), e);
+          failed.add(m);
+        }
+      }
+
+      synchronized (this) {
+        applyReplayResult(queue, done, failed, postponed, retryAt, now);
+        persist();
+        Log.d(TAG, done.size() + " mutations replayed, " + queue.size() + " pending");
+      }
+      return ret;
+    }
+  }
+
+  /**
+   * Update queue with result of replay.
+   *
+   * @param queue     to update
+   * @param done      mutations finished, removed from queue
+   * @param failed    mutations sent and failed, attempt is counted and they are dropped after {@link #MAX_ATTEMPTS}
+   * @param postponed mutations not sent (or refused due to authentication), kept without counting attempt
+   * @param retryAt   timestamp of the earliest next attempt, eg. rate limit reset [millis], 0 if not known
+   * @param now       current timestamp [millis]
+   */
+  protected static void applyReplayResult(List<Mutation> queue, List<Mutation> done, List<Mutation> failed, List<Mutation> postponed, long retryAt,
+                                          long now) {
+    queue.removeAll(done);
+    for (Mutation m : failed) {
+      m.attempts++;
+      if (m.attempts >= MAX_ATTEMPTS) {
+        Log.w(TAG, m + " dropped after " + m.attempts + " failed attempts");
+        queue.remove(m);
+      } else {
+        m.nextAttemptTimestamp = Math.max(retryAt, now + computeRetryDelay(m.attempts));
+      }
+    }
+    for (Mutation m : postponed) {
+      m.nextAttemptTimestamp = Math.max(retryAt, now + computeRetryDelay(Math.max(1, m.attempts)));
+    }
+  }
+
+  /**
+   * @param attempts number of failed attempts
+   * @return delay of the next attempt [millis]
+   */
+  protected static long computeRetryDelay(int attempts) {
+    return Math.min(RETRY_DELAY_MAX, RETRY_DELAY_MIN << Math.min(attempts - 1, 16));
+  }
+
+  private void send(GHCredentials credentials, Mutation m) throws Exception {
+    switch (m.type) {
+      case MUTE:
+        RemoteSystemClient.putToURL(context, credentials, getUrlThreads() + m.id + "/subscription", null, "{\"ignored\":true}");
+        // #49 mark it as read also to be removed from list, only this part is retried if it fails
+        synchronized (this) {
+          m.type = Type.MARK_READ;
+        }
+        markThreadRead(credentials, m);
+        break;
+      case MARK_READ:
+        markThreadRead(credentials, m);
+        break;
+      case MARK_ALL_READ:
+        String url = GHConstants.getUrlBase() + "/notifications";
+        if (m.repositoryFullName != null)
+          url = getUrlRepos() + m.repositoryFullName + "/notifications";
+        // notifications received after user action must stay unread if replayed later
+        RemoteSystemClient.putToURL(context, credentials, url, null, "{\"last_read_at\":\"" + formatTimestamp(m.timestamp) + "\"}");
+        break;
+      case UNWATCH:
+        RemoteSystemClient.deleteToURL(context, credentials, getUrlRepos() + m.repositoryFullName + "/subscription", null);
+        break;
+    }
+  }
+
+  private void markThreadRead(GHCredentials credentials, Mutation m) throws Exception {
+    // new activity in thread since user action must stay unread if replayed later
+    Response<JSONObject> resp = RemoteSystemClient.getJSONObjectFromUrl(context, credentials, getUrlThreads() + m.id, null);
+    Date updatedAt = resp.data != null ? NotificationStreamParser.parseDate(Utils.trimToNull(resp.data.optString("updated_at", null))) : null;
+    if (isUpdatedAfter(updatedAt, m.timestamp)) {
+      Log.i(TAG, m + " not replayed, thread has been updated after user action");
+      return;
+    }
+    RemoteSystemClient.postNoData(context, credentials, getUrlThreads() + m.id, null);
+  }
+
+  private static String getUrlThreads() {
+    return GHConstants.getUrlBase() + "/notifications/threads/";
+  }
+
+  private static String getUrlRepos() {
+    return GHConstants.getUrlBase() + "/repos/";
+  }
+
+  protected static String formatTimestamp(long timestamp) {
+    SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+    df.setTimeZone(TimeZone.getTimeZone("UTC"));
+    return df.format(new Date(timestamp));
+  }
+
+}
@@ -43,6 +43,7 @@ public class PreferencesUtils {
   public static final String PREF_SERVER_CHECK_FULL = "pref_serverCheckFull";
   public static final String PREF_SERVER_DETAIL_LOADING = "pref_serverDetailLoading";
   public static final String PREF_SERVER_LABELS_LOADING = "pref_serverLabelsLoading";
+  public static final String PREF_STORE_DATABASE = "pref_storeDatabase";
   public static final String PREF_NOTIFY = "pref_notify";
   public static final String PREF_NOTIFY_VIBRATE = "pref_notifyVibrate";
   public static final String PREF_NOTIFY_SOUND = "pref_notifySound";
@@ -75,6 +76,9 @@ public class PreferencesUtils {
   public static final String INT_SERVERINFO_APILIMITRESETTIMESTAMP = "pref_serverInfo_APILimitResetTimestamp";
   public static final String INT_SERVERINFO_LASTREQUESTDURATION = "pref_serverInfo_lastRequestDuration";
   public static final String INT_SERVERINFO_LASTUNREADNOTIFBACKREQUESTTIMESTAMP = "pref_serverInfo_lastUnredNotifBackRequestTimestamp";
+  public static final String INT_SERVERINFO_CONNECTIONPOOL = "pref_serverInfo_connectionPool";
+  public static final String INT_SERVERINFO_LATENCY = "pref_serverInfo_latency";
+  public static final String INT_SERVERINFO_TRAFFIC = "pref_serverInfo_traffic";
 
   public static final String PREF_LOG_GITHUB_API_CALL_ERROR_TO_FILE = "pref_logGithubAPiCallErrorToFile";
 
@@ -26,6 +26,7 @@ import android.content.Context;
 import android.util.Log;
 
 import com.daskiworks.ghwatch.auth.AuthenticationManager;
+import com.daskiworks.ghwatch.backend.RequestBudgetManager.Priority;
 import com.daskiworks.ghwatch.backend.RemoteSystemClient.Response;
 import com.daskiworks.ghwatch.model.BaseViewData;
 import com.daskiworks.ghwatch.model.LoadingStatus;
@@ -84,11 +85,23 @@ public abstract class RemoteJSONObjectGetTemplate<T extends BaseViewData, U> {
    * @return view representation of loaded data with appropriate status
    */
   public T loadData(String apiUrl, U inputObject) {
+    return loadData(apiUrl, inputObject, Priority.INTERACTIVE);
+  }
+
+  /**
+   * Load data from remote system with given request priority. Thread safe implementation is a plus.
+   *
+   * @param apiUrl to load data from. Can be null, but data error response is returned in this case
+   * @param inputObject optional input object to be used in {@link #processData(JSONObject, BaseViewData, Object)}
+   * @param priority of request for {@link RequestBudgetManager}
+   * @return view representation of loaded data with appropriate status
+   */
+  public T loadData(String apiUrl, U inputObject, Priority priority) {
     T ret = createResponseObject();
     if (apiUrl != null) {
       try {
         Log.d(TAG, logName + " loading data from: " + apiUrl);
-        Response<JSONObject> resp = RemoteSystemClient.getJSONObjectFromUrl(context, authenticationManager.getGhApiCredentials(context), apiUrl, null);
+        Response<JSONObject> resp = RemoteSystemClient.getJSONObjectFromUrl(context, authenticationManager.getGhApiCredentials(context), apiUrl, null, priority);
         processData(resp.data, ret, inputObject);
       } catch (InvalidObjectException e) {
         ret.loadingStatus = LoadingStatus.DATA_ERROR;
@@ -97,6 +110,8 @@ public abstract class RemoteJSONObjectGetTemplate<T extends BaseViewData, U> {
         ret.loadingStatus = LoadingStatus.CONN_UNAVAILABLE;
       } catch (AuthenticationException e) {
         ret.loadingStatus = LoadingStatus.AUTH_ERROR;
+      } catch (RequestBudgetExceededException e) {
+        ret.loadingStatus = LoadingStatus.RATE_LIMITED;
       } catch (IOException e) {
         Log.w(TAG, logName + " loading failed due to connection problem: " + e.getMessage());
         ret.loadingStatus = LoadingStatus.CONN_ERROR;
@@ -16,35 +16,41 @@
 package com.daskiworks.ghwatch.backend;
 
 import android.content.Context;
-import android.content.SharedPreferences;
-import android.preference.PreferenceManager;
 import android.text.format.DateFormat;
 import android.util.Log;
 
 import com.daskiworks.ghwatch.Utils;
+import com.daskiworks.ghwatch.backend.RequestBudgetManager.Priority;
 import com.daskiworks.ghwatch.model.GHCredentials;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.InvalidObjectException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.io.Serializable;
 import java.net.NoRouteToHostException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
 
 
@@ -71,9 +77,6 @@ import cz.msebera.android.httpclient.client.methods.HttpRequestBase;
 import cz.msebera.android.httpclient.client.protocol.ClientContext;
 import cz.msebera.android.httpclient.entity.StringEntity;
 import cz.msebera.android.httpclient.impl.auth.BasicScheme;
-import cz.msebera.android.httpclient.impl.client.DefaultHttpClient;
-import cz.msebera.android.httpclient.params.HttpConnectionParams;
-import cz.msebera.android.httpclient.params.HttpParams;
 import cz.msebera.android.httpclient.protocol.ExecutionContext;
 import cz.msebera.android.httpclient.protocol.HttpContext;
 
@@ -93,15 +96,33 @@ public class RemoteSystemClient {
     public boolean notModified = false;
     public Long poolInterval;
     public String lastModified;
+    public String etag;
     public String rateLimit;
     public String rateLimitRemaining;
     public Long rateLimitReset;
+    /**
+     * Rate limit bucket the rate limit values belong to, eg. <code>core</code> for REST API or <code>graphql</code>.
+     */
+    public String rateLimitResource;
 
     public long requestStartTime;
     public long requestStopTime;
     public long requestDuration;
 
+    /**
+     * Number of response content bytes read from network (before decompression).
+     */
+    public long contentBytes;
+
     public String linkNext;
+    public String linkLast;
+
+    /**
+     * @return true if rate limit values of this response belong to REST API quota (<code>core</code> resource)
+     */
+    public boolean isCoreRateLimit() {
+      return rateLimitResource == null || RATE_LIMIT_RESOURCE_CORE.equals(rateLimitResource);
+    }
 
     protected void snapRequestDuration() {
       requestStopTime = System.currentTimeMillis();
@@ -112,18 +133,29 @@ public class RemoteSystemClient {
       r2.notModified = notModified;
       r2.poolInterval = poolInterval;
       r2.lastModified = lastModified;
+      r2.etag = etag;
       r2.rateLimit = rateLimit;
       r2.rateLimitRemaining = rateLimitRemaining;
       r2.rateLimitReset = rateLimitReset;
+      r2.rateLimitResource = rateLimitResource;
       r2.requestDuration = requestDuration;
       r2.requestStartTime = requestStartTime;
       r2.requestStopTime = requestStopTime;
+      r2.contentBytes = contentBytes;
       r2.linkNext = linkNext;
+      r2.linkLast = linkLast;
     }
   }
 
   private static final String TAG = "RemoteSystemClient";
 
+  /**
+   * Value of <code>X-RateLimit-Resource</code> header for REST API quota. Other resources (eg. <code>graphql</code>) have own quota.
+   */
+  public static final String RATE_LIMIT_RESOURCE_CORE = "core";
+
+  private static final Pattern PAGE_PARAM_PATTERN = Pattern.compile("([?&]page=)(\\d+)");
+
   private static File errorLogFile;
 
 
@@ -172,7 +204,7 @@ public class RemoteSystemClient {
    */
   public static Response<JSONArray> getJSONArrayFromUrl(Context context, GHCredentials apiCredentials, String url, Map<String, String> headers)
           throws AuthenticationException, IOException, JSONException, URISyntaxException {
-    Response<String> wr = readInternetDataGet(context, apiCredentials, url, headers);
+    Response<String> wr = readInternetDataGet(context, apiCredentials, url, headers, STRING_PARSER, Priority.INTERACTIVE);
     Response<JSONArray> ret = new Response<JSONArray>();
     wr.fill(ret);
     if (!wr.notModified) {
@@ -183,6 +215,9 @@ public class RemoteSystemClient {
 
   /**
    * Get JSON object from specified url. It is contained in <code>list</code> item of output JSON
+   * <p/>
+   * If no <code>headers</code> are passed then request is conditional based on validators from {@link HttpValidatorCache}, and cached body is
+   * returned if server responds with <code>304 Not Modified</code>.
    *
    * @param context used to get services over
    * @param url     to load data from
@@ -195,35 +230,155 @@ public class RemoteSystemClient {
    */
   public static Response<JSONObject> getJSONObjectFromUrl(Context context, GHCredentials apiCredentials, String url, Map<String, String> headers)
           throws AuthenticationException, IOException, JSONException, URISyntaxException {
-    Response<String> wr = readInternetDataGet(context, apiCredentials, url, headers);
+    return getJSONObjectFromUrl(context, apiCredentials, url, headers, Priority.INTERACTIVE);
+  }
+
+  /**
+   * Get JSON object from specified url with given request priority.
+   *
+   * @param priority of request for {@link RequestBudgetManager}
+   * @throws RequestBudgetExceededException if request is refused due to low API rate limit remaining
+   * @see #getJSONObjectFromUrl(Context, GHCredentials, String, Map)
+   */
+  public static Response<JSONObject> getJSONObjectFromUrl(Context context, GHCredentials apiCredentials, String url, Map<String, String> headers,
+                                                          Priority priority) throws AuthenticationException, IOException, JSONException, URISyntaxException {
+    HttpValidatorCache cache = null;
+    HttpValidatorCache.Entry cached = null;
+    if (headers == null) {
+      cache = HttpValidatorCache.getInstance(context);
+      cached = cache.get(url);
+      if (cached != null) {
+        headers = new HashMap<String, String>();
+        cached.addConditionalHeaders(headers);
+      }
+    }
+    Response<String> wr = readInternetDataGet(context, apiCredentials, url, headers, STRING_PARSER, priority);
     Response<JSONObject> ret = new Response<JSONObject>();
     wr.fill(ret);
     if (!wr.notModified) {
       ret.data = new JSONObject(wr.data);
+      if (cache != null)
+        cache.put(url, wr.etag, wr.lastModified, wr.data);
+    } else if (cached != null) {
+      Log.d(TAG, "Serving cached content for " + url);
+      ret.notModified = false;
+      ret.data = new JSONObject(cached.body);
     }
     return ret;
   }
 
-  private static Response<String> readInternetDataGet(Context context, GHCredentials apiCredentials, String url, Map<String, String> headers)
-          throws URISyntaxException, IOException, AuthenticationException {
+  /**
+   * Get data from specified url. Response content is passed to the <code>parser</code> directly as a stream, so no intermediate copies of the
+   * whole response are created.
+   *
+   * @param context        used to get services over
+   * @param apiCredentials to authenticate request with
+   * @param url            to load data from
+   * @param headers        to be added to the request, can be null
+   * @param parser         used to parse response content
+   * @return response with data returned from parser
+   * @throws NoRouteToHostException  if internet connection is not available
+   * @throws AuthenticationException if authentication fails
+   * @throws IOException             if there is problem during data readig from server
+   * @throws JSONException           if returned JSON is invalid
+   * @throws URISyntaxException      if url is invalid
+   */
+  public static <T> Response<T> getStreamedDataFromUrl(Context context, GHCredentials apiCredentials, String url, Map<String, String> headers,
+                                                       IResponseContentParser<T> parser) throws AuthenticationException, IOException, JSONException, URISyntaxException {
+    return readInternetDataGet(context, apiCredentials, url, headers, parser, Priority.INTERACTIVE);
+  }
+
+  /**
+   * Get data from specified url with given request priority.
+   *
+   * @param priority of request for {@link RequestBudgetManager}
+   * @throws RequestBudgetExceededException if request is refused due to low API rate limit remaining
+   * @see #getStreamedDataFromUrl(Context, GHCredentials, String, Map, IResponseContentParser)
+   */
+  public static <T> Response<T> getStreamedDataFromUrl(Context context, GHCredentials apiCredentials, String url, Map<String, String> headers,
+                                                       IResponseContentParser<T> parser, Priority priority)
+          throws AuthenticationException, IOException, JSONException, URISyntaxException {
+    return readInternetDataGet(context, apiCredentials, url, headers, parser, priority);
+  }
+
+  /**
+   * Parser of the response content used by {@link #getStreamedDataFromUrl(Context, GHCredentials, String, Map, IResponseContentParser)}
+   *
+   * @param <T> type of parsed data
+   */
+  public static interface IResponseContentParser<T> {
+
+    /**
+     * Parse response content. Do not close stream, it is handled by caller.
+     * <p/>
+     * Identical concurrent requests using parser of the same class are coalesced by {@link RequestCoalescer}, so parser must not write data
+     * anywhere else than into returned object, and callers must not change returned object as it may be shared.
+     *
+     * @param content of the response, already decompressed if compression is used
+     * @return parsed data
+     */
+    public T parse(InputStream content) throws IOException, JSONException;
+  }
+
+  private static final IResponseContentParser<String> STRING_PARSER = new IResponseContentParser<String>() {
+    @Override
+    public String parse(InputStream content) throws IOException {
+      return readStreamAsString(content);
+    }
+  };
+
+  private static <T> Response<T> readInternetDataGet(final Context context, final GHCredentials apiCredentials, final String url,
+                                                     final Map<String, String> headers, final IResponseContentParser<T> parser, final Priority priority)
+          throws URISyntaxException, IOException, AuthenticationException, JSONException {
     if (!Utils.isInternetConnectionAvailable(context))
       throw new NoRouteToHostException("Network not available");
 
+    StringBuilder key = new StringBuilder();
+    key.append("GET ").append(url).append(" ").append(headers != null ? new TreeMap<String, String>(headers) : "{}").append(" ")
+            .append(parser.getClass().getName()).append(" ").append(apiCredentials != null ? apiCredentials.getUsername() : "");
+    try {
+      return RequestCoalescer.getInstance().execute(key.toString(), new RequestCoalescer.ICall<Response<T>>() {
+        @Override
+        public Response<T> call() throws Exception {
+          return readInternetDataGetImpl(context, apiCredentials, url, headers, parser, priority);
+        }
+      });
+    } catch (URISyntaxException e) {
+      throw e;
+    } catch (AuthenticationException e) {
+      throw e;
+    } catch (JSONException e) {
+      throw e;
+    } catch (IOException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (InterruptedException e) {
+      throw new InterruptedIOException("GET request interrupted");
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+
+  private static <T> Response<T> readInternetDataGetImpl(Context context, GHCredentials apiCredentials, String url, Map<String, String> headers,
+                                                         IResponseContentParser<T> parser, Priority priority)
+          throws URISyntaxException, IOException, AuthenticationException, JSONException {
+    RequestBudgetManager.getInstance(context).checkBudget(priority, url);
+
     Log.d(TAG, "Going to perform GET request to " + url);
 
+    HttpResponse httpResponse = null;
     try {
       URI uri = new URI(url);
-      DefaultHttpClient httpClient = prepareHttpClient(uri);
-
       HttpGet httpGet = new HttpGet(uri);
       setAuthenticationHeader(httpGet, apiCredentials);
       setHeaders(httpGet, requestGzipCompression(headers));
 
       // create response object here to measure request duration
-      Response<String> ret = new Response<String>();
+      Response<T> ret = new Response<T>();
       ret.requestStartTime = System.currentTimeMillis();
 
-      HttpResponse httpResponse = httpClient.execute(httpGet);
+      httpResponse = RemoteSystemConnectionPool.getInstance().execute(httpGet);
       int code = httpResponse.getStatusLine().getStatusCode();
 
       parseResponseHeaders(context, httpResponse, ret);
@@ -231,18 +386,27 @@ public class RemoteSystemClient {
       if (code == HttpStatus.SC_NOT_MODIFIED) {
         ret.notModified = true;
         ret.snapRequestDuration();
-        writeReponseInfo(ret, context);
+        writeReponseInfo(context, url, ret);
         return ret;
       }
       processStandardHttpResponseCodes(httpResponse);
 
-      ret.data = getResponseContentAsString(httpResponse);
+      InputStream is = getResponseContentStream(httpResponse, ret);
+      if (is != null) {
+        try {
+          ret.data = parser.parse(is);
+        } finally {
+          is.close();
+        }
+      }
       ret.snapRequestDuration();
-      writeReponseInfo(ret, context);
+      writeReponseInfo(context, url, ret);
       return ret;
     } catch (IOException e) {
       logGithubAPiCallError(context, e);
       throw e;
+    } finally {
+      RemoteSystemConnectionPool.releaseConnection(httpResponse);
     }
   }
 
@@ -262,38 +426,73 @@ public class RemoteSystemClient {
   }
 
   protected static String getResponseContentAsString(HttpResponse httpResponse) throws IOException {
+    return getResponseContentAsString(httpResponse, null);
+  }
+
+  protected static String getResponseContentAsString(HttpResponse httpResponse, Response<?> ret) throws IOException {
+    InputStream is = getResponseContentStream(httpResponse, ret);
+    if (is == null)
+      return null;
+    try {
+      return readStreamAsString(is);
+    } finally {
+      is.close();
+    }
+  }
+
+  /**
+   * Get content of the response as stream. Handles gzip compression if used by the server.
+   *
+   * @param httpResponse to get content from
+   * @return content stream or null if response has no content. Must be closed by caller.
+   * @throws IOException
+   */
+  protected static InputStream getResponseContentStream(HttpResponse httpResponse) throws IOException {
+    return getResponseContentStream(httpResponse, null);
+  }
+
+  /**
+   * Get response content stream, decompressed if compression is used by the server.
+   *
+   * @param httpResponse to get content from
+   * @param ret          response to count read content bytes into, can be null
+   * @return content stream or null if there is no content
+   * @throws IOException
+   */
+  protected static InputStream getResponseContentStream(HttpResponse httpResponse, Response<?> ret) throws IOException {
     if (httpResponse == null)
       return null;
     HttpEntity httpEntity = httpResponse.getEntity();
-    if (httpEntity != null) {
-      InputStream is = httpEntity.getContent();
-      //handle gzip compression if used by the server
-      if ("gzip".equals(getHeaderValue(httpResponse, "Content-Encoding"))) {
-        is = new GZIPInputStream(is);
-      }
-
-      try {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"), 50);
-        String line = null;
-        StringBuilder sb = new StringBuilder();
-        while ((line = reader.readLine()) != null) {
-          sb.append(line + "\n");
-        }
-        return sb.toString();
-      } finally {
-        if (is != null)
-          is.close();
-      }
-    } else {
+    if (httpEntity == null)
       return null;
+    InputStream is = httpEntity.getContent();
+    if (is != null && ret != null) {
+      is = new CountingInputStream(is, ret);
+    }
+    //handle gzip compression if used by the server
+    if (is != null && "gzip".equals(getHeaderValue(httpResponse, "Content-Encoding"))) {
+      is = new GZIPInputStream(is, 8192);
+    }
+    return is;
+  }
+
+  private static String readStreamAsString(InputStream is) throws IOException {
+    Reader reader = new InputStreamReader(is, "UTF-8");
+    StringBuilder sb = new StringBuilder();
+    char[] buffer = new char[4096];
+    int count;
+    while ((count = reader.read(buffer)) != -1) {
+      sb.append(buffer, 0, count);
     }
+    return sb.toString();
   }
 
   protected static void setHeaders(HttpRequestBase httpRequest, Map<String, String> headers) {
     httpRequest.setHeader("User-Agent", "GH::watch");
     if (headers != null) {
       for (Entry<String, String> he : headers.entrySet()) {
-        Log.d(TAG, "Set request header " + he.getKey() + ":" + he.getValue());
+        // never write credentials into log
+        Log.d(TAG, "Set request header " + he.getKey() + ":" + ("Authorization".equalsIgnoreCase(he.getKey()) ? "***" : he.getValue()));
         httpRequest.setHeader(he.getKey(), he.getValue());
       }
     }
@@ -303,12 +502,12 @@ public class RemoteSystemClient {
           URISyntaxException, IOException, AuthenticationException {
     if (!Utils.isInternetConnectionAvailable(context))
       throw new NoRouteToHostException("Network not available");
+    RequestBudgetManager.getInstance(context).checkBudget(Priority.INTERACTIVE, url);
     Log.d(TAG, "Going to perform POST request to " + url);
 
+    HttpResponse httpResponse = null;
     try {
       URI uri = new URI(url);
-      DefaultHttpClient httpClient = prepareHttpClient(uri);
-
       HttpPost httpPost = new HttpPost(uri);
       setAuthenticationHeader(httpPost, apiCredentials);
       setHeaders(httpPost, headers);
@@ -317,17 +516,19 @@ public class RemoteSystemClient {
       Response<String> ret = new Response<String>();
       ret.requestStartTime = System.currentTimeMillis();
 
-      HttpResponse httpResponse = httpClient.execute(httpPost);
+      httpResponse = RemoteSystemConnectionPool.getInstance().execute(httpPost);
       parseResponseHeaders(context, httpResponse, ret);
 
       processStandardHttpResponseCodes(httpResponse);
 
       ret.snapRequestDuration();
-      writeReponseInfo(ret, context);
+      writeReponseInfo(context, url, ret);
       return ret;
     } catch (IOException e) {
       logGithubAPiCallError(context, e);
       throw e;
+    } finally {
+      RemoteSystemConnectionPool.releaseConnection(httpResponse);
     }
   }
 
@@ -341,17 +542,77 @@ public class RemoteSystemClient {
     request.setHeader("Content-Type", "application/json; charset=utf-8");
   }
 
+  /**
+   * Perform POST request with JSON content, eg. GraphQL query.
+   *
+   * @param context        used to get services over
+   * @param apiCredentials to authenticate request with
+   * @param url            to post to
+   * @param headers        to be added to the request, can be null
+   * @param content        JSON content to post
+   * @param priority       of request for {@link RequestBudgetManager}
+   * @return response with response content as string
+   * @throws NoRouteToHostException         if internet connection is not available
+   * @throws AuthenticationException        if authentication fails
+   * @throws RequestBudgetExceededException if request is refused due to low API rate limit remaining
+   * @throws IOException                    if there is problem during data readig from server
+   * @throws URISyntaxException             if url is invalid
+   */
+  public static Response<String> postToURL(Context context, GHCredentials apiCredentials, String url, Map<String, String> headers, String content,
+                                           Priority priority) throws URISyntaxException, IOException, AuthenticationException {
+    if (!Utils.isInternetConnectionAvailable(context))
+      throw new NoRouteToHostException("Network not available");
+    RequestBudgetManager.getInstance(context).checkBudget(priority, url);
+
+    Log.d(TAG, "Going to perform POST request with content to " + url);
+
+    HttpResponse httpResponse = null;
+    try {
+      URI uri = new URI(url);
+
+      HttpPost httpPost = new HttpPost(uri);
+
+      setAuthenticationHeader(httpPost, apiCredentials);
+      setJsonContentTypeHeader(httpPost);
+      setHeaders(httpPost, requestGzipCompression(headers));
+
+      if (content != null)
+        httpPost.setEntity(new StringEntity(content, "UTF-8"));
+
+      // create response object here to measure request duration
+      Response<String> ret = new Response<String>();
+      ret.requestStartTime = System.currentTimeMillis();
+
+      httpResponse = RemoteSystemConnectionPool.getInstance().execute(httpPost);
+
+      parseResponseHeaders(context, httpResponse, ret);
+
+      processStandardHttpResponseCodes(httpResponse);
+
+      ret.data = getResponseContentAsString(httpResponse, ret);
+
+      ret.snapRequestDuration();
+      writeReponseInfo(context, url, ret);
+      return ret;
+    } catch (IOException e) {
+      logGithubAPiCallError(context, e);
+      throw e;
+    } finally {
+      RemoteSystemConnectionPool.releaseConnection(httpResponse);
+    }
+  }
+
   public static Response<String> putToURL(Context context, GHCredentials apiCredentials, String url, Map<String, String> headers, String content)
           throws URISyntaxException, IOException, AuthenticationException {
     if (!Utils.isInternetConnectionAvailable(context))
       throw new NoRouteToHostException("Network not available");
+    RequestBudgetManager.getInstance(context).checkBudget(Priority.INTERACTIVE, url);
 
     Log.d(TAG, "Going to perform PUT request to " + url);
 
+    HttpResponse httpResponse = null;
     try {
       URI uri = new URI(url);
-      DefaultHttpClient httpClient = prepareHttpClient(uri);
-
 
       HttpPut httpPut = new HttpPut(uri);
 
@@ -366,20 +627,22 @@ public class RemoteSystemClient {
       Response<String> ret = new Response<String>();
       ret.requestStartTime = System.currentTimeMillis();
 
-      HttpResponse httpResponse = httpClient.execute(httpPut);
+      httpResponse = RemoteSystemConnectionPool.getInstance().execute(httpPut);
 
       parseResponseHeaders(context, httpResponse, ret);
 
       processStandardHttpResponseCodes(httpResponse);
 
-      ret.data = getResponseContentAsString(httpResponse);
+      ret.data = getResponseContentAsString(httpResponse, ret);
 
       ret.snapRequestDuration();
-      writeReponseInfo(ret, context);
+      writeReponseInfo(context, url, ret);
       return ret;
     } catch (IOException e) {
       logGithubAPiCallError(context, e);
       throw e;
+    } finally {
+      RemoteSystemConnectionPool.releaseConnection(httpResponse);
     }
   }
 
@@ -387,11 +650,11 @@ public class RemoteSystemClient {
           throws URISyntaxException, IOException, AuthenticationException {
     if (!Utils.isInternetConnectionAvailable(context))
       throw new NoRouteToHostException("Network not available");
+    RequestBudgetManager.getInstance(context).checkBudget(Priority.INTERACTIVE, url);
 
+    HttpResponse httpResponse = null;
     try {
       URI uri = new URI(url);
-      DefaultHttpClient httpClient = prepareHttpClient(uri);
-
       HttpDelete httpPut = new HttpDelete(uri);
       setAuthenticationHeader(httpPut, apiCredentials);
       setHeaders(httpPut, requestGzipCompression(headers));
@@ -400,20 +663,22 @@ public class RemoteSystemClient {
       Response<String> ret = new Response<String>();
       ret.requestStartTime = System.currentTimeMillis();
 
-      HttpResponse httpResponse = httpClient.execute(httpPut);
+      httpResponse = RemoteSystemConnectionPool.getInstance().execute(httpPut);
 
       parseResponseHeaders(context, httpResponse, ret);
 
       processStandardHttpResponseCodes(httpResponse);
 
-      ret.data = getResponseContentAsString(httpResponse);
+      ret.data = getResponseContentAsString(httpResponse, ret);
 
       ret.snapRequestDuration();
-      writeReponseInfo(ret, context);
+      writeReponseInfo(context, url, ret);
       return ret;
     } catch (IOException e) {
       logGithubAPiCallError(context, e);
       throw e;
+    } finally {
+      RemoteSystemConnectionPool.releaseConnection(httpResponse);
     }
   }
 
@@ -435,21 +700,15 @@ public class RemoteSystemClient {
     }
   }
 
-  protected static DefaultHttpClient prepareHttpClient(URI uri) {
-    DefaultHttpClient httpClient = new DefaultHttpClient();
-    HttpParams params = httpClient.getParams();
-    HttpConnectionParams.setConnectionTimeout(params, 30000);
-    HttpConnectionParams.setSoTimeout(params, 30000);
-    return httpClient;
-  }
-
-  protected static void parseResponseHeaders(Context context, HttpResponse httpResponse, Response<String> ret) {
+  protected static void parseResponseHeaders(Context context, HttpResponse httpResponse, Response<?> ret) {
     if (Log.isLoggable(TAG, Log.DEBUG))
       Log.d(TAG, "HTTP Response headers: " + dumpHeaders(httpResponse.getAllHeaders()));
 
     ret.lastModified = getHeaderValue(httpResponse, "Last-Modified");
+    ret.etag = getHeaderValue(httpResponse, "ETag");
     ret.rateLimit = getHeaderValue(httpResponse, "X-RateLimit-Limit");
     ret.rateLimitRemaining = getHeaderValue(httpResponse, "X-RateLimit-Remaining");
+    ret.rateLimitResource = getHeaderValue(httpResponse, "X-RateLimit-Resource");
 
     String v = getHeaderValue(httpResponse, "X-RateLimit-Reset");
     if (v != null) {
@@ -474,12 +733,46 @@ public class RemoteSystemClient {
     if (linkH != null) {
       for (String linkPart : linkH.split(",")) {
         if (linkPart != null && linkPart.contains("rel=\"next\"")) {
-          linkPart = linkPart.trim();
-          ret.linkNext = Utils.trimToNull(linkPart.substring(linkPart.indexOf("<")+1, linkPart.indexOf(">;")));
+          ret.linkNext = parseLinkUrl(linkPart);
+        } else if (linkPart != null && linkPart.contains("rel=\"last\"")) {
+          ret.linkLast = parseLinkUrl(linkPart);
         }
       }
     }
-    Log.d(TAG, "Response Link.next parsed: " + ret.linkNext);
+    Log.d(TAG, "Response Link.next parsed: " + ret.linkNext + ", Link.last parsed: " + ret.linkLast);
+
+    RequestBudgetManager.getInstance(context).updateFromResponse(ret);
+  }
+
+  private static String parseLinkUrl(String linkPart) {
+    linkPart = linkPart.trim();
+    return Utils.trimToNull(linkPart.substring(linkPart.indexOf("<") + 1, linkPart.indexOf(">;")));
+  }
+
+  /**
+   * Get urls of all remaining pages of paged response, so they can be loaded in parallel. Urls are constructed from <code>Link</code> header
+   * <code>rel="next"</code> and <code>rel="last"</code> urls by replacing <code>page</code> param.
+   *
+   * @param response to get page urls for
+   * @return list of urls of remaining pages in server order, empty if there is no other page, null if urls can't be constructed (sequential
+   * loading over {@link Response#linkNext} has to be used then)
+   */
+  public static List<String> getRemainingPageUrls(Response<?> response) {
+    List<String> ret = new ArrayList<String>();
+    if (response.linkNext == null)
+      return ret;
+    if (response.linkLast == null)
+      return null;
+    Matcher mNext = PAGE_PARAM_PATTERN.matcher(response.linkNext);
+    Matcher mLast = PAGE_PARAM_PATTERN.matcher(response.linkLast);
+    if (!mNext.find() || !mLast.find())
+      return null;
+    int first = Integer.parseInt(mNext.group(2));
+    int last = Integer.parseInt(mLast.group(2));
+    for (int page = first; page <= last; page++) {
+      ret.add(mLast.replaceFirst("$1" + page));
+    }
+    return ret;
   }
 
   private static String dumpHeaders(Header[] headers) {
@@ -493,14 +786,37 @@ public class RemoteSystemClient {
     return sb.toString();
   }
 
-  private static void writeReponseInfo(Response<?> response, Context context) {
-    SharedPreferences sharedPref = PreferenceManager.getDefaultSharedPreferences(context);
-    SharedPreferences.Editor editor = sharedPref.edit();
-    editor.putString(PreferencesUtils.INT_SERVERINFO_APILIMIT, response.rateLimit);
-    editor.putString(PreferencesUtils.INT_SERVERINFO_APILIMITREMAINING, response.rateLimitRemaining);
-    editor.putString(PreferencesUtils.INT_SERVERINFO_APILIMITRESETTIMESTAMP, response.rateLimitReset + "");
-    editor.putString(PreferencesUtils.INT_SERVERINFO_LASTREQUESTDURATION, response.requestDuration + "");
-    editor.commit();
+  private static void writeReponseInfo(Context context, String url, Response<?> response) {
+    ServerInfoMetrics.getInstance(context).recordResponse(url, response);
+  }
+
+  /**
+   * Stream counting bytes read into {@link Response#contentBytes}.
+   */
+  private static class CountingInputStream extends FilterInputStream {
+
+    private final Response<?> response;
+
+    CountingInputStream(InputStream in, Response<?> response) {
+      super(in);
+      this.response = response;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0)
+        response.contentBytes++;
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int c = super.read(b, off, len);
+      if (c > 0)
+        response.contentBytes += c;
+      return c;
+    }
   }
 
   private static String getHeaderValue(HttpResponse httpResponse, String headerName) {
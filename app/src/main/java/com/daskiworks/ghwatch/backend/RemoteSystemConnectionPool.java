@@ -0,0 +1,268 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cz.msebera.android.httpclient.HttpHost;
+import cz.msebera.android.httpclient.HttpResponse;
+import cz.msebera.android.httpclient.client.config.RequestConfig;
+import cz.msebera.android.httpclient.client.methods.HttpRequestBase;
+import cz.msebera.android.httpclient.config.ConnectionConfig;
+import cz.msebera.android.httpclient.config.Registry;
+import cz.msebera.android.httpclient.config.RegistryBuilder;
+import cz.msebera.android.httpclient.conn.ConnectionKeepAliveStrategy;
+import cz.msebera.android.httpclient.conn.HttpConnectionFactory;
+import cz.msebera.android.httpclient.conn.ManagedHttpClientConnection;
+import cz.msebera.android.httpclient.conn.routing.HttpRoute;
+import cz.msebera.android.httpclient.conn.socket.ConnectionSocketFactory;
+import cz.msebera.android.httpclient.conn.socket.PlainConnectionSocketFactory;
+import cz.msebera.android.httpclient.conn.ssl.SSLConnectionSocketFactory;
+import cz.msebera.android.httpclient.impl.client.CloseableHttpClient;
+import cz.msebera.android.httpclient.impl.client.DefaultConnectionKeepAliveStrategy;
+import cz.msebera.android.httpclient.impl.client.HttpClientBuilder;
+import cz.msebera.android.httpclient.impl.conn.ManagedHttpClientConnectionFactory;
+import cz.msebera.android.httpclient.impl.conn.PoolingHttpClientConnectionManager;
+import cz.msebera.android.httpclient.pool.PoolStats;
+import cz.msebera.android.httpclient.protocol.HttpContext;
+import cz.msebera.android.httpclient.util.EntityUtils;
+
+/**
+ * Shared, thread safe HTTP transport used by {@link RemoteSystemClient} for all calls to GitHub API. Connections are pooled and kept alive, so
+ * subsequent requests (paging, notification detail loading, marking as read) do not pay for new TCP and TLS handshake every time.
+ * <p/>
+ * Response entity of every executed request must be consumed or released by {@link #releaseConnection(HttpResponse)} so connection is returned
+ * back to the pool.
+ */
+public class RemoteSystemConnectionPool {
+
+  private static final String TAG = "RemoteSystemConnPool";
+
+  /**
+   * Default maximal number of connections in the pool.
+   */
+  public static final int DEFAULT_MAX_CONNECTIONS_TOTAL = 10;
+
+  /**
+   * Default maximal number of concurrent connections to one host (eg. api.github.com).
+   */
+  public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 5;
+
+  /**
+   * Connection and socket timeout [millis]
+   */
+  private static final int TIMEOUT = 30000;
+
+  /**
+   * Max time idle connection is kept alive in the pool [millis]. Used also if server do not send Keep-Alive header.
+   */
+  private static final long KEEP_ALIVE_MAX = 60 * 1000L;
+
+  private static RemoteSystemConnectionPool instance = null;
+
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final CloseableHttpClient httpClient;
+
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong connectionCount = new AtomicLong();
+
+  /**
+   * Get instance of pool for use.
+   *
+   * @return pool instance
+   */
+  public static synchronized RemoteSystemConnectionPool getInstance() {
+    if (instance == null) {
+      instance = new RemoteSystemConnectionPool();
+    }
+    return instance;
+  }
+
+  private RemoteSystemConnectionPool() {
+    Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", SSLConnectionSocketFactory.getSocketFactory())
+            .build();
+
+    connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry, new CountingConnectionFactory());
+    connectionManager.setMaxTotal(DEFAULT_MAX_CONNECTIONS_TOTAL);
+    connectionManager.setDefaultMaxPerRoute(DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    connectionManager.setValidateAfterInactivity(10000);
+
+    RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(TIMEOUT)
+            .setSocketTimeout(TIMEOUT)
+            .setConnectionRequestTimeout(TIMEOUT)
+            .build();
+
+    // gzip is handled by RemoteSystemClient itself and we do not want cookies from API
+    httpClient = HttpClientBuilder.create()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .setKeepAliveStrategy(new LimitedKeepAliveStrategy())
+            .disableContentCompression()
+            .disableCookieManagement()
+            .evictExpiredConnections()
+            .evictIdleConnections(KEEP_ALIVE_MAX, TimeUnit.MILLISECONDS)
+            .build();
+  }
+
+  /**
+   * Set limit of concurrent connections for all hosts.
+   *
+   * @param maxTotal     maximal number of connections in the pool
+   * @param maxPerHost   maximal number of connections to one host
+   */
+  public void setConnectionLimits(int maxTotal, int maxPerHost) {
+    connectionManager.setMaxTotal(maxTotal);
+    connectionManager.setDefaultMaxPerRoute(maxPerHost);
+  }
+
+  /**
+   * Set limit of concurrent connections for one host. Overrides default limit set by {@link #setConnectionLimits(int, int)}.
+   *
+   * @param host       to set limit for
+   * @param port       of host, -1 for default port of scheme
+   * @param scheme     <code>http</code> or <code>https</code>
+   * @param maxPerHost maximal number of connections to given host
+   */
+  public void setConnectionLimitForHost(String host, int port, String scheme, int maxPerHost) {
+    connectionManager.setMaxPerRoute(new HttpRoute(new HttpHost(host, port, scheme)), maxPerHost);
+  }
+
+  /**
+   * Execute request over pooled connection.
+   *
+   * @param request to execute
+   * @return response. Its entity must be consumed or {@link #releaseConnection(HttpResponse)} called for it.
+   * @throws IOException in case of communication problem
+   */
+  public HttpResponse execute(HttpRequestBase request) throws IOException {
+    requestCount.incrementAndGet();
+    HttpResponse r = httpClient.execute(request);
+    if (Log.isLoggable(TAG, Log.DEBUG))
+      Log.d(TAG, getStatistics().toString());
+    return r;
+  }
+
+  /**
+   * Release connection used for the response back to the pool. Remaining content of response entity is consumed so connection can be reused. Null
+   * and exception safe.
+   *
+   * @param response to release connection for
+   */
+  public static void releaseConnection(HttpResponse response) {
+    if (response != null) {
+      EntityUtils.consumeQuietly(response.getEntity());
+    }
+  }
+
+  /**
+   * Get statistics of the pool.
+   *
+   * @return statistics snapshot
+   */
+  public Statistics getStatistics() {
+    Statistics s = new Statistics();
+    s.requestCount = requestCount.get();
+    s.connectionCount = connectionCount.get();
+    PoolStats ps = connectionManager.getTotalStats();
+    s.leased = ps.getLeased();
+    s.available = ps.getAvailable();
+    s.pending = ps.getPending();
+    return s;
+  }
+
+  /**
+   * Snapshot of pool statistics.
+   */
+  public static class Statistics {
+
+    /**
+     * Number of requests executed over the pool.
+     */
+    public long requestCount;
+
+    /**
+     * Number of new connections opened. Each one means TCP and TLS handshake.
+     */
+    public long connectionCount;
+
+    public int leased;
+    public int available;
+    public int pending;
+
+    /**
+     * @return number of requests which reused already opened connection, so handshake latency disappeared for them.
+     */
+    public long getReusedCount() {
+      return Math.max(0, requestCount - connectionCount);
+    }
+
+    /**
+     * @return percentage of requests which reused already opened connection
+     */
+    public int getReuseRatePercent() {
+      if (requestCount == 0)
+        return 0;
+      return (int) (getReusedCount() * 100 / requestCount);
+    }
+
+    @Override
+    public String toString() {
+      return "Statistics{" +
+              "requests=" + requestCount +
+              ", handshakes=" + connectionCount +
+              ", reuseRate=" + getReuseRatePercent() + "%" +
+              ", leased=" + leased +
+              ", available=" + available +
+              ", pending=" + pending +
+              '}';
+    }
+  }
+
+  /**
+   * Connection factory counting opened connections.
+   */
+  private class CountingConnectionFactory implements HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> {
+
+    @Override
+    public ManagedHttpClientConnection create(HttpRoute route, ConnectionConfig config) {
+      connectionCount.incrementAndGet();
+      Log.d(TAG, "Opening new connection to " + route.getTargetHost());
+      return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+    }
+  }
+
+  /**
+   * Keep-alive strategy which limits time connection is kept alive, also when server do not send Keep-Alive header.
+   */
+  private static class LimitedKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+    @Override
+    public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+      long d = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+      if (d <= 0 || d > KEEP_ALIVE_MAX)
+        return KEEP_ALIVE_MAX;
+      return d;
+    }
+  }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when request is refused by {@link RequestBudgetManager} because of low remaining API rate limit.
+ */
+public class RequestBudgetExceededException extends IOException {
+
+  private static final long serialVersionUID = 1L;
+  private RequestBudgetManager.Priority priority;
+  private long resetTimestamp;
+
+  public RequestBudgetExceededException(RequestBudgetManager.Priority priority, long resetTimestamp) {
+    super("Request with priority " + priority + " refused due to low API rate limit remaining, reset at " + resetTimestamp);
+    this.priority = priority;
+    this.resetTimestamp = resetTimestamp;
+  }
+
+  public RequestBudgetManager.Priority getPriority() {
+    return priority;
+  }
+
+  /**
+   * @return timestamp when rate limit is reset and request can be performed again [millis]
+   */
+  public long getResetTimestamp() {
+    return resetTimestamp;
+  }
+
+}
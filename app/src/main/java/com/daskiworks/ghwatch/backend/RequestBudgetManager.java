@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.backend.RemoteSystemClient.Response;
+
+/**
+ * Central manager of GitHub API rate limit budget. Every {@link RemoteSystemClient} call asks it for permission with {@link Priority} of the
+ * request, and budget is updated from <code>X-RateLimit-*</code> response headers. When remaining quota runs low, lower priority requests are
+ * refused until rate limit reset time, so quota is kept for foreground refreshes.
+ */
+public class RequestBudgetManager {
+
+  private static final String TAG = "RequestBudgetManager";
+
+  /**
+   * Priority of request.
+   */
+  public enum Priority {
+    /**
+     * Request initiated by user, refused only if quota is fully exhausted.
+     */
+    INTERACTIVE(0),
+    /**
+     * Background synchronization, eg. new notification check.
+     */
+    BACKGROUND(10),
+    /**
+     * Data loaded in advance, eg. notification details and labels for list.
+     */
+    PREFETCH(25);
+
+    private int reservedPercent;
+
+    private Priority(int reservedPercent) {
+      this.reservedPercent = reservedPercent;
+    }
+
+    /**
+     * @return percentage of rate limit which must remain available to allow request with this priority.
+     */
+    public int getReservedPercent() {
+      return reservedPercent;
+    }
+  }
+
+  private static RequestBudgetManager instance;
+
+  private int limit = -1;
+  private int remaining = -1;
+  private long resetTimestamp = 0;
+
+  /**
+   * Get instance for use. Budget state is initialized from last values stored by {@link RemoteSystemClient} in preferences.
+   *
+   * @param context to be used
+   * @return instance
+   */
+  public static synchronized RequestBudgetManager getInstance(Context context) {
+    if (instance == null) {
+      instance = new RequestBudgetManager();
+      instance.update(PreferencesUtils.getString(context, PreferencesUtils.INT_SERVERINFO_APILIMIT, null),
+              PreferencesUtils.getString(context, PreferencesUtils.INT_SERVERINFO_APILIMITREMAINING, null),
+              parseLong(PreferencesUtils.getString(context, PreferencesUtils.INT_SERVERINFO_APILIMITRESETTIMESTAMP, null)));
+    }
+    return instance;
+  }
+
+  /**
+   * Check if request with given priority is allowed now. Remaining quota estimate is decreased if it is allowed.
+   *
+   * @param priority of request
+   * @param url      of request, for logging only
+   * @throws RequestBudgetExceededException if request is not allowed now
+   */
+  public synchronized void checkBudget(Priority priority, String url) throws RequestBudgetExceededException {
+    if (!isAllowed(priority)) {
+      Log.i(TAG, priority + " request refused due to low rate limit remaining " + remaining + "/" + limit + " until " + resetTimestamp + ": " + url);
+      throw new RequestBudgetExceededException(priority, resetTimestamp);
+    }
+    if (remaining > 0)
+      remaining--;
+  }
+
+  /**
+   * Check if request with given priority is allowed now.
+   *
+   * @param priority of request
+   * @return true if allowed
+   */
+  public synchronized boolean isAllowed(Priority priority) {
+    if (limit < 0 || remaining < 0)
+      return true;
+    if (System.currentTimeMillis() >= resetTimestamp) {
+      // quota has been reset already, we do not know real values until next response
+      remaining = limit;
+      return true;
+    }
+    if (remaining <= 0)
+      return false;
+    return remaining * 100L > (long) limit * priority.getReservedPercent();
+  }
+
+  /**
+   * @return timestamp when rate limit is reset [millis], 0 if unknown
+   */
+  public synchronized long getResetTimestamp() {
+    return resetTimestamp;
+  }
+
+  /**
+   * Update budget from rate limit values of server response. Only REST API quota is tracked, values of other rate limit resources (eg. GraphQL
+   * points) are ignored.
+   *
+   * @param response to update from
+   */
+  public void updateFromResponse(Response<?> response) {
+    if (!response.isCoreRateLimit())
+      return;
+    update(response.rateLimit, response.rateLimitRemaining, response.rateLimitReset);
+  }
+
+  protected synchronized void update(String rateLimit, String rateLimitRemaining, Long rateLimitReset) {
+    Long l = parseLong(rateLimit);
+    Long r = parseLong(rateLimitRemaining);
+    if (l == null || r == null || rateLimitReset == null)
+      return;
+    limit = l.intValue();
+    remaining = r.intValue();
+    resetTimestamp = rateLimitReset;
+  }
+
+  private static Long parseLong(String value) {
+    if (value == null)
+      return null;
+    try {
+      return Long.valueOf(value);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Coalesces identical concurrent requests, so only first caller performs real call and other callers asking for the same key while it is in
+ * flight wait for it and receive the same result (or exception). Nothing is cached after the call finishes.
+ * <p/>
+ * Used by {@link RemoteSystemClient} for GET requests keyed by url, headers and response parser, eg. when more notification detail loaders for
+ * the same subject are started during list scrolling.
+ */
+public class RequestCoalescer {
+
+  private static final String TAG = "RequestCoalescer";
+
+  private static RequestCoalescer instance;
+
+  private final Map<String, Call> inFlight = new HashMap<String, Call>();
+
+  private long requestCount = 0;
+  private long deduplicatedCount = 0;
+
+  /**
+   * Get instance for use.
+   *
+   * @return instance
+   */
+  public static synchronized RequestCoalescer getInstance() {
+    if (instance == null)
+      instance = new RequestCoalescer();
+    return instance;
+  }
+
+  /**
+   * Interface for call performed by the coalescer.
+   *
+   * @param <T> type of result
+   */
+  public static interface ICall<T> {
+    T call() throws Exception;
+  }
+
+  private static class Call {
+    final CountDownLatch done = new CountDownLatch(1);
+    Object result;
+    Throwable error;
+  }
+
+  /**
+   * Execute call or join identical call already in flight.
+   *
+   * @param key  identifying the call, eg. url and headers
+   * @param call to perform if no identical one is in flight
+   * @return result of the call, shared with other concurrent callers so it must not be changed!
+   * @throws Exception thrown by call, also shared with other concurrent callers
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String key, ICall<T> call) throws Exception {
+    Call c;
+    boolean leader = false;
+    synchronized (inFlight) {
+      requestCount++;
+      c = inFlight.get(key);
+      if (c == null) {
+        c = new Call();
+        inFlight.put(key, c);
+        leader = true;
+      } else {
+        deduplicatedCount++;
+      }
+    }
+
+    if (leader) {
+      try {
+        c.result = call.call();
+      } catch (Throwable e) {
+        c.error = e;
+      } finally {
+        synchronized (inFlight) {
+          inFlight.remove(key);
+        }
+        c.done.countDown();
+      }
+    } else {
+      Log.d(TAG, "Joining call in flight for " + key);
+      c.done.await();
+    }
+
+    if (c.error instanceof Exception)
+      throw (Exception) c.error;
+    if (c.error instanceof Error)
+      throw (Error) c.error;
+    return (T) c.result;
+  }
+
+  /**
+   * @return number of all requests passed through coalescer
+   */
+  public long getRequestCount() {
+    synchronized (inFlight) {
+      return requestCount;
+    }
+  }
+
+  /**
+   * @return number of requests which joined identical call already in flight, so network call was saved for them
+   */
+  public long getDeduplicatedCount() {
+    synchronized (inFlight) {
+      return deduplicatedCount;
+    }
+  }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.backend;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+import android.util.Log;
+
+import com.daskiworks.ghwatch.backend.RemoteSystemClient.Response;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory registry of server communication metrics shown in "Server info" settings. Values are updated after every response from server, but
+ * written into preferences asynchronously and at most once per {@link #FLUSH_DELAY}, so no disk write is performed on request processing path.
+ * <p/>
+ * Besides of last response values (API rate limit, request duration) it keeps rolling aggregates - latency percentiles per endpoint class,
+ * bytes transferred and ratio of <code>304 Not Modified</code> responses.
+ */
+public class ServerInfoMetrics {
+
+  private static final String TAG = "ServerInfoMetrics";
+
+  /**
+   * Max delay of metrics write into preferences [millis].
+   */
+  protected static final long FLUSH_DELAY = 5000;
+
+  /**
+   * Number of last requests used to compute latency percentiles for each endpoint class.
+   */
+  protected static final int LATENCY_WINDOW = 100;
+
+  /*
+   * Endpoint classes.
+   */
+  public static final String ENDPOINT_NOTIFICATIONS = "notifications";
+  public static final String ENDPOINT_THREAD = "thread";
+  public static final String ENDPOINT_DETAIL = "detail";
+  public static final String ENDPOINT_SUBSCRIPTIONS = "subscriptions";
+  public static final String ENDPOINT_USER = "user";
+  public static final String ENDPOINT_GRAPHQL = "graphql";
+  public static final String ENDPOINT_OTHER = "other";
+
+  private static ServerInfoMetrics instance;
+
+  private final Context context;
+
+  /**
+   * Current values of <code>PreferencesUtils.INT_SERVERINFO_*</code> preferences.
+   */
+  private final Map<String, String> values = new LinkedHashMap<String, String>();
+
+  private final Map<String, EndpointStats> endpointStats = new LinkedHashMap<String, EndpointStats>();
+
+  private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor();
+  private boolean flushScheduled = false;
+
+  /**
+   * Get instance for use.
+   *
+   * @param context to be used
+   * @return instance
+   */
+  public static synchronized ServerInfoMetrics getInstance(Context context) {
+    if (instance == null)
+      instance = new ServerInfoMetrics(context.getApplicationContext());
+    return instance;
+  }
+
+  private ServerInfoMetrics(Context context) {
+    this.context = context;
+  }
+
+  /**
+   * Rolling statistics of one endpoint class.
+   */
+  protected static class EndpointStats {
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount = 0;
+    private int latencyPos = 0;
+    long requests = 0;
+    long notModified = 0;
+    long bytes = 0;
+
+    void add(long duration, boolean isNotModified, long contentBytes) {
+      requests++;
+      if (isNotModified)
+        notModified++;
+      bytes += contentBytes;
+      latencies[latencyPos] = duration;
+      latencyPos = (latencyPos + 1) % latencies.length;
+      if (latencyCount < latencies.length)
+        latencyCount++;
+    }
+
+    /**
+     * @param percentile to get, 0-100
+     * @return latency percentile from the last {@link #LATENCY_WINDOW} requests [millis]
+     */
+    long getLatencyPercentile(int percentile) {
+      if (latencyCount == 0)
+        return 0;
+      long[] sorted = Arrays.copyOf(latencies, latencyCount);
+      Arrays.sort(sorted);
+      int idx = (int) Math.ceil(percentile / 100.0 * latencyCount) - 1;
+      return sorted[Math.max(0, Math.min(latencyCount - 1, idx))];
+    }
+  }
+
+  /**
+   * Record response from server.
+   *
+   * @param url      of request
+   * @param response from server
+   */
+  public void recordResponse(String url, Response<?> response) {
+    synchronized (this) {
+      // stored values initialize REST budget of RequestBudgetManager, so other rate limit resources are not stored
+      if (response.isCoreRateLimit()) {
+        values.put(PreferencesUtils.INT_SERVERINFO_APILIMIT, response.rateLimit);
+        values.put(PreferencesUtils.INT_SERVERINFO_APILIMITREMAINING, response.rateLimitRemaining);
+        values.put(PreferencesUtils.INT_SERVERINFO_APILIMITRESETTIMESTAMP, response.rateLimitReset + "");
+      }
+      values.put(PreferencesUtils.INT_SERVERINFO_LASTREQUESTDURATION, response.requestDuration + "");
+      RemoteSystemConnectionPool.Statistics ps = RemoteSystemConnectionPool.getInstance().getStatistics();
+      values.put(PreferencesUtils.INT_SERVERINFO_CONNECTIONPOOL, ps.requestCount + " / " + ps.connectionCount + " (" + ps.getReuseRatePercent() + "%), "
+              + RequestCoalescer.getInstance().getDeduplicatedCount() + " deduplicated");
+
+      String ec = getEndpointClass(url);
+      EndpointStats es = endpointStats.get(ec);
+      if (es == null) {
+        es = new EndpointStats();
+        endpointStats.put(ec, es);
+      }
+      es.add(response.requestDuration, response.notModified, response.contentBytes);
+      values.put(PreferencesUtils.INT_SERVERINFO_LATENCY, formatLatency());
+      values.put(PreferencesUtils.INT_SERVERINFO_TRAFFIC, formatTraffic());
+    }
+    scheduleFlush();
+  }
+
+  /**
+   * Set value shown in server info.
+   *
+   * @param key   <code>PreferencesUtils.INT_SERVERINFO_*</code> key
+   * @param value to set
+   */
+  public void setValue(String key, String value) {
+    synchronized (this) {
+      values.put(key, value);
+    }
+    scheduleFlush();
+  }
+
+  /**
+   * Get current value shown in server info.
+   *
+   * @param key <code>PreferencesUtils.INT_SERVERINFO_*</code> key
+   * @return value or null if not available in registry (value from preferences should be used then)
+   */
+  public synchronized String getValue(String key) {
+    return values.get(key);
+  }
+
+  protected static String getEndpointClass(String url) {
+    if (url == null)
+      return ENDPOINT_OTHER;
+    int q = url.indexOf('?');
+    if (q > -1)
+      url = url.substring(0, q);
+    if (url.contains("/notifications/threads/"))
+      return ENDPOINT_THREAD;
+    if (url.endsWith("/notifications"))
+      return ENDPOINT_NOTIFICATIONS;
+    if (url.endsWith("/user/subscriptions"))
+      return ENDPOINT_SUBSCRIPTIONS;
+    if (url.endsWith("/user"))
+      return ENDPOINT_USER;
+    if (url.endsWith("/graphql"))
+      return ENDPOINT_GRAPHQL;
+    if (url.contains("/repos/"))
+      return ENDPOINT_DETAIL;
+    return ENDPOINT_OTHER;
+  }
+
+  private String formatLatency() {
+    StringBuilder sb = new StringBuilder();
+    for (Map.Entry<String, EndpointStats> e : endpointStats.entrySet()) {
+      if (sb.length() > 0)
+        sb.append("\n");
+      sb.append(e.getKey()).append(": p50 ").append(e.getValue().getLatencyPercentile(50)).append("ms, p95 ").append(e.getValue().getLatencyPercentile(95))
+              .append("ms");
+    }
+    return sb.toString();
+  }
+
+  private String formatTraffic() {
+    long requests = 0;
+    long notModified = 0;
+    long bytes = 0;
+    for (EndpointStats es : endpointStats.values()) {
+      requests += es.requests;
+      notModified += es.notModified;
+      bytes += es.bytes;
+    }
+    return (bytes / 1024) + " kB in " + requests + " responses, " + (requests > 0 ? notModified * 100 / requests : 0) + "% not modified";
+  }
+
+  private void scheduleFlush() {
+    synchronized (this) {
+      if (flushScheduled)
+        return;
+      flushScheduled = true;
+    }
+    flushExecutor.schedule(new Runnable() {
+      @Override
+      public void run() {
+        flush();
+      }
+    }, FLUSH_DELAY, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Write current values into preferences.
+   */
+  protected void flush() {
+    Map<String, String> copy;
+    synchronized (this) {
+      flushScheduled = false;
+      copy = new LinkedHashMap<String, String>(values);
+    }
+    SharedPreferences.Editor editor = PreferenceManager.getDefaultSharedPreferences(context).edit();
+    for (Map.Entry<String, String> e : copy.entrySet()) {
+      editor.putString(e.getKey(), e.getValue());
+    }
+    editor.apply();
+    Log.d(TAG, "Server info metrics flushed");
+  }
+
+}
@@ -33,36 +33,54 @@ import com.daskiworks.ghwatch.MainActivity;
 import com.daskiworks.ghwatch.R;
 import com.daskiworks.ghwatch.UnreadAppWidgetProvider;
 import com.daskiworks.ghwatch.Utils;
+import com.daskiworks.ghwatch.alarm.AlarmBroadcastReceiver;
 import com.daskiworks.ghwatch.alarm.AndroidNotifiationActionsReceiver;
+import com.daskiworks.ghwatch.alarm.PollingScheduler;
 import com.daskiworks.ghwatch.auth.AuthenticationManager;
 import com.daskiworks.ghwatch.backend.RemoteSystemClient.Response;
 import com.daskiworks.ghwatch.image.ImageLoader;
 import com.daskiworks.ghwatch.model.BaseViewData;
+import com.daskiworks.ghwatch.model.ChangeSet;
+import com.daskiworks.ghwatch.model.GHCredentials;
 import com.daskiworks.ghwatch.model.LoadingStatus;
+import com.daskiworks.ghwatch.model.NotifCount;
 import com.daskiworks.ghwatch.model.Notification;
 import com.daskiworks.ghwatch.model.NotificationStream;
 import com.daskiworks.ghwatch.model.NotificationStreamViewData;
 import com.daskiworks.ghwatch.model.NotificationViewData;
 import com.daskiworks.ghwatch.model.Repository;
+import com.daskiworks.ghwatch.model.StringPool;
 import com.daskiworks.ghwatch.model.StringViewData;
+import com.daskiworks.ghwatch.model.UnreadSummary;
 import com.daskiworks.ghwatch.model.WatchedRepositoriesViewData;
 
 
-import org.json.JSONArray;
 import org.json.JSONException;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.InvalidObjectException;
 import java.net.NoRouteToHostException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import cz.msebera.android.httpclient.auth.AuthenticationException;
+import cz.msebera.android.httpclient.client.utils.DateUtils;
 import me.leolin.shortcutbadger.ShortcutBadger;
 
 /**
@@ -77,16 +95,28 @@ public class UnreadNotificationsService {
   /**
    * URL to load notifications from.
    */
-  private static final String URL_NOTIFICATIONS = GHConstants.URL_BASE + "/notifications";
-  // private static final String URL_NOTIFICATIONS = GHConstants.URL_BASE+"/notifications?all=true";
+  private static String getUrlNotifications() {
+    return GHConstants.getUrlBase() + "/notifications";
+    // return GHConstants.getUrlBase() + "/notifications?all=true";
+  }
 
-  private static final String URL_REPOS = GHConstants.URL_BASE + "/repos/";
-  private static final String URL_THREADS = GHConstants.URL_BASE + "/notifications/threads/";
+  /**
+   * Number of notifications requested per page. 50 is maximum supported by GitHub notifications API.
+   */
+  private static final int NOTIFICATIONS_PER_PAGE = 50;
 
   /**
-   * Name of file where data are persisted.
+   * Max number of notification pages loaded from server in parallel.
    */
-  private static final String persistFileName = "NotificationsUnread.td";
+  private static final int PAGE_LOAD_PARALLELISM = 4;
+
+  private static final ThreadPoolExecutor pageLoadExecutor = new ThreadPoolExecutor(PAGE_LOAD_PARALLELISM, PAGE_LOAD_PARALLELISM, 30, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>());
+
+  static {
+    pageLoadExecutor.allowCoreThreadTimeOut(true);
+  }
+
 
   /**
    * Reload from server is forced automatically for {@link ViewDataReloadStrategy#IF_TIMED_OUT} mode if data in persistent store are older than this timeout [millis]
@@ -108,11 +138,12 @@ public class UnreadNotificationsService {
 
   // few fields initialized in constructor
   private final Context context;
-  private final File persistFile;
+  private final NotificationStreamRepository notificationStreamRepository;
   private final AuthenticationManager authenticationManager;
 
   // few data loaders - initialized lazily when necessary only
   private NotificationDetailLoader notificationDetailLoader;
+  private NotificationDetailBatchLoader notificationDetailBatchLoader;
   private NotificationViewUrlLoader notificationViewUrlLoader;
   private final int notificationColor;
 
@@ -123,7 +154,7 @@ public class UnreadNotificationsService {
    */
   public UnreadNotificationsService(Context context) {
     this.context = context;
-    this.persistFile = context.getFileStreamPath(persistFileName);
+    this.notificationStreamRepository = NotificationStreamRepository.getInstance(context);
     this.authenticationManager = AuthenticationManager.getInstance();
     this.notificationColor = context.getResources().getColor(R.color.apptheme_colorPrimary);
     createNotificationChannel();
@@ -139,137 +170,132 @@ public class UnreadNotificationsService {
 
     NotificationStreamViewData nswd = new NotificationStreamViewData();
     NotificationStream ns = null;
-    synchronized (TAG) {
-      NotificationStream oldNs = Utils.readFromStore(TAG, context, persistFile);
-
-      // user from store if possible, apply timeout of data from store
-      if (reloadStrategy == ViewDataReloadStrategy.IF_TIMED_OUT) {
-        ns = oldNs;
-        if (ns != null && ns.getLastFullUpdateTimestamp() < (System.currentTimeMillis() - FORCE_VIEW_RELOAD_AFTER))
-          ns = null;
-      } else if (reloadStrategy == ViewDataReloadStrategy.NEVER) {
-        ns = oldNs;
-      }
-
-      // read from server
-      try {
-        if (ns == null && reloadStrategy != ViewDataReloadStrategy.NEVER) {
-          // we DO NOT use lastModified here because it returns only notifications newly added after given date, not all unread
-          ns = readNotificationStreamFromServer(null);
-          keepNotificationDetailDataAfterReload(ns, oldNs);
-          if (ns != null) {
-            Utils.writeToStore(TAG, context, persistFile, ns);
-            updateWidgets();
-          }
-        }
-      } catch (InvalidObjectException e) {
-        nswd.loadingStatus = LoadingStatus.DATA_ERROR;
-        Log.w(TAG, "NotificationStream loading failed due to data format problem: " + e.getMessage(), e);
-      } catch (NoRouteToHostException e) {
-        nswd.loadingStatus = LoadingStatus.CONN_UNAVAILABLE;
-        Log.d(TAG, "NotificationStream loading failed due to connection not available.");
-      } catch (AuthenticationException e) {
-        nswd.loadingStatus = LoadingStatus.AUTH_ERROR;
-        Log.d(TAG, "NotificationStream loading failed due to authentication problem: " + e.getMessage());
-      } catch (IOException e) {
-        nswd.loadingStatus = LoadingStatus.CONN_ERROR;
-        Log.w(TAG, "NotificationStream loading failed due to connection problem: " + e.getMessage());
-      } catch (JSONException e) {
-        nswd.loadingStatus = LoadingStatus.DATA_ERROR;
-        Log.w(TAG, "NotificationStream loading failed due to data format problem: " + e.getMessage());
-      } catch (Exception e) {
-        nswd.loadingStatus = LoadingStatus.UNKNOWN_ERROR;
-        Log.e(TAG, "NotificationStream loading failed due to: " + e.getMessage(), e);
-      }
-
-      // Show content from store because we are unable to read new one but want to show something
-      if (ns == null)
-        ns = oldNs;
-
-      nswd.notificationStream = ns;
-      return nswd;
-    }
-  }
-
-  private void keepNotificationDetailDataAfterReload(NotificationStream ns, NotificationStream oldNs) {
-    if (oldNs != null && ns != null) {
-      for (Notification n : ns) {
-        Notification oldN = oldNs.getNotificationById(n.getId());
-        if (oldN != null) {
-          n.setSubjectStatus(oldN.getSubjectStatus());
-          n.setSubjectDetailHtmlUrl(oldN.getSubjectDetailHtmlUrl());
-          n.setSubjectLabels(oldN.getSubjectLabels());
-        }
-      }
+    // no lock is held during server call, new stream is merged with changes done meanwhile when published
+    NotificationStream oldNs = notificationStreamRepository.get();
+
+    // user from store if possible, apply timeout of data from store
+    if (reloadStrategy == ViewDataReloadStrategy.IF_TIMED_OUT) {
+      ns = oldNs;
+      if (ns != null && ns.getLastFullUpdateTimestamp() < (System.currentTimeMillis() - FORCE_VIEW_RELOAD_AFTER))
+        ns = null;
+    } else if (reloadStrategy == ViewDataReloadStrategy.NEVER) {
+      ns = oldNs;
     }
-  }
 
-  public BaseViewData markNotificationAsRead(long id) {
-    BaseViewData nswd = new BaseViewData();
+    // read from server
     try {
-      RemoteSystemClient.postNoData(context, authenticationManager.getGhApiCredentials(context), URL_THREADS + id, null);
-      synchronized (TAG) {
-        NotificationStream oldNs = Utils.readFromStore(TAG, context, persistFile);
-        if (oldNs != null) {
-          oldNs.removeNotificationById(id);
-          Utils.writeToStore(TAG, context, persistFile, oldNs);
+      if (ns == null && reloadStrategy != ViewDataReloadStrategy.NEVER) {
+        // we DO NOT use lastModified here because it returns only notifications newly added after given date, not all unread
+        ns = readNotificationStreamFromServer(null, prepareNotificationLoadingPlan(oldNs, false), RequestBudgetManager.Priority.INTERACTIVE);
+        // actions not replayed to the server yet must not reappear
+        PendingMutationQueue.getInstance(context).applyTo(ns);
+        if (ns != null) {
+          notificationStreamRepository.publish(oldNs, ns, false);
           updateWidgets();
         }
       }
+    } catch (InvalidObjectException e) {
+      nswd.loadingStatus = LoadingStatus.DATA_ERROR;
+      Log.w(TAG, "NotificationStream loading failed due to data format problem: " + e.getMessage(), e);
     } catch (NoRouteToHostException e) {
       nswd.loadingStatus = LoadingStatus.CONN_UNAVAILABLE;
+      Log.d(TAG, "NotificationStream loading failed due to connection not available.");
     } catch (AuthenticationException e) {
       nswd.loadingStatus = LoadingStatus.AUTH_ERROR;
+      Log.d(TAG, "NotificationStream loading failed due to authentication problem: " + e.getMessage());
+    } catch (RequestBudgetExceededException e) {
+      nswd.loadingStatus = LoadingStatus.RATE_LIMITED;
     } catch (IOException e) {
-      Log.w(TAG, "NotificationRead marking failed due to connection problem: " + e.getMessage());
       nswd.loadingStatus = LoadingStatus.CONN_ERROR;
+      Log.w(TAG, "NotificationStream loading failed due to connection problem: " + e.getMessage());
+    } catch (JSONException e) {
+      nswd.loadingStatus = LoadingStatus.DATA_ERROR;
+      Log.w(TAG, "NotificationStream loading failed due to data format problem: " + e.getMessage());
     } catch (Exception e) {
-      Log.e(TAG, "NotificationRead marking failed due to: " + e.getMessage(), e);
       nswd.loadingStatus = LoadingStatus.UNKNOWN_ERROR;
+      Log.e(TAG, "NotificationStream loading failed due to: " + e.getMessage(), e);
     }
+
+    // Show content from store because we are unable to read new one but want to show something
+    if (ns == null)
+      ns = notificationStreamRepository.get();
+
+    // view gets its own copy so it may change it
+    nswd.notificationStream = ns != null ? ns.copy() : null;
     return nswd;
   }
 
+  /**
+   * Mark notification as read. It is removed from local data immediately and queued in {@link PendingMutationQueue} to be replayed to the server.
+   *
+   * @param id of notification to mark as read
+   * @return view data with result of call, {@link LoadingStatus#OK} also if action is kept in queue due to connection problem
+   */
+  public BaseViewData markNotificationAsRead(long id) {
+    String repositoryFullName = removeNotificationsFromStore(id, null);
+    return enqueueMutation(PendingMutationQueue.markRead(id, repositoryFullName));
+  }
+
+  /**
+   * Mute notification thread and mark it as read. It is removed from local data immediately and queued in {@link PendingMutationQueue} to be
+   * replayed to the server.
+   *
+   * @param id of notification thread to mute
+   * @return view data with result of call, {@link LoadingStatus#OK} also if action is kept in queue due to connection problem
+   */
   public BaseViewData muteNotificationThread(long id) {
-    BaseViewData nswd = new BaseViewData();
-    try {
-      RemoteSystemClient.putToURL(context, authenticationManager.getGhApiCredentials(context), URL_THREADS + id + "/subscription", null, "{\"ignored\":true}");
-      // #49 mark it as read also to be removed from list
-      markNotificationAsRead(id);
-    } catch (NoRouteToHostException e) {
-      nswd.loadingStatus = LoadingStatus.CONN_UNAVAILABLE;
-    } catch (AuthenticationException e) {
-      nswd.loadingStatus = LoadingStatus.AUTH_ERROR;
-    } catch (IOException e) {
-      Log.w(TAG, "Notification thread mute failed due to connection problem: " + e.getMessage());
-      nswd.loadingStatus = LoadingStatus.CONN_ERROR;
-    } catch (Exception e) {
-      Log.e(TAG, "Notification thread mute failed due to: " + e.getMessage(), e);
-      nswd.loadingStatus = LoadingStatus.UNKNOWN_ERROR;
-    }
-    return nswd;
+    String repositoryFullName = removeNotificationsFromStore(id, null);
+    return enqueueMutation(PendingMutationQueue.mute(id, repositoryFullName));
   }
 
+  /**
+   * Mark all notifications as read. They are removed from local data immediately and queued in {@link PendingMutationQueue} to be replayed to the
+   * server.
+   *
+   * @param repository to mark notifications for, null for all notifications
+   * @return view data with result of call, {@link LoadingStatus#OK} also if action is kept in queue due to connection problem
+   */
   public BaseViewData markAllNotificationsAsRead(String repository) {
+    removeNotificationsFromStore(null, repository);
+    return enqueueMutation(PendingMutationQueue.markAllRead(repository));
+  }
+
+  private BaseViewData enqueueMutation(PendingMutationQueue.Mutation mutation) {
     BaseViewData nswd = new BaseViewData();
-    try {
-      String url = URL_NOTIFICATIONS;
-      if (repository != null) {
-        url = URL_REPOS + repository + "/notifications";
+    PendingMutationQueue queue = PendingMutationQueue.getInstance(context);
+    queue.enqueue(mutation);
+    nswd.loadingStatus = queue.replay(false);
+    return nswd;
+  }
+
+  /**
+   * Remove notifications from persistent store.
+   *
+   * @param id         of notification to remove, null to remove by repository
+   * @param repository to remove all notifications for if id is null, null to remove all notifications
+   * @return full name of repository of removed notification if id is used
+   */
+  private String removeNotificationsFromStore(Long id, String repository) {
+    String ret = null;
+    NotificationStream oldNs = notificationStreamRepository.get();
+    if (oldNs != null) {
+      List<Long> toRemove = new ArrayList<Long>();
+      if (id != null) {
+        Notification n = oldNs.getNotificationById(id);
+        if (n == null)
+          return null;
+        ret = n.getRepositoryFullName();
+        toRemove.add(id);
+      } else {
+        for (Notification n : oldNs) {
+          if (repository == null || repository.equals(n.getRepositoryFullName()))
+            toRemove.add(n.getId());
+        }
       }
-      RemoteSystemClient.putToURL(context, authenticationManager.getGhApiCredentials(context), url, null, "{}");
-    } catch (NoRouteToHostException e) {
-      nswd.loadingStatus = LoadingStatus.CONN_UNAVAILABLE;
-    } catch (AuthenticationException e) {
-      nswd.loadingStatus = LoadingStatus.AUTH_ERROR;
-    } catch (IOException e) {
-      Log.w(TAG, "NotificationRead marking failed due to connection problem: " + e.getMessage());
-      nswd.loadingStatus = LoadingStatus.CONN_ERROR;
-    } catch (Exception e) {
-      Log.e(TAG, "NotificationRead marking failed due to: " + e.getMessage(), e);
-      nswd.loadingStatus = LoadingStatus.UNKNOWN_ERROR;
+      notificationStreamRepository.removeNotifications(toRemove);
+      updateWidgets();
     }
-    return nswd;
+    return ret;
   }
 
   /**
@@ -279,19 +305,49 @@ public class UnreadNotificationsService {
    * @return view response with {@link Notification} containing all data
    */
   public NotificationViewData getNotificationDetailForView(Notification notification) {
+    return getNotificationDetailForView(notification, RequestBudgetManager.Priority.INTERACTIVE);
+  }
+
+  /**
+   * Get notification object containing all detailed data for view. May be loaded from server in this method, so do not call this from GUI thread!
+   *
+   * @param notification to get detail data for, it is not changed, loaded data are in copy of it returned in response
+   * @param priority     of request to server, use {@link RequestBudgetManager.Priority#PREFETCH} for details not requested by user directly
+   * @return view response with {@link Notification} containing all data
+   */
+  public NotificationViewData getNotificationDetailForView(Notification notification, RequestBudgetManager.Priority priority) {
     String apiUrl = notification.getSubjectUrl();
     if (notification.isDetailLoaded()) {
       return new NotificationViewData(notification);
     } else {
       if (notificationDetailLoader == null)
-        notificationDetailLoader = new NotificationDetailLoader(TAG, context, authenticationManager, persistFile);
-      return notificationDetailLoader.loadData(apiUrl, notification);
+        notificationDetailLoader = new NotificationDetailLoader(TAG, context, authenticationManager, notificationStreamRepository);
+      // notification may be shared with published stream, so it must not be changed by loader
+      return notificationDetailLoader.loadData(apiUrl, notification.copy(), priority);
     }
   }
 
+  /**
+   * Load detail data for more notifications at once, by one GraphQL call if possible. Do not call this from GUI thread!
+   *
+   * @param notifications to load detail data for, they are not changed
+   * @param priority      of requests to server
+   * @return copies of notifications with detail data loaded successfully
+   */
+  public List<Notification> getNotificationDetailsForView(List<Notification> notifications, RequestBudgetManager.Priority priority) {
+    if (notificationDetailBatchLoader == null)
+      notificationDetailBatchLoader = new NotificationDetailBatchLoader(TAG, context, authenticationManager, notificationStreamRepository);
+    // notifications may be shared with published stream, so they must not be changed by loader
+    List<Notification> copies = new ArrayList<Notification>(notifications.size());
+    for (Notification n : notifications) {
+      copies.add(n.copy());
+    }
+    return notificationDetailBatchLoader.loadData(copies, priority);
+  }
+
   public StringViewData getNotificationViewUrl(long notificationId) {
     Notification n = null;
-    NotificationStream oldNs = Utils.readFromStore(TAG, context, persistFile);
+    NotificationStream oldNs = notificationStreamRepository.get();
     if (oldNs != null) {
       n = oldNs.getNotificationById(notificationId);
     }
@@ -405,42 +461,64 @@ public class UnreadNotificationsService {
   protected void newNotificationCheckImpl() {
     Log.d(TAG, "Notification check started");
     try {
-      synchronized (TAG) {
-        NotificationStream oldNs = Utils.readFromStore(TAG, context, persistFile);
-
-        String lastModified = prepareLastModifiedHeaderContent(oldNs, Utils.isInternetConnectionAvailableWifi(Utils.getConnectivityManager(context)));
+      // send user actions performed while offline before we load new state
+      PendingMutationQueue pendingMutationQueue = PendingMutationQueue.getInstance(context);
+      pendingMutationQueue.replay(false);
+      // no lock is held during server call, new stream is merged with changes done meanwhile when published
+      NotificationStream oldNs = notificationStreamRepository.get();
+
+      NotificationFetchPlanner.Plan plan = prepareNotificationLoadingPlan(oldNs, isParticipatingCheckAllowed());
+
+      String lastModified = prepareLastModifiedHeaderContent(oldNs, Utils.isInternetConnectionAvailableWifi(Utils.getConnectivityManager(context)));
+      if (plan.isParticipating() && oldNs != null) {
+        // old notifications are always kept in this mode, so there is no reason for periodical full reload
+        lastModified = oldNs.getLastModified();
+      }
 
-        NotificationStream ns = readNotificationStreamFromServer(lastModified);
+      NotificationStream ns = readNotificationStreamFromServer(lastModified, plan, RequestBudgetManager.Priority.BACKGROUND);
 
-        if (ns != null) {
-          if (lastModified != null) {
-            // incremental update has been performed and some new notif is available (ns is not null), so we have to add old ones to keep them
-            if (oldNs != null) {
-              for (Notification n : oldNs) {
-                ns.addNotification(n);
-              }
-              ns.setLastFullUpdateTimestamp(oldNs.getLastFullUpdateTimestamp());
-            }
-          }
-          keepNotificationDetailDataAfterReload(ns, oldNs);
-          Utils.writeToStore(TAG, context, persistFile, ns);
-
-          fireAndroidNotification(ns, oldNs);
-          updateWidgetsFromBackgroundCheck(ns, oldNs);
-        }
+      if (ns == null) {
+        PollingScheduler.recordCheckResult(context, true, 0);
+      } else {
+        // participating only - other notifications are not loaded, so we keep all old ones. It is not full update, so view reloads all
+        // notifications when necessary.
+        // lastModified used - incremental update has been performed and some new notif is available (ns is not null), so we have to add old
+        // ones to keep them.
+        // Old ones are added by publish from current stream, so notifications published by other sync meanwhile are kept.
+        boolean incremental = plan.isParticipating() || lastModified != null;
+        pendingMutationQueue.applyTo(ns);
+        ChangeSet changes = notificationStreamRepository.publish(oldNs, ns, incremental);
+
+        PollingScheduler.recordCheckResult(context, false, changes.getAdded().size());
+        fireAndroidNotification(ns, changes);
+        updateWidgetsFromBackgroundCheck(changes);
       }
     } catch (NoRouteToHostException e) {
       Log.d(TAG, "Notification check failed due to: " + e.getMessage());
     } catch (Exception e) {
       Log.w(TAG, "Notification check failed due to: " + e.getMessage());
     } finally {
-      PreferencesUtils.storeLong(context, PreferencesUtils.INT_SERVERINFO_LASTUNREADNOTIFBACKREQUESTTIMESTAMP, System.currentTimeMillis());
+      ServerInfoMetrics.getInstance(context).setValue(PreferencesUtils.INT_SERVERINFO_LASTUNREADNOTIFBACKREQUESTTIMESTAMP, System.currentTimeMillis() + "");
+      AlarmBroadcastReceiver.scheduleNextServerCheck(context);
       Log.d(TAG, "Notification check finished");
     }
   }
 
+  /**
+   * Only notifications user participates in may be loaded by background check if they are the only ones firing Android notification. Not
+   * possible if widget showing unread notifications exists or full check is requested in settings.
+   *
+   * @return true if background check may load participating notifications only
+   */
+  protected boolean isParticipatingCheckAllowed() {
+    return !PreferencesUtils.getBoolean(context, PreferencesUtils.PREF_WIDGET_UNREAD_EXISTS, false)
+            && !PreferencesUtils.getBoolean(context, PreferencesUtils.PREF_SERVER_CHECK_FULL, false);
+  }
+
   /**
    * @param lastModified timestamp used in "If-Modified-Since" http header, can be null
+   * @param plan         of loading, see {@link #prepareNotificationLoadingPlan(NotificationStream, boolean)}
+   * @param priority     of requests to server
    * @return null if lastModified used and nothing new
    * @throws InvalidObjectException
    * @throws NoRouteToHostException
@@ -449,12 +527,12 @@ public class UnreadNotificationsService {
    * @throws JSONException
    * @throws URISyntaxException
    */
-  protected NotificationStream readNotificationStreamFromServer(String lastModified) throws InvalidObjectException, NoRouteToHostException,
-          AuthenticationException, IOException, JSONException, URISyntaxException {
+  protected NotificationStream readNotificationStreamFromServer(String lastModified, NotificationFetchPlanner.Plan plan, RequestBudgetManager.Priority priority)
+          throws InvalidObjectException, NoRouteToHostException, AuthenticationException, IOException, JSONException, URISyntaxException {
 
-    NotificationStreamParser.IRepoVisibilityAdapter rva = createRepoVisibilityAdapter();
-
-    String url = prepareNotificationLoadingURL(rva);
+    final NotificationStreamParser.IRepoVisibilityAdapter rva = createRepoVisibilityAdapter();
+    // all pages of this sync share repeated strings
+    final StringPool stringPool = new StringPool();
 
     Map<String, String> headers = null;
     if (lastModified != null) {
@@ -462,44 +540,267 @@ public class UnreadNotificationsService {
       headers.put("If-Modified-Since", lastModified);
     }
 
-    Response<JSONArray> resp = RemoteSystemClient.getJSONArrayFromUrl(context, authenticationManager.getGhApiCredentials(context), url, headers);
+    List<String> urls = new ArrayList<String>();
+    if (plan.global) {
+      urls.add(getUrlNotifications() + "?per_page=" + NOTIFICATIONS_PER_PAGE + (plan.globalParticipating ? "&participating=true" : ""));
+    }
+    for (String repository : plan.repositories) {
+      urls.add(getUrlRepositoryNotifications(repository) + (plan.participatingRepositories.contains(repository) ? "&participating=true" : ""));
+    }
+    if (urls.size() > 1) {
+      return readNotificationStreamInParallel(urls, lastModified, headers, rva, stringPool, priority);
+    }
+
+    String url = urls.get(0);
+    Log.d(TAG, "Notification loading URL: " + url);
+
+    RemoteSystemClient.IResponseContentParser<NotificationStream> parser = createNotificationStreamParser(rva, stringPool);
+
+    Response<NotificationStream> resp = RemoteSystemClient.getStreamedDataFromUrl(context, authenticationManager.getGhApiCredentials(context), url, headers,
+            parser, priority);
+
+    PollingScheduler.recordServerPollInterval(context, resp.poolInterval);
 
     if (resp.notModified)
       return null;
 
-    NotificationStream ns = NotificationStreamParser.parseNotificationStream(null, resp.data, rva);
+    // parsed page may be shared with concurrent identical request, so we merge it into our own stream
+    NotificationStream ns = new NotificationStream();
+    addNotifications(ns, resp.data);
     ns.setLastModified(resp.lastModified);
     if (lastModified == null)
       ns.setLastFullUpdateTimestamp(System.currentTimeMillis());
 
     //handle paging
-    while (resp.linkNext != null) {
-      resp = RemoteSystemClient.getJSONArrayFromUrl(context, authenticationManager.getGhApiCredentials(context), resp.linkNext, headers);
-      NotificationStreamParser.parseNotificationStream(ns, resp.data, rva);
+    int pages = 1;
+    List<String> pageUrls = RemoteSystemClient.getRemainingPageUrls(resp);
+    if (pageUrls != null) {
+      readNotificationStreamPagesInParallel(ns, pageUrls, headers, rva, stringPool, priority);
+      pages += pageUrls.size();
+    } else {
+      while (resp.linkNext != null) {
+        resp = RemoteSystemClient.getStreamedDataFromUrl(context, authenticationManager.getGhApiCredentials(context), resp.linkNext, headers, parser,
+                priority);
+        addNotifications(ns, resp.data);
+        pages++;
+      }
     }
+    if (plan.global && !plan.globalParticipating)
+      NotificationFetchPlanner.recordGlobalStreamPages(context, pages);
 
     return ns;
   }
 
+  /**
+   * Load notifications from more endpoints (eg. of distinct repositories) in parallel and merge them into one stream.
+   *
+   * @param urls         of endpoints to load notifications from
+   * @param lastModified timestamp used in "If-Modified-Since" http header, can be null
+   * @param headers      for requests
+   * @param rva          repo visibility adapter used for parsing
+   * @param stringPool   pool of repeated strings used for parsing
+   * @param priority     of requests
+   * @return null if lastModified used and nothing new in any repository
+   */
+  private NotificationStream readNotificationStreamInParallel(List<String> urls, String lastModified, final Map<String, String> headers,
+                                                                 final NotificationStreamParser.IRepoVisibilityAdapter rva, final StringPool stringPool,
+                                                                 final RequestBudgetManager.Priority priority)
+          throws AuthenticationException, IOException, JSONException, URISyntaxException {
+    Log.d(TAG, "Going to load notifications from " + urls + " in parallel");
+    final GHCredentials credentials = authenticationManager.getGhApiCredentials(context);
+    List<Future<Response<NotificationStream>>> futures = new ArrayList<Future<Response<NotificationStream>>>(urls.size());
+    for (final String url : urls) {
+      futures.add(pageLoadExecutor.submit(new Callable<Response<NotificationStream>>() {
+        @Override
+        public Response<NotificationStream> call() throws Exception {
+          return readAllNotificationPages(credentials, url, headers, rva, stringPool, priority);
+        }
+      }));
+    }
+    List<Response<NotificationStream>> responses = getAllResults(futures);
+
+    List<Notification> all = new ArrayList<Notification>();
+    Date newestLastModified = null;
+    String newestLastModifiedValue = null;
+    boolean notModified = true;
+    for (Response<NotificationStream> resp : responses) {
+      if (resp.poolInterval != null)
+        PollingScheduler.recordServerPollInterval(context, resp.poolInterval);
+      if (resp.notModified)
+        continue;
+      notModified = false;
+      for (Notification n : resp.data) {
+        all.add(n);
+      }
+      Date lm = resp.lastModified != null ? DateUtils.parseDate(resp.lastModified) : null;
+      if (lm != null && (newestLastModified == null || lm.after(newestLastModified))) {
+        newestLastModified = lm;
+        newestLastModifiedValue = resp.lastModified;
+      }
+    }
+    if (notModified)
+      return null;
+
+    // keep order of global endpoint
+    Collections.sort(all, new Comparator<Notification>() {
+      @Override
+      public int compare(Notification lhs, Notification rhs) {
+        long l = lhs.getUpdatedAt() != null ? lhs.getUpdatedAt().getTime() : 0;
+        long r = rhs.getUpdatedAt() != null ? rhs.getUpdatedAt().getTime() : 0;
+        return l < r ? 1 : (l > r ? -1 : 0);
+      }
+    });
+    NotificationStream ns = new NotificationStream();
+    for (Notification n : all) {
+      ns.addNotification(n);
+    }
+    // endpoint is not modified since its own Last-Modified, so it is not modified since the newest one also
+    ns.setLastModified(newestLastModifiedValue);
+    if (lastModified == null)
+      ns.setLastFullUpdateTimestamp(System.currentTimeMillis());
+    return ns;
+  }
+
+  private Response<NotificationStream> readAllNotificationPages(GHCredentials credentials, String url, Map<String, String> headers,
+                                                                NotificationStreamParser.IRepoVisibilityAdapter rva, StringPool stringPool,
+                                                                RequestBudgetManager.Priority priority)
+          throws AuthenticationException, IOException, JSONException, URISyntaxException {
+    RemoteSystemClient.IResponseContentParser<NotificationStream> parser = createNotificationStreamParser(rva, stringPool);
+    Response<NotificationStream> resp = RemoteSystemClient.getStreamedDataFromUrl(context, credentials, url, headers, parser, priority);
+    // response may be shared with concurrent identical request, so we return our own one
+    Response<NotificationStream> ret = new Response<NotificationStream>();
+    resp.fill(ret);
+    if (!resp.notModified) {
+      ret.data = new NotificationStream();
+      addNotifications(ret.data, resp.data);
+      while (resp.linkNext != null) {
+        resp = RemoteSystemClient.getStreamedDataFromUrl(context, credentials, resp.linkNext, headers, parser, priority);
+        addNotifications(ret.data, resp.data);
+      }
+    }
+    return ret;
+  }
+
+  private RemoteSystemClient.IResponseContentParser<NotificationStream> createNotificationStreamParser(final NotificationStreamParser.IRepoVisibilityAdapter rva,
+                                                                                                      final StringPool stringPool) {
+    return new RemoteSystemClient.IResponseContentParser<NotificationStream>() {
+      @Override
+      public NotificationStream parse(InputStream content) throws IOException {
+        return NotificationStreamParser.parseNotificationStream(null, content, rva, stringPool);
+      }
+    };
+  }
+
+  private static void addNotifications(NotificationStream ns, NotificationStream page) {
+    if (page != null) {
+      for (Notification n : page) {
+        ns.addNotification(n);
+      }
+    }
+  }
+
+  /**
+   * Load pages of notifications in parallel, each one into own stream, and merge them into <code>ns</code> in server order.
+   *
+   * @param ns       to merge pages into
+   * @param pageUrls urls of pages to load
+   * @param headers  for requests
+   * @param rva        repo visibility adapter used for parsing
+   * @param stringPool pool of repeated strings used for parsing
+   * @param priority   of requests
+   */
+  private void readNotificationStreamPagesInParallel(NotificationStream ns, List<String> pageUrls, final Map<String, String> headers,
+                                                     final NotificationStreamParser.IRepoVisibilityAdapter rva, final StringPool stringPool,
+                                                     final RequestBudgetManager.Priority priority)
+          throws AuthenticationException, IOException, JSONException, URISyntaxException {
+    if (pageUrls.isEmpty())
+      return;
+    Log.d(TAG, "Going to load " + pageUrls.size() + " notification pages in parallel");
+    final GHCredentials credentials = authenticationManager.getGhApiCredentials(context);
+    List<Future<NotificationStream>> pages = new ArrayList<Future<NotificationStream>>(pageUrls.size());
+    for (final String pageUrl : pageUrls) {
+      pages.add(pageLoadExecutor.submit(new Callable<NotificationStream>() {
+        @Override
+        public NotificationStream call() throws Exception {
+          return RemoteSystemClient.getStreamedDataFromUrl(context, credentials, pageUrl, headers, createNotificationStreamParser(rva, stringPool), priority).data;
+        }
+      }));
+    }
+    for (NotificationStream page : getAllResults(pages)) {
+      addNotifications(ns, page);
+    }
+  }
+
+  /**
+   * Wait for results of all tasks submitted into {@link #pageLoadExecutor}. If one of them fails, others are cancelled and its exception is
+   * rethrown.
+   *
+   * @param futures to wait for
+   * @return results in order of futures
+   */
+  private static <T> List<T> getAllResults(List<Future<T>> futures) throws AuthenticationException, IOException, JSONException, URISyntaxException {
+    List<T> ret = new ArrayList<T>(futures.size());
+    try {
+      for (Future<T> f : futures) {
+        ret.add(f.get());
+      }
+      return ret;
+    } catch (InterruptedException e) {
+      throw new InterruptedIOException("Notifications loading interrupted");
+    } catch (ExecutionException e) {
+      Throwable c = e.getCause();
+      if (c instanceof AuthenticationException)
+        throw (AuthenticationException) c;
+      if (c instanceof IOException)
+        throw (IOException) c;
+      if (c instanceof JSONException)
+        throw (JSONException) c;
+      if (c instanceof URISyntaxException)
+        throw (URISyntaxException) c;
+      if (c instanceof RuntimeException)
+        throw (RuntimeException) c;
+      throw new IOException(c);
+    } finally {
+      for (Future<T> f : futures) {
+        f.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * Prepare plan of notifications loading.
+   *
+   * @param oldNs         last stored stream, can be null
+   * @param participating if true then only notifications user participates in are loaded from repositories where other ones do not fire Android
+   *                      notification, if possible
+   * @return plan
+   */
   @NonNull
-  private String prepareNotificationLoadingURL(NotificationStreamParser.IRepoVisibilityAdapter rva) {
-    String url = URL_NOTIFICATIONS;
-    //#80 detect which URL should be used, call repo based url if only one repo is visible
+  protected NotificationFetchPlanner.Plan prepareNotificationLoadingPlan(NotificationStream oldNs, boolean participating) {
+    NotificationStreamParser.IRepoVisibilityAdapter rva = createRepoVisibilityAdapter();
+    //#80 load notifications from repository endpoints if only some repos are visible
     WatchedRepositoriesService wrs = new WatchedRepositoriesService(context);
     WatchedRepositoriesViewData wr = wrs.getWatchedRepositoriesForView(ViewDataReloadStrategy.IF_TIMED_OUT);
-    if (wr.loadingStatus == LoadingStatus.OK) {
-      Set<String> visibleRepos = new HashSet<String>();
+    Set<String> visibleRepos = new HashSet<String>();
+    int watchedRepoCount = 0;
+    if (wr.loadingStatus == LoadingStatus.OK && wr.repositories != null) {
       for (Repository r : wr.repositories) {
+        watchedRepoCount++;
         if (rva.isRepoVisibile(r.getRepositoryFullName())) {
           visibleRepos.add(r.getRepositoryFullName());
         }
       }
-      if (visibleRepos.size() == 1) {
-        url = GHConstants.URL_BASE + "/repos/" + visibleRepos.iterator().next() + "/notifications";
-      }
     }
-    Log.d(TAG, "Notification loading URL: " + url);
-    return url;
+    if (watchedRepoCount == 0)
+      return NotificationFetchPlanner.createGlobalPlan();
+    NotificationFetchPlanner.Plan plan = NotificationFetchPlanner.createPlan(context, visibleRepos, watchedRepoCount, oldNs, NOTIFICATIONS_PER_PAGE);
+    if (participating)
+      plan = NotificationFetchPlanner.applyParticipatingFilter(context, plan, visibleRepos);
+    return plan;
+  }
+
+  private static String getUrlRepositoryNotifications(String repository) {
+    return GHConstants.getUrlBase() + "/repos/" + repository + "/notifications?per_page=" + NOTIFICATIONS_PER_PAGE;
   }
 
   @NonNull
@@ -531,11 +832,13 @@ public class UnreadNotificationsService {
       markAndroidNotificationsRead();
     }
 
-    int bc = PreferencesUtils.getInt(context, NUM_OF_BADGED_ANDROID_NOTIFICATIONS,0);
+    UnreadSummary summary = notificationStreamRepository.getSummary();
+    int bc = summary != null ? summary.getBadgeCount() : 0;
     if(bc>1){
-      PreferencesUtils.storeInt(context, NUM_OF_BADGED_ANDROID_NOTIFICATIONS, --bc);
+      notificationStreamRepository.setSummaryBadgeCount(--bc);
       ShortcutBadger.applyCount(context, bc);
     } else {
+      notificationStreamRepository.setSummaryBadgeCount(0);
       ShortcutBadger.removeCount(context);
     }
 
@@ -546,7 +849,7 @@ public class UnreadNotificationsService {
    */
   public void markAndroidWidgetsAsRead() {
     if (PreferencesUtils.getBoolean(context, PreferencesUtils.PREF_WIDGET_UNREAD_EXISTS, false)) {
-      PreferencesUtils.storeBoolean(context, PreferencesUtils.PREF_WIDGET_UNREAD_HIGHLIGHT, false);
+      notificationStreamRepository.setSummaryHighlight(false);
       updateWidgets();
     }
   }
@@ -554,28 +857,68 @@ public class UnreadNotificationsService {
   protected NotificationStream filterForAndroidNotification(NotificationStream ns) {
     NotificationStream ret = new NotificationStream();
 
-    for (Notification n : ns) {
-      String p = PreferencesUtils.getNotificationFilterForRepository(context, n.getRepositoryFullName(), true);
-      if (!PreferencesUtils.PREF_NOTIFY_FILTER_NOTHING.equalsIgnoreCase(p)) {
-        if (PreferencesUtils.PREF_NOTIFY_FILTER_ALL.equalsIgnoreCase(p) || !"subscribed".equalsIgnoreCase(n.getReason())) {
-          ret.addNotification(n);
-        }
+    Map<String, String> filters = getNotificationFilters(ns);
+    // only participating notifications pass if no repository notifies about all, so index is used instead of whole stream
+    Iterable<Notification> candidates = filters.containsValue(PreferencesUtils.PREF_NOTIFY_FILTER_ALL) ? ns : ns.getParticipatingNotifications();
+    for (Notification n : candidates) {
+      if (isForAndroidNotification(n, filters)) {
+        ret.addNotification(n);
       }
     }
 
     return ret;
   }
 
-  protected void fireAndroidNotification(NotificationStream newStream, NotificationStream oldStream) {
+  /**
+   * Resolve Android notification filter preference once per repository in stream.
+   *
+   * @param ns stream to resolve filters for
+   * @return map from repository full name to filter
+   */
+  private Map<String, String> getNotificationFilters(NotificationStream ns) {
+    Map<String, String> ret = new HashMap<String, String>();
+    for (NotifCount nc : ns.getRepositoriesInfo()) {
+      ret.put(nc.title, PreferencesUtils.getNotificationFilterForRepository(context, nc.title, true));
+    }
+    return ret;
+  }
+
+  private boolean isForAndroidNotification(Notification n, Map<String, String> filters) {
+    String p = filters.get(n.getRepositoryFullName());
+    if (p == null)
+      p = PreferencesUtils.getNotificationFilterForRepository(context, n.getRepositoryFullName(), true);
+    if (!PreferencesUtils.PREF_NOTIFY_FILTER_NOTHING.equalsIgnoreCase(p)) {
+      return PreferencesUtils.PREF_NOTIFY_FILTER_ALL.equalsIgnoreCase(p) || !NotificationStream.REASON_SUBSCRIBED.equalsIgnoreCase(n.getReason());
+    }
+    return false;
+  }
+
+  private boolean isNewForAndroidNotification(NotificationStream ns, ChangeSet changes) {
+    if (!changes.hasNew())
+      return false;
+    Map<String, String> filters = getNotificationFilters(ns);
+    for (Notification n : changes.getAdded()) {
+      if (isForAndroidNotification(n, filters))
+        return true;
+    }
+    for (Notification n : changes.getUpdated()) {
+      if (isForAndroidNotification(n, filters))
+        return true;
+    }
+    return false;
+  }
+
+  protected void fireAndroidNotification(NotificationStream newStream, ChangeSet changes) {
     if (newStream == null || !PreferencesUtils.getBoolean(context, PreferencesUtils.PREF_NOTIFY, true))
       return;
 
     Log.d(TAG, "fireAndroidNotification count before filter " + newStream.size());
+    boolean isNew = isNewForAndroidNotification(newStream, changes);
     newStream = filterForAndroidNotification(newStream);
     Log.d(TAG, "fireAndroidNotification count after filter " + newStream.size());
-    if (newStream.isNewNotification(oldStream)) {
+    if (isNew) {
       ShortcutBadger.applyCount(context, newStream.size());
-      PreferencesUtils.storeInt(context, NUM_OF_BADGED_ANDROID_NOTIFICATIONS, newStream.size());
+      notificationStreamRepository.setSummaryBadgeCount(newStream.size());
 
       //TEST with only one notification
       if(false) {
@@ -592,6 +935,7 @@ public class UnreadNotificationsService {
     } else if (newStream.isEmpty()) {
       // #54 dismiss previous android notification if no any Github notification is available (as it was read on another device)
       Utils.getNotificationManager(context).cancel(ANDROID_NOTIFICATION_MAIN_ID);
+      notificationStreamRepository.setSummaryBadgeCount(0);
       ShortcutBadger.removeCount(context);
     }
   }
@@ -613,7 +957,6 @@ public class UnreadNotificationsService {
   }
 
   private static final String NUM_OF_BUNDLED_ANDROID_NOTIFICATIONS = "NUM_OF_BUNDLED_ANDROID_NOTIFICATIONS";
-  private static final String NUM_OF_BADGED_ANDROID_NOTIFICATIONS = "NUM_OF_BADGED_ANDROID_NOTIFICATIONS";
 
   private android.app.Notification buildAndroidNotificationBundledStyleSummary(Date timestamp) {
     NotificationCompat.Builder mBuilder = new NotificationCompat.Builder(context, CHANNEL_ID)
@@ -734,19 +1077,20 @@ public class UnreadNotificationsService {
     mBuilder.setLights(0xffffffff, 100, 4000);
   }
 
-  protected void updateWidgetsFromBackgroundCheck(NotificationStream newStream, NotificationStream oldStream) {
-    if (newStream == null)
-      return;
+  protected void updateWidgetsFromBackgroundCheck(ChangeSet changes) {
     if (PreferencesUtils.getBoolean(context, PreferencesUtils.PREF_WIDGET_UNREAD_EXISTS, false)) {
-      if (newStream.isNewNotification(oldStream)) {
-        PreferencesUtils.storeBoolean(context, PreferencesUtils.PREF_WIDGET_UNREAD_HIGHLIGHT, true);
+      if (changes.hasNew()) {
+        notificationStreamRepository.setSummaryHighlight(true);
       }
       updateWidgets();
     }
   }
 
+  /**
+   * Fire widget update if widget exists and it shows something else than current {@link UnreadSummary}.
+   */
   protected void updateWidgets() {
-    if (PreferencesUtils.getBoolean(context, PreferencesUtils.PREF_WIDGET_UNREAD_EXISTS, false)) {
+    if (PreferencesUtils.getBoolean(context, PreferencesUtils.PREF_WIDGET_UNREAD_EXISTS, false) && notificationStreamRepository.isWidgetUpdateNecessary()) {
       AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
       int[] ids = appWidgetManager.getAppWidgetIds(new ComponentName(context, UnreadAppWidgetProvider.class));
       Intent intent = new Intent(context, UnreadAppWidgetProvider.class);
@@ -758,7 +1102,7 @@ public class UnreadNotificationsService {
   }
 
   public void flushPersistentStore() {
-    persistFile.delete();
+    notificationStreamRepository.clear();
   }
 
 }
@@ -48,9 +48,11 @@ public class WatchedRepositoriesService {
   private static final String TAG = "WatchedRepositoriesServ";
 
   /**
-   * URL to load notifications from.
+   * URL to load watched repositories from.
    */
-  private static final String URL_NOTIFICATIONS = GHConstants.URL_BASE + "/user/subscriptions";
+  private static String getUrlSubscriptions() {
+    return GHConstants.getUrlBase() + "/user/subscriptions";
+  }
 
   /**
    * Name of file where data are persisted.
@@ -104,7 +106,7 @@ public class WatchedRepositoriesService {
       // read from server
       try {
         if (ns == null && reloadStrategy != ViewDataReloadStrategy.NEVER) {
-          ns = readFromServer(URL_NOTIFICATIONS);
+          ns = readFromServer(getUrlSubscriptions());
           if (ns != null) {
             Utils.writeToStore(TAG, context, persistFile, ns);
           }
@@ -139,33 +141,27 @@ public class WatchedRepositoriesService {
   }
 
   /**
+   * Unwatch repository. It is removed from local data immediately and queued in {@link PendingMutationQueue} to be replayed to the server.
+   *
    * @param id of repository to unwatch
-   * @return view data with result of call
+   * @return view data with result of call, {@link LoadingStatus#OK} also if action is kept in queue due to connection problem
    */
   public BaseViewData unwatchRepository(long id) {
     BaseViewData nswd = new BaseViewData();
-    try {
-      synchronized (TAG) {
-        WatchedRepositories oldNs = Utils.readFromStore(TAG, context, persistFile);
-        if (oldNs != null) {
-          Repository ret = oldNs.removeRepositoryById(id);
-          if (ret != null) {
-            RemoteSystemClient.deleteToURL(context, authenticationManager.getGhApiCredentials(context),
-                GHConstants.URL_BASE + "/repos/" + ret.getRepositoryFullName() + "/subscription", null);
-            Utils.writeToStore(TAG, context, persistFile, oldNs);
-          }
+    Repository ret = null;
+    synchronized (TAG) {
+      WatchedRepositories oldNs = Utils.readFromStore(TAG, context, persistFile);
+      if (oldNs != null) {
+        ret = oldNs.removeRepositoryById(id);
+        if (ret != null) {
+          Utils.writeToStore(TAG, context, persistFile, oldNs);
         }
       }
-    } catch (NoRouteToHostException e) {
-      nswd.loadingStatus = LoadingStatus.CONN_UNAVAILABLE;
-    } catch (AuthenticationException e) {
-      nswd.loadingStatus = LoadingStatus.AUTH_ERROR;
-    } catch (IOException e) {
-      Log.w(TAG, "Repository unwatch failed due to connection problem: " + e.getMessage());
-      nswd.loadingStatus = LoadingStatus.CONN_ERROR;
-    } catch (Exception e) {
-      Log.e(TAG, "Repository unwatch failed due to: " + e.getMessage(), e);
-      nswd.loadingStatus = LoadingStatus.UNKNOWN_ERROR;
+    }
+    if (ret != null) {
+      PendingMutationQueue queue = PendingMutationQueue.getInstance(context);
+      queue.enqueue(PendingMutationQueue.unwatch(id, ret.getRepositoryFullName()));
+      nswd.loadingStatus = queue.replay(false);
     }
     return nswd;
   }
@@ -179,12 +175,14 @@ public class WatchedRepositoriesService {
       return null;
 
     WatchedRepositories ns = WatchedRepositoriesParser.parseNotificationStream(resp.data);
+    // repositories unwatched by user but not replayed to the server yet must not reappear
+    PendingMutationQueue.getInstance(context).applyTo(ns);
     ns.setLastFullUpdateTimestamp(System.currentTimeMillis());
     return ns;
   }
 
   public void flushPersistentStore() {
-    persistFile.delete();
+    Utils.deleteFromStore(context, persistFile);
   }
 
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.model;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Difference between old and new {@link NotificationStream} computed by {@link #compute(NotificationStream, NotificationStream)} in one pass over
+ * both streams. Notifications are added (not in old stream), updated (in old stream with other <code>updatedAt</code>), unchanged or removed
+ * (in old stream only).
+ * <p/>
+ * One instance is computed after sync and used by all consumers (detail data carry-over, Android notification, widget, badge).
+ */
+public class ChangeSet {
+
+  private final List<Notification> added = new ArrayList<Notification>();
+  private final List<Notification> updated = new ArrayList<Notification>();
+  private final List<Notification> unchanged = new ArrayList<Notification>();
+  private final List<Notification> removed = new ArrayList<Notification>();
+
+  // old notifications at the same positions as in updated and unchanged lists
+  private final List<Notification> updatedOld = new ArrayList<Notification>();
+  private final List<Notification> unchangedOld = new ArrayList<Notification>();
+
+  /**
+   * Compute difference between streams.
+   *
+   * @param oldStream old stream, may be null
+   * @param newStream new stream, may be null
+   * @return difference, never null
+   */
+  public static ChangeSet compute(NotificationStream oldStream, NotificationStream newStream) {
+    ChangeSet cs = new ChangeSet();
+    int matched = 0;
+    if (newStream != null) {
+      for (Notification n : newStream) {
+        Notification o = oldStream != null ? oldStream.getNotificationById(n.getId()) : null;
+        if (o == null) {
+          cs.added.add(n);
+        } else {
+          matched++;
+          if (isSameDate(n.getUpdatedAt(), o.getUpdatedAt())) {
+            cs.unchanged.add(n);
+            cs.unchangedOld.add(o);
+          } else {
+            cs.updated.add(n);
+            cs.updatedOld.add(o);
+          }
+        }
+      }
+    }
+    // all old notifications are matched usually, so old stream is not iterated at all
+    if (oldStream != null && matched < oldStream.size()) {
+      for (Notification o : oldStream) {
+        if (newStream == null || newStream.getNotificationById(o.getId()) == null)
+          cs.removed.add(o);
+      }
+    }
+    return cs;
+  }
+
+  private static boolean isSameDate(Date d1, Date d2) {
+    return d1 == null ? d2 == null : d1.equals(d2);
+  }
+
+  /**
+   * @return notifications not present in old stream
+   */
+  public List<Notification> getAdded() {
+    return added;
+  }
+
+  /**
+   * @return notifications present in old stream with other update time
+   */
+  public List<Notification> getUpdated() {
+    return updated;
+  }
+
+  /**
+   * @return notifications present in old stream with the same update time
+   */
+  public List<Notification> getUnchanged() {
+    return unchanged;
+  }
+
+  /**
+   * @return notifications from old stream not present in new stream
+   */
+  public List<Notification> getRemoved() {
+    return removed;
+  }
+
+  /**
+   * @return true if new stream contains added or updated notifications
+   */
+  public boolean hasNew() {
+    return !added.isEmpty() || !updated.isEmpty();
+  }
+
+  /**
+   * Copy detail data (status, html url, labels) from old notifications into matching new ones, so they are shown until details are reloaded.
+   */
+  public void carryOverDetails() {
+    carryOverDetails(updated, updatedOld);
+    carryOverDetails(unchanged, unchangedOld);
+  }
+
+  private static void carryOverDetails(List<Notification> notifications, List<Notification> oldNotifications) {
+    for (int i = 0; i < notifications.size(); i++) {
+      Notification n = notifications.get(i);
+      Notification o = oldNotifications.get(i);
+      if (n != o) {
+        n.setSubjectStatus(o.getSubjectStatus());
+        n.setSubjectDetailHtmlUrl(o.getSubjectDetailHtmlUrl());
+        n.setSubjectLabels(o.getSubjectLabels());
+      }
+    }
+  }
+
+}
@@ -42,6 +42,18 @@ public class GHUserInfo implements Serializable {
 
   }
 
+  /**
+   * Filling constructor used when restored from persistent store.
+   */
+  public GHUserInfo(String username, String name, String avatarUrl, String htmlUrl, long updateTimestamp) {
+    super();
+    this.username = username;
+    this.name = name;
+    this.avatarUrl = avatarUrl;
+    this.htmlUrl = htmlUrl;
+    this.updateTimestamp = updateTimestamp;
+  }
+
   public GHUserInfo(JSONObject data) throws JSONException {
     super();
     this.username = Utils.trimToNull(data.getString("login"));
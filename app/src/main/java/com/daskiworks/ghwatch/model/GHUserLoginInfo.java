@@ -41,6 +41,17 @@ public class GHUserLoginInfo implements Serializable {
     this.loginDate = System.currentTimeMillis();
   }
 
+  /**
+   * Filling constructor used when restored from persistent store.
+   */
+  public GHUserLoginInfo(AccountType accountType, String username, String t, long loginDate) {
+    super();
+    this.accountType = accountType;
+    this.username = username;
+    this.t = t;
+    this.loginDate = loginDate;
+  }
+
   public String getUsername() {
     return username;
   }
@@ -27,7 +27,7 @@ public enum LoadingStatus {
 
   OK(0), CONN_UNAVAILABLE(R.string.message_err_comm_error_conn_unavailable), AUTH_ERROR(R.string.message_err_comm_error_auth), CONN_ERROR(
       R.string.message_err_comm_error_conn_error), DATA_ERROR(R.string.message_err_comm_error_data_error), UNKNOWN_ERROR(
-      R.string.message_err_comm_error_unknown);
+      R.string.message_err_comm_error_unknown), RATE_LIMITED(R.string.message_err_comm_error_rate_limited);
 
   private int resId;
 
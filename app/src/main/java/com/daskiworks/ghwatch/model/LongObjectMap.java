@@ -0,0 +1,339 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.model;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Map from primitive <code>long</code> key to object, iterated in insertion order as {@link java.util.LinkedHashMap}. Keys are not boxed and
+ * there is no node object per entry: entries are kept in insertion ordered arrays and found over open-addressing hash table with linear
+ * probing. Removed entries leave holes compacted during next resize. <code>null</code> values are not supported.
+ * <p/>
+ * Not thread safe.
+ */
+public class LongObjectMap<V> implements Serializable, Iterable<V> {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int MIN_CAPACITY = 8;
+
+  // values of hash table slot which is not pointing to entry
+  private static final int SLOT_FREE = -1;
+  private static final int SLOT_REMOVED = -2;
+
+  // entries in insertion order, removed entry has null value
+  private transient long[] keys;
+  private transient Object[] values;
+  // open-addressing hash table with indexes into entry arrays
+  private transient int[] slots;
+
+  // number of used positions in entry arrays including removed entries
+  private transient int entryCount;
+  private transient int size;
+  private transient int modCount;
+
+  public LongObjectMap() {
+    this(0);
+  }
+
+  /**
+   * @param expectedSize number of entries map is created for without resize
+   */
+  public LongObjectMap(int expectedSize) {
+    allocate(Math.max(MIN_CAPACITY, expectedSize));
+  }
+
+  /**
+   * Create copy of other map. Internal arrays are copied as they are, so no entry is hashed again.
+   *
+   * @param other map to copy
+   */
+  public LongObjectMap(LongObjectMap<? extends V> other) {
+    keys = other.keys.clone();
+    values = other.values.clone();
+    slots = other.slots.clone();
+    entryCount = other.entryCount;
+    size = other.size;
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    // load factor of hash table is at most 0.75 as it is never filled more than entry arrays
+    int tableSize = Integer.highestOneBit(capacity + capacity / 3) << 1;
+    slots = new int[tableSize];
+    Arrays.fill(slots, SLOT_FREE);
+    entryCount = 0;
+    size = 0;
+  }
+
+  private static int hash(long key) {
+    int h = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * @return slot of key or -1 if not in map
+   */
+  private int findSlot(long key) {
+    int mask = slots.length - 1;
+    int s = hash(key) & mask;
+    int e;
+    while ((e = slots[s]) != SLOT_FREE) {
+      if (e >= 0 && keys[e] == key)
+        return s;
+      s = (s + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void insert(long key, Object value) {
+    int mask = slots.length - 1;
+    int s = hash(key) & mask;
+    while (slots[s] >= 0) {
+      s = (s + 1) & mask;
+    }
+    keys[entryCount] = key;
+    values[entryCount] = value;
+    slots[s] = entryCount;
+    entryCount++;
+    size++;
+  }
+
+  /**
+   * Resize entry arrays and hash table to fit given number of entries, removed entries are compacted.
+   */
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    int oldEntryCount = entryCount;
+    allocate(Math.max(MIN_CAPACITY, capacity));
+    for (int i = 0; i < oldEntryCount; i++) {
+      if (oldValues[i] != null)
+        insert(oldKeys[i], oldValues[i]);
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(long key) {
+    return findSlot(key) >= 0;
+  }
+
+  /**
+   * @param key to get value for
+   * @return value or null if key is not in map
+   */
+  @SuppressWarnings("unchecked")
+  public V get(long key) {
+    int s = findSlot(key);
+    return s >= 0 ? (V) values[slots[s]] : null;
+  }
+
+  /**
+   * Put value into map. Replaced value keeps original position in iteration order.
+   *
+   * @param key   to put value for
+   * @param value to put, can't be null
+   * @return previous value for key or null
+   */
+  @SuppressWarnings("unchecked")
+  public V put(long key, V value) {
+    if (value == null)
+      throw new IllegalArgumentException("null value is not supported");
+    int s = findSlot(key);
+    if (s >= 0) {
+      V old = (V) values[slots[s]];
+      values[slots[s]] = value;
+      return old;
+    }
+    if (entryCount == keys.length) {
+      // compact only if there is enough holes, grow otherwise
+      resize(size < keys.length * 3 / 4 ? keys.length : keys.length + (keys.length >> 1));
+    }
+    insert(key, value);
+    modCount++;
+    return null;
+  }
+
+  /**
+   * Put all entries from other map in its iteration order.
+   *
+   * @param other map to put entries from
+   */
+  public void putAll(LongObjectMap<? extends V> other) {
+    if (entryCount + other.size > keys.length)
+      resize(size + other.size);
+    for (int i = 0; i < other.entryCount; i++) {
+      if (other.values[i] != null)
+        put(other.keys[i], other.valueAt(i));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private V valueAt(int entry) {
+    return (V) values[entry];
+  }
+
+  /**
+   * @param key to remove value for
+   * @return removed value or null if key is not in map
+   */
+  @SuppressWarnings("unchecked")
+  public V remove(long key) {
+    int s = findSlot(key);
+    if (s < 0)
+      return null;
+    int e = slots[s];
+    V old = (V) values[e];
+    values[e] = null;
+    slots[s] = SLOT_REMOVED;
+    size--;
+    modCount++;
+    if (size == 0) {
+      // cheap reset so tombstones do not slow down lookups
+      Arrays.fill(slots, SLOT_FREE);
+      entryCount = 0;
+    }
+    return old;
+  }
+
+  public void clear() {
+    allocate(MIN_CAPACITY);
+    modCount++;
+  }
+
+  /**
+   * @return live read-only view of values in insertion order
+   */
+  public Collection<V> values() {
+    return new AbstractCollection<V>() {
+      @Override
+      public Iterator<V> iterator() {
+        return LongObjectMap.this.iterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /**
+   * @return iterator over values in insertion order
+   */
+  @Override
+  public Iterator<V> iterator() {
+    return new Iterator<V>() {
+      private int next = skipRemoved(0);
+      private final int expectedModCount = modCount;
+
+      private int skipRemoved(int i) {
+        while (i < entryCount && values[i] == null)
+          i++;
+        return i;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next < entryCount;
+      }
+
+      @Override
+      public V next() {
+        if (modCount != expectedModCount)
+          throw new ConcurrentModificationException();
+        if (next >= entryCount)
+          throw new NoSuchElementException();
+        V ret = valueAt(next);
+        next = skipRemoved(next + 1);
+        return ret;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  /**
+   * Get map from value of serialized field, which may be {@link Map} with {@link Long} keys in data written by older versions of application.
+   *
+   * @param value of serialized field, can be null
+   * @return map, new empty one for null value
+   * @throws InvalidObjectException if value is of unexpected type
+   */
+  @SuppressWarnings("unchecked")
+  static <V> LongObjectMap<V> fromSerializedField(Object value) throws InvalidObjectException {
+    if (value == null)
+      return new LongObjectMap<V>();
+    if (value instanceof LongObjectMap)
+      return (LongObjectMap<V>) value;
+    if (value instanceof Map) {
+      Map<Long, V> legacy = (Map<Long, V>) value;
+      LongObjectMap<V> ret = new LongObjectMap<V>(legacy.size());
+      for (Map.Entry<Long, V> e : legacy.entrySet()) {
+        ret.put(e.getKey(), e.getValue());
+      }
+      return ret;
+    }
+    throw new InvalidObjectException("Unexpected type of serialized map " + value.getClass().getName());
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeInt(size);
+    for (int i = 0; i < entryCount; i++) {
+      if (values[i] != null) {
+        out.writeLong(keys[i]);
+        out.writeObject(values[i]);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    int count = in.readInt();
+    if (count < 0)
+      throw new InvalidObjectException("Invalid size " + count);
+    allocate(Math.max(MIN_CAPACITY, count));
+    for (int i = 0; i < count; i++) {
+      long key = in.readLong();
+      put(key, (V) in.readObject());
+    }
+  }
+
+}
@@ -15,12 +15,16 @@
  */
 package com.daskiworks.ghwatch.model;
 
+import java.io.Serializable;
+
 /**
  * Count of notifications for some entity identified by title (eg. repositories, types etc.)
  * 
  * @author Vlastimil Elias <vlastimil.elias@worldonline.cz>
  */
-public class NotifCount {
+public class NotifCount implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   public String title;
   public int count = 0;
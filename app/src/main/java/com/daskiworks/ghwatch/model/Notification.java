@@ -110,6 +110,23 @@ public class Notification implements Serializable {
     this.reason = reason;
   }
 
+  /**
+   * Create copy of this notification, which may be changed without affecting notification in published stream. List of labels is copied,
+   * labels itself are shared.
+   *
+   * @return copy
+   */
+  public Notification copy() {
+    Notification ret = new Notification(id, url, subjectTitle, subjectType, subjectUrl, subjectLatestCommentUrl, repositoryFullName,
+        repositoryAvatarUrl, updatedAt, reason);
+    ret.detailLoaded = detailLoaded;
+    ret.subjectDetailHtmlUrl = subjectDetailHtmlUrl;
+    ret.subjectStatus = subjectStatus;
+    if (subjectLabels != null)
+      ret.subjectLabels = new ArrayList<Label>(subjectLabels);
+    return ret;
+  }
+
   public long getId() {
     return id;
   }
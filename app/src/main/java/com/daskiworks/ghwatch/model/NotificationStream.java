@@ -15,16 +15,17 @@
  */
 package com.daskiworks.ghwatch.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * JavaBean to hold info about GitHub notification stream.
@@ -36,17 +37,219 @@ public class NotificationStream implements Serializable, Iterable<Notification>
 
   private static final long serialVersionUID = 4L;
 
-  private LinkedHashMap<Long, Notification> notifications = new LinkedHashMap<Long, Notification>();
+  private LongObjectMap<Notification> notifications = new LongObjectMap<Notification>();
 
-  // internal caches
-  private transient List<Notification> items = null;
-  private transient List<NotifCount> repoInfo = null;
+  // internal caches, created complete before assignment so published stream may be read by more threads
+  private transient volatile List<Notification> items = null;
 
-  private void clearInternalCaches() {
-    items = null;
-    repoInfo = null;
+  /**
+   * Count of notifications in one repository kept up to date as notifications are added and removed.
+   */
+  private static class RepositoryCounter extends NotifCount {
+
+    private static final long serialVersionUID = 1L;
+
+    // sequence of counter creation, keeps repositories with the same count in order of their first notification
+    long order;
+    // position in ranked list
+    int index;
+
+    boolean isBefore(RepositoryCounter other) {
+      return count > other.count || (count == other.count && order < other.order);
+    }
+  }
+
+  /**
+   * Bucket of secondary index. Notifications are kept in stream order in map by id, so removal is cheap also during bulk removals. Array for
+   * positional access used by list views is created lazily after change.
+   * <p/>
+   * Bucket is shared by copies of stream until one of them changes it, see {@link NotificationIndex#copy()}.
+   */
+  private static class IndexBucket {
+
+    private final LongObjectMap<Notification> notifications;
+
+    // internal cache, created complete before assignment so published stream may be read by more threads
+    private volatile Notification[] positions;
+
+    // set once bucket is shared by more streams, then it is never changed
+    private volatile boolean shared;
+
+    IndexBucket() {
+      notifications = new LongObjectMap<Notification>();
+    }
+
+    IndexBucket(IndexBucket other) {
+      notifications = new LongObjectMap<Notification>(other.notifications);
+      positions = other.positions;
+    }
+
+    void add(Notification n) {
+      notifications.put(n.getId(), n);
+      positions = null;
+    }
+
+    void remove(Notification n) {
+      notifications.remove(n.getId());
+      positions = null;
+    }
+
+    int size() {
+      return notifications.size();
+    }
+
+    Notification get(int location) {
+      Notification[] p = positions;
+      if (p == null) {
+        p = notifications.values().toArray(new Notification[notifications.size()]);
+        positions = p;
+      }
+      return p[location];
+    }
+
+    Iterator<Notification> iterator() {
+      return notifications.iterator();
+    }
+  }
+
+  /**
+   * Secondary index of notifications by some key. Buckets keep notifications in stream order.
+   */
+  private static class NotificationIndex {
+
+    private final Map<String, IndexBucket> buckets = new HashMap<String, IndexBucket>();
+
+    /**
+     * Get bucket which may be changed, shared one is copied first.
+     */
+    private IndexBucket getForChange(String key) {
+      IndexBucket b = buckets.get(key);
+      if (b != null && b.shared) {
+        b = new IndexBucket(b);
+        buckets.put(key, b);
+      }
+      return b;
+    }
+
+    void add(String key, Notification n) {
+      IndexBucket b = getForChange(key);
+      if (b == null) {
+        b = new IndexBucket();
+        buckets.put(key, b);
+      }
+      b.add(n);
+    }
+
+    void remove(String key, Notification n) {
+      IndexBucket b = getForChange(key);
+      if (b != null) {
+        b.remove(n);
+        if (b.size() == 0)
+          buckets.remove(key);
+      }
+    }
+
+    IndexBucket get(String key) {
+      return buckets.get(key);
+    }
+
+    /**
+     * Copy index. Buckets are shared with this index and copied later by the first change only, so copy of stream for removal of one
+     * notification copies just buckets the notification is in.
+     */
+    NotificationIndex copy() {
+      NotificationIndex ret = new NotificationIndex();
+      for (Map.Entry<String, IndexBucket> e : buckets.entrySet()) {
+        e.getValue().shared = true;
+        ret.buckets.put(e.getKey(), e.getValue());
+      }
+      return ret;
+    }
   }
 
+  /**
+   * Live read-only view of one bucket of index. Bucket is looked up on every access, so view reflects later changes of stream.
+   */
+  private class IndexView extends AbstractList<Notification> {
+
+    private final int indexType;
+    private final String key;
+
+    IndexView(int indexType, String key) {
+      this.indexType = indexType;
+      this.key = key;
+    }
+
+    @Override
+    public Notification get(int location) {
+      IndexBucket b = getIndex(indexType).get(key);
+      if (b == null || location < 0 || location >= b.size())
+        throw new IndexOutOfBoundsException("Invalid index " + location + ", size is " + size());
+      return b.get(location);
+    }
+
+    @Override
+    public int size() {
+      IndexBucket b = getIndex(indexType).get(key);
+      return b != null ? b.size() : 0;
+    }
+
+    @Override
+    public Iterator<Notification> iterator() {
+      IndexBucket b = getIndex(indexType).get(key);
+      return b != null ? b.iterator() : Collections.<Notification>emptyList().iterator();
+    }
+  }
+
+  private static final int INDEX_REPOSITORY = 0;
+  private static final int INDEX_REASON = 1;
+  private static final int INDEX_SUBJECT_TYPE = 2;
+  private static final int INDEX_PARTICIPATING = 3;
+
+  /**
+   * Reason of notifications user is not participating in.
+   */
+  public static final String REASON_SUBSCRIBED = "subscribed";
+
+  // key of notifications user is participating in (reason other than subscribed) in participating index
+  private static final String KEY_PARTICIPATING = "participating";
+
+  private transient NotificationIndex[] indexes = createIndexes();
+
+  private static NotificationIndex[] createIndexes() {
+    return new NotificationIndex[]{new NotificationIndex(), new NotificationIndex(), new NotificationIndex(), new NotificationIndex()};
+  }
+
+  private NotificationIndex getIndex(int indexType) {
+    return indexes[indexType];
+  }
+
+  private void addToIndexes(Notification n) {
+    indexes[INDEX_REPOSITORY].add(n.getRepositoryFullName(), n);
+    indexes[INDEX_REASON].add(n.getReason(), n);
+    indexes[INDEX_SUBJECT_TYPE].add(n.getSubjectType(), n);
+    if (isParticipating(n))
+      indexes[INDEX_PARTICIPATING].add(KEY_PARTICIPATING, n);
+  }
+
+  private void removeFromIndexes(Notification n) {
+    indexes[INDEX_REPOSITORY].remove(n.getRepositoryFullName(), n);
+    indexes[INDEX_REASON].remove(n.getReason(), n);
+    indexes[INDEX_SUBJECT_TYPE].remove(n.getSubjectType(), n);
+    if (isParticipating(n))
+      indexes[INDEX_PARTICIPATING].remove(KEY_PARTICIPATING, n);
+  }
+
+  private static boolean isParticipating(Notification n) {
+    return !REASON_SUBSCRIBED.equalsIgnoreCase(n.getReason());
+  }
+
+  // per repository aggregates, ranked list is ordered as on github pages, most notified repo first
+  private transient Map<String, RepositoryCounter> repositoryCounters = new HashMap<String, RepositoryCounter>();
+  private transient ArrayList<NotifCount> repositoryRanking = new ArrayList<NotifCount>();
+  private transient List<NotifCount> repositoryRankingView = Collections.unmodifiableList(repositoryRanking);
+  private transient long repositoryCounterSequence = 0;
+
   /**
    * Timestamp when stream was loaded from server as full update.
    */
@@ -65,7 +268,9 @@ public class NotificationStream implements Serializable, Iterable<Notification>
   public void addNotification(Notification notification) {
     if (!notifications.containsKey(notification.getId())) {
       notifications.put(notification.getId(), notification);
-      clearInternalCaches();
+      items = null;
+      addToIndexes(notification);
+      incrementRepositoryCount(notification.getRepositoryFullName());
     }
   }
 
@@ -75,8 +280,109 @@ public class NotificationStream implements Serializable, Iterable<Notification>
    * @param id to remove notification for
    */
   public void removeNotificationById(long id) {
-    notifications.remove(id);
-    clearInternalCaches();
+    Notification removed = notifications.remove(id);
+    if (removed != null) {
+      items = null;
+      removeFromIndexes(removed);
+      decrementRepositoryCount(removed.getRepositoryFullName());
+    }
+  }
+
+  /**
+   * Replace notification with the same id by given instance, position in stream is kept. Used to publish changed copy of notification, see
+   * {@link Notification#copy()}. Nothing is done if notification with the same id is not in stream.
+   *
+   * @param notification to replace notification with the same id by
+   * @return true if notification was replaced
+   */
+  public boolean replaceNotification(Notification notification) {
+    Notification old = notifications.get(notification.getId());
+    if (old == null)
+      return false;
+    notifications.put(notification.getId(), notification);
+    items = null;
+    // put of existing id keeps position in bucket, so only notification moved to other buckets has to be removed first
+    if (!isIndexedSame(old, notification))
+      removeFromIndexes(old);
+    addToIndexes(notification);
+    if (!Objects.equals(old.getRepositoryFullName(), notification.getRepositoryFullName())) {
+      decrementRepositoryCount(old.getRepositoryFullName());
+      incrementRepositoryCount(notification.getRepositoryFullName());
+    }
+    return true;
+  }
+
+  private static boolean isIndexedSame(Notification n1, Notification n2) {
+    return Objects.equals(n1.getRepositoryFullName(), n2.getRepositoryFullName()) && Objects.equals(n1.getReason(), n2.getReason())
+        && Objects.equals(n1.getSubjectType(), n2.getSubjectType());
+  }
+
+  private void incrementRepositoryCount(String repositoryFullName) {
+    RepositoryCounter rc = repositoryCounters.get(repositoryFullName);
+    if (rc == null) {
+      rc = new RepositoryCounter();
+      rc.title = repositoryFullName;
+      rc.order = repositoryCounterSequence++;
+      rc.index = repositoryRanking.size();
+      repositoryCounters.put(repositoryFullName, rc);
+      repositoryRanking.add(rc);
+    }
+    rc.count++;
+    // move up over repositories with lower count
+    while (rc.index > 0) {
+      RepositoryCounter prev = (RepositoryCounter) repositoryRanking.get(rc.index - 1);
+      if (!rc.isBefore(prev))
+        break;
+      swapRanking(prev, rc);
+    }
+  }
+
+  private void decrementRepositoryCount(String repositoryFullName) {
+    RepositoryCounter rc = repositoryCounters.get(repositoryFullName);
+    if (rc == null)
+      return;
+    rc.count--;
+    // move down under repositories with higher count, counter with zero count ends at the end of list
+    while (rc.index < repositoryRanking.size() - 1) {
+      RepositoryCounter next = (RepositoryCounter) repositoryRanking.get(rc.index + 1);
+      if (!next.isBefore(rc))
+        break;
+      swapRanking(rc, next);
+    }
+    if (rc.count <= 0) {
+      repositoryCounters.remove(repositoryFullName);
+      repositoryRanking.remove(rc.index);
+    }
+  }
+
+  private void swapRanking(RepositoryCounter first, RepositoryCounter second) {
+    int i = first.index;
+    first.index = second.index;
+    second.index = i;
+    repositoryRanking.set(first.index, first);
+    repositoryRanking.set(second.index, second);
+  }
+
+  private void initRepositoryCounters() {
+    repositoryCounters = new HashMap<String, RepositoryCounter>();
+    repositoryRanking = new ArrayList<NotifCount>();
+    repositoryRankingView = Collections.unmodifiableList(repositoryRanking);
+    repositoryCounterSequence = 0;
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    // fields are read one by one as older versions serialized notifications in LinkedHashMap
+    ObjectInputStream.GetField fields = in.readFields();
+    notifications = LongObjectMap.fromSerializedField(fields.get("notifications", null));
+    lastFullUpdateTimestamp = fields.get("lastFullUpdateTimestamp", 0L);
+    lastModified = (String) fields.get("lastModified", null);
+    // transient aggregates and indexes are not serialized, so rebuild them
+    initRepositoryCounters();
+    indexes = createIndexes();
+    for (Notification n : notifications.values()) {
+      addToIndexes(n);
+      incrementRepositoryCount(n.getRepositoryFullName());
+    }
   }
 
   /**
@@ -125,9 +431,7 @@ public class NotificationStream implements Serializable, Iterable<Notification>
 
   protected void initItemList() {
     if (items == null) {
-      items = new ArrayList<Notification>();
-      if (!notifications.isEmpty())
-        items.addAll(notifications.values());
+      items = new ArrayList<Notification>(notifications.values());
     }
   }
 
@@ -148,31 +452,42 @@ public class NotificationStream implements Serializable, Iterable<Notification>
   }
 
   /**
-   * Check if this stream contains some new notifications compared to provided old stream.
+   * Create shallow copy of this stream. Notifications are shared with this stream. Map of notifications is copied by plain array copy and
+   * index buckets are shared until changed, so copy costs little more than copy of few arrays (see benchmark in <code>NotificationStreamTest</code>).
+   *
+   * @return copy
+   */
+  public NotificationStream copy() {
+    NotificationStream ret = new NotificationStream();
+    ret.notifications = new LongObjectMap<Notification>(notifications);
+    ret.lastFullUpdateTimestamp = lastFullUpdateTimestamp;
+    ret.lastModified = lastModified;
+    for (NotifCount nc : repositoryRanking) {
+      RepositoryCounter rc = (RepositoryCounter) nc;
+      RepositoryCounter rcc = new RepositoryCounter();
+      rcc.title = rc.title;
+      rcc.count = rc.count;
+      rcc.order = rc.order;
+      rcc.index = rc.index;
+      ret.repositoryCounters.put(rcc.title, rcc);
+      ret.repositoryRanking.add(rcc);
+    }
+    ret.repositoryCounterSequence = repositoryCounterSequence;
+    for (int i = 0; i < indexes.length; i++) {
+      ret.indexes[i] = indexes[i].copy();
+    }
+    return ret;
+  }
+
+  /**
+   * Check if this stream contains some new notifications compared to provided old stream. Use {@link ChangeSet} directly if more details about
+   * changes are necessary.
    * 
    * @param oldStream to check against
    * @return true if there are some new notifications.
    */
   public boolean isNewNotification(NotificationStream oldStream) {
-    initItemList();
-
-    if (oldStream == null || oldStream.isEmpty()) {
-      return !items.isEmpty();
-    }
-
-    for (Notification n : items) {
-      Notification oldNotif = oldStream.getNotificationById(n.getId());
-      if (oldNotif == null) {
-        return true;
-      } else {
-        Date d1 = n.getUpdatedAt();
-        Date d2 = oldNotif.getUpdatedAt();
-        if ((d1 == null && d2 != null) || (d1 != null && d2 == null) || (d1 != null && d2 != null && !d1.equals(d2)))
-          return true;
-      }
-
-    }
-    return false;
+    return ChangeSet.compute(oldStream, this).hasNew();
   }
 
   /**
@@ -188,21 +503,7 @@ public class NotificationStream implements Serializable, Iterable<Notification>
    * @return true if all notifications are from same repository.
    */
   public boolean allNotificationsFromSameRepository() {
-    initItemList();
-    if (items == null || items.isEmpty())
-      return false;
-
-    String lr = null;
-
-    for (Notification n : items) {
-      if (lr == null) {
-        lr = n.getRepositoryFullName();
-      } else {
-        if (!lr.equals(n.getRepositoryFullName()))
-          return false;
-      }
-    }
-    return true;
+    return repositoryRanking.size() == 1;
   }
 
   @Override
@@ -212,37 +513,85 @@ public class NotificationStream implements Serializable, Iterable<Notification>
   }
 
   /**
-   * Get info about repositories stream contains Notifications for. Info contains repository title and count of notifications in repository.
+   * Get info about repositories stream contains Notifications for. Info contains repository title and count of notifications in repository. List is
+   * kept up to date as notifications are added and removed, ordered as on github pages, most notified repo first.
    * 
-   * @return list of info (never null)
+   * @return unmodifiable list of info (never null)
    */
   public List<NotifCount> getRepositoriesInfo() {
-    if (repoInfo == null) {
-      Map<String, NotifCount> m = new HashMap<String, NotifCount>();
-      repoInfo = new ArrayList<NotifCount>();
-      initItemList();
-      if (items != null && !items.isEmpty()) {
-        for (Notification n : items) {
-          String rn = n.getRepositoryFullName();
-          NotifCount nc = m.get(rn);
-          if (nc == null) {
-            nc = new NotifCount();
-            nc.title = rn;
-            m.put(rn, nc);
-            repoInfo.add(nc);
-          }
-          nc.count++;
-        }
+    return repositoryRankingView;
+  }
+
+  /**
+   * Get position of repository in {@link #getRepositoriesInfo()}.
+   * 
+   * @param repositoryFullName to get position for
+   * @return position or -1 if stream contains no notification for given repository
+   */
+  public int getRepositoryInfoPosition(String repositoryFullName) {
+    RepositoryCounter rc = repositoryCounters.get(repositoryFullName);
+    return rc != null ? rc.index : -1;
+  }
+
+  /**
+   * Get notifications from given repository. Returned list is live read-only view in stream order, changes of stream are visible in it.
+   * 
+   * @param repositoryFullName to get notifications for
+   * @return list of notifications (never null)
+   */
+  public List<Notification> getNotificationsForRepository(String repositoryFullName) {
+    return new IndexView(INDEX_REPOSITORY, repositoryFullName);
+  }
+
+  /**
+   * Get notifications with given reason. Returned list is live read-only view in stream order, changes of stream are visible in it.
+   * 
+   * @param reason to get notifications for
+   * @return list of notifications (never null)
+   */
+  public List<Notification> getNotificationsForReason(String reason) {
+    return new IndexView(INDEX_REASON, reason);
+  }
+
+  /**
+   * Get notifications with given subject type. Returned list is live read-only view in stream order, changes of stream are visible in it.
+   * 
+   * @param subjectType to get notifications for
+   * @return list of notifications (never null)
+   */
+  public List<Notification> getNotificationsForSubjectType(String subjectType) {
+    return new IndexView(INDEX_SUBJECT_TYPE, subjectType);
+  }
+
+  /**
+   * Get notifications user is participating in (reason other than {@link #REASON_SUBSCRIBED}). Returned list is live read-only view in stream
+   * order, changes of stream are visible in it.
+   * 
+   * @return list of notifications (never null)
+   */
+  public List<Notification> getParticipatingNotifications() {
+    return new IndexView(INDEX_PARTICIPATING, KEY_PARTICIPATING);
+  }
+
+  /**
+   * Get all notifications as live read-only list view in stream order.
+   * 
+   * @return list of notifications (never null)
+   */
+  public List<Notification> asList() {
+    return new AbstractList<Notification>() {
+      @Override
+      public Notification get(int location) {
+        if (location < 0 || location >= notifications.size())
+          throw new IndexOutOfBoundsException("Invalid index " + location + ", size is " + notifications.size());
+        return NotificationStream.this.get(location);
+      }
+
+      @Override
+      public int size() {
+        return notifications.size();
       }
-      //order in a way as on github pages, most notified repo first
-      Collections.sort(repoInfo,new Comparator<NotifCount>() {
-        @Override
-        public int compare(NotifCount o1, NotifCount o2) {
-          return (o1.count > o2.count) ? -1 : ((o1.count == o2.count) ? 0 : 1);
-        }
-      });
-    }
-    return repoInfo;
+    };
   }
 
 }
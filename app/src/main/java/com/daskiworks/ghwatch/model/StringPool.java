@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of canonical instances of strings repeated in many model objects (repository name and avatar, reason, subject type, label name and color).
+ * One pool is used for one sync or one store read only, so it does not grow over the application life as {@link String#intern()} would.
+ * <p/>
+ * Thread safe, pages of notifications are parsed in parallel.
+ */
+public class StringPool {
+
+  private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<String, String>();
+
+  /**
+   * Get canonical instance of string.
+   *
+   * @param s string to get canonical instance for, can be null
+   * @return canonical instance equal to <code>s</code>, null for null
+   */
+  public String get(String s) {
+    if (s == null)
+      return null;
+    String ret = strings.putIfAbsent(s, s);
+    return ret != null ? ret : s;
+  }
+
+  /**
+   * @return number of distinct strings in pool
+   */
+  public int size() {
+    return strings.size();
+  }
+
+}
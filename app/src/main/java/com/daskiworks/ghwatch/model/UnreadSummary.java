@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Small summary of unread {@link NotificationStream} stored beside it, so widget and launcher badge do not have to load whole stream.
+ */
+public class UnreadSummary implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private int unreadCount;
+  private List<NotifCount> repositoryCounts;
+  private boolean highlight;
+  private int badgeCount;
+  private long lastUpdateTimestamp;
+
+  /**
+   * Create summary of stream.
+   *
+   * @param ns          to create summary for, null if stream is not available
+   * @param highlight   flag if widget should be highlighted due to new notification
+   * @param badgeCount  number of notifications shown in launcher badge
+   */
+  public UnreadSummary(NotificationStream ns, boolean highlight, int badgeCount) {
+    super();
+    this.unreadCount = ns != null ? ns.size() : -1;
+    this.repositoryCounts = new ArrayList<NotifCount>();
+    if (ns != null) {
+      // copy values, counters in stream are updated as notifications are removed
+      for (NotifCount nc : ns.getRepositoriesInfo()) {
+        NotifCount c = new NotifCount();
+        c.title = nc.title;
+        c.count = nc.count;
+        repositoryCounts.add(c);
+      }
+    }
+    this.highlight = highlight;
+    this.badgeCount = badgeCount;
+    this.lastUpdateTimestamp = System.currentTimeMillis();
+  }
+
+  /**
+   * Filling constructor used when restored from persistent store.
+   */
+  public UnreadSummary(int unreadCount, List<NotifCount> repositoryCounts, boolean highlight, int badgeCount, long lastUpdateTimestamp) {
+    super();
+    this.unreadCount = unreadCount;
+    this.repositoryCounts = repositoryCounts;
+    this.highlight = highlight;
+    this.badgeCount = badgeCount;
+    this.lastUpdateTimestamp = lastUpdateTimestamp;
+  }
+
+  /**
+   * @return number of unread notifications, -1 if stream is not available
+   */
+  public int getUnreadCount() {
+    return unreadCount;
+  }
+
+  /**
+   * @return number of notifications per repository, most notified repository first
+   */
+  public List<NotifCount> getRepositoryCounts() {
+    return repositoryCounts;
+  }
+
+  public boolean isHighlight() {
+    return highlight;
+  }
+
+  public void setHighlight(boolean highlight) {
+    this.highlight = highlight;
+  }
+
+  public int getBadgeCount() {
+    return badgeCount;
+  }
+
+  public void setBadgeCount(int badgeCount) {
+    this.badgeCount = badgeCount;
+  }
+
+  public long getLastUpdateTimestamp() {
+    return lastUpdateTimestamp;
+  }
+
+  /**
+   * Check if widget shows the same for this and other summary, so widget update is not necessary.
+   *
+   * @param other summary to compare with, may be null
+   * @return true if widget content is the same
+   */
+  public boolean isSameForWidget(UnreadSummary other) {
+    return other != null && unreadCount == other.unreadCount && highlight == other.highlight;
+  }
+
+}
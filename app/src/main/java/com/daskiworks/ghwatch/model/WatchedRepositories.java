@@ -15,12 +15,13 @@
  */
 package com.daskiworks.ghwatch.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.TreeSet;
 
@@ -34,7 +35,7 @@ public class WatchedRepositories implements Serializable, Iterable<Repository> {
 
   private static final long serialVersionUID = 4L;
 
-  private LinkedHashMap<Long, Repository> repositories = new LinkedHashMap<Long, Repository>();
+  private LongObjectMap<Repository> repositories = new LongObjectMap<Repository>();
 
   // internal caches
   private transient List<Repository> items = null;
@@ -155,4 +156,11 @@ public class WatchedRepositories implements Serializable, Iterable<Repository> {
     return items.iterator();
   }
 
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    // fields are read one by one as older versions serialized repositories in LinkedHashMap
+    ObjectInputStream.GetField fields = in.readFields();
+    repositories = LongObjectMap.fromSerializedField(fields.get("repositories", null));
+    lastFullUpdateTimestamp = fields.get("lastFullUpdateTimestamp", 0L);
+  }
+
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.store;
+
+import android.util.Log;
+
+import com.daskiworks.ghwatch.Utils;
+import com.daskiworks.ghwatch.model.StringPool;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * Crash safe persistent store of one object in file. Data are written into temporary file which is synced to the disk and then renamed over the
+ * store file, so process kill in the middle of write never leaves truncated file behind. Previous generation of file is kept with
+ * <code>.prev</code> suffix and used if the current one can't be read.
+ * <p/>
+ * Compact binary format of {@link BinaryStoreCodec} is used for supported model objects, Java serialization for others.
+ */
+public class AtomicFileStore {
+
+  private static final String SUFFIX_TMP = ".tmp";
+  private static final String SUFFIX_PREV = ".prev";
+
+  /**
+   * Write data into the store file.
+   *
+   * @param TAG  for logging
+   * @param file to write into
+   * @param data to persist
+   * @return true if persisting is OK, false if failed - previously stored data are read from store then.
+   */
+  public static boolean write(String TAG, File file, Serializable data) {
+    File tmp = getTmpFile(file);
+    FileOutputStream fos = null;
+    OutputStream os = null;
+    try {
+      fos = new FileOutputStream(tmp);
+      if (BinaryStoreCodec.isSupported(data)) {
+        os = new BufferedOutputStream(fos);
+        BinaryStoreCodec.write(os, data);
+      } else {
+        ObjectOutputStream oos = new ObjectOutputStream(fos);
+        os = oos;
+        oos.writeObject(data);
+      }
+      os.flush();
+      fos.getFD().sync();
+    } catch (Exception e) {
+      Log.w(TAG, "File write to persistens store failed: " + e.getMessage(), e);
+      tmp.delete();
+      return false;
+    } finally {
+      Utils.closeStream(os != null ? os : fos);
+    }
+
+    // rename is atomic, reader finds previous generation if we are killed between them
+    if (file.exists() && !file.renameTo(getPrevFile(file))) {
+      Log.w(TAG, "Previous generation of persistent store file can't be kept: " + file.getName());
+    }
+    if (!tmp.renameTo(file)) {
+      Log.w(TAG, "File write to persistens store failed: can't rename temporary file to " + file.getName());
+      tmp.delete();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Read data from the store file. Previous generation of file is used if the current one is missing or corrupted.
+   *
+   * @param TAG  for logging
+   * @param file to read from
+   * @return data from store. <code>null</code> if not in store or load failed.
+   */
+  public static <T> T read(String TAG, File file) {
+    return read(TAG, file, new StringPool());
+  }
+
+  /**
+   * Read data from the store file. Previous generation of file is used if the current one is missing or corrupted.
+   *
+   * @param TAG        for logging
+   * @param file       to read from
+   * @param stringPool used to canonicalize repeated strings of binary format
+   * @return data from store. <code>null</code> if not in store or load failed.
+   */
+  public static <T> T read(String TAG, File file, StringPool stringPool) {
+    if (file == null)
+      return null;
+    T ret = readFile(TAG, file, stringPool);
+    if (ret == null) {
+      File prev = getPrevFile(file);
+      if (prev.exists()) {
+        Log.w(TAG, "Using previous generation of persistent store file " + file.getName());
+        ret = readFile(TAG, prev, stringPool);
+      }
+    }
+    return ret;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T readFile(String TAG, File file, StringPool stringPool) {
+    if (!file.exists())
+      return null;
+
+    BufferedInputStream is = null;
+    try {
+      is = new BufferedInputStream(new FileInputStream(file));
+      if (BinaryStoreCodec.isBinaryFormat(is))
+        return (T) BinaryStoreCodec.read(is, stringPool);
+      return (T) new ObjectInputStream(is).readObject();
+    } catch (InvalidClassException e) {
+      Log.w(TAG, "Class changed so we can't load data from store " + e.getMessage());
+    } catch (Exception e) {
+      Log.w(TAG, "File read from persistens store failed: " + e.getMessage(), e);
+    } finally {
+      Utils.closeStream(is);
+    }
+    return null;
+  }
+
+  /**
+   * Delete store file including its previous generation and unfinished write.
+   *
+   * @param file to delete
+   * @return true if store file has been really deleted
+   */
+  public static boolean delete(File file) {
+    getTmpFile(file).delete();
+    getPrevFile(file).delete();
+    return file.delete();
+  }
+
+  protected static File getTmpFile(File file) {
+    return new File(file.getParentFile(), file.getName() + SUFFIX_TMP);
+  }
+
+  protected static File getPrevFile(File file) {
+    return new File(file.getParentFile(), file.getName() + SUFFIX_PREV);
+  }
+
+}
@@ -0,0 +1,487 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.store;
+
+import com.daskiworks.ghwatch.model.AccountType;
+import com.daskiworks.ghwatch.model.GHUserInfo;
+import com.daskiworks.ghwatch.model.GHUserLoginInfo;
+import com.daskiworks.ghwatch.model.Label;
+import com.daskiworks.ghwatch.model.NotifCount;
+import com.daskiworks.ghwatch.model.Notification;
+import com.daskiworks.ghwatch.model.NotificationStream;
+import com.daskiworks.ghwatch.model.Repository;
+import com.daskiworks.ghwatch.model.StringPool;
+import com.daskiworks.ghwatch.model.UnreadSummary;
+import com.daskiworks.ghwatch.model.WatchedRepositories;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format of model objects kept in persistent store, used instead of Java serialization for {@link NotificationStream},
+ * {@link WatchedRepositories}, {@link GHUserInfo}, {@link GHUserLoginInfo} and {@link UnreadSummary}.
+ * <p/>
+ * File starts with {@link #MAGIC}, format version, type code and schema version of the stored type. Numbers are written as varints. Strings
+ * repeated often (repository names, avatar URLs, reasons etc.) are written only once, next occurrences reference them in string table built
+ * during writing and reading.
+ * <p/>
+ * When layout of some type changes, its schema version has to be increased and reading of older layout has to be kept in its read method
+ * (eg. <code>if (version >= 2) ...</code>), so data stored by older app version are migrated. Data written by newer app version are refused
+ * with {@link InvalidClassException} same as Java serialization does.
+ */
+public class BinaryStoreCodec {
+
+  /**
+   * First bytes of binary store file ("GHWB"). Never clashes with Java serialization stream which starts with 0xACED.
+   */
+  public static final int MAGIC = 0x47485742;
+
+  protected static final int FORMAT_VERSION = 1;
+
+  private static final int TYPE_NOTIFICATION_STREAM = 1;
+  private static final int TYPE_WATCHED_REPOSITORIES = 2;
+  private static final int TYPE_USER_INFO = 3;
+  private static final int TYPE_USER_LOGIN_INFO = 4;
+  private static final int TYPE_UNREAD_SUMMARY = 5;
+
+  private static final int VERSION_NOTIFICATION_STREAM = 1;
+  private static final int VERSION_WATCHED_REPOSITORIES = 1;
+  private static final int VERSION_USER_INFO = 1;
+  private static final int VERSION_USER_LOGIN_INFO = 1;
+  private static final int VERSION_UNREAD_SUMMARY = 1;
+
+  private static final int NOTIFICATION_FLAG_DETAIL_LOADED = 1;
+  private static final int NOTIFICATION_FLAG_LABELS = 2;
+
+  /**
+   * Check if object can be written by this codec.
+   *
+   * @param data to check
+   * @return true if supported
+   */
+  public static boolean isSupported(Object data) {
+    return data instanceof NotificationStream || data instanceof WatchedRepositories || data instanceof GHUserInfo
+            || data instanceof GHUserLoginInfo || data instanceof UnreadSummary;
+  }
+
+  /**
+   * Check if stream contains data in binary format. Stream position is not changed.
+   *
+   * @param is to check
+   * @return true if stream starts with {@link #MAGIC}
+   * @throws IOException
+   */
+  public static boolean isBinaryFormat(BufferedInputStream is) throws IOException {
+    is.mark(4);
+    try {
+      int m = 0;
+      for (int i = 0; i < 4; i++) {
+        int b = is.read();
+        if (b < 0)
+          return false;
+        m = (m << 8) | b;
+      }
+      return m == MAGIC;
+    } finally {
+      is.reset();
+    }
+  }
+
+  /**
+   * Write object in binary format.
+   *
+   * @param os   to write into, should be buffered
+   * @param data to write, see {@link #isSupported(Object)}
+   * @throws IOException
+   */
+  public static void write(OutputStream os, Object data) throws IOException {
+    Writer w = new Writer(os);
+    w.out.writeInt(MAGIC);
+    w.out.writeByte(FORMAT_VERSION);
+    if (data instanceof NotificationStream) {
+      w.writeHeader(TYPE_NOTIFICATION_STREAM, VERSION_NOTIFICATION_STREAM);
+      writeNotificationStream(w, (NotificationStream) data);
+    } else if (data instanceof WatchedRepositories) {
+      w.writeHeader(TYPE_WATCHED_REPOSITORIES, VERSION_WATCHED_REPOSITORIES);
+      writeWatchedRepositories(w, (WatchedRepositories) data);
+    } else if (data instanceof GHUserInfo) {
+      w.writeHeader(TYPE_USER_INFO, VERSION_USER_INFO);
+      writeUserInfo(w, (GHUserInfo) data);
+    } else if (data instanceof GHUserLoginInfo) {
+      w.writeHeader(TYPE_USER_LOGIN_INFO, VERSION_USER_LOGIN_INFO);
+      writeUserLoginInfo(w, (GHUserLoginInfo) data);
+    } else if (data instanceof UnreadSummary) {
+      w.writeHeader(TYPE_UNREAD_SUMMARY, VERSION_UNREAD_SUMMARY);
+      writeUnreadSummary(w, (UnreadSummary) data);
+    } else {
+      throw new IllegalArgumentException("Unsupported object type " + (data != null ? data.getClass().getName() : null));
+    }
+    w.out.flush();
+  }
+
+  /**
+   * Read object written by {@link #write(OutputStream, Object)}.
+   *
+   * @param is to read from, should be buffered
+   * @return object read
+   * @throws InvalidClassException if data are written by newer app version
+   * @throws IOException
+   */
+  public static Object read(InputStream is) throws IOException {
+    return read(is, new StringPool());
+  }
+
+  /**
+   * Read object written by {@link #write(OutputStream, Object)}. Strings from string table are canonicalized over given pool, so they are shared
+   * with other objects read or parsed with the same pool.
+   *
+   * @param is         to read from, should be buffered
+   * @param stringPool pool used to canonicalize repeated strings
+   * @return object read
+   * @throws InvalidClassException if data are written by newer app version
+   * @throws IOException
+   */
+  public static Object read(InputStream is, StringPool stringPool) throws IOException {
+    Reader r = new Reader(is, stringPool);
+    if (r.in.readInt() != MAGIC)
+      throw new InvalidObjectException("Not a binary store format");
+    int formatVersion = r.in.readUnsignedByte();
+    if (formatVersion > FORMAT_VERSION)
+      throw new InvalidClassException("Unsupported binary store format version " + formatVersion);
+    int type = r.readVarInt();
+    int version = r.readVarInt();
+    switch (type) {
+      case TYPE_NOTIFICATION_STREAM:
+        checkVersion(type, version, VERSION_NOTIFICATION_STREAM);
+        return readNotificationStream(r, version);
+      case TYPE_WATCHED_REPOSITORIES:
+        checkVersion(type, version, VERSION_WATCHED_REPOSITORIES);
+        return readWatchedRepositories(r, version);
+      case TYPE_USER_INFO:
+        checkVersion(type, version, VERSION_USER_INFO);
+        return readUserInfo(r, version);
+      case TYPE_USER_LOGIN_INFO:
+        checkVersion(type, version, VERSION_USER_LOGIN_INFO);
+        return readUserLoginInfo(r, version);
+      case TYPE_UNREAD_SUMMARY:
+        checkVersion(type, version, VERSION_UNREAD_SUMMARY);
+        return readUnreadSummary(r, version);
+      default:
+        throw new InvalidClassException("Unsupported binary store type " + type);
+    }
+  }
+
+  private static void checkVersion(int type, int version, int supportedVersion) throws InvalidClassException {
+    if (version > supportedVersion)
+      throw new InvalidClassException("Unsupported schema version " + version + " of binary store type " + type);
+  }
+
+  private static void writeNotificationStream(Writer w, NotificationStream ns) throws IOException {
+    w.writeVarLong(ns.getLastFullUpdateTimestamp());
+    w.writeString(ns.getLastModified());
+    w.writeVarInt(ns.size());
+    for (Notification n : ns) {
+      writeNotification(w, n);
+    }
+  }
+
+  private static NotificationStream readNotificationStream(Reader r, int version) throws IOException {
+    NotificationStream ns = new NotificationStream();
+    ns.setLastFullUpdateTimestamp(r.readVarLong());
+    ns.setLastModified(r.readString());
+    int count = r.readVarInt();
+    for (int i = 0; i < count; i++) {
+      ns.addNotification(readNotification(r, version));
+    }
+    return ns;
+  }
+
+  private static void writeNotification(Writer w, Notification n) throws IOException {
+    w.writeVarLong(n.getId());
+    w.writeString(n.getUrl());
+    w.writeString(n.getSubjectTitle());
+    w.writeSharedString(n.getSubjectType());
+    w.writeString(n.getSubjectUrl());
+    w.writeString(n.getSubjectLatestCommentUrl());
+    w.writeSharedString(n.getRepositoryFullName());
+    w.writeSharedString(n.getRepositoryAvatarUrl());
+    w.writeSharedString(n.getReason());
+    w.writeDate(n.getUpdatedAt());
+    List<Label> labels = n.getSubjectLabels();
+    w.out.writeByte((n.isDetailLoaded() ? NOTIFICATION_FLAG_DETAIL_LOADED : 0) | (labels != null ? NOTIFICATION_FLAG_LABELS : 0));
+    w.writeString(n.getSubjectDetailHtmlUrl());
+    w.writeSharedString(n.getSubjectStatus());
+    if (labels != null) {
+      w.writeVarInt(labels.size());
+      for (Label l : labels) {
+        w.writeSharedString(l.getName());
+        w.writeSharedString(l.getColor());
+      }
+    }
+  }
+
+  private static Notification readNotification(Reader r, int version) throws IOException {
+    long id = r.readVarLong();
+    String url = r.readString();
+    String subjectTitle = r.readString();
+    String subjectType = r.readSharedString();
+    String subjectUrl = r.readString();
+    String subjectLatestCommentUrl = r.readString();
+    String repositoryFullName = r.readSharedString();
+    String repositoryAvatarUrl = r.readSharedString();
+    String reason = r.readSharedString();
+    Date updatedAt = r.readDate();
+    Notification n = new Notification(id, url, subjectTitle, subjectType, subjectUrl, subjectLatestCommentUrl, repositoryFullName, repositoryAvatarUrl,
+            updatedAt, reason);
+    int flags = r.in.readUnsignedByte();
+    n.setDetailLoaded((flags & NOTIFICATION_FLAG_DETAIL_LOADED) != 0);
+    n.setSubjectDetailHtmlUrl(r.readString());
+    n.setSubjectStatus(r.readSharedString());
+    if ((flags & NOTIFICATION_FLAG_LABELS) != 0) {
+      int count = r.readVarInt();
+      List<Label> labels = new ArrayList<Label>(count);
+      for (int i = 0; i < count; i++) {
+        labels.add(new Label(r.readSharedString(), r.readSharedString()));
+      }
+      n.setSubjectLabels(labels);
+    }
+    return n;
+  }
+
+  private static void writeWatchedRepositories(Writer w, WatchedRepositories wr) throws IOException {
+    w.writeVarLong(wr.getLastFullUpdateTimestamp());
+    w.writeVarInt(wr.size());
+    for (Repository repo : wr) {
+      w.writeVarLong(repo.getId());
+      w.writeString(repo.getUrl());
+      w.writeString(repo.getRepositoryFullName());
+      w.writeSharedString(repo.getRepositoryAvatarUrl());
+      w.writeString(repo.getHtmlUrl());
+    }
+  }
+
+  private static WatchedRepositories readWatchedRepositories(Reader r, int version) throws IOException {
+    WatchedRepositories wr = new WatchedRepositories();
+    wr.setLastFullUpdateTimestamp(r.readVarLong());
+    int count = r.readVarInt();
+    for (int i = 0; i < count; i++) {
+      long id = r.readVarLong();
+      String url = r.readString();
+      String repositoryFullName = r.readString();
+      String repositoryAvatarUrl = r.readSharedString();
+      String htmlUrl = r.readString();
+      wr.addRepository(new Repository(id, url, repositoryFullName, repositoryAvatarUrl, htmlUrl));
+    }
+    return wr;
+  }
+
+  private static void writeUserInfo(Writer w, GHUserInfo ui) throws IOException {
+    w.writeString(ui.getUsername());
+    w.writeString(ui.getName());
+    w.writeString(ui.getAvatarUrl());
+    w.writeString(ui.getHtmlUrl());
+    w.writeVarLong(ui.getUpdateTimestamp());
+  }
+
+  private static GHUserInfo readUserInfo(Reader r, int version) throws IOException {
+    return new GHUserInfo(r.readString(), r.readString(), r.readString(), r.readString(), r.readVarLong());
+  }
+
+  private static void writeUserLoginInfo(Writer w, GHUserLoginInfo uli) throws IOException {
+    w.writeString(uli.getAccountType() != null ? uli.getAccountType().name() : null);
+    w.writeString(uli.getUsername());
+    w.writeString(uli.getT());
+    w.writeVarLong(uli.getLoginDate());
+  }
+
+  private static GHUserLoginInfo readUserLoginInfo(Reader r, int version) throws IOException {
+    String at = r.readString();
+    AccountType accountType;
+    try {
+      accountType = at != null ? AccountType.valueOf(at) : null;
+    } catch (IllegalArgumentException e) {
+      throw new InvalidObjectException("Unknown account type " + at);
+    }
+    return new GHUserLoginInfo(accountType, r.readString(), r.readString(), r.readVarLong());
+  }
+
+  private static void writeUnreadSummary(Writer w, UnreadSummary us) throws IOException {
+    // count is -1 if stream is not available
+    w.writeVarInt(us.getUnreadCount() + 1);
+    w.out.writeBoolean(us.isHighlight());
+    w.writeVarInt(us.getBadgeCount());
+    w.writeVarLong(us.getLastUpdateTimestamp());
+    w.writeVarInt(us.getRepositoryCounts().size());
+    for (NotifCount nc : us.getRepositoryCounts()) {
+      w.writeString(nc.title);
+      w.writeVarInt(nc.count);
+    }
+  }
+
+  private static UnreadSummary readUnreadSummary(Reader r, int version) throws IOException {
+    int unreadCount = r.readVarInt() - 1;
+    boolean highlight = r.in.readBoolean();
+    int badgeCount = r.readVarInt();
+    long lastUpdateTimestamp = r.readVarLong();
+    int count = r.readVarInt();
+    List<NotifCount> repositoryCounts = new ArrayList<NotifCount>(count);
+    for (int i = 0; i < count; i++) {
+      NotifCount nc = new NotifCount();
+      nc.title = r.readString();
+      nc.count = r.readVarInt();
+      repositoryCounts.add(nc);
+    }
+    return new UnreadSummary(unreadCount, repositoryCounts, highlight, badgeCount, lastUpdateTimestamp);
+  }
+
+  /**
+   * Writing context with string table.
+   */
+  private static class Writer {
+    final DataOutputStream out;
+    final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+    Writer(OutputStream os) {
+      out = new DataOutputStream(os);
+    }
+
+    void writeHeader(int type, int version) throws IOException {
+      writeVarInt(type);
+      writeVarInt(version);
+    }
+
+    void writeVarInt(int value) throws IOException {
+      writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    void writeVarLong(long value) throws IOException {
+      while ((value & ~0x7FL) != 0) {
+        out.writeByte((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      out.writeByte((int) value);
+    }
+
+    void writeDate(Date d) throws IOException {
+      // 0 means null
+      writeVarLong(d != null ? d.getTime() + 1 : 0);
+    }
+
+    /**
+     * Write string, length 0 means null, n means n-1 bytes of UTF-8 follow.
+     */
+    void writeString(String s) throws IOException {
+      if (s == null) {
+        writeVarInt(0);
+        return;
+      }
+      byte[] b = s.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(b.length + 1);
+      out.write(b);
+    }
+
+    /**
+     * Write string through string table, 0 means null, 1 means new string written by {@link #writeString(String)} follows, n references
+     * string n-2 from table.
+     */
+    void writeSharedString(String s) throws IOException {
+      if (s == null) {
+        writeVarInt(0);
+        return;
+      }
+      Integer idx = strings.get(s);
+      if (idx != null) {
+        writeVarInt(idx + 2);
+      } else {
+        strings.put(s, strings.size());
+        writeVarInt(1);
+        writeString(s);
+      }
+    }
+  }
+
+  /**
+   * Reading context with string table.
+   */
+  private static class Reader {
+    final DataInputStream in;
+    final List<String> strings = new ArrayList<String>();
+    final StringPool stringPool;
+
+    Reader(InputStream is, StringPool stringPool) {
+      in = new DataInputStream(is);
+      this.stringPool = stringPool;
+    }
+
+    int readVarInt() throws IOException {
+      return (int) readVarLong();
+    }
+
+    long readVarLong() throws IOException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = in.readUnsignedByte();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0)
+          return value;
+      }
+      throw new InvalidObjectException("Malformed varint");
+    }
+
+    Date readDate() throws IOException {
+      long t = readVarLong();
+      return t != 0 ? new Date(t - 1) : null;
+    }
+
+    String readString() throws IOException {
+      int len = readVarInt();
+      if (len == 0)
+        return null;
+      if (len < 0)
+        throw new InvalidObjectException("Malformed string length");
+      byte[] b = new byte[len - 1];
+      in.readFully(b);
+      return new String(b, StandardCharsets.UTF_8);
+    }
+
+    String readSharedString() throws IOException {
+      int idx = readVarInt();
+      if (idx == 0)
+        return null;
+      if (idx == 1) {
+        String s = stringPool.get(readString());
+        strings.add(s);
+        return s;
+      }
+      if (idx - 2 >= strings.size() || idx < 0)
+        throw new InvalidObjectException("Unknown string table reference " + idx);
+      return strings.get(idx - 2);
+    }
+  }
+
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.store;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import com.daskiworks.ghwatch.model.Label;
+import com.daskiworks.ghwatch.model.NotifCount;
+import com.daskiworks.ghwatch.model.Notification;
+import com.daskiworks.ghwatch.model.NotificationStream;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQLite store of unread notifications, alternative to file store with indexes on repository, reason, type and update time. Provides queries for
+ * views which need only part of notifications or their counts.
+ * <p/>
+ * Stream order of notifications is kept in <code>position</code> column.
+ */
+public class NotificationDatabase extends SQLiteOpenHelper {
+
+  private static final String DATABASE_NAME = "notifications.db";
+  private static final int DATABASE_VERSION = 1;
+
+  private static final String T_REPOSITORY = "repository";
+  private static final String T_NOTIFICATION = "notification";
+  private static final String T_LABEL = "label";
+  private static final String T_STREAM_INFO = "stream_info";
+
+  private static final String INFO_LAST_MODIFIED = "lastModified";
+  private static final String INFO_LAST_FULL_UPDATE_TIMESTAMP = "lastFullUpdateTimestamp";
+
+  private static final String NOTIFICATION_COLUMNS = "n._id, n.url, n.subject_title, n.subject_type, n.subject_url, n.subject_latest_comment_url, "
+          + "r.full_name, r.avatar_url, n.updated_at, n.reason, n.detail_loaded, n.subject_detail_html_url, n.subject_status, n.has_labels";
+  private static final String NOTIFICATION_FROM = " FROM " + T_NOTIFICATION + " n LEFT JOIN " + T_REPOSITORY + " r ON n.repository_id = r._id";
+
+  /**
+   * SQLite limit of number of bound parameters is 999.
+   */
+  private static final int MAX_IDS_IN_STATEMENT = 500;
+
+  private static NotificationDatabase instance;
+
+  /**
+   * Get instance for use.
+   *
+   * @param context to be used
+   * @return instance
+   */
+  public static synchronized NotificationDatabase getInstance(Context context) {
+    if (instance == null)
+      instance = new NotificationDatabase(context.getApplicationContext());
+    return instance;
+  }
+
+  /**
+   * Check if database file exists, so it is not created only to find it is empty.
+   *
+   * @param context to be used
+   * @return true if database exists
+   */
+  public static boolean exists(Context context) {
+    return context.getDatabasePath(DATABASE_NAME).exists();
+  }
+
+  private NotificationDatabase(Context context) {
+    super(context, DATABASE_NAME, null, DATABASE_VERSION);
+  }
+
+  @Override
+  public void onCreate(SQLiteDatabase db) {
+    db.execSQL("CREATE TABLE " + T_REPOSITORY + " (_id INTEGER PRIMARY KEY AUTOINCREMENT, full_name TEXT NOT NULL UNIQUE, avatar_url TEXT)");
+    db.execSQL("CREATE TABLE " + T_NOTIFICATION + " (_id INTEGER PRIMARY KEY, position INTEGER NOT NULL, repository_id INTEGER, url TEXT, "
+            + "subject_title TEXT, subject_type TEXT, subject_url TEXT, subject_latest_comment_url TEXT, reason TEXT, updated_at INTEGER, "
+            + "detail_loaded INTEGER NOT NULL DEFAULT 0, subject_detail_html_url TEXT, subject_status TEXT, has_labels INTEGER NOT NULL DEFAULT 0)");
+    db.execSQL("CREATE TABLE " + T_LABEL + " (notification_id INTEGER NOT NULL, position INTEGER NOT NULL, name TEXT, color TEXT)");
+    db.execSQL("CREATE TABLE " + T_STREAM_INFO + " (key TEXT PRIMARY KEY, value TEXT)");
+    db.execSQL("CREATE INDEX notification_repository ON " + T_NOTIFICATION + " (repository_id)");
+    db.execSQL("CREATE INDEX notification_reason ON " + T_NOTIFICATION + " (reason)");
+    db.execSQL("CREATE INDEX notification_type ON " + T_NOTIFICATION + " (subject_type)");
+    db.execSQL("CREATE INDEX notification_updated_at ON " + T_NOTIFICATION + " (updated_at)");
+    db.execSQL("CREATE INDEX label_notification ON " + T_LABEL + " (notification_id)");
+  }
+
+  @Override
+  public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+    // data are only cache of server state, so they can be reloaded
+    db.execSQL("DROP TABLE IF EXISTS " + T_REPOSITORY);
+    db.execSQL("DROP TABLE IF EXISTS " + T_NOTIFICATION);
+    db.execSQL("DROP TABLE IF EXISTS " + T_LABEL);
+    db.execSQL("DROP TABLE IF EXISTS " + T_STREAM_INFO);
+    onCreate(db);
+  }
+
+  /**
+   * Load whole stream.
+   *
+   * @return stream, null if no stream is stored
+   */
+  public NotificationStream loadStream() {
+    SQLiteDatabase db = getReadableDatabase();
+    Map<String, String> info = new HashMap<String, String>();
+    Cursor c = db.query(T_STREAM_INFO, new String[]{"key", "value"}, null, null, null, null, null);
+    try {
+      while (c.moveToNext()) {
+        info.put(c.getString(0), c.getString(1));
+      }
+    } finally {
+      c.close();
+    }
+    if (!info.containsKey(INFO_LAST_FULL_UPDATE_TIMESTAMP))
+      return null;
+
+    NotificationStream ns = new NotificationStream();
+    ns.setLastModified(info.get(INFO_LAST_MODIFIED));
+    ns.setLastFullUpdateTimestamp(Long.parseLong(info.get(INFO_LAST_FULL_UPDATE_TIMESTAMP)));
+    for (Notification n : queryNotifications(db, null, null, "n.position", null)) {
+      ns.addNotification(n);
+    }
+    return ns;
+  }
+
+  /**
+   * Replace stored stream by given one.
+   *
+   * @param ns to store
+   */
+  public void saveStream(NotificationStream ns) {
+    SQLiteDatabase db = getWritableDatabase();
+    db.beginTransaction();
+    try {
+      db.delete(T_LABEL, null, null);
+      db.delete(T_NOTIFICATION, null, null);
+      db.delete(T_STREAM_INFO, null, null);
+
+      ContentValues cv = new ContentValues();
+      cv.put("key", INFO_LAST_MODIFIED);
+      cv.put("value", ns.getLastModified());
+      db.insert(T_STREAM_INFO, null, cv);
+      cv.put("key", INFO_LAST_FULL_UPDATE_TIMESTAMP);
+      cv.put("value", Long.toString(ns.getLastFullUpdateTimestamp()));
+      db.insert(T_STREAM_INFO, null, cv);
+
+      Map<String, Long> repositoryIds = new HashMap<String, Long>();
+      SQLiteStatement insert = db.compileStatement("INSERT INTO " + T_NOTIFICATION + " (_id, position, repository_id, url, subject_title, "
+              + "subject_type, subject_url, subject_latest_comment_url, reason, updated_at, detail_loaded, subject_detail_html_url, subject_status, "
+              + "has_labels) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+      int position = 0;
+      for (Notification n : ns) {
+        insert.clearBindings();
+        insert.bindLong(1, n.getId());
+        insert.bindLong(2, position++);
+        if (n.getRepositoryFullName() != null)
+          insert.bindLong(3, getRepositoryId(db, repositoryIds, n.getRepositoryFullName(), n.getRepositoryAvatarUrl()));
+        bindString(insert, 4, n.getUrl());
+        bindString(insert, 5, n.getSubjectTitle());
+        bindString(insert, 6, n.getSubjectType());
+        bindString(insert, 7, n.getSubjectUrl());
+        bindString(insert, 8, n.getSubjectLatestCommentUrl());
+        bindString(insert, 9, n.getReason());
+        if (n.getUpdatedAt() != null)
+          insert.bindLong(10, n.getUpdatedAt().getTime());
+        insert.bindLong(11, n.isDetailLoaded() ? 1 : 0);
+        bindString(insert, 12, n.getSubjectDetailHtmlUrl());
+        bindString(insert, 13, n.getSubjectStatus());
+        insert.bindLong(14, n.getSubjectLabels() != null ? 1 : 0);
+        insert.executeInsert();
+        insertLabels(db, n);
+      }
+      db.setTransactionSuccessful();
+    } finally {
+      db.endTransaction();
+    }
+  }
+
+  private static long getRepositoryId(SQLiteDatabase db, Map<String, Long> repositoryIds, String fullName, String avatarUrl) {
+    Long id = repositoryIds.get(fullName);
+    if (id == null) {
+      ContentValues cv = new ContentValues();
+      cv.put("full_name", fullName);
+      cv.put("avatar_url", avatarUrl);
+      if (db.update(T_REPOSITORY, cv, "full_name = ?", new String[]{fullName}) == 0) {
+        id = db.insert(T_REPOSITORY, null, cv);
+      } else {
+        Cursor c = db.query(T_REPOSITORY, new String[]{"_id"}, "full_name = ?", new String[]{fullName}, null, null, null);
+        try {
+          c.moveToFirst();
+          id = c.getLong(0);
+        } finally {
+          c.close();
+        }
+      }
+      repositoryIds.put(fullName, id);
+    }
+    return id;
+  }
+
+  private static void insertLabels(SQLiteDatabase db, Notification n) {
+    List<Label> labels = n.getSubjectLabels();
+    if (labels != null) {
+      ContentValues cv = new ContentValues();
+      int position = 0;
+      for (Label l : labels) {
+        cv.put("notification_id", n.getId());
+        cv.put("position", position++);
+        cv.put("name", l.getName());
+        cv.put("color", l.getColor());
+        db.insert(T_LABEL, null, cv);
+      }
+    }
+  }
+
+  private static void bindString(SQLiteStatement s, int index, String value) {
+    if (value != null)
+      s.bindString(index, value);
+  }
+
+  /**
+   * Remove notifications.
+   *
+   * @param ids of notifications to remove
+   */
+  public void removeNotifications(Collection<Long> ids) {
+    SQLiteDatabase db = getWritableDatabase();
+    db.beginTransaction();
+    try {
+      List<Long> idList = new ArrayList<Long>(ids);
+      for (int i = 0; i < idList.size(); i += MAX_IDS_IN_STATEMENT) {
+        List<Long> chunk = idList.subList(i, Math.min(idList.size(), i + MAX_IDS_IN_STATEMENT));
+        String in = createInClause(chunk.size());
+        String[] args = toArgs(chunk);
+        db.delete(T_LABEL, "notification_id IN " + in, args);
+        db.delete(T_NOTIFICATION, "_id IN " + in, args);
+      }
+      db.setTransactionSuccessful();
+    } finally {
+      db.endTransaction();
+    }
+  }
+
+  /**
+   * Store detail data (html url, status, labels) of notifications.
+   *
+   * @param notifications with detail data
+   */
+  public void updateDetails(Collection<Notification> notifications) {
+    SQLiteDatabase db = getWritableDatabase();
+    db.beginTransaction();
+    try {
+      ContentValues cv = new ContentValues();
+      for (Notification n : notifications) {
+        String[] args = new String[]{Long.toString(n.getId())};
+        cv.put("detail_loaded", n.isDetailLoaded() ? 1 : 0);
+        cv.put("subject_detail_html_url", n.getSubjectDetailHtmlUrl());
+        cv.put("subject_status", n.getSubjectStatus());
+        cv.put("has_labels", n.getSubjectLabels() != null ? 1 : 0);
+        if (db.update(T_NOTIFICATION, cv, "_id = ?", args) > 0) {
+          db.delete(T_LABEL, "notification_id = ?", args);
+          insertLabels(db, n);
+        }
+      }
+      db.setTransactionSuccessful();
+    } finally {
+      db.endTransaction();
+    }
+  }
+
+  /**
+   * Delete stored stream.
+   */
+  public void clear() {
+    SQLiteDatabase db = getWritableDatabase();
+    db.beginTransaction();
+    try {
+      db.delete(T_LABEL, null, null);
+      db.delete(T_NOTIFICATION, null, null);
+      db.delete(T_REPOSITORY, null, null);
+      db.delete(T_STREAM_INFO, null, null);
+      db.setTransactionSuccessful();
+    } finally {
+      db.endTransaction();
+    }
+  }
+
+  /**
+   * Get notifications from given repository in stream order.
+   *
+   * @param repositoryFullName to get notifications for
+   * @return list of notifications, never null
+   */
+  public List<Notification> getNotificationsForRepository(String repositoryFullName) {
+    return queryNotifications(getReadableDatabase(), "r.full_name = ?", new String[]{repositoryFullName}, "n.position", null);
+  }
+
+  /**
+   * Get notifications with given reason in stream order.
+   *
+   * @param reason to get notifications for
+   * @return list of notifications, never null
+   */
+  public List<Notification> getNotificationsForReason(String reason) {
+    return queryNotifications(getReadableDatabase(), "n.reason = ?", new String[]{reason}, "n.position", null);
+  }
+
+  /**
+   * Get page of notifications ordered by update time, newest first.
+   *
+   * @param offset of the first notification
+   * @param limit  max number of notifications
+   * @return list of notifications, never null
+   */
+  public List<Notification> getNotificationsPage(int offset, int limit) {
+    return queryNotifications(getReadableDatabase(), null, null, "n.updated_at DESC, n.position", offset + "," + limit);
+  }
+
+  /**
+   * @return number of stored notifications, -1 if no stream is stored
+   */
+  public int getCount() {
+    SQLiteDatabase db = getReadableDatabase();
+    if (DatabaseUtils.queryNumEntries(db, T_STREAM_INFO) == 0)
+      return -1;
+    Cursor c = db.rawQuery("SELECT COUNT(*) FROM " + T_NOTIFICATION, null);
+    try {
+      return c.moveToFirst() ? c.getInt(0) : 0;
+    } finally {
+      c.close();
+    }
+  }
+
+  /**
+   * Get number of notifications per repository, most notified repository first.
+   *
+   * @return list of counts, never null
+   */
+  public List<NotifCount> getCountsPerRepository() {
+    List<NotifCount> ret = new ArrayList<NotifCount>();
+    Cursor c = getReadableDatabase().rawQuery("SELECT r.full_name, COUNT(*) AS cnt" + NOTIFICATION_FROM
+            + " GROUP BY n.repository_id ORDER BY cnt DESC, MIN(n.position)", null);
+    try {
+      while (c.moveToNext()) {
+        NotifCount nc = new NotifCount();
+        nc.title = c.getString(0);
+        nc.count = c.getInt(1);
+        ret.add(nc);
+      }
+    } finally {
+      c.close();
+    }
+    return ret;
+  }
+
+  private static List<Notification> queryNotifications(SQLiteDatabase db, String where, String[] args, String orderBy, String limit) {
+    String sql = "SELECT " + NOTIFICATION_COLUMNS + NOTIFICATION_FROM + (where != null ? " WHERE " + where : "") + " ORDER BY " + orderBy
+            + (limit != null ? " LIMIT " + limit : "");
+    LinkedHashMap<Long, Notification> ret = new LinkedHashMap<Long, Notification>();
+    Cursor c = db.rawQuery(sql, args);
+    try {
+      while (c.moveToNext()) {
+        Notification n = new Notification(c.getLong(0), c.getString(1), c.getString(2), c.getString(3), c.getString(4), c.getString(5),
+                c.getString(6), c.getString(7), c.isNull(8) ? null : new Date(c.getLong(8)), c.getString(9));
+        n.setDetailLoaded(c.getInt(10) != 0);
+        n.setSubjectDetailHtmlUrl(c.getString(11));
+        n.setSubjectStatus(c.getString(12));
+        if (c.getInt(13) != 0)
+          n.setSubjectLabels(new ArrayList<Label>());
+        ret.put(n.getId(), n);
+      }
+    } finally {
+      c.close();
+    }
+    if (limit != null) {
+      // page is only small part of matching notifications, so labels are loaded for notifications in it only
+      List<Long> ids = new ArrayList<Long>();
+      for (Notification n : ret.values()) {
+        if (n.getSubjectLabels() != null)
+          ids.add(n.getId());
+      }
+      for (int i = 0; i < ids.size(); i += MAX_IDS_IN_STATEMENT) {
+        List<Long> chunk = ids.subList(i, Math.min(ids.size(), i + MAX_IDS_IN_STATEMENT));
+        loadLabels(db, ret, "n._id IN " + createInClause(chunk.size()), toArgs(chunk));
+      }
+    } else if (!ret.isEmpty()) {
+      loadLabels(db, ret, where, args);
+    }
+    return new ArrayList<Notification>(ret.values());
+  }
+
+  private static void loadLabels(SQLiteDatabase db, Map<Long, Notification> notifications, String where, String[] args) {
+    String sql = "SELECT l.notification_id, l.name, l.color FROM " + T_LABEL + " l JOIN " + T_NOTIFICATION + " n ON l.notification_id = n._id LEFT JOIN "
+            + T_REPOSITORY + " r ON n.repository_id = r._id" + (where != null ? " WHERE " + where : "") + " ORDER BY l.notification_id, l.position";
+    Cursor c = db.rawQuery(sql, args);
+    try {
+      while (c.moveToNext()) {
+        Notification n = notifications.get(c.getLong(0));
+        if (n != null && n.getSubjectLabels() != null)
+          n.getSubjectLabels().add(new Label(c.getString(1), c.getString(2)));
+      }
+    } finally {
+      c.close();
+    }
+  }
+
+  private static String createInClause(int count) {
+    StringBuilder sb = new StringBuilder("(");
+    for (int i = 0; i < count; i++) {
+      sb.append(i > 0 ? ",?" : "?");
+    }
+    return sb.append(")").toString();
+  }
+
+  private static String[] toArgs(List<Long> ids) {
+    String[] ret = new String[ids.size()];
+    for (int i = 0; i < ids.size(); i++) {
+      ret[i] = Long.toString(ids.get(i));
+    }
+    return ret;
+  }
+
+}
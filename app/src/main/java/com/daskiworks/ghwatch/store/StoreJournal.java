@@ -0,0 +1,226 @@
+/*
+ * Copyright 2026 contributors as indicated by the @authors tag.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daskiworks.ghwatch.store;
+
+import android.util.Log;
+
+import com.daskiworks.ghwatch.Utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of small changes of data kept in {@link AtomicFileStore}, so frequent changes do not rewrite whole store file. Journal
+ * belongs to one generation of store file identified by token (see {@link #getBaseToken(File)}), so records are never applied to other data
+ * than they have been written for.
+ * <p/>
+ * Each record is protected by CRC, so record truncated by process kill is ignored and cut off.
+ */
+public class StoreJournal {
+
+  private static final int MAGIC = 0x47485741;
+
+  /**
+   * Length of journal header - magic and base token.
+   */
+  private static final int HEADER_LENGTH = 12;
+
+  /**
+   * Max length of one record, longer one means corrupted journal.
+   */
+  private static final int MAX_RECORD_LENGTH = 1024 * 1024;
+
+  private final String TAG;
+  private final File file;
+
+  /**
+   * @param TAG       for logging
+   * @param storeFile store file journal belongs to, journal file name is derived from it
+   */
+  public StoreJournal(String TAG, File storeFile) {
+    this.TAG = TAG;
+    this.file = new File(storeFile.getParentFile(), storeFile.getName() + ".journal");
+  }
+
+  /**
+   * Get token identifying current generation of store file.
+   *
+   * @param storeFile to get token for
+   * @return token, 0 if file does not exist
+   */
+  public static long getBaseToken(File storeFile) {
+    if (!storeFile.exists())
+      return 0;
+    return storeFile.lastModified() * 31 + storeFile.length();
+  }
+
+  /**
+   * Start new empty journal for given generation of store file. Old records are thrown away.
+   *
+   * @param baseToken of store file generation, see {@link #getBaseToken(File)}
+   * @return true if journal is ready to append records
+   */
+  public boolean start(long baseToken) {
+    DataOutputStream out = null;
+    try {
+      out = new DataOutputStream(new FileOutputStream(file));
+      out.writeInt(MAGIC);
+      out.writeLong(baseToken);
+      out.flush();
+      return true;
+    } catch (IOException e) {
+      Log.w(TAG, "Journal start failed: " + e.getMessage(), e);
+      file.delete();
+      return false;
+    } finally {
+      Utils.closeStream(out);
+    }
+  }
+
+  /**
+   * Append records to the journal. Data are synced to the disk before return.
+   *
+   * @param records to append
+   * @return true if appended, false if journal is not started or write failed - store file has to be rewritten then
+   */
+  public boolean append(byte[]... records) {
+    if (!file.exists())
+      return false;
+    FileOutputStream fos = null;
+    try {
+      fos = new FileOutputStream(file, true);
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+      CRC32 crc = new CRC32();
+      for (byte[] record : records) {
+        crc.reset();
+        crc.update(record);
+        out.writeInt(record.length);
+        out.writeInt((int) crc.getValue());
+        out.write(record);
+      }
+      out.flush();
+      fos.getFD().sync();
+      return true;
+    } catch (IOException e) {
+      Log.w(TAG, "Journal append failed: " + e.getMessage(), e);
+      return false;
+    } finally {
+      Utils.closeStream(fos);
+    }
+  }
+
+  /**
+   * Read records of journal. Broken tail of journal (eg. record truncated by process kill) is cut off, so next records may be appended.
+   *
+   * @param baseToken of current store file generation, see {@link #getBaseToken(File)}
+   * @return records in order they have been appended. Null if journal doesn't exist or belongs to other generation of store file, it has to be
+   * started again then.
+   */
+  public List<byte[]> read(long baseToken) {
+    if (!file.exists())
+      return null;
+    List<byte[]> ret = new ArrayList<byte[]>();
+    long validLength = HEADER_LENGTH;
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (in.readInt() != MAGIC || in.readLong() != baseToken) {
+        Log.w(TAG, "Journal doesn't belong to current store file, ignored");
+        return null;
+      }
+      CRC32 crc = new CRC32();
+      while (true) {
+        int len;
+        try {
+          len = in.readInt();
+        } catch (EOFException e) {
+          break;
+        }
+        int checksum = in.readInt();
+        if (len < 0 || len > MAX_RECORD_LENGTH) {
+          Log.w(TAG, "Journal record with wrong length found, rest of journal ignored");
+          break;
+        }
+        byte[] record = new byte[len];
+        in.readFully(record);
+        crc.reset();
+        crc.update(record);
+        if ((int) crc.getValue() != checksum) {
+          Log.w(TAG, "Journal record with wrong checksum found, rest of journal ignored");
+          break;
+        }
+        ret.add(record);
+        validLength += 8 + len;
+      }
+    } catch (EOFException e) {
+      Log.w(TAG, "Truncated journal record found, ignored");
+    } catch (IOException e) {
+      Log.w(TAG, "Journal read failed: " + e.getMessage(), e);
+      return null;
+    } finally {
+      Utils.closeStream(in);
+    }
+    if (file.length() > validLength)
+      truncate(validLength);
+    return ret;
+  }
+
+  private void truncate(long length) {
+    RandomAccessFile raf = null;
+    try {
+      raf = new RandomAccessFile(file, "rw");
+      raf.setLength(length);
+    } catch (IOException e) {
+      Log.w(TAG, "Journal truncation failed: " + e.getMessage(), e);
+      file.delete();
+    } finally {
+      Utils.closeStream(raf);
+    }
+  }
+
+  /**
+   * @return size of journal file in bytes
+   */
+  public long size() {
+    return file.length();
+  }
+
+  /**
+   * @return true if journal contains no records, also broken ones
+   */
+  public boolean isEmpty() {
+    return file.length() <= HEADER_LENGTH;
+  }
+
+  /**
+   * Delete journal.
+   */
+  public void delete() {
+    file.delete();
+  }
+
+}
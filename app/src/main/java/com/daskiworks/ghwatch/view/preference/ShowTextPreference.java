@@ -19,6 +19,8 @@ import android.content.Context;
 import android.preference.Preference;
 import android.util.AttributeSet;
 
+import com.daskiworks.ghwatch.backend.ServerInfoMetrics;
+
 /**
  * Preference object that shows String preference text value as Summary.
  * 
@@ -36,6 +38,16 @@ public class ShowTextPreference extends Preference {
 
   @Override
   public CharSequence getSummary() {
+    String v = getValueFromMetrics();
+    if (v != null)
+      return v;
     return getPreferenceManager().getSharedPreferences().getString(getKey(), "");
   }
+
+  /**
+   * @return current value from {@link ServerInfoMetrics} registry, null if not available there
+   */
+  protected String getValueFromMetrics() {
+    return ServerInfoMetrics.getInstance(getContext()).getValue(getKey());
+  }
 }
\ No newline at end of file
@@ -41,6 +41,14 @@ public class ShowTimestampPreference extends ShowTextPreference {
     SharedPreferences sp = getPreferenceManager().getSharedPreferences();
 
     long ts = -1;
+    String v = getValueFromMetrics();
+    if (v != null) {
+      try {
+        ts = Long.parseLong(v);
+      } catch (NumberFormatException e) {
+        Log.d(TAG, "Metrics value " + getKey() + " is not convertable to long number to show it as datetime");
+      }
+    }
     if (ts < 0) {
       try {
         ts = sp.getLong(getKey(), -1);